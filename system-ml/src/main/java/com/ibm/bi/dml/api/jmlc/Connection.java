@@ -71,7 +71,7 @@ public class Connection
 		DataExpression.REJECT_READ_UNKNOWN_SIZE = false;
 		DMLScript.rtplatform = RUNTIME_PLATFORM.SINGLE_NODE;
 		OptimizerUtils.PARALLEL_CP_READ_TEXTFORMATS = false;
-		CacheableData.disableCaching();
+		CacheableData.disableCaching(); //pure in-memory, no eviction
 		
 		//create default configuration
 		_conf = new DMLConfig();
@@ -25,10 +25,14 @@ import com.ibm.bi.dml.conf.DMLConfig;
 import com.ibm.bi.dml.parser.Expression.ValueType;
 import com.ibm.bi.dml.runtime.controlprogram.LocalVariableMap;
 import com.ibm.bi.dml.runtime.controlprogram.Program;
+import com.ibm.bi.dml.runtime.controlprogram.caching.CacheableData;
+import com.ibm.bi.dml.runtime.controlprogram.caching.LineageCache;
 import com.ibm.bi.dml.runtime.controlprogram.caching.MatrixObject;
 import com.ibm.bi.dml.runtime.controlprogram.context.ExecutionContext;
 import com.ibm.bi.dml.runtime.controlprogram.context.ExecutionContextFactory;
+import com.ibm.bi.dml.runtime.controlprogram.parfor.util.IDSequence;
 import com.ibm.bi.dml.runtime.instructions.cp.BooleanObject;
+import com.ibm.bi.dml.runtime.instructions.cp.Data;
 import com.ibm.bi.dml.runtime.instructions.cp.DoubleObject;
 import com.ibm.bi.dml.runtime.instructions.cp.IntObject;
 import com.ibm.bi.dml.runtime.instructions.cp.ScalarObject;
@@ -44,6 +48,11 @@ import com.ibm.bi.dml.runtime.util.DataConverter;
  * JMLC (Java Machine Learning Connector) API:
  * 
  * NOTE: Currently fused API and implementation in order to reduce complexity. 
+ * 
+ * A prepared script can be executed concurrently by multiple threads: the compiled
+ * runtime program is shared read-only, and every execution runs over its own copy of 
+ * the bound input parameters. Concurrent executions with different inputs bind their 
+ * inputs to separate copies of the prepared script (see copy()).
  */
 public class PreparedScript 
 {
@@ -52,10 +61,20 @@ public class PreparedScript
 	private HashSet<String> _inVarnames = null;
 	private HashSet<String> _outVarnames = null;
 	
-	//internal state (reused)
+	//internal state (reused, read-only)
 	private Program _prog = null;
+	
+	//bound input parameters (guarded by its lock)
 	private LocalVariableMap _vars = null; 
 	
+	//per-thread ids for scratch file names of inputs (unique w/ thread id)
+	private static ThreadLocal<IDSequence> _seq = new ThreadLocal<IDSequence>() {
+		@Override 
+		protected IDSequence initialValue() {
+			return new IDSequence();
+		}
+	};
+	
 	/**
 	 * Meant to be invoked only from Connection
 	 */
@@ -73,6 +92,19 @@ public class PreparedScript
 			_outVarnames.add( var );
 	}
 	
+	/**
+	 * Creates a copy of this prepared script, which shares the read-only
+	 * runtime program and input/output specification but has no bound
+	 * input parameters, e.g., for concurrent executions with different inputs.
+	 * 
+	 * @return
+	 */
+	public PreparedScript copy()
+	{
+		return new PreparedScript(_prog, _inVarnames.toArray(new String[0]), 
+				_outVarnames.toArray(new String[0]));
+	}
+	
 	/**
 	 * 
 	 * @param varname
@@ -85,7 +117,7 @@ public class PreparedScript
 		if( !_inVarnames.contains(varname) )
 			throw new DMLException("Unspecified input variable: "+varname);
 		
-		_vars.put(varname, scalar);
+		putVariable(varname, scalar);
 	}
 	
 	/**
@@ -101,7 +133,7 @@ public class PreparedScript
 			throw new DMLException("Unspecified input variable: "+varname);
 		
 		BooleanObject bo = new BooleanObject(varname, scalar);
-		_vars.put(varname, bo);
+		putVariable(varname, bo);
 	}
 	
 	/**
@@ -117,7 +149,7 @@ public class PreparedScript
 			throw new DMLException("Unspecified input variable: "+varname);
 		
 		IntObject io = new IntObject(varname, scalar);
-		_vars.put(varname, io);
+		putVariable(varname, io);
 	}
 	
 	/**
@@ -133,7 +165,7 @@ public class PreparedScript
 			throw new DMLException("Unspecified input variable: "+varname);
 		
 		DoubleObject doo = new DoubleObject(varname, scalar);
-		_vars.put(varname, doo);	
+		putVariable(varname, doo);	
 	}
 	
 	/**
@@ -149,7 +181,7 @@ public class PreparedScript
 			throw new DMLException("Unspecified input variable: "+varname);
 		
 		StringObject so = new StringObject(varname, scalar);
-		_vars.put(varname, so);
+		putVariable(varname, so);
 	}
 	
 	/**
@@ -172,12 +204,17 @@ public class PreparedScript
 		//create new matrix object
 		MatrixCharacteristics mc = new MatrixCharacteristics(matrix.getNumRows(), matrix.getNumColumns(), blocksize, blocksize);
 		MatrixFormatMetaData meta = new MatrixFormatMetaData(mc, OutputInfo.BinaryBlockOutputInfo, InputInfo.BinaryBlockInputInfo);
-		MatrixObject mo = new MatrixObject(ValueType.DOUBLE, scratch_space+"/"+varname, meta);
+		String fname = scratch_space+"/"+varname+"_"+Thread.currentThread().getId()+"_"+_seq.get().getNextID();
+		MatrixObject mo = new MatrixObject(ValueType.DOUBLE, fname, meta);
 		mo.acquireModify(matrix); 
 		mo.release();
 		
+		//trace lineage of bound input (for reuse across repeated executions)
+		if( CacheableData.CACHING_REUSE )
+			LineageCache.setInputLineage(mo);
+		
 		//put create matrix wrapper into symbol table
-		_vars.put(varname, mo);
+		putVariable(varname, mo);
 	}
 	
 	/**
@@ -202,7 +239,9 @@ public class PreparedScript
 	 */
 	public void clearParameters()
 	{
-		_vars.removeAll();
+		synchronized( _vars ) {
+			_vars.removeAll();
+		}
 	}
 	
 	/**
@@ -213,9 +252,14 @@ public class PreparedScript
 	public ResultVariables executeScript() 
 		throws DMLException
 	{
-		//create and populate execution context
+		//create and populate execution context (with a private copy of the 
+		//bound inputs in order to allow concurrent and repeated executions)
+		LocalVariableMap vars = new LocalVariableMap();
+		synchronized( _vars ) {
+			vars.putAll(_vars);
+		}
 		ExecutionContext ec = ExecutionContextFactory.createContext(_prog);	
-		ec.setVariables(_vars);
+		ec.setVariables(vars);
 		
 		//core execute runtime program	
 		_prog.execute( ec );  
@@ -223,9 +267,21 @@ public class PreparedScript
 		//construct results
 		ResultVariables rvars = new ResultVariables();
 		for( String ovar : _outVarnames )
-			if( _vars.keySet().contains(ovar) )
-				rvars.addResult(ovar, _vars.get(ovar));
+			if( vars.keySet().contains(ovar) )
+				rvars.addResult(ovar, vars.get(ovar));
 			
 		return rvars;
 	}
+	
+	/**
+	 * 
+	 * @param varname
+	 * @param data
+	 */
+	private void putVariable( String varname, Data data )
+	{
+		synchronized( _vars ) {
+			_vars.put(varname, data);
+		}
+	}
 }
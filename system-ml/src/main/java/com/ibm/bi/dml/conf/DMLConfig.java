@@ -67,6 +67,17 @@ public class DMLConfig
 	public static final String YARN_APPQUEUE    	= "dml.yarn.app.queue"; 
 	public static final String CP_PARALLEL_MATRIXMULT = "cp.parallel.matrixmult";
 	public static final String CP_PARALLEL_TEXTIO   = "cp.parallel.textio";
+	public static final String CP_PARALLEL_BINARYIO = "cp.parallel.binaryio";
+	public static final String CP_CACHING_COMPRESS  = "cp.caching.compress";
+	public static final String CP_CACHING_COMPRESS_LEVEL = "cp.caching.compress.level";
+	public static final String CP_CACHING_ASYNC     = "cp.caching.async";
+	public static final String CP_CACHING_POLICY    = "cp.caching.policy";
+	public static final String CP_CACHING_SPILLSTORE = "cp.caching.spillstore";
+	public static final String CP_CACHING_ARRAYPOOL = "cp.caching.arraypool";
+	public static final String CP_CACHING_REUSE     = "cp.caching.reuse";
+	public static final String SPARK_CHECKPOINT_COMPRESS = "spark.checkpoint.compress";
+	public static final String SPARK_CHECKPOINT_OFFHEAP  = "spark.checkpoint.offheap";
+	public static final String SPARK_AGGREGATION_DEPTH   = "spark.aggregation.depth";
 
 	//obsolete nimble configuration (removed 06/24/2015)
 	//public static final String NUM_MERGE_TASKS      = "NumMergeTasks";
@@ -107,6 +118,17 @@ public class DMLConfig
 		//_defaultVals.put(NIMBLE_SCRATCH,       "nimbleoutput" );	
 		_defaultVals.put(CP_PARALLEL_MATRIXMULT, "true" );
 		_defaultVals.put(CP_PARALLEL_TEXTIO,     "true" );
+		_defaultVals.put(CP_PARALLEL_BINARYIO,   "true" );
+		_defaultVals.put(CP_CACHING_COMPRESS,    "false" );
+		_defaultVals.put(CP_CACHING_COMPRESS_LEVEL, "1" );
+		_defaultVals.put(CP_CACHING_ASYNC,       "false" );
+		_defaultVals.put(CP_CACHING_POLICY,      "fifo" );
+		_defaultVals.put(CP_CACHING_SPILLSTORE,  "false" );
+		_defaultVals.put(CP_CACHING_ARRAYPOOL,   "false" );
+		_defaultVals.put(CP_CACHING_REUSE,       "false" );
+		_defaultVals.put(SPARK_CHECKPOINT_COMPRESS, "false" );
+		_defaultVals.put(SPARK_CHECKPOINT_OFFHEAP,  "false" );
+		_defaultVals.put(SPARK_AGGREGATION_DEPTH,   "1" );
 	}
 	
 	public DMLConfig()
@@ -420,7 +442,10 @@ public class DMLConfig
 				YARN_APPMASTER, YARN_APPMASTERMEM, YARN_MAPREDUCEMEM,
 				//NUM_MERGE_TASKS, NUM_SOW_THREADS,NUM_REAP_THREADS,
 				//SOWER_WAIT_INTERVAL,REAPER_WAIT_INTERVAL,NIMBLE_SCRATCH 
-				CP_PARALLEL_MATRIXMULT, CP_PARALLEL_TEXTIO
+				CP_PARALLEL_MATRIXMULT, CP_PARALLEL_TEXTIO, CP_PARALLEL_BINARYIO,
+				CP_CACHING_COMPRESS, CP_CACHING_COMPRESS_LEVEL, CP_CACHING_ASYNC,
+				CP_CACHING_POLICY, CP_CACHING_SPILLSTORE, CP_CACHING_ARRAYPOOL, CP_CACHING_REUSE,
+				SPARK_CHECKPOINT_COMPRESS, SPARK_CHECKPOINT_OFFHEAP, SPARK_AGGREGATION_DEPTH
 		}; 
 		
 		StringBuilder sb = new StringBuilder();
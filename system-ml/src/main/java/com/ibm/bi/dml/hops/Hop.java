@@ -29,6 +29,7 @@ import com.ibm.bi.dml.conf.ConfigurationManager;
 import com.ibm.bi.dml.conf.DMLConfig;
 import com.ibm.bi.dml.lops.CSVReBlock;
 import com.ibm.bi.dml.lops.Checkpoint;
+import com.ibm.bi.dml.lops.Checkpoint.CheckpointFormat;
 import com.ibm.bi.dml.lops.Data;
 import com.ibm.bi.dml.lops.Lop;
 import com.ibm.bi.dml.lops.LopsException;
@@ -367,24 +368,31 @@ public abstract class Hop
 		{
 			try
 			{
-				//investigate need for serialized storage of large sparse matrices
+				//investigate need for compact serialized storage of large matrices
 				//(compile- instead of runtime-level for better debugging)
-				boolean serializedStorage = false;
+				CheckpointFormat format = CheckpointFormat.DESERIALIZED;
 				if( dimsKnown(true) ) {
 					double matrixPSize = OptimizerUtils.estimatePartitionedSizeExactSparsity(_dim1, _dim2, _rows_in_block, _cols_in_block, _nnz);
 					double dataCache = SparkExecutionContext.getConfiguredTotalDataMemory(true);
-					serializedStorage = (MatrixBlock.evalSparseFormatInMemory(_dim1, _dim2, _nnz)
-							             && matrixPSize > dataCache ); //sparse in-memory does not fit in agg mem 
+					if( MatrixBlock.evalSparseFormatInMemory(_dim1, _dim2, _nnz)
+						&& matrixPSize > dataCache ) { //sparse in-memory does not fit in agg mem
+						//(no compact format for dense blocks, whose serialized size equals the in-memory size)
+						double matrixSSize = MatrixBlock.estimateSizeOnDisk(_dim1, _dim2, _nnz);
+						format = (OptimizerUtils.SPARK_CHECKPOINT_COMPRESS && matrixSSize > dataCache) ?
+								CheckpointFormat.COMPACT_COMPRESSED : CheckpointFormat.COMPACT;
+					}
 				}
 				else {
 					setRequiresRecompile();
 				}
 			
-				//construct checkpoint w/ right storage level
+				//construct checkpoint w/ right storage level and block format
+				//(serialized blocks are persisted off-heap if configured)
+				String level = Checkpoint.getDefaultStorageLevelString();
+				if( format != CheckpointFormat.DESERIALIZED && OptimizerUtils.SPARK_CHECKPOINT_OFFHEAP )
+					level = Checkpoint.getOffHeapStorageLevelString();
 				Lop input = getLops();			
-				Lop chkpoint = new Checkpoint(input, getDataType(), getValueType(), 
-						serializedStorage ? Checkpoint.getSerializeStorageLevelString() :
-								            Checkpoint.getDefaultStorageLevelString() );
+				Lop chkpoint = new Checkpoint(input, getDataType(), getValueType(), level, format);
 				
 				setOutputDimensions( chkpoint );
 				setLineNumbers( chkpoint );
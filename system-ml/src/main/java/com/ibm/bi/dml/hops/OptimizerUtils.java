@@ -18,6 +18,7 @@
 package com.ibm.bi.dml.hops;
 
 import java.util.HashMap;
+import java.util.zip.Deflater;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -33,6 +34,8 @@ import com.ibm.bi.dml.hops.rewrite.HopRewriteUtils;
 import com.ibm.bi.dml.lops.LopProperties.ExecType;
 import com.ibm.bi.dml.runtime.DMLRuntimeException;
 import com.ibm.bi.dml.runtime.controlprogram.LocalVariableMap;
+import com.ibm.bi.dml.runtime.controlprogram.caching.CacheableData;
+import com.ibm.bi.dml.runtime.controlprogram.caching.LazyWriteBuffer.RPolicy;
 import com.ibm.bi.dml.runtime.controlprogram.context.SparkExecutionContext;
 import com.ibm.bi.dml.runtime.controlprogram.parfor.stat.InfrastructureAnalyzer;
 import com.ibm.bi.dml.runtime.instructions.cp.Data;
@@ -54,6 +57,7 @@ public class OptimizerUtils
 	/**
 	 * Utilization factor used in deciding whether an operation to be scheduled on CP or MR. 
 	 * NOTE: it is important that MEM_UTIL_FACTOR+CacheableData.CACHING_BUFFER_SIZE < 1.0
+	 * (the local budget is further reduced by CacheableData.CACHING_REUSE_FRACTION if enabled)
 	 */
 	public static double MEM_UTIL_FACTOR = 0.7d;
 	
@@ -180,6 +184,14 @@ public class OptimizerUtils
 	public static boolean PARALLEL_CP_READ_TEXTFORMATS = true;
 	public static boolean PARALLEL_CP_WRITE_TEXTFORMATS = true;
 	
+	/**
+	 * Enables parallel read of binary formats (binarycell) and parallel 
+	 * write of binary formats (binaryblock). 
+	 * 
+	 */
+	public static boolean PARALLEL_CP_READ_BINARYFORMATS = true;
+	public static boolean PARALLEL_CP_WRITE_BINARYFORMATS = true;
+	
 	
 	/**
 	 * Specifies a multiplier computing the degree of parallelism of parallel
@@ -205,6 +217,24 @@ public class OptimizerUtils
 	 */
 	public static final boolean ALLOW_COMBINE_FILE_INPUT_FORMAT = true;
 	
+	/**
+	 * Enables deflate-compressed blocks for serialized rdd checkpoints of matrices whose 
+	 * compact serialized representation still exceeds the aggregated data memory, and 
+	 * off-heap storage for serialized rdd checkpoints, respectively.
+	 * 
+	 */
+	public static boolean SPARK_CHECKPOINT_COMPRESS = false;
+	public static boolean SPARK_CHECKPOINT_OFFHEAP = false;
+	
+	/**
+	 * Specifies the depth of multi-level (tree) aggregation of partial aggregates
+	 * for single-block outputs on spark, where 1 refers to a flat reduce at the driver.
+	 * By default, we use a flat reduce because tree aggregation adds a shuffle stage
+	 * and was measured 2x slower for common numbers of partitions.
+	 * 
+	 */
+	public static int SPARK_AGGREGATION_DEPTH = 1;
+	
 	
 	//////////////////////
 	// Optimizer levels //
@@ -356,11 +386,60 @@ public class OptimizerUtils
 			//disable parallel text read
 			PARALLEL_CP_READ_TEXTFORMATS = false;
 		}
+		
+		//handle parallel binary io
+		if (!ConfigurationManager.getConfig().getBooleanValue(DMLConfig.CP_PARALLEL_BINARYIO)) {
+			PARALLEL_CP_READ_BINARYFORMATS = false;
+			PARALLEL_CP_WRITE_BINARYFORMATS = false;
+		}
 
 		//handle parallel matrix mult / rand configuration
 		if (!ConfigurationManager.getConfig().getBooleanValue(DMLConfig.CP_PARALLEL_MATRIXMULT)) {
 			PARALLEL_CP_MATRIX_MULTIPLY = false;
-		}	
+		}
+		
+		//handle compressed write buffer and eviction files (deflate, level 1-9)
+		CacheableData.CACHING_BUFFER_COMPRESS = 
+				ConfigurationManager.getConfig().getBooleanValue(DMLConfig.CP_CACHING_COMPRESS);
+		CacheableData.CACHING_BUFFER_COMPRESS_LEVEL = Math.max(Deflater.BEST_SPEED, Math.min(Deflater.BEST_COMPRESSION,
+				ConfigurationManager.getConfig().getIntValue(DMLConfig.CP_CACHING_COMPRESS_LEVEL)));
+		
+		//handle asynchronous cache io (eviction writes, prefetch)
+		CacheableData.CACHING_ASYNC_IO = 
+				ConfigurationManager.getConfig().getBooleanValue(DMLConfig.CP_CACHING_ASYNC);
+		
+		//handle memory-mapped spill store (not used for compressed eviction)
+		CacheableData.CACHING_SPILL_STORE = 
+				ConfigurationManager.getConfig().getBooleanValue(DMLConfig.CP_CACHING_SPILLSTORE)
+				&& !CacheableData.CACHING_BUFFER_COMPRESS;
+		
+		//handle pooling of dense arrays and temporary buffers
+		CacheableData.CACHING_ARRAY_POOL = 
+				ConfigurationManager.getConfig().getBooleanValue(DMLConfig.CP_CACHING_ARRAYPOOL);
+		
+		//handle reuse of intermediates by lineage
+		CacheableData.CACHING_REUSE = 
+				ConfigurationManager.getConfig().getBooleanValue(DMLConfig.CP_CACHING_REUSE);
+		
+		//handle compressed and off-heap serialized rdd checkpoints
+		SPARK_CHECKPOINT_COMPRESS = 
+				ConfigurationManager.getConfig().getBooleanValue(DMLConfig.SPARK_CHECKPOINT_COMPRESS);
+		SPARK_CHECKPOINT_OFFHEAP = 
+				ConfigurationManager.getConfig().getBooleanValue(DMLConfig.SPARK_CHECKPOINT_OFFHEAP);
+		
+		//handle tree aggregation depth for single-block aggregates
+		SPARK_AGGREGATION_DEPTH = Math.max(1, 
+				ConfigurationManager.getConfig().getIntValue(DMLConfig.SPARK_AGGREGATION_DEPTH));
+		
+		//handle write buffer eviction policy (fifo, lru, cost)
+		String policy = ConfigurationManager.getConfig().getTextValue(DMLConfig.CP_CACHING_POLICY);
+		try {
+			CacheableData.CACHING_BUFFER_POLICY = RPolicy.valueOf(policy.trim().toUpperCase());
+		}
+		catch(Exception ex) {
+			LOG.warn("Unknown caching policy '"+policy+"', using default "+RPolicy.FIFO.name()+".");
+			CacheableData.CACHING_BUFFER_POLICY = RPolicy.FIFO;
+		}
 	}
 	
 	/**
@@ -384,7 +463,11 @@ public class OptimizerUtils
 	public static double getLocalMemBudget()
 	{
 		double ret = InfrastructureAnalyzer.getLocalMaxMemory();
-		return ret * OptimizerUtils.MEM_UTIL_FACTOR;
+		double factor = OptimizerUtils.MEM_UTIL_FACTOR;
+		//reserve memory for cached intermediates of runtime reuse 
+		if( CacheableData.CACHING_REUSE )
+			factor -= CacheableData.CACHING_REUSE_FRACTION;
+		return ret * factor;
 	}
 	
 	/**
@@ -573,6 +656,44 @@ public class OptimizerUtils
 		return (int) Math.round(dop);
 	}
 	
+	/**
+	 * Returns the degree of parallelism used for parallel binary read. 
+	 * This is computed as the number of virtual cores scales by the 
+	 * PARALLEL_READ_PARALLELISM_MULTIPLIER. If PARALLEL_READ_BINARYFORMATS
+	 * is disabled, this method returns 1.
+	 * 
+	 * @return
+	 */
+	public static int getParallelBinaryReadParallelism()
+	{
+		if( !PARALLEL_CP_READ_BINARYFORMATS )
+			return 1; // sequential execution
+
+		//compute degree of parallelism for parallel binary read
+		double dop = InfrastructureAnalyzer.getLocalParallelism()
+				     * PARALLEL_CP_READ_PARALLELISM_MULTIPLIER;
+		return (int) Math.round(dop);
+	}
+	
+	/**
+	 * Returns the degree of parallelism used for parallel binary write. 
+	 * This is computed as the number of virtual cores scales by the 
+	 * PARALLEL_WRITE_PARALLELISM_MULTIPLIER. If PARALLEL_WRITE_BINARYFORMATS
+	 * is disabled, this method returns 1.
+	 * 
+	 * @return
+	 */
+	public static int getParallelBinaryWriteParallelism()
+	{
+		if( !PARALLEL_CP_WRITE_BINARYFORMATS )
+			return 1; // sequential execution
+
+		//compute degree of parallelism for parallel binary write
+		double dop = InfrastructureAnalyzer.getLocalParallelism()
+				     * PARALLEL_CP_WRITE_PARALLELISM_MULTIPLIER;
+		return (int) Math.round(dop);
+	}
+	
 	
 	////////////////////////
 	// Memory Estimates   //
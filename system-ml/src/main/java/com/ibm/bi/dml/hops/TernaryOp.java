@@ -17,6 +17,7 @@
 
 package com.ibm.bi.dml.hops;
 
+import com.ibm.bi.dml.hops.Hop.MultiThreadedHop;
 import com.ibm.bi.dml.hops.rewrite.HopRewriteUtils;
 import com.ibm.bi.dml.lops.Aggregate;
 import com.ibm.bi.dml.lops.CentralMoment;
@@ -37,6 +38,8 @@ import com.ibm.bi.dml.parser.Statement;
 import com.ibm.bi.dml.parser.Expression.DataType;
 import com.ibm.bi.dml.parser.Expression.ValueType;
 import com.ibm.bi.dml.runtime.matrix.MatrixCharacteristics;
+import com.ibm.bi.dml.runtime.matrix.data.CTableMap;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
 
 /* Primary use cases for now, are
  * 		quantile (<n-1-matrix>, <n-1-matrix>, <literal>):      quantile (A, w, 0.5)
@@ -52,7 +55,7 @@ import com.ibm.bi.dml.runtime.matrix.MatrixCharacteristics;
  * however, since there does not exist a real TernaryOp yet - we can leave it as is for now. 
  */
 
-public class TernaryOp extends Hop 
+public class TernaryOp extends Hop implements MultiThreadedHop
 {
 	
 	public static boolean ALLOW_CTABLE_SEQUENCE_REWRITES = true;
@@ -64,6 +67,7 @@ public class TernaryOp extends Hop
 	private boolean _dimInputsPresent = false;
 	private boolean _disjointInputs = false;
 	
+	private int _maxNumThreads = -1; //-1 for unlimited
 	
 	private TernaryOp() {
 		//default constructor for clone
@@ -107,9 +111,19 @@ public class TernaryOp extends Hop
 	public void setDisjointInputs(boolean flag){
 		_disjointInputs = flag;
 	}
-	
+
+	@Override
+	public void setMaxNumThreads( int k ) {
+		_maxNumThreads = k;
+	}
+
+	@Override
+	public int getMaxNumThreads() {
+		return _maxNumThreads;
+	}
+
 	@Override
-	public Lop constructLops() 
+	public Lop constructLops()
 		throws HopsException, LopsException 
 	{	
 		//return already created lops
@@ -398,6 +412,8 @@ public class TernaryOp extends Hop
 			Ternary tertiary = new Ternary(inputLops, tertiaryOp, getDataType(), getValueType(), ignoreZeros, et);
 			
 			tertiary.getOutputParameters().setDimensions(_dim1, _dim2, getRowsInBlock(), getColsInBlock(), -1);
+			if( et == ExecType.CP ) //multi-threaded hash-based ctable
+				tertiary.setNumThreads( OptimizerUtils.getConstrainedNumThreads(_maxNumThreads) );
 			tertiary.setAllPositions(this.getBeginLine(), this.getBeginColumn(), this.getEndLine(), this.getEndColumn());
 			
 			//force blocked output in CP (see below), otherwise binarycell
@@ -677,12 +693,15 @@ public class TernaryOp extends Hop
 		if( _op == OpOp3.CTABLE ) {
 			if ( _dim1 > 0 && _dim2 > 0 ) {
 				// output dimensions are known, and hence a MatrixBlock is allocated
-				double sp = OptimizerUtils.getSparsity(_dim1, _dim2, Math.min(nnz, _dim1));
+				long cells = Math.min(nnz, _dim1);
+				double sp = OptimizerUtils.getSparsity(_dim1, _dim2, cells);
 				ret = OptimizerUtils.estimateSizeExactSparsity(_dim1, _dim2, sp );
+				// sparse outputs are computed via ctable maps (see TernaryCPInstruction)
+				if( MatrixBlock.evalSparseFormatInMemory(_dim1, _dim2, cells) )
+					ret += computeCTableMapMemEstimate(cells);
 			}
 			else {
-				ret =  2*4 * dim1 + //hash table (worst-case overhead 2x)
-						  32 * dim1; //values: 2xint,1xObject
+				ret = computeCTableMapMemEstimate(dim1);
 			}
 		}
 		else if ( _op == OpOp3.QUANTILE ) {
@@ -694,6 +713,23 @@ public class TernaryOp extends Hop
 		return ret;
 	}
 	
+	/**
+	 * Estimates the memory of the ctable hash maps for the given max number of 
+	 * distinct cells, i.e., the result map and, for multi-threaded ctable, the
+	 * k thread-local maps over disjoint row partitions of the input.
+	 * 
+	 * @param numCells
+	 * @return
+	 */
+	private double computeCTableMapMemEstimate( long numCells )
+	{
+		double ret = CTableMap.estimateSizeInMemory(numCells);
+		int k = OptimizerUtils.getConstrainedNumThreads(_maxNumThreads);
+		if( k > 1 )
+			ret += k * CTableMap.estimateSizeInMemory((long)Math.ceil((double)numCells/k));
+		return ret;
+	}
+	
 	@Override
 	protected long[] inferOutputCharacteristics( MemoTable memo )
 	{
@@ -861,6 +897,7 @@ public class TernaryOp extends Hop
 		ret._op = _op;
 		ret._dimInputsPresent  = _dimInputsPresent;
 		ret._disjointInputs    = _disjointInputs;
+		ret._maxNumThreads     = _maxNumThreads;
 		
 		return ret;
 	}
@@ -888,7 +925,8 @@ public class TernaryOp extends Hop
 		
 		//compare optimizer hints and parameters
 		ret &= _disjointInputs == that2._disjointInputs
-			&& _outputEmptyBlocks == that2._outputEmptyBlocks;
+			&& _outputEmptyBlocks == that2._outputEmptyBlocks
+			&& _maxNumThreads == that2._maxNumThreads;
 		
 		return ret;
 	}
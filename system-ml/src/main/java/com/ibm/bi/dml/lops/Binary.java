@@ -159,6 +159,23 @@ public class Binary extends Lop
 		}
 	}
 	
+	/**
+	 * Indicates if the given operation is executed via multi-threaded cellwise 
+	 * arithmetic or relational CP instructions (which accept a degree of parallelism).
+	 * 
+	 * @param op
+	 * @return
+	 */
+	public static boolean isMultiThreadedOp( OperationTypes op ) {
+		return op==OperationTypes.ADD || op==OperationTypes.SUBTRACT
+			|| op==OperationTypes.MULTIPLY || op==OperationTypes.DIVIDE
+			|| op==OperationTypes.MINUS1_MULTIPLY || op==OperationTypes.MODULUS
+			|| op==OperationTypes.INTDIV || op==OperationTypes.POW
+			|| op==OperationTypes.LESS_THAN || op==OperationTypes.LESS_THAN_OR_EQUALS
+			|| op==OperationTypes.GREATER_THAN || op==OperationTypes.GREATER_THAN_OR_EQUALS
+			|| op==OperationTypes.EQUALS || op==OperationTypes.NOT_EQUALS;
+	}
+	
 	@Override
 	public String getInstructions(String input1, String input2, String output) 
 		throws LopsException 
@@ -177,8 +194,8 @@ public class Binary extends Lop
 		
 		sb.append( this.prepOutputOperand(output));
 		
-		//append degree of parallelism for matrix multiplications
-		if( operation == OperationTypes.MATMULT && getExecType()==ExecType.CP ) {
+		//append degree of parallelism for matrix multiplications and cellwise operations
+		if( getExecType()==ExecType.CP && (operation == OperationTypes.MATMULT || isMultiThreadedOp(operation)) ) {
 			sb.append( OPERAND_DELIMITOR );
 			sb.append( numThreads );
 		}	
@@ -42,9 +42,22 @@ public class Checkpoint extends Lop
 	
 	public static final StorageLevel DEFAULT_STORAGE_LEVEL = StorageLevel.MEMORY_AND_DISK();
 	public static final StorageLevel SER_STORAGE_LEVEL = StorageLevel.MEMORY_AND_DISK_SER();
+	public static final StorageLevel OFF_HEAP_STORAGE_LEVEL = StorageLevel.OFF_HEAP();
 	public static final String STORAGE_LEVEL = "storage.level"; 
 
+	/**
+	 * Block format of checkpointed rdds: deserialized matrix blocks, or our compact
+	 * serialized block representation w/o or w/ compression (deserialized lazily 
+	 * per task on access, see SerializedMatrixBlock).
+	 */
+	public enum CheckpointFormat {
+		DESERIALIZED,
+		COMPACT,
+		COMPACT_COMPRESSED,
+	}
+	
 	private StorageLevel _storageLevel;
+	private CheckpointFormat _format;
 	
 
 	/**
@@ -60,12 +73,28 @@ public class Checkpoint extends Lop
 	 */
 	public Checkpoint(Lop input, DataType dt, ValueType vt, String level) 
 		throws LopsException
+	{
+		this(input, dt, vt, level, CheckpointFormat.DESERIALIZED);
+	}
+	
+	/**
+	 * 
+	 * @param input
+	 * @param dt
+	 * @param vt
+	 * @param level
+	 * @param format
+	 * @throws LopsException
+	 */
+	public Checkpoint(Lop input, DataType dt, ValueType vt, String level, CheckpointFormat format) 
+		throws LopsException
 	{
 		super(Lop.Type.Checkpoint, dt, vt);		
 		this.addInput(input);
 		input.addOutput(this);
 		
 		_storageLevel = StorageLevel.fromString(level);
+		_format = format;
 		
 		boolean breaksAlignment = false;
 		boolean aligner = false;
@@ -85,9 +114,14 @@ public class Checkpoint extends Lop
 		_storageLevel = level;
 	}
 	
+	public CheckpointFormat getFormat()
+	{
+		return _format;
+	}
+	
 	@Override
 	public String toString() {
-		return "Checkpoint - storage.level = " + _storageLevel.toString();
+		return "Checkpoint - storage.level = " + _storageLevel.toString() + ", format = " + _format.name();
 	}
 	
 	@Override
@@ -109,6 +143,8 @@ public class Checkpoint extends Lop
 		sb.append( prepOutputOperand(output));
 		sb.append( OPERAND_DELIMITOR );
 		sb.append( getStorageLevelString(_storageLevel) );
+		sb.append( OPERAND_DELIMITOR );
+		sb.append( _format.name() );
 		
 		return sb.toString();
 
@@ -145,6 +181,8 @@ public class Checkpoint extends Lop
 			return "DISK_ONLY";
 		else if( StorageLevel.DISK_ONLY_2().equals(level) )
 			return "DISK_ONLY_2";
+		else if( StorageLevel.OFF_HEAP().equals(level) )
+			return "OFF_HEAP";
 		
 		return "INVALID";
 	}
@@ -164,4 +202,12 @@ public class Checkpoint extends Lop
 	public static String getSerializeStorageLevelString() {
 		return getStorageLevelString( SER_STORAGE_LEVEL );
 	}
+	
+	/**
+	 * 
+	 * @return
+	 */
+	public static String getOffHeapStorageLevelString() {
+		return getStorageLevelString( OFF_HEAP_STORAGE_LEVEL );
+	}
 }
\ No newline at end of file
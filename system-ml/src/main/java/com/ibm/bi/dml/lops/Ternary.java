@@ -35,6 +35,9 @@ public class Ternary extends Lop
 	
 	private boolean _ignoreZeros = false;
 	
+	//cp-specific parameters
+	private int _numThreads = 1;
+	
 	public enum OperationTypes { 
 		CTABLE_TRANSFORM, 
 		CTABLE_TRANSFORM_SCALAR_WEIGHT, 
@@ -56,6 +59,10 @@ public class Ternary extends Lop
 		_ignoreZeros = ignoreZeros;
 	}
 	
+	public void setNumThreads(int k) {
+		_numThreads = k;
+	}
+	
 	private void init(Lop[] inputLops, OperationTypes op, ExecType et) {
 		operation = op;
 		
@@ -188,6 +195,12 @@ public class Ternary extends Lop
 		sb.append( OPERAND_DELIMITOR );
 		sb.append( _ignoreZeros );
 		
+		//append degree of parallelism for hash-based ctable
+		if( getExecType()==ExecType.CP && operation != Ternary.OperationTypes.CTABLE_EXPAND_SCALAR_WEIGHT ) {
+			sb.append( OPERAND_DELIMITOR );
+			sb.append( _numThreads );
+		}
+		
 		return sb.toString();
 	}
 
@@ -43,6 +43,9 @@ public class Transform extends Lop
 	
 	private OperationTypes operation = null;
 	
+	//cp-specific parameters
+	private int _numThreads = 1;
+	
 	/**
 	 * Constructor when we have one input.
 	 * @param input
@@ -120,6 +123,10 @@ public class Transform extends Lop
 	{
 		return operation;
 	}
+	
+	public void setNumThreads(int k) {
+		_numThreads = k;
+	}
 
 	private String getOpcode() {
 		switch(operation) {
@@ -160,6 +167,12 @@ public class Transform extends Lop
 		sb.append( OPERAND_DELIMITOR );
 		sb.append( this.prepOutputOperand(output));
 		
+		//append degree of parallelism for multi-threaded transpose
+		if( getExecType()==ExecType.CP && operation == OperationTypes.Transpose ) {
+			sb.append( OPERAND_DELIMITOR );
+			sb.append( _numThreads );
+		}
+		
 		return sb.toString();
 	}
 
@@ -194,6 +207,12 @@ public class Transform extends Lop
 			sb.append( _bSortIndInMem);
 		}
 		
+		//append degree of parallelism for multi-threaded sort
+		if( getExecType()==ExecType.CP && operation == OperationTypes.Sort ) {
+			sb.append( OPERAND_DELIMITOR );
+			sb.append( _numThreads );
+		}
+		
 		return sb.toString();
 	}
 	
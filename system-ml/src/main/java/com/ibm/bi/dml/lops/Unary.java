@@ -44,6 +44,9 @@ public class Unary extends Lop
 	OperationTypes operation;
 
 	Lop valInput;
+	
+	//cp-specific parameters
+	private int _numThreads = 1;
 
 	/**
 	 * Constructor to perform a unary operation with 2 inputs
@@ -149,6 +152,50 @@ public class Unary extends Lop
 		}
 	}
 
+	public void setNumThreads(int k) {
+		_numThreads = k;
+	}
+	
+	/**
+	 * Indicates if the given operation is executed via multi-threaded matrix-scalar
+	 * arithmetic or relational CP instructions (which accept a degree of parallelism).
+	 * 
+	 * @param op
+	 * @return
+	 */
+	public static boolean isMultiThreadedOp( OperationTypes op ) {
+		return op==OperationTypes.ADD || op==OperationTypes.SUBTRACT
+			|| op==OperationTypes.SUBTRACT_NZ || op==OperationTypes.MULTIPLY 
+			|| op==OperationTypes.MULTIPLY2 || op==OperationTypes.DIVIDE
+			|| op==OperationTypes.MINUS1_MULTIPLY || op==OperationTypes.MODULUS
+			|| op==OperationTypes.INTDIV || op==OperationTypes.POW
+			|| op==OperationTypes.POW2 
+			|| op==OperationTypes.LESS_THAN || op==OperationTypes.LESS_THAN_OR_EQUALS
+			|| op==OperationTypes.GREATER_THAN || op==OperationTypes.GREATER_THAN_OR_EQUALS
+			|| op==OperationTypes.EQUALS || op==OperationTypes.NOT_EQUALS;
+	}
+	
+	/**
+	 * Indicates if the given operation is executed via multi-threaded unary builtin
+	 * or cumulative aggregate CP instructions (which accept a degree of parallelism).
+	 * 
+	 * @param op
+	 * @return
+	 */
+	public static boolean isMultiThreadedUnaryOp( OperationTypes op ) {
+		return op==OperationTypes.CUMSUM || op==OperationTypes.CUMPROD
+			|| op==OperationTypes.CUMMIN || op==OperationTypes.CUMMAX
+			|| op==OperationTypes.EXP || op==OperationTypes.LOG
+			|| op==OperationTypes.LOG_NZ || op==OperationTypes.SQRT
+			|| op==OperationTypes.ABS || op==OperationTypes.ROUND
+			|| op==OperationTypes.CEIL || op==OperationTypes.FLOOR
+			|| op==OperationTypes.SIN || op==OperationTypes.COS
+			|| op==OperationTypes.TAN || op==OperationTypes.ASIN
+			|| op==OperationTypes.ACOS || op==OperationTypes.ATAN
+			|| op==OperationTypes.SIGMOID || op==OperationTypes.SPROP
+			|| op==OperationTypes.SELP;
+	}
+
 	@Override
 	public String toString() {
 		if (valInput != null)
@@ -308,6 +355,12 @@ public class Unary extends Lop
 			sb.append( OPERAND_DELIMITOR );
 			sb.append( this.prepOutputOperand(output));
 			
+			//append degree of parallelism for unary builtins and cumulative aggregates
+			if( getExecType()==ExecType.CP && isMultiThreadedUnaryOp(operation) ) {
+				sb.append( OPERAND_DELIMITOR );
+				sb.append( _numThreads );
+			}
+			
 			return sb.toString();
 
 		} else {
@@ -351,6 +404,12 @@ public class Unary extends Lop
 		
 		sb.append( this.prepOutputOperand(output));
 		
+		//append degree of parallelism for matrix-scalar operations
+		if( getExecType()==ExecType.CP && isMultiThreadedOp(operation) ) {
+			sb.append( OPERAND_DELIMITOR );
+			sb.append( _numThreads );
+		}
+		
 		return sb.toString();
 	}
 	
@@ -18,6 +18,7 @@
 package com.ibm.bi.dml.runtime.controlprogram;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -28,15 +29,22 @@ import com.ibm.bi.dml.hops.Hop;
 import com.ibm.bi.dml.hops.OptimizerUtils;
 import com.ibm.bi.dml.hops.recompile.Recompiler;
 import com.ibm.bi.dml.parser.StatementBlock;
+import com.ibm.bi.dml.parser.VariableSet;
+import com.ibm.bi.dml.parser.Expression.DataType;
 import com.ibm.bi.dml.parser.Expression.ValueType;
 import com.ibm.bi.dml.runtime.DMLRuntimeException;
 import com.ibm.bi.dml.runtime.DMLScriptException;
 import com.ibm.bi.dml.runtime.DMLUnsupportedOperationException;
+import com.ibm.bi.dml.runtime.controlprogram.caching.CacheableData;
+import com.ibm.bi.dml.runtime.controlprogram.caching.LazyWriteBuffer;
+import com.ibm.bi.dml.runtime.controlprogram.caching.LazyWriteBuffer.RPolicy;
+import com.ibm.bi.dml.runtime.controlprogram.caching.LineageCache;
 import com.ibm.bi.dml.runtime.controlprogram.caching.MatrixObject;
 import com.ibm.bi.dml.runtime.controlprogram.context.ExecutionContext;
 import com.ibm.bi.dml.runtime.instructions.Instruction;
 import com.ibm.bi.dml.runtime.instructions.cp.BooleanObject;
 import com.ibm.bi.dml.runtime.instructions.cp.ComputationCPInstruction;
+import com.ibm.bi.dml.runtime.instructions.cp.CPOperand;
 import com.ibm.bi.dml.runtime.instructions.cp.Data;
 import com.ibm.bi.dml.runtime.instructions.cp.DoubleObject;
 import com.ibm.bi.dml.runtime.instructions.cp.IntObject;
@@ -163,10 +171,46 @@ public class ProgramBlock
 			throw new DMLRuntimeException("Unable to recompile program block.", ex);
 		}
 		
+		//update liveness hints for cost-based buffer eviction
+		if( CacheableData.CACHING_BUFFER_POLICY == RPolicy.COST && _sb != null )
+			updateLiveHints(ec);
+		
 		//actual instruction execution
 		executeInstructions(tmp, ec);
 	}
 	
+	/**
+	 * Marks all matrix objects that are live-out of this program block as live,
+	 * which prevents their eviction in favor of dead intermediates, and resets 
+	 * the hints of all other matrix objects of the current scope (otherwise, 
+	 * matrices that were once live-out of any block would remain live).
+	 * 
+	 * @param ec
+	 */
+	private void updateLiveHints( ExecutionContext ec )
+	{
+		VariableSet liveOut = _sb.liveOut();
+		if( liveOut == null )
+			return;
+		
+		//collect live-out matrix objects (a matrix object might be 
+		//bound to both live-out and dead variables)
+		LocalVariableMap vars = ec.getVariables();
+		HashSet<MatrixObject> live = new HashSet<MatrixObject>();
+		for( String varname : liveOut.getVariableNames() ) {
+			Data dat = vars.get(varname);
+			if( dat instanceof MatrixObject )
+				live.add((MatrixObject)dat);
+		}
+		
+		//set or reset liveness hints of all matrix objects 
+		for( String varname : vars.keySet() ) {
+			Data dat = vars.get(varname);
+			if( dat instanceof MatrixObject )
+				((MatrixObject)dat).setLiveHint(live.contains(dat));
+		}
+	}
+	
 	/**
 	 * Executes given predicate instructions (incl recompilation if required)
 	 * 
@@ -220,12 +264,54 @@ public class ProgramBlock
 			//indexed access required due to dynamic add
 			Instruction currInst = inst.get(i);
 			
+			//prefetch evicted inputs of upcoming instructions
+			if( CacheableData.CACHING_ASYNC_IO )
+				prefetchInputs(inst, i+1, ec);
+			
 			//execute instruction
 			ec.updateDebugState(i);
 			executeSingleInstruction(currInst, ec);
 		}
 	}
 	
+	/**
+	 * Triggers the asynchronous restore of evicted matrix inputs of the CP instructions
+	 * in the given lookahead window (starting at pos), in order to overlap cache reads
+	 * with the execution of the current instruction.
+	 * 
+	 * @param inst
+	 * @param pos
+	 * @param ec
+	 */
+	private void prefetchInputs( ArrayList<Instruction> inst, int pos, ExecutionContext ec )
+	{
+		int end = Math.min(pos+CacheableData.CACHING_PREFETCH_DEPTH, inst.size());
+		for( int j=pos; j<end; j++ ) 
+		{
+			Instruction tmp = inst.get(j);
+			if( tmp instanceof ComputationCPInstruction ) {
+				ComputationCPInstruction cpinst = (ComputationCPInstruction) tmp;
+				prefetchInput(cpinst.input1, ec);
+				prefetchInput(cpinst.input2, ec);
+				prefetchInput(cpinst.input3, ec);
+			}
+		}
+	}
+	
+	/**
+	 * 
+	 * @param input
+	 * @param ec
+	 */
+	private void prefetchInput( CPOperand input, ExecutionContext ec )
+	{
+		if( input != null && input.getDataType() == DataType.MATRIX ) {
+			Data dat = ec.getVariables().get(input.getName());
+			if( dat instanceof MatrixObject && ((MatrixObject)dat).isPrefetchable() )
+				LazyWriteBuffer.prefetchMatrix((MatrixObject)dat);
+		}
+	}
+	
 	/**
 	 * 
 	 * @param inst
@@ -303,8 +389,15 @@ public class ProgramBlock
 			// pre-process instruction (debug state, inst patching, listeners)
 			Instruction tmp = currInst.preprocessInstruction( ec );
 			
-			// process actual instruction
-			tmp.processInstruction( ec );
+			// attribute tasks of multi-threaded operations to this instruction
+			if( DMLScript.STATISTICS )
+				Statistics.setCurrentCPInstruction( tmp.getExtendedOpcode() );
+			
+			// process actual instruction (w/ reuse of intermediates if enabled)
+			if( CacheableData.CACHING_REUSE && tmp instanceof ComputationCPInstruction )
+				LineageCache.executeInstruction( (ComputationCPInstruction)tmp, ec );
+			else
+				tmp.processInstruction( ec );
 			
 			// post-process instruction (debug) 
 			tmp.postprocessInstruction( ec );
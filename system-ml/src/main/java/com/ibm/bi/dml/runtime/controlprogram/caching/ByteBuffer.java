@@ -17,29 +17,53 @@
 
 package com.ibm.bi.dml.runtime.controlprogram.caching;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.DataOutput;
 import java.io.IOException;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
 
+import com.ibm.bi.dml.api.DMLScript;
 import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
+import com.ibm.bi.dml.runtime.util.FastBufferedDataInputStream;
+import com.ibm.bi.dml.runtime.util.FastBufferedDataOutputStream;
 import com.ibm.bi.dml.runtime.util.LocalFileUtils;
 
 /**
  * Wrapper for WriteBuffer byte array per matrix in order to
  * support matrix serialization outside global lock.
  * 
+ * In compressed mode (see CacheableData.CACHING_BUFFER_COMPRESS), both sparse
+ * and dense matrices up to a maximum size are deep serialized into a deflate-compressed 
+ * byte array, which is also written as is on eviction (i.e., compressed eviction files).
+ * 
  */
 public class ByteBuffer
 {
 	private boolean _serialized;	
 	private boolean _sparse;
+	private boolean _compressed;
 	private long _size;
 	
-	protected byte[]       _bdata = null; //sparse matrix
+	//meta data for cost-based eviction (maintained under queue lock)
+	private long _lastAccess = 0;
+	private boolean _live = false;
+	
+	protected byte[]       _bdata = null; //sparse or compressed matrix
 	protected MatrixBlock  _mdata = null; //dense matrix
 	
 	public ByteBuffer( long size )
+	{
+		this( size, false );
+	}
+	
+	public ByteBuffer( long size, boolean compressed )
 	{
 		_size = size;
+		_compressed = compressed;
 		_serialized = false;
 	}
 	
@@ -57,7 +81,17 @@ public class ByteBuffer
 		
 		try
 		{
-			if( _sparse ) //SPARSE/DENSE -> SPARSE
+			if( _compressed ) //SPARSE/DENSE -> COMPRESSED
+			{
+				//deep serialize into compressed byte array, where the
+				//buffer size is updated to the actual compressed size
+				long t0 = DMLScript.STATISTICS ? System.nanoTime() : 0;
+				_bdata = compress(mb, (int)Math.min(_size, LocalFileUtils.BUFFER_SIZE*128));
+				if( DMLScript.STATISTICS )
+					CacheStatistics.incrementCompression(_size, _bdata.length, System.nanoTime()-t0);
+				_size = _bdata.length;
+			}
+			else if( _sparse ) //SPARSE/DENSE -> SPARSE
 			{
 				//deep serialize (for compression)
 				if( CacheableData.CACHING_BUFFER_PAGECACHE )
@@ -97,7 +131,14 @@ public class ByteBuffer
 	{
 		MatrixBlock ret = null;
 		
-		if( _sparse )
+		if( _compressed )
+		{
+			long t0 = DMLScript.STATISTICS ? System.nanoTime() : 0;
+			ret = decompress(_bdata);
+			if( DMLScript.STATISTICS )
+				CacheStatistics.incrementDecompressionTime(System.nanoTime()-t0);
+		}
+		else if( _sparse )
 		{
 			//ByteArrayInputStream bis = new ByteArrayInputStream(_bdata);
 			//DataInputStream din = new DataInputStream(bis); 
@@ -121,7 +162,20 @@ public class ByteBuffer
 	public void evictBuffer( String fname ) 
 		throws IOException
 	{
-		if( _sparse )
+		if( _compressed )
+		{
+			//write out compressed byte array as is
+			LocalFileUtils.writeByteArrayToLocal(fname, _bdata);
+		}
+		else if( CacheableData.CACHING_SPILL_STORE )
+		{
+			//write into spill store (byte array or dense bulk copy)
+			if( _sparse )
+				MappedSpillStore.writeByteArray(fname, _bdata);
+			else
+				MappedSpillStore.writeMatrix(fname, _mdata);
+		}
+		else if( _sparse )
 		{
 			//write out byte serialized array
 			LocalFileUtils.writeByteArrayToLocal(fname, _bdata);
@@ -152,10 +206,43 @@ public class ByteBuffer
 		return _sparse;
 	}
 	
+	/**
+	 * 
+	 * @return
+	 */
+	public boolean isCompressed()
+	{
+		return _compressed;
+	}
+	
+	public long getLastAccess()
+	{
+		return _lastAccess;
+	}
+	
+	public void setLastAccess( long time )
+	{
+		_lastAccess = time;
+	}
+	
+	public boolean isLive()
+	{
+		return _live;
+	}
+	
+	public void setLive( boolean flag )
+	{
+		_live = flag;
+	}
+	
 	public void freeMemory()
 	{
 		//clear strong references to buffer/matrix
-		if( _sparse )
+		if( _compressed )
+		{
+			_bdata = null;
+		}
+		else if( _sparse )
 		{
 			if( CacheableData.CACHING_BUFFER_PAGECACHE )
 				PageCache.putPage(_bdata);
@@ -192,6 +279,13 @@ public class ByteBuffer
 	 */
 	public static boolean isValidCapacity( long size, MatrixBlock mb )
 	{
+		if( isCompressible(size) ) //COMPRESSED
+		{
+			// compressed matrix blocks are serialized into a byte array as well,
+			// the compressed size is conservatively bounded by the serialized size
+			return true;
+		}
+		
 		boolean sparseTrgt = mb.evalSparseFormatOnDisk(); //intended target representation
 		
 		if( sparseTrgt ) //SPARSE
@@ -207,4 +301,69 @@ public class ByteBuffer
 			return true;
 		}
 	}
+	
+	/**
+	 * Determines if a matrix of the given serialized size is compressed in the write 
+	 * buffer and on eviction. Larger matrices are buffered and evicted uncompressed in
+	 * order to avoid the synchronous deflate of huge (e.g., dense) blocks on release.
+	 * 
+	 * @param size
+	 * @return
+	 */
+	public static boolean isCompressible( long size )
+	{
+		return CacheableData.CACHING_BUFFER_COMPRESS 
+			&& size <= CacheableData.CACHING_BUFFER_COMPRESS_MAXSIZE;
+	}
+	
+	/**
+	 * 
+	 * @param mb
+	 * @param initSize
+	 * @return
+	 * @throws IOException
+	 */
+	private static byte[] compress( MatrixBlock mb, int initSize ) 
+		throws IOException
+	{
+		Deflater deflater = new Deflater(CacheableData.CACHING_BUFFER_COMPRESS_LEVEL);
+		ByteArrayOutputStream bos = new ByteArrayOutputStream(initSize);
+		FastBufferedDataOutputStream out = new FastBufferedDataOutputStream(
+				new DeflaterOutputStream(bos, deflater, LocalFileUtils.BUFFER_SIZE), LocalFileUtils.BUFFER_SIZE);
+		
+		try {
+			mb.write(out);
+		}
+		finally {
+			out.close(); //incl finish deflater
+			deflater.end();
+		}
+		
+		return bos.toByteArray();
+	}
+	
+	/**
+	 * 
+	 * @param data
+	 * @return
+	 * @throws IOException
+	 */
+	private static MatrixBlock decompress( byte[] data ) 
+		throws IOException
+	{
+		MatrixBlock ret = new MatrixBlock();
+		Inflater inflater = new Inflater();
+		FastBufferedDataInputStream in = new FastBufferedDataInputStream(new InflaterInputStream(
+				new ByteArrayInputStream(data), inflater, LocalFileUtils.BUFFER_SIZE), LocalFileUtils.BUFFER_SIZE);
+		
+		try {
+			ret.readFields(in);
+		}
+		finally {
+			in.close();
+			inflater.end();
+		}
+		
+		return ret;
+	}
 }
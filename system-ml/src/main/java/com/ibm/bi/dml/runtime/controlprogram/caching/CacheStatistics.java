@@ -18,8 +18,11 @@
 package com.ibm.bi.dml.runtime.controlprogram.caching;
 
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 import java.util.concurrent.atomic.AtomicLong;
 
+import com.ibm.bi.dml.runtime.controlprogram.caching.LazyWriteBuffer.RPolicy;
+
 /**
  * This singleton provides basic caching statistics in CP.
  * 
@@ -56,16 +59,38 @@ public class CacheStatistics
 	private static AtomicInteger _numHitsFS     = null;
 	private static AtomicInteger _numHitsHDFS   = null;
 	
+	//write buffer hit/miss statistics per eviction policy
+	private static AtomicIntegerArray _numPolicyHits   = null;
+	private static AtomicIntegerArray _numPolicyMisses = null;
+	
 	//write statistics caching
 	private static AtomicInteger _numWritesFSBuff = null;
 	private static AtomicInteger _numWritesFS     = null;
 	private static AtomicInteger _numWritesHDFS   = null;
 	
+	//async io statistics caching (eviction writes, prefetch reads)
+	private static AtomicInteger _numAsyncWrites  = null;
+	private static AtomicInteger _numPrefetches   = null;
+	
+	//array pool statistics (dense blocks, temporary buffers)
+	private static AtomicInteger _numArrayPoolHits   = null;
+	private static AtomicInteger _numArrayPoolMisses = null;
+	
+	//reuse cache statistics (intermediates by lineage)
+	private static AtomicInteger _numReuseHits   = null;
+	private static AtomicInteger _numReuseMisses = null;
+	
 	//time statistics caching
 	private static AtomicLong _ctimeAcquireR   = null; //in nano sec
 	private static AtomicLong _ctimeAcquireM   = null; //in nano sec
 	private static AtomicLong _ctimeRelease    = null; //in nano sec
 	private static AtomicLong _ctimeExport     = null; //in nano sec
+	
+	//compression statistics caching (write buffer, eviction)
+	private static AtomicLong _cbytesUncompressed = null; //in bytes
+	private static AtomicLong _cbytesCompressed   = null; //in bytes
+	private static AtomicLong _ctimeCompress      = null; //in nano sec
+	private static AtomicLong _ctimeDecompress    = null; //in nano sec
 
 	static
 	{
@@ -80,14 +105,31 @@ public class CacheStatistics
 		_numHitsFS = new AtomicInteger(0);
 		_numHitsHDFS = new AtomicInteger(0);
 		
+		_numPolicyHits = new AtomicIntegerArray(RPolicy.values().length);
+		_numPolicyMisses = new AtomicIntegerArray(RPolicy.values().length);
+		
 		_numWritesFSBuff = new AtomicInteger(0);
 		_numWritesFS = new AtomicInteger(0);
 		_numWritesHDFS = new AtomicInteger(0);
 		
+		_numAsyncWrites = new AtomicInteger(0);
+		_numPrefetches = new AtomicInteger(0);
+		
+		_numArrayPoolHits = new AtomicInteger(0);
+		_numArrayPoolMisses = new AtomicInteger(0);
+		
+		_numReuseHits = new AtomicInteger(0);
+		_numReuseMisses = new AtomicInteger(0);
+		
 		_ctimeAcquireR = new AtomicLong(0);
 		_ctimeAcquireM = new AtomicLong(0);
 		_ctimeRelease = new AtomicLong(0);
 		_ctimeExport = new AtomicLong(0);
+		
+		_cbytesUncompressed = new AtomicLong(0);
+		_cbytesCompressed = new AtomicLong(0);
+		_ctimeCompress = new AtomicLong(0);
+		_ctimeDecompress = new AtomicLong(0);
 	}
 	
 	public static void incrementTotalHits()
@@ -165,6 +207,24 @@ public class CacheStatistics
 		return _numHitsHDFS.get();
 	}
 
+	public static void incrementPolicyHits(RPolicy policy, boolean hit)
+	{
+		if( hit )
+			_numPolicyHits.incrementAndGet(policy.ordinal());
+		else
+			_numPolicyMisses.incrementAndGet(policy.ordinal());
+	}
+	
+	public static int getPolicyHits(RPolicy policy)
+	{
+		return _numPolicyHits.get(policy.ordinal());
+	}
+	
+	public static int getPolicyMisses(RPolicy policy)
+	{
+		return _numPolicyMisses.get(policy.ordinal());
+	}
+	
 	public static void incrementFSBuffWrites()
 	{
 		_numWritesFSBuff.incrementAndGet();
@@ -210,6 +270,62 @@ public class CacheStatistics
 		return _numWritesHDFS.get();
 	}
 	
+	public static void incrementAsyncWrites()
+	{
+		_numAsyncWrites.incrementAndGet();
+	}
+	
+	public static int getAsyncWrites()
+	{
+		return _numAsyncWrites.get();
+	}
+	
+	public static void incrementPrefetches()
+	{
+		_numPrefetches.incrementAndGet();
+	}
+	
+	public static int getPrefetches()
+	{
+		return _numPrefetches.get();
+	}
+	
+	public static void incrementArrayPoolHits(boolean hit)
+	{
+		if( hit )
+			_numArrayPoolHits.incrementAndGet();
+		else
+			_numArrayPoolMisses.incrementAndGet();
+	}
+	
+	public static int getArrayPoolHits()
+	{
+		return _numArrayPoolHits.get();
+	}
+	
+	public static int getArrayPoolMisses()
+	{
+		return _numArrayPoolMisses.get();
+	}
+	
+	public static void incrementReuseHits(boolean hit)
+	{
+		if( hit )
+			_numReuseHits.incrementAndGet();
+		else
+			_numReuseMisses.incrementAndGet();
+	}
+	
+	public static int getReuseHits()
+	{
+		return _numReuseHits.get();
+	}
+	
+	public static int getReuseMisses()
+	{
+		return _numReuseMisses.get();
+	}
+	
 	public static void incrementAcquireRTime(long delta)
 	{
 		_ctimeAcquireR.addAndGet(delta);
@@ -251,6 +367,34 @@ public class CacheStatistics
 		return _ctimeExport.get();
 	}
 	
+	public static void incrementCompression(long uncompressed, long compressed, long delta)
+	{
+		_cbytesUncompressed.addAndGet(uncompressed);
+		_cbytesCompressed.addAndGet(compressed);
+		_ctimeCompress.addAndGet(delta);
+	}
+	
+	public static void incrementDecompressionTime(long delta)
+	{
+		_ctimeDecompress.addAndGet(delta);
+	}
+	
+	public static double getCompressionRatio()
+	{
+		long compressed = _cbytesCompressed.get();
+		return (compressed > 0) ? (double)_cbytesUncompressed.get()/compressed : 1.0;
+	}
+	
+	public static long getCompressionTime()
+	{
+		return _ctimeCompress.get();
+	}
+	
+	public static long getDecompressionTime()
+	{
+		return _ctimeDecompress.get();
+	}
+	
 
 	public static String displayHits()
 	{	
@@ -280,6 +424,56 @@ public class CacheStatistics
 		return sb.toString();
 	}
 	
+	public static String displayPolicyHits()
+	{	
+		StringBuilder sb = new StringBuilder();
+		for( RPolicy policy : RPolicy.values() ) {
+			int hits = _numPolicyHits.get(policy.ordinal());
+			int misses = _numPolicyMisses.get(policy.ordinal());
+			if( hits+misses > 0 || policy == CacheableData.CACHING_BUFFER_POLICY ) {
+				if( sb.length() > 0 )
+					sb.append(", ");
+				sb.append(policy.name());
+				sb.append(" ");
+				sb.append(hits);
+				sb.append("/");
+				sb.append(misses);
+			}
+		}
+		
+		return sb.toString();
+	}
+	
+	public static String displayAsyncIO()
+	{	
+		StringBuilder sb = new StringBuilder();
+		sb.append(_numAsyncWrites.get());
+		sb.append("/");
+		sb.append(_numPrefetches.get());
+		
+		return sb.toString();
+	}
+	
+	public static String displayArrayPool()
+	{	
+		StringBuilder sb = new StringBuilder();
+		sb.append(_numArrayPoolHits.get());
+		sb.append("/");
+		sb.append(_numArrayPoolMisses.get());
+		
+		return sb.toString();
+	}
+	
+	public static String displayReuse()
+	{	
+		StringBuilder sb = new StringBuilder();
+		sb.append(_numReuseHits.get());
+		sb.append("/");
+		sb.append(_numReuseMisses.get());
+		
+		return sb.toString();
+	}
+	
 	public static String displayTime()
 	{	
 		StringBuilder sb = new StringBuilder();
@@ -296,5 +490,17 @@ public class CacheStatistics
 		return sb.toString();
 	}
 	
+	public static String displayCompression()
+	{	
+		StringBuilder sb = new StringBuilder();
+		sb.append(String.format("%.2f", getCompressionRatio()));
+		sb.append(", ");
+		sb.append(String.format("%.3f", ((double)_ctimeCompress.get())/1000000000)); //in sec
+		sb.append("/");
+		sb.append(String.format("%.3f", ((double)_ctimeDecompress.get())/1000000000)); //in sec
+		
+		return sb.toString();
+	}
+	
 	
 }
@@ -19,6 +19,7 @@ package com.ibm.bi.dml.runtime.controlprogram.caching;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.zip.Deflater;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -57,15 +58,25 @@ public abstract class CacheableData extends Data
     
 	public static final long 	CACHING_THRESHOLD = 4*1024; //obj not s.t. caching if below threshold [in bytes]
 	public static final double 	CACHING_BUFFER_SIZE = 0.15; 
-	public static final RPolicy CACHING_BUFFER_POLICY = RPolicy.FIFO; 
+	public static RPolicy       CACHING_BUFFER_POLICY = RPolicy.FIFO; 
 	public static final boolean CACHING_BUFFER_PAGECACHE = false; 
 	public static final boolean CACHING_WRITE_CACHE_ON_READ = false;
+	public static boolean       CACHING_BUFFER_COMPRESS = false; //compressed write buffer and eviction files
+	public static int           CACHING_BUFFER_COMPRESS_LEVEL = Deflater.BEST_SPEED;
+	public static final long    CACHING_BUFFER_COMPRESS_MAXSIZE = 64*1024*1024; //max size of compressed entries [in bytes]
+	public static boolean       CACHING_ASYNC_IO = false; //async eviction writes and read-ahead prefetch
+	public static boolean       CACHING_SPILL_STORE = false; //memory-mapped spill store instead of files
+	public static boolean       CACHING_ARRAY_POOL = false; //pooling of dense arrays and temporary buffers
+	public static boolean       CACHING_REUSE = false; //reuse of intermediates by lineage
+	public static final double  CACHING_REUSE_FRACTION = 0.05; //max fraction of heap for reused intermediates
+	public static final int     CACHING_PREFETCH_DEPTH = 2; //num upcoming instructions considered for prefetch
 	
 	public static final String CACHING_COUNTER_GROUP_NAME    = "SystemML Caching Counters";
 	
 	
 	//flag indicating if caching is turned on (eviction writes only happen if activeFlag is true)
-	private static boolean _activeFlag = false;
+	//(volatile in order to allow unsynchronized reads on every acquire/release)
+	private static volatile boolean _activeFlag = false;
 	
     public static String cacheEvictionLocalFilePath = null; //set during init
     public static String cacheEvictionLocalFilePrefix = "cache";
@@ -109,8 +120,9 @@ public abstract class CacheableData extends Data
 	
 	/**
 	 * The cache status of the data blob (whether it can be or is evicted, etc.)
+	 * (volatile in order to allow unsynchronized probes of unpinned in-memory reads)
 	 */
-	private CacheStatus _cacheStatus = null;
+	private volatile CacheStatus _cacheStatus = null;
 	private int         _numReadThreads = 0;
 	
 	protected CacheableData (DataType dt, ValueType vt)
@@ -432,7 +444,7 @@ public abstract class CacheableData extends Data
 		_activeFlag = true; //turn on caching
 	}
 	
-	public static synchronized boolean isCachingActive()
+	public static boolean isCachingActive()
 	{
 		return _activeFlag;
 	}
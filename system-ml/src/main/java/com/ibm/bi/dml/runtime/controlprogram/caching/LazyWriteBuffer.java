@@ -18,9 +18,19 @@
 package com.ibm.bi.dml.runtime.controlprogram.caching;
 
 import java.io.IOException;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 
 import com.ibm.bi.dml.api.DMLScript;
 import com.ibm.bi.dml.runtime.controlprogram.parfor.stat.InfrastructureAnalyzer;
@@ -28,32 +38,80 @@ import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
 import com.ibm.bi.dml.runtime.util.LocalFileUtils;
 
 /**
+ * Write buffer of serialized matrices, which is partitioned into striped eviction 
+ * queues (by file name) in order to reduce lock contention of concurrent writers and
+ * readers (e.g., local parfor workers). Each stripe is guarded by its own lock, while 
+ * the buffer size and logical clock are maintained via atomic counters. Evictions 
+ * remove victims starting at the stripe of the requesting writer and proceed round-robin
+ * over all other stripes, i.e., FIFO/LRU/COST order is maintained per stripe. Victims 
+ * are registered as pending evictions (readable from memory) before they are removed 
+ * from their stripe, and written outside of any stripe lock.
+ * 
+ * The format of eviction files (compressed or not) is recorded per file because it is 
+ * decided per entry (see ByteBuffer.isCompressible), and the configuration might change 
+ * between eviction and restore.
  * 
+ * If asynchronous cache IO is enabled (see CacheableData.CACHING_ASYNC_IO), evicted
+ * buffer entries are written to local FS by a background writer thread. Until written,
+ * these pending entries remain readable from memory; the total size of pending writes
+ * is bounded by a fraction of the buffer size. In addition, a background prefetcher 
+ * allows to restore evicted matrices before they are accessed (see MatrixObject.prefetch).
  * 
  */
 public class LazyWriteBuffer 
 {
+	private static final Log LOG = LogFactory.getLog(LazyWriteBuffer.class.getName());
+	
+	//max size of pending async eviction writes (as fraction of the buffer size)
+	private static final double ASYNC_EVICTION_LIMIT = 0.5;
 	
 	public enum RPolicy{
 		FIFO,
-		LRU
+		LRU,
+		COST, //size, last access, and liveness
 	}
 	
 	//global size limit in bytes
 	private static long _limit; 
 	
 	//current size in bytes
-	private static long _size;  
+	private static final AtomicLong _size = new AtomicLong(0);  
+	
+	//logical clock of buffer accesses (for cost-based eviction)
+	private static final AtomicLong _clock = new AtomicLong(0);
+	
+	//striped eviction queues of <filename,buffer> pairs (implemented via linked hash 
+	//maps for (1) queue semantics and (2) constant time get/insert/delete operations)
+	private static final int NUM_STRIPES;
+	private static final EvictionQueue[] _mQueues;
+	
+	//pending evictions of <filename,task> pairs, and size of async evictions in bytes
+	private static final ConcurrentHashMap<String, EvictionTask> _pQueue = new ConcurrentHashMap<String, EvictionTask>();
+	private static final AtomicLong _pSize = new AtomicLong(0);
+	private static final Object _pLock = new Object(); //wait for pending async evictions
+	
+	//files whose next eviction is written synchronously (after failed async evictions)
+	private static final Set<String> _sFiles = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
 	
-	//eviction queue of <filename,buffer> pairs (implemented via linked hash map 
-	//for (1) queue semantics and (2) constant time get/insert/delete operations)
-	private static EvictionQueue _mQueue;
+	//evicted files in compressed format (written by buffer evictions or direct writes)
+	private static final Set<String> _cFiles = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+	
+	//background writer (single thread for ordered file writes) and prefetcher
+	private static ExecutorService _evictor = null;
+	private static ExecutorService _prefetcher = null;
 	
 	static 
 	{
 		//obtain the logical buffer size in bytes
 		long maxMem = InfrastructureAnalyzer.getLocalMaxMemory();
 		_limit = (long)(CacheableData.CACHING_BUFFER_SIZE * maxMem);
+		
+		//create striped eviction queues (power of two, >= 2x local parallelism)
+		int par = Math.max(InfrastructureAnalyzer.getLocalParallelism(), 1);
+		NUM_STRIPES = Math.min(Integer.highestOneBit(2*par-1)<<1, 64);
+		_mQueues = new EvictionQueue[NUM_STRIPES];
+		for( int i=0; i<NUM_STRIPES; i++ )
+			_mQueues[i] = new EvictionQueue();
 	}
 	
 	/**
@@ -64,47 +122,76 @@ public class LazyWriteBuffer
 	 */
 	public static void writeMatrix( String fname, MatrixBlock mb ) 
 		throws IOException
+	{
+		writeMatrix(fname, mb, false);
+	}
+	
+	/**
+	 * 
+	 * @param fname
+	 * @param mb
+	 * @param live liveness hint for cost-based eviction
+	 * @throws IOException
+	 */
+	public static void writeMatrix( String fname, MatrixBlock mb, boolean live ) 
+		throws IOException
 	{	
+		//cancel pending async eviction and remove spilled data (outdated data)
+		cancelEviction( fname );
+		_cFiles.remove( fname );
+		_sFiles.remove( fname );
+		if( CacheableData.CACHING_SPILL_STORE )
+			MappedSpillStore.deleteMatrix( fname );
+		
+		//remove buffer entry (e.g., requeued after a failed async eviction)
+		int ix = getStripeIndex( fname );
+		EvictionQueue queue = _mQueues[ix];
+		ByteBuffer ldata = null;
+		synchronized( queue ) {
+			ldata = queue.remove(fname);
+		}
+		if( ldata != null ) {
+			_size.addAndGet(-ldata.getSize());
+			ldata.freeMemory();
+		}
+		
 		long lSize = mb.getExactSizeOnDisk(); 
+		boolean compress = ByteBuffer.isCompressible(lSize);
 		boolean requiresWrite = (   lSize > _limit  //global buffer limit
 				                 || !ByteBuffer.isValidCapacity(lSize, mb) ); //local buffer limit
 	
-		if( !requiresWrite ) //if it fits in writebuffer
+		if( !requiresWrite && compress ) 
+		{
+			//compress matrix first (outside synchronized critical path) 
+			//in order to reserve only the actual compressed size 
+			ByteBuffer bbuff = new ByteBuffer( lSize, true );
+			bbuff.setLive(live);
+			bbuff.serializeMatrix(mb);
+			lSize = bbuff.getSize();
+			
+			//make room and reserve buffer size, modify buffer pool
+			evictBuffers( lSize, ix );
+			bbuff.setLastAccess(_clock.incrementAndGet());
+			synchronized( queue ) {
+				queue.addLast(fname, bbuff);
+			}
+			
+			if( DMLScript.STATISTICS )
+				CacheStatistics.incrementFSBuffWrites();
+		}
+		else if( !requiresWrite ) //if it fits in writebuffer
 		{			
-			ByteBuffer bbuff = null;
+			//evict matrices to make room (by default FIFO) and reserve buffer size
+			evictBuffers( lSize, ix );
 			
-			//modify buffer pool
-			synchronized( _mQueue )
-			{
-				//evict matrices to make room (by default FIFO)
-				while( _size+lSize >= _limit )
-				{
-					//remove first entry from eviction queue
-					Entry<String, ByteBuffer> entry = _mQueue.removeFirst();
-					String ftmp = entry.getKey();
-					ByteBuffer tmp = entry.getValue();
-					
-					if( tmp != null )
-					{
-						//wait for pending serialization
-						tmp.checkSerialized();
-						
-						//evict matrix
-						tmp.evictBuffer(ftmp);
-						tmp.freeMemory();
-						_size-=tmp.getSize();
-						
-						if( DMLScript.STATISTICS )
-							CacheStatistics.incrementFSWrites();
-					}
-				}
-				
-				//create buffer (reserve mem), and lock
-				bbuff = new ByteBuffer( lSize );
-				
-				//put placeholder into buffer pool 
-				_mQueue.addLast(fname, bbuff);
-				_size += lSize;	
+			//create buffer (reserve mem)
+			ByteBuffer bbuff = new ByteBuffer( lSize );
+			bbuff.setLastAccess(_clock.incrementAndGet());
+			bbuff.setLive(live);
+			
+			//put placeholder into buffer pool 
+			synchronized( queue ) {
+				queue.addLast(fname, bbuff);
 			}
 			
 			//serialize matrix (outside synchronized critical path)
@@ -116,12 +203,118 @@ public class LazyWriteBuffer
 		else
 		{
 			//write directly to local FS (bypass buffer if too large)
-			LocalFileUtils.writeMatrixBlockToLocal(fname, mb);
+			if( compress ) {
+				LocalFileUtils.writeCompressedMatrixBlockToLocal(fname, mb, CacheableData.CACHING_BUFFER_COMPRESS_LEVEL);
+				_cFiles.add(fname);
+			}
+			else if( CacheableData.CACHING_SPILL_STORE )
+				MappedSpillStore.writeMatrix(fname, mb);
+			else
+				LocalFileUtils.writeMatrixBlockToLocal(fname, mb);
 			if( DMLScript.STATISTICS )
 				CacheStatistics.incrementFSWrites();
 		}	
 	}
 	
+	/**
+	 * Evicts buffer entries (by default FIFO) until the given size fits
+	 * into the write buffer, and reserves the given size. Must not be called 
+	 * while holding a queue lock.
+	 * 
+	 * @param lSize
+	 * @param ix stripe index of the requesting writer
+	 * @throws IOException
+	 */
+	private static void evictBuffers( long lSize, int ix ) 
+		throws IOException
+	{
+		try
+		{
+			evictBuffers2( lSize, ix );
+		}
+		catch(InterruptedException ex)
+		{
+			throw new IOException("Interrupted while waiting for pending evictions.", ex);
+		}
+	}
+	
+	/**
+	 * 
+	 * @param lSize
+	 * @param ix
+	 * @throws IOException
+	 * @throws InterruptedException
+	 */
+	private static void evictBuffers2( long lSize, int ix ) 
+		throws IOException, InterruptedException
+	{
+		while( _size.get()+lSize >= _limit )
+		{
+			//remove next victim (registered as pending eviction)
+			EvictionTask task = removeVictim( ix );
+			if( task == null ) 
+				break; //all entries evicted by concurrent writers
+			ByteBuffer tmp = task.getBuffer();
+			
+			//wait for pending serialization
+			tmp.checkSerialized();
+			_size.addAndGet(-tmp.getSize());
+			
+			if( _evictor != null && !_sFiles.remove(task.getFileName()) )
+			{
+				//wait for pending writes if max pending size exceeded
+				synchronized( _pLock ) {
+					while( _pSize.get() > 0 && _pSize.get()+tmp.getSize() > ASYNC_EVICTION_LIMIT*_limit )
+						_pLock.wait();
+					_pSize.addAndGet(tmp.getSize());
+				}
+				
+				//evict matrix asynchronously (readable until written)
+				_evictor.execute(task);
+			}
+			else
+			{
+				//evict matrix (readable until written)
+				try {
+					if( task.evict() && DMLScript.STATISTICS )
+						CacheStatistics.incrementFSWrites();
+				}
+				finally {
+					_pQueue.remove(task.getFileName(), task);
+				}
+			}
+		}
+		
+		_size.addAndGet(lSize);
+	}
+	
+	/**
+	 * Removes the next eviction victim, starting at the given stripe and proceeding 
+	 * round-robin over all other stripes. The victim is registered as pending eviction 
+	 * while holding the stripe lock, which keeps the entry visible to concurrent readers.
+	 * 
+	 * @param ix
+	 * @return eviction task, or null if all stripes are empty
+	 */
+	private static EvictionTask removeVictim( int ix )
+	{
+		for( int i=0; i<NUM_STRIPES; i++ )
+		{
+			EvictionQueue queue = _mQueues[(ix+i) % NUM_STRIPES];
+			synchronized( queue )
+			{
+				if( queue.isEmpty() )
+					continue;
+				Entry<String, ByteBuffer> entry = queue.removeVictim();
+				EvictionTask task = new EvictionTask(entry.getKey(), entry.getValue());
+				_pQueue.put(entry.getKey(), task);
+				return task;
+			}
+		}
+		
+		return null;
+	}
+	
 	/**
 	 * 
 	 * @param fname
@@ -130,19 +323,28 @@ public class LazyWriteBuffer
 	{
 		boolean requiresDelete = true;
 		
-		synchronized( _mQueue )
+		//cancel pending async eviction (incl wait for running write), before
+		//removing the queue entry because failed evictions are requeued
+		cancelEviction( fname );
+		_cFiles.remove( fname );
+		_sFiles.remove( fname );
+		
+		//remove queue entry 
+		EvictionQueue queue = _mQueues[getStripeIndex(fname)];
+		ByteBuffer ldata = null;
+		synchronized( queue ) {
+			ldata = queue.remove(fname);
+		}
+		if( ldata != null )
 		{
-			//remove queue entry 
-			ByteBuffer ldata = _mQueue.remove(fname);
-			if( ldata != null )
-			{
-				_size -= ldata.getSize(); 
-				requiresDelete = false;
-				ldata.freeMemory(); //cleanup
-			}
+			_size.addAndGet(-ldata.getSize()); 
+			requiresDelete = false;
+			ldata.freeMemory(); //cleanup
 		}
 		
-		//delete from FS if required
+		//delete from spill store or FS if required
+		if( requiresDelete && CacheableData.CACHING_SPILL_STORE )
+			requiresDelete = !MappedSpillStore.deleteMatrix(fname);
 		if( requiresDelete )
 			LocalFileUtils.deleteFileIfExists(fname, true);
 	}
@@ -159,33 +361,51 @@ public class LazyWriteBuffer
 		MatrixBlock mb = null;
 		ByteBuffer ldata = null;
 		
-		//probe write buffer
-		synchronized( _mQueue )
+		//probe write buffer (stripe of given file)
+		EvictionQueue queue = _mQueues[getStripeIndex(fname)];
+		synchronized( queue )
 		{
-			ldata = _mQueue.get(fname);
+			ldata = queue.get(fname);
 			
 			//modify eviction order (accordingly to access)
 			if(    CacheableData.CACHING_BUFFER_POLICY == RPolicy.LRU 
 				&& ldata != null )
 			{
 				//reinsert entry at end of eviction queue
-				_mQueue.remove( fname );
-				_mQueue.addLast( fname, ldata );
+				queue.remove( fname );
+				queue.addLast( fname, ldata );
 			}
+			if( ldata != null )
+				ldata.setLastAccess(_clock.incrementAndGet());
+		}
+		
+		//probe pending evictions (registered before removal from queue)
+		if( ldata == null ) {
+			EvictionTask task = _pQueue.get(fname);
+			ldata = (task != null) ? task.getBuffer() : null;
 		}
 		
 		//deserialize or read from FS if required
 		if( ldata != null )
 		{
 			mb = ldata.deserializeMatrix();
-			if( DMLScript.STATISTICS )
+			if( DMLScript.STATISTICS ) {
 				CacheStatistics.incrementFSBuffHits();
+				CacheStatistics.incrementPolicyHits(CacheableData.CACHING_BUFFER_POLICY, true);
+			}
 		}
 		else
 		{
-			mb = LocalFileUtils.readMatrixBlockFromLocal(fname); //read from FS
-			if( DMLScript.STATISTICS )
+			if( _cFiles.contains(fname) )
+				mb = LocalFileUtils.readCompressedMatrixBlockFromLocal(fname); //read compressed from FS
+			else if( CacheableData.CACHING_SPILL_STORE && MappedSpillStore.contains(fname) )
+				mb = MappedSpillStore.readMatrix(fname); //read from spill store
+			else
+				mb = LocalFileUtils.readMatrixBlockFromLocal(fname); //read from FS
+			if( DMLScript.STATISTICS ) {
 				CacheStatistics.incrementFSHits();
+				CacheStatistics.incrementPolicyHits(CacheableData.CACHING_BUFFER_POLICY, false);
+			}
 		}
 		
 		return mb;
@@ -196,10 +416,29 @@ public class LazyWriteBuffer
 	 */
 	public static void init()
 	{
-		_mQueue = new EvictionQueue();		
-		_size = 0;
+		_limit = getWriteBufferSize();
+		for( EvictionQueue queue : _mQueues )
+			synchronized( queue ) {
+				queue.clear();
+			}
+		_size.set(0);
+		_clock.set(0);
+		_pQueue.clear();
+		_pSize.set(0);
+		_sFiles.clear();
+		_cFiles.clear();
 		if( CacheableData.CACHING_BUFFER_PAGECACHE )
 			PageCache.init();
+		if( CacheableData.CACHING_SPILL_STORE )
+			MappedSpillStore.init();
+		if( CacheableData.CACHING_ARRAY_POOL )
+			PageCache.initArrayPool();
+		
+		//create background writer and prefetcher (daemon threads)
+		if( CacheableData.CACHING_ASYNC_IO && _evictor == null ) {
+			_evictor = Executors.newSingleThreadExecutor(new CacheIOThreadFactory("SystemML-CP-Evict"));
+			_prefetcher = Executors.newSingleThreadExecutor(new CacheIOThreadFactory("SystemML-CP-Prefetch"));
+		}
 	}
 	
 	/**
@@ -207,10 +446,85 @@ public class LazyWriteBuffer
 	 */
 	public static void cleanup()
 	{
-		if( _mQueue!=null )
-			_mQueue.clear();
+		if( _evictor!=null ) {
+			_evictor.shutdownNow();
+			_prefetcher.shutdownNow();
+			_evictor = null;
+			_prefetcher = null;
+		}
+		_pQueue.clear();
+		_sFiles.clear();
+		_cFiles.clear();
+		for( EvictionQueue queue : _mQueues )
+			synchronized( queue ) {
+				queue.clear();
+			}
+		if( CacheableData.CACHING_SPILL_STORE )
+			MappedSpillStore.cleanup();
 		if( CacheableData.CACHING_BUFFER_PAGECACHE )
 			PageCache.clear();
+		if( CacheableData.CACHING_ARRAY_POOL )
+			PageCache.clearArrayPool();
+		if( CacheableData.CACHING_REUSE )
+			LineageCache.clear();
+	}
+	
+	/**
+	 * Asynchronously restores the given matrix object (if evicted) into its
+	 * in-memory cache. This is a no-op if asynchronous cache IO is disabled.
+	 * 
+	 * @param mo
+	 */
+	public static void prefetchMatrix( MatrixObject mo )
+	{
+		ExecutorService prefetcher = _prefetcher;
+		if( prefetcher != null )
+			prefetcher.execute(new PrefetchTask(mo));
+	}
+	
+	/**
+	 * Updates the liveness hint of an existing buffer entry (if any).
+	 * 
+	 * @param fname
+	 * @param live
+	 */
+	public static void setLiveHint( String fname, boolean live )
+	{
+		EvictionQueue queue = _mQueues[getStripeIndex(fname)];
+		synchronized( queue ) {
+			ByteBuffer ldata = queue.get(fname);
+			if( ldata != null )
+				ldata.setLive(live);
+		}
+	}
+	
+	/**
+	 * Cancels the pending eviction of the given file (if any), where a 
+	 * running write is awaited. Must not be called while holding a queue lock.
+	 * 
+	 * @param fname
+	 */
+	private static void cancelEviction( String fname )
+	{
+		EvictionTask task = _pQueue.remove(fname);
+		if( task != null )
+			task.cancel();
+	}
+	
+	/**
+	 * Returns the index of the eviction queue stripe of the given file, 
+	 * e.g., for tests of the per-stripe eviction order.
+	 * 
+	 * @param fname
+	 * @return
+	 */
+	public static int getStripeIndex( String fname )
+	{
+		//spread hash bits (see HashMap) before masking
+		int h = fname.hashCode();
+		h ^= (h >>> 20) ^ (h >>> 12);
+		h ^= (h >>> 7) ^ (h >>> 4);
+		return h & (NUM_STRIPES-1);
 	}
 	
 	/**
@@ -223,6 +537,28 @@ public class LazyWriteBuffer
 		return (long)(CacheableData.CACHING_BUFFER_SIZE * maxMem);
 	}
 	
+	/**
+	 * Sets the size limit of the write buffer in bytes, e.g., for small 
+	 * buffers in tests of the eviction policies (reset on init).
+	 * 
+	 * @param limit
+	 */
+	public static void setWriteBufferLimit( long limit )
+	{
+		_limit = limit;
+	}
+	
+	/**
+	 * Returns the size of pending async evictions in bytes, incl cancelled
+	 * evictions that have not been processed by the background writer yet.
+	 * 
+	 * @return
+	 */
+	public static long getPendingEvictionSize()
+	{
+		return _pSize.get();
+	}
+	
 	/**
 	 * 
 	 */
@@ -231,21 +567,28 @@ public class LazyWriteBuffer
 		System.out.println("WRITE BUFFER STATUS ("+position+") --");
 		
 		//print buffer meta data
+		int size = 0;
+		for( EvictionQueue queue : _mQueues )
+			size += queue.size();
 		System.out.println("\tWB: Buffer Meta Data: " +
 				     "limit="+_limit+", " +
-				     "size[bytes]="+_size+", " +
-				     "size[elements]="+_mQueue.size()+"/"+_mQueue.size());
+				     "size[bytes]="+_size.get()+", " +
+				     "size[elements]="+size+"/"+size+", " +
+				     "stripes="+NUM_STRIPES);
 		
 		//print current buffer entries
-		int count = _mQueue.size();
-		for( Entry<String, ByteBuffer> entry : _mQueue.entrySet() )
-		{
-			String fname = entry.getKey();
-			ByteBuffer bbuff = entry.getValue();
-			
-			System.out.println("\tWB: buffer element ("+count+"): "+fname+", "+bbuff.getSize()+", "+bbuff.isInSparseFormat());
-			count--;
-		}
+		int count = size;
+		for( EvictionQueue queue : _mQueues )
+			synchronized( queue ) {
+				for( Entry<String, ByteBuffer> entry : queue.entrySet() )
+				{
+					String fname = entry.getKey();
+					ByteBuffer bbuff = entry.getValue();
+					
+					System.out.println("\tWB: buffer element ("+count+"): "+fname+", "+bbuff.getSize()+", "+bbuff.isInSparseFormat());
+					count--;
+				}
+			}
 	}
 	
 	/**
@@ -263,6 +606,39 @@ public class LazyWriteBuffer
 			put(fname, bbuff);
 		}
 		
+		/**
+		 * Removes the next eviction victim according to the configured policy. 
+		 * FIFO and LRU remove the first entry (insertion or access order). COST
+		 * removes dead before live entries, and among those the entry with the
+		 * largest product of age (since last access) and size.
+		 * 
+		 * @return
+		 */
+		public Entry<String, ByteBuffer> removeVictim()
+		{
+			if( CacheableData.CACHING_BUFFER_POLICY != RPolicy.COST )
+				return removeFirst();
+			
+			//find victim in single pass over all entries
+			Entry<String, ByteBuffer> victim = null;
+			double maxScore = -1;
+			for( Entry<String, ByteBuffer> entry : entrySet() )
+			{
+				ByteBuffer bbuff = entry.getValue();
+				double score = (double)(_clock.get() - bbuff.getLastAccess() + 1) * bbuff.getSize();
+				boolean deadOverLive = (victim != null && !bbuff.isLive() && victim.getValue().isLive());
+				boolean sameLive = (victim != null && bbuff.isLive() == victim.getValue().isLive());
+				if( victim == null || deadOverLive || (sameLive && score > maxScore) ) {
+					victim = entry;
+					maxScore = score;
+				}
+			}
+			
+			remove(victim.getKey());
+			
+			return victim;
+		}
+		
 		public Entry<String, ByteBuffer> removeFirst() 
 		{
 			//move iterator to first entry
@@ -275,4 +651,153 @@ public class LazyWriteBuffer
 			return entry;
 		}
 	}
+	
+	/**
+	 * Write of an evicted buffer entry to local FS, which is either executed 
+	 * synchronously by the evicting writer or by the background writer.
+	 * 
+	 */
+	private static class EvictionTask implements Runnable
+	{
+		private final String _fname;
+		private final ByteBuffer _bbuff;
+		private boolean _cancelled = false;
+		
+		public EvictionTask( String fname, ByteBuffer bbuff )
+		{
+			_fname = fname;
+			_bbuff = bbuff;
+		}
+		
+		public String getFileName()
+		{
+			return _fname;
+		}
+		
+		public ByteBuffer getBuffer()
+		{
+			return _bbuff;
+		}
+		
+		public synchronized void cancel()
+		{
+			//synchronized in order to wait for a running write
+			_cancelled = true;
+		}
+		
+		/**
+		 * Writes the buffer (if not cancelled) and removes the pending entry 
+		 * (buffer not freed, because there might be concurrent readers of this entry).
+		 * 
+		 * @return true if the buffer has been written
+		 * @throws IOException
+		 */
+		public boolean evict() 
+			throws IOException
+		{
+			synchronized( this ) {
+				if( _cancelled )
+					return false;
+				_bbuff.evictBuffer(_fname);
+				if( _bbuff.isCompressed() )
+					_cFiles.add(_fname); //before removal from pending evictions
+			}
+			
+			_pQueue.remove(_fname, this);
+			return true;
+		}
+		
+		/**
+		 * Reinserts the buffer of a failed async eviction into its eviction queue 
+		 * (if not cancelled meanwhile), which accounts its size in the write buffer 
+		 * again and falls back to a synchronous write on its next eviction. 
+		 * 
+		 * @return true if the buffer has been reinserted
+		 */
+		public synchronized boolean requeue()
+		{
+			EvictionQueue queue = _mQueues[getStripeIndex(_fname)];
+			synchronized( queue ) {
+				//reinsert only if still pending (not cancelled by delete or write)
+				if( _cancelled || !_pQueue.remove(_fname, this) )
+					return false;
+				_size.addAndGet(_bbuff.getSize());
+				_sFiles.add(_fname);
+				queue.addLast(_fname, _bbuff);
+			}
+			return true;
+		}
+		
+		@Override
+		public void run()
+		{
+			try {
+				if( evict() && DMLScript.STATISTICS ) {
+					CacheStatistics.incrementFSWrites();
+					CacheStatistics.incrementAsyncWrites();
+				}
+			}
+			catch(Exception ex) {
+				//entry remains readable from memory and is evicted synchronously 
+				//on its next eviction, which surfaces repeated failures to the writer
+				if( requeue() )
+					LOG.warn("Asynchronous eviction to local path " + _fname + " failed, "
+						+ "falling back to synchronous eviction.", ex);
+			}
+			finally {
+				_pSize.addAndGet(-_bbuff.getSize());
+				synchronized( _pLock ) {
+					_pLock.notifyAll();
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Background restore of an evicted matrix object.
+	 * 
+	 */
+	private static class PrefetchTask implements Runnable
+	{
+		private final MatrixObject _mo;
+		
+		public PrefetchTask( MatrixObject mo )
+		{
+			_mo = mo;
+		}
+		
+		@Override
+		public void run()
+		{
+			try {
+				if( _mo.prefetch() && DMLScript.STATISTICS )
+					CacheStatistics.incrementPrefetches();
+			}
+			catch(Exception ex) {
+				//prefetch is best-effort (restored on acquire otherwise)
+				LOG.warn("Prefetch of " + _mo.getVarName() + " failed.", ex);
+			}
+		}
+	}
+	
+	/**
+	 * 
+	 */
+	private static class CacheIOThreadFactory implements ThreadFactory
+	{
+		private final String _name;
+		
+		public CacheIOThreadFactory( String name )
+		{
+			_name = name;
+		}
+		
+		@Override
+		public Thread newThread(Runnable r)
+		{
+			Thread t = new Thread(r, _name);
+			t.setDaemon(true); //no blocking of JVM shutdown
+			return t;
+		}
+	}
 }
@@ -0,0 +1,427 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.ibm.bi.dml.runtime.controlprogram.caching;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map.Entry;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+
+import com.ibm.bi.dml.api.DMLScript;
+import com.ibm.bi.dml.conf.ConfigurationManager;
+import com.ibm.bi.dml.lops.Data.OperationTypes;
+import com.ibm.bi.dml.lops.Lop;
+import com.ibm.bi.dml.parser.Expression.DataType;
+import com.ibm.bi.dml.runtime.DMLRuntimeException;
+import com.ibm.bi.dml.runtime.controlprogram.context.ExecutionContext;
+import com.ibm.bi.dml.runtime.controlprogram.parfor.stat.InfrastructureAnalyzer;
+import com.ibm.bi.dml.runtime.instructions.cp.AggregateBinaryCPInstruction;
+import com.ibm.bi.dml.runtime.instructions.cp.AggregateTernaryCPInstruction;
+import com.ibm.bi.dml.runtime.instructions.cp.AggregateUnaryCPInstruction;
+import com.ibm.bi.dml.runtime.instructions.cp.ArithmeticBinaryCPInstruction;
+import com.ibm.bi.dml.runtime.instructions.cp.BooleanBinaryCPInstruction;
+import com.ibm.bi.dml.runtime.instructions.cp.BooleanUnaryCPInstruction;
+import com.ibm.bi.dml.runtime.instructions.cp.BuiltinBinaryCPInstruction;
+import com.ibm.bi.dml.runtime.instructions.cp.BuiltinUnaryCPInstruction;
+import com.ibm.bi.dml.runtime.instructions.cp.CPOperand;
+import com.ibm.bi.dml.runtime.instructions.cp.ComputationCPInstruction;
+import com.ibm.bi.dml.runtime.instructions.cp.CovarianceCPInstruction;
+import com.ibm.bi.dml.runtime.instructions.cp.Data;
+import com.ibm.bi.dml.runtime.instructions.cp.MMChainCPInstruction;
+import com.ibm.bi.dml.runtime.instructions.cp.MMTSJCPInstruction;
+import com.ibm.bi.dml.runtime.instructions.cp.PMMJCPInstruction;
+import com.ibm.bi.dml.runtime.instructions.cp.QuaternaryCPInstruction;
+import com.ibm.bi.dml.runtime.instructions.cp.RelationalBinaryCPInstruction;
+import com.ibm.bi.dml.runtime.instructions.cp.ReorgCPInstruction;
+import com.ibm.bi.dml.runtime.instructions.cp.ScalarObject;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
+import com.ibm.bi.dml.runtime.matrix.operators.QuaternaryOperator;
+
+/**
+ * Runtime reuse cache for intermediates of CP instructions, which complements the
+ * common subexpression elimination within DAGs by reusing results across DAGs, loop
+ * iterations, and repeated JMLC script executions.
+ *
+ * The lineage of intermediates is traced as part of the matrix objects (cleared on
+ * modification) and is defined by the opcode and typed parameters of the producing
+ * instruction as well as the lineage of its operands. Leafs are persistent reads, bound
+ * JMLC inputs, and scalars (by value), where persistent reads are identified by file name,
+ * modification time, and a local write version in order to prevent reuse across updates of
+ * the underlying file. The outputs of expensive operations (e.g., matrix
+ * multiplications and aggregates) are cached by lineage; on a hit, we bind a copy of the
+ * cached output instead of executing the instruction. Cached intermediates are evicted
+ * in LRU order according to a memory budget relative to the max heap size, which is
+ * reserved from the local memory budget of the optimizer (see OptimizerUtils).
+ *
+ */
+public class LineageCache
+{
+	//variable name prefix of persistent reads (see lops Data)
+	public static final String READ_VAR_PREFIX = "p" + OperationTypes.READ;
+	
+	//max lineage depth (bounds the lineage of loop-carried intermediates)
+	private static final int MAX_DEPTH = 64;
+	//size estimate of cached scalars
+	private static final long SCALAR_SIZE = 64;
+
+	//opcodes of reusable (expensive) operations, in addition to all unary aggregates
+	private static final HashSet<String> REUSE_OPCODES = new HashSet<String>(Arrays.asList(
+			"ba+*", "tsmm", "mmchain", "pmm", "r'", "solve", "cm", "cov",
+			"wsloss", "wsigmoid", "wdivmm", "wcemm"));
+
+	//reuse cache of <lineage,output> pairs in LRU order (guarded by class lock)
+	private static LinkedHashMap<LineageItem, Object> _cache = new LinkedHashMap<LineageItem, Object>(16, 0.75f, true);
+	private static long _size = 0;
+	private static long _limit = -1;
+	
+	//sequence of unique ids for bound inputs
+	private static AtomicLong _inputSeq = new AtomicLong(0);
+	
+	//local write versions of files (guarded by class lock)
+	private static HashMap<String, Long> _fileVersions = new HashMap<String, Long>();
+
+	/**
+	 * Executes the given instruction w/ reuse of cached outputs, and maintains
+	 * the lineage of the output as well as the reuse cache.
+	 *
+	 * @param inst
+	 * @param ec
+	 * @throws DMLRuntimeException
+	 */
+	public static void executeInstruction( ComputationCPInstruction inst, ExecutionContext ec )
+		throws DMLRuntimeException
+	{
+		//obtain lineage of the instruction output (null if unknown)
+		LineageItem li = getLineage(inst, ec);
+		boolean reusable = (li != null && isReusable(inst));
+
+		//probe reuse cache and bind a copy of the cached output on hits
+		if( reusable ) {
+			Object data = get(li);
+			if( DMLScript.STATISTICS )
+				CacheStatistics.incrementReuseHits(data != null);
+			if( data != null ) {
+				if( data instanceof ScalarObject )
+					ec.setScalarOutput(inst.output.getName(), (ScalarObject)data);
+				else
+					ec.setMatrixOutput(inst.output.getName(), new MatrixBlock((MatrixBlock)data));
+				setLineage(inst, ec, li);
+				return;
+			}
+		}
+
+		//execute instruction and maintain output lineage
+		inst.processInstruction(ec);
+		setLineage(inst, ec, li);
+
+		//put a copy of the output into the reuse cache
+		if( reusable ) {
+			Data out = ec.getVariable(inst.output.getName());
+			if( out instanceof ScalarObject )
+				put(li, out, SCALAR_SIZE);
+			else if( out instanceof MatrixObject ) {
+				//copy output only if it fits into the cache
+				MatrixBlock mb = ec.getMatrixInput(inst.output.getName());
+				long size = mb.estimateSizeInMemory();
+				if( size <= getLimit() )
+					put(li, new MatrixBlock(mb), size);
+				ec.releaseMatrixInput(inst.output.getName());
+			}
+		}
+	}
+
+	/**
+	 *
+	 * @param mo
+	 * @param fname
+	 */
+	public static void setReadLineage( MatrixObject mo, String fname )
+	{
+		String data = fname + ":" + getModificationTime(fname) + ":" + getFileVersion(fname);
+		mo.setLineage(new LineageItem(LineageItem.OPCODE_READ, data));
+	}
+	
+	/**
+	 * Invalidates the lineage of persistent reads of the given file (by incrementing
+	 * its local write version), which prevents reuse of intermediates that have been
+	 * computed over the previous file content. Cached outputs with the old lineage 
+	 * are never hit again and hence evicted in LRU order.
+	 * 
+	 * @param fname
+	 */
+	public static synchronized void invalidateFile( String fname )
+	{
+		Long version = _fileVersions.get(fname);
+		_fileVersions.put(fname, (version != null) ? version + 1 : 1);
+	}
+
+	/**
+	 * Sets the lineage of a bound input (e.g., via JMLC), which is unique
+	 * per binding and hence valid across repeated script executions.
+	 *
+	 * @param mo
+	 */
+	public static void setInputLineage( MatrixObject mo )
+	{
+		mo.setLineage(new LineageItem(LineageItem.OPCODE_INPUT, String.valueOf(_inputSeq.incrementAndGet())));
+	}
+
+	/**
+	 *
+	 */
+	public static synchronized void clear()
+	{
+		_cache.clear();
+		_size = 0;
+		_fileVersions.clear();
+	}
+
+	/**
+	 * Obtains the lineage of the instruction output, where null indicates unknown
+	 * lineage. We trace only deterministic operations with a single output, whose
+	 * result is fully defined by the opcode, the operands, and typed parameters.
+	 *
+	 * @param inst
+	 * @param ec
+	 * @return
+	 */
+	private static LineageItem getLineage( ComputationCPInstruction inst, ExecutionContext ec )
+	{
+		if( inst.output == null )
+			return null;
+
+		CPOperand[] in = getInputs(inst);
+		if( in == null )
+			return null; //unknown parameters
+		LineageItem[] inputs = new LineageItem[in.length];
+
+		//opcode, parameters, and positions of inputs
+		StringBuilder sb = new StringBuilder(inst.getOpcode());
+		String param = getParameter(inst);
+		if( param != null ) {
+			sb.append(Lop.OPERAND_DELIMITOR);
+			sb.append(param);
+		}
+		for( int j=0; j<in.length; j++ )
+			if( in[j] != null ) {
+				sb.append(Lop.OPERAND_DELIMITOR);
+				sb.append("#"+j);
+			}
+
+		//lineage of inputs (matrices by lineage, scalars by value)
+		int len = 0;
+		for( int j=0; j<in.length; j++ ) {
+			if( in[j] == null )
+				continue;
+			inputs[len] = getLineage(in[j], ec);
+			if( inputs[len] == null || inputs[len].getDepth() >= MAX_DEPTH )
+				return null;
+			len++;
+		}
+
+		return new LineageItem(sb.toString(), Arrays.copyOf(inputs, len));
+	}
+
+	/**
+	 *
+	 * @param in
+	 * @param ec
+	 * @return
+	 */
+	private static LineageItem getLineage( CPOperand in, ExecutionContext ec )
+	{
+		try {
+			if( in.getDataType() == DataType.MATRIX ) {
+				Data dat = ec.getVariable(in.getName());
+				//note: no lineage for in-place updated matrices (modified w/o acquire modify)
+				return (dat instanceof MatrixObject && !((MatrixObject)dat).isUpdateInPlaceEnabled()) ?
+					((MatrixObject)dat).getLineage() : null;
+			}
+			else if( in.getDataType() == DataType.SCALAR ) {
+				ScalarObject so = ec.getScalarInput(in.getName(), in.getValueType(), in.isLiteral());
+				return new LineageItem(LineageItem.OPCODE_LITERAL, so.getValueType()+":"+so.getStringValue());
+			}
+		}
+		catch(DMLRuntimeException ex) {
+			//unknown lineage
+		}
+		return null;
+	}
+
+	/**
+	 * Obtains the operands of the given instruction (input1-input3, and input4 of
+	 * quaternary operations), or null if the instruction has additional parameters
+	 * that are not covered by its opcode, operands, or typed parameters.
+	 *
+	 * @param inst
+	 * @return
+	 */
+	private static CPOperand[] getInputs( ComputationCPInstruction inst )
+	{
+		if( inst instanceof QuaternaryCPInstruction )
+			return new CPOperand[]{inst.input1, inst.input2, inst.input3, ((QuaternaryCPInstruction)inst).getInput4()};
+		else if( inst instanceof AggregateUnaryCPInstruction || inst instanceof AggregateBinaryCPInstruction
+			|| inst instanceof AggregateTernaryCPInstruction || inst instanceof CovarianceCPInstruction
+			|| inst instanceof ArithmeticBinaryCPInstruction || inst instanceof RelationalBinaryCPInstruction
+			|| inst instanceof BooleanBinaryCPInstruction || inst instanceof BuiltinBinaryCPInstruction
+			|| inst instanceof BooleanUnaryCPInstruction || inst instanceof BuiltinUnaryCPInstruction
+			|| inst instanceof MMTSJCPInstruction || inst instanceof MMChainCPInstruction 
+			|| inst instanceof PMMJCPInstruction 
+			|| (inst instanceof ReorgCPInstruction && !inst.getOpcode().equals("rsort")) )
+			return new CPOperand[]{inst.input1, inst.input2, inst.input3};
+		return null; //e.g., indexing bounds, sort parameters, rand seeds
+	}
+	
+	/**
+	 * Obtains the typed parameters of the given instruction that are not encoded
+	 * in its opcode, or null if there are no such parameters.
+	 *
+	 * @param inst
+	 * @return
+	 */
+	private static String getParameter( ComputationCPInstruction inst )
+	{
+		if( inst instanceof MMTSJCPInstruction )
+			return ((MMTSJCPInstruction)inst).getMMTSJType().name();
+		else if( inst instanceof MMChainCPInstruction )
+			return ((MMChainCPInstruction)inst).getMMChainType().name();
+		else if( inst instanceof QuaternaryCPInstruction ) {
+			QuaternaryOperator qop = (QuaternaryOperator)inst.getOperator();
+			return qop.wtype1+":"+qop.wtype2+":"+qop.wtype3+":"+qop.wtype4;
+		}
+		return null;
+	}
+
+	/**
+	 *
+	 * @param inst
+	 * @param ec
+	 * @param li
+	 */
+	private static void setLineage( ComputationCPInstruction inst, ExecutionContext ec, LineageItem li )
+	{
+		if( inst.output == null )
+			return;
+		Data out = ec.getVariable(inst.output.getName());
+		if( out instanceof MatrixObject )
+			((MatrixObject)out).setLineage(li);
+	}
+
+	/**
+	 *
+	 * @param inst
+	 * @return
+	 */
+	private static boolean isReusable( ComputationCPInstruction inst )
+	{
+		String opcode = inst.getOpcode();
+		return REUSE_OPCODES.contains(opcode) || opcode.startsWith("ua");
+	}
+
+	/**
+	 *
+	 * @param li
+	 * @return
+	 */
+	private static synchronized Object get( LineageItem li )
+	{
+		return _cache.get(li);
+	}
+
+	/**
+	 * Puts the given output into the cache and evicts least recently used
+	 * outputs if the memory budget is exceeded.
+	 *
+	 * @param li
+	 * @param data
+	 * @param size
+	 */
+	private static synchronized void put( LineageItem li, Object data, long size )
+	{
+		if( size > getLimit() || _cache.containsKey(li) )
+			return;
+
+		//evict least recently used outputs
+		Iterator<Entry<LineageItem, Object>> iter = _cache.entrySet().iterator();
+		while( _size + size > _limit && iter.hasNext() ) {
+			_size -= getSize(iter.next().getValue());
+			iter.remove();
+		}
+
+		_cache.put(li, data);
+		_size += size;
+	}
+
+	/**
+	 * 
+	 * @return
+	 */
+	private static synchronized long getLimit()
+	{
+		if( _limit < 0 )
+			_limit = (long)(CacheableData.CACHING_REUSE_FRACTION * InfrastructureAnalyzer.getLocalMaxMemory());
+		return _limit;
+	}
+	
+	/**
+	 * 
+	 * @param fname
+	 * @return
+	 */
+	private static synchronized long getFileVersion( String fname )
+	{
+		Long version = _fileVersions.get(fname);
+		return (version != null) ? version : 0;
+	}
+	
+	/**
+	 * Obtains the modification time of the given file, or -1 if unknown.
+	 * 
+	 * @param fname
+	 * @return
+	 */
+	private static long getModificationTime( String fname )
+	{
+		try {
+			Path path = new Path(fname);
+			FileSystem fs = FileSystem.get(ConfigurationManager.getCachedJobConf());
+			return fs.exists(path) ? fs.getFileStatus(path).getModificationTime() : -1;
+		}
+		catch(IOException ex) {
+			return -1;
+		}
+	}
+	
+	/**
+	 *
+	 * @param data
+	 * @return
+	 */
+	private static long getSize( Object data )
+	{
+		return (data instanceof MatrixBlock) ?
+			((MatrixBlock)data).estimateSizeInMemory() : SCALAR_SIZE;
+	}
+}
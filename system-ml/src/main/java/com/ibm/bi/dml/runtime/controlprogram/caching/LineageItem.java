@@ -0,0 +1,127 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.ibm.bi.dml.runtime.controlprogram.caching;
+
+import java.util.Arrays;
+
+/**
+ * Immutable lineage of an intermediate, i.e., the operation (opcode incl all
+ * non-input parameters) and the lineage of its inputs, which are traced back to
+ * persistent reads, bound inputs, and literals. Lineage items are compared by value
+ * (with precomputed hash codes) and hence can be used as keys of the reuse cache.
+ *
+ */
+public class LineageItem
+{
+	//leaf opcodes
+	public static final String OPCODE_READ    = "read";
+	public static final String OPCODE_INPUT   = "input";
+	public static final String OPCODE_LITERAL = "lit";
+
+	private final String _opcode;
+	private final LineageItem[] _inputs;
+	private final int _depth;
+	private final int _hash;
+
+	/**
+	 * Creates a leaf lineage item (e.g., persistent read of a file).
+	 *
+	 * @param opcode
+	 * @param data
+	 */
+	public LineageItem( String opcode, String data )
+	{
+		this(opcode + "(" + data + ")", new LineageItem[0]);
+	}
+
+	/**
+	 * Creates a lineage item of an operation over the given inputs.
+	 *
+	 * @param opcode
+	 * @param inputs
+	 */
+	public LineageItem( String opcode, LineageItem[] inputs )
+	{
+		_opcode = opcode;
+		_inputs = inputs;
+
+		int depth = 0;
+		for( LineageItem in : inputs )
+			depth = Math.max(depth, in._depth+1);
+		_depth = depth;
+		_hash = 31 * opcode.hashCode() + Arrays.hashCode(inputs);
+	}
+
+	public String getOpcode()
+	{
+		return _opcode;
+	}
+
+	public LineageItem[] getInputs()
+	{
+		return _inputs;
+	}
+
+	/**
+	 * Gets the length of the longest path to a leaf.
+	 *
+	 * @return
+	 */
+	public int getDepth()
+	{
+		return _depth;
+	}
+
+	@Override
+	public int hashCode()
+	{
+		return _hash;
+	}
+
+	@Override
+	public boolean equals( Object o )
+	{
+		if( this == o )
+			return true;
+		if( !(o instanceof LineageItem) )
+			return false;
+
+		LineageItem that = (LineageItem) o;
+		return _hash == that._hash
+			&& _depth == that._depth
+			&& _opcode.equals(that._opcode)
+			&& Arrays.equals(_inputs, that._inputs);
+	}
+
+	@Override
+	public String toString()
+	{
+		StringBuilder sb = new StringBuilder();
+		sb.append(_opcode);
+		if( _inputs.length > 0 ) {
+			sb.append("(");
+			for( int i=0; i<_inputs.length; i++ ) {
+				if( i>0 )
+					sb.append(",");
+				sb.append(_inputs[i].toString());
+			}
+			sb.append(")");
+		}
+		return sb.toString();
+	}
+}
@@ -0,0 +1,565 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.ibm.bi.dml.runtime.controlprogram.caching;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Method;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
+import com.ibm.bi.dml.runtime.util.FastBufferedDataInputStream;
+import com.ibm.bi.dml.runtime.util.FastBufferedDataOutputStream;
+import com.ibm.bi.dml.runtime.util.LocalFileUtils;
+
+/**
+ * Local spill store for evicted matrices, backed by memory-mapped segment files
+ * instead of individual files per matrix. Space is allocated append-only within
+ * the active segment; a segment is reclaimed (truncated for reuse if active, deleted
+ * otherwise) as soon as all its entries have been deleted.
+ *
+ * Dense blocks are written and read via bulk copies of the dense array from/to the
+ * mapped region (native byte order, no per-cell (de)serialization). All other blocks
+ * and serialized buffers are written in their serialized representation via positional
+ * channel IO. The store is process-local and hence the format is not portable.
+ * Mapped regions are unmapped right after each bulk copy, i.e., closed segments
+ * do not hold any mapped memory or file handles until garbage collection.
+ * Concurrent reads pin the segment of their entry, which defers the reuse or close
+ * of reclaimed segments until all pinned readers have finished.
+ *
+ */
+public class MappedSpillStore
+{
+	//default segment size, larger entries get a dedicated segment
+	private static final long SEGMENT_SIZE = 256L*1024*1024; //256MB
+	//max size of a single mapped region (mapped buffers are limited to 2GB)
+	private static final long MAX_MAP_SIZE = 1L*1024*1024*1024; //1GB
+
+	private static final String SEGMENT_PREFIX = "spill";
+	private static final String SEGMENT_EXTENSION = ".seg";
+
+	//index of <filename,entry> pairs and segments (guarded by index lock)
+	private static HashMap<String, SpillEntry> _index = new HashMap<String, SpillEntry>();
+	private static ArrayList<Segment> _segments = new ArrayList<Segment>();
+	private static Segment _active = null;
+	private static int _seq = 0;
+
+	/**
+	 *
+	 */
+	public static void init()
+	{
+		cleanup();
+	}
+
+	/**
+	 * Closes and deletes all segment files.
+	 */
+	public static void cleanup()
+	{
+		synchronized( _index )
+		{
+			for( Segment seg : _segments )
+				seg.close();
+			_segments.clear();
+			_index.clear();
+			_active = null;
+		}
+	}
+
+	/**
+	 *
+	 * @param fname
+	 * @return
+	 */
+	public static boolean contains( String fname )
+	{
+		synchronized( _index ) {
+			return _index.containsKey(fname);
+		}
+	}
+
+	/**
+	 *
+	 * @param fname
+	 * @param mb
+	 * @throws IOException
+	 */
+	public static void writeMatrix( String fname, MatrixBlock mb )
+		throws IOException
+	{
+		//remove existing entry (outdated data)
+		deleteMatrix(fname);
+
+		double[] a = mb.getDenseArray();
+		boolean dense = (a != null);
+		long len = dense ? 8L*mb.getNumRows()*mb.getNumColumns() : mb.getExactSizeOnDisk();
+
+		//allocate region (append-only)
+		SpillEntry entry = allocate(fname, len, dense);
+		boolean success = false;
+
+		try
+		{
+			if( dense ) //DENSE: bulk copy into mapped regions
+			{
+				entry.rlen = mb.getNumRows();
+				entry.clen = mb.getNumColumns();
+				entry.nnz = mb.getNonZeros();
+	
+				int n = (int)(len/8);
+				int blksize = (int)(MAX_MAP_SIZE/8);
+				for( int i=0; i<n; i+=blksize ) {
+					int lblksize = Math.min(blksize, n-i);
+					MappedByteBuffer buff = entry.seg.channel.map(MapMode.READ_WRITE, entry.offset+8L*i, 8L*lblksize);
+					try {
+						buff.order(ByteOrder.nativeOrder()).asDoubleBuffer().put(a, i, lblksize);
+					}
+					finally {
+						unmap(buff);
+					}
+				}
+			}
+			else //SPARSE/EMPTY: serialized representation
+			{
+				FastBufferedDataOutputStream out = new FastBufferedDataOutputStream(
+						new ChannelOutputStream(entry.seg.channel, entry.offset), LocalFileUtils.BUFFER_SIZE);
+				try {
+					mb.write(out);
+				}
+				finally {
+					out.close();
+				}
+			}
+			success = true;
+		}
+		finally
+		{
+			//publish entry after successful write, otherwise release allocation
+			synchronized( _index ) {
+				if( success )
+					_index.put(fname, entry);
+				else
+					release(entry);
+			}
+		}
+	}
+
+	/**
+	 * Writes an already serialized matrix block.
+	 *
+	 * @param fname
+	 * @param data
+	 * @throws IOException
+	 */
+	public static void writeByteArray( String fname, byte[] data )
+		throws IOException
+	{
+		//remove existing entry (outdated data)
+		deleteMatrix(fname);
+
+		SpillEntry entry = allocate(fname, data.length, false);
+		boolean success = false;
+
+		try {
+			OutputStream out = new ChannelOutputStream(entry.seg.channel, entry.offset);
+			out.write(data);
+			success = true;
+		}
+		finally {
+			//publish entry after successful write, otherwise release allocation
+			synchronized( _index ) {
+				if( success )
+					_index.put(fname, entry);
+				else
+					release(entry);
+			}
+		}
+	}
+
+	/**
+	 *
+	 * @param fname
+	 * @return
+	 * @throws IOException
+	 */
+	public static MatrixBlock readMatrix( String fname )
+		throws IOException
+	{
+		//pin segment of entry (prevents reuse on concurrent delete)
+		SpillEntry entry = null;
+		synchronized( _index ) {
+			entry = _index.get(fname);
+			if( entry != null )
+				entry.seg.readers++;
+		}
+		if( entry == null )
+			throw new IOException("Spill store entry "+fname+" does not exist.");
+
+		try {
+			return readMatrix(entry);
+		}
+		finally {
+			//unpin segment and reclaim if released meanwhile
+			synchronized( _index ) {
+				entry.seg.readers--;
+				reclaim(entry.seg);
+			}
+		}
+	}
+
+	/**
+	 * Reads the given entry, whose segment is pinned by the caller.
+	 * 
+	 * @param entry
+	 * @return
+	 * @throws IOException
+	 */
+	private static MatrixBlock readMatrix( SpillEntry entry )
+		throws IOException
+	{
+		MatrixBlock ret = null;
+
+		if( entry.dense ) //DENSE: bulk copy from mapped regions
+		{
+			ret = new MatrixBlock(entry.rlen, entry.clen, false);
+			ret.allocateDenseBlock();
+			double[] c = ret.getDenseArray();
+
+			int n = (int)(entry.length/8);
+			int blksize = (int)(MAX_MAP_SIZE/8);
+			for( int i=0; i<n; i+=blksize ) {
+				int lblksize = Math.min(blksize, n-i);
+				MappedByteBuffer buff = entry.seg.channel.map(MapMode.READ_ONLY, entry.offset+8L*i, 8L*lblksize);
+				try {
+					buff.order(ByteOrder.nativeOrder()).asDoubleBuffer().get(c, i, lblksize);
+				}
+				finally {
+					unmap(buff);
+				}
+			}
+			ret.setNonZeros(entry.nnz);
+		}
+		else //SPARSE/EMPTY: serialized representation
+		{
+			ret = new MatrixBlock();
+			FastBufferedDataInputStream in = new FastBufferedDataInputStream(
+					new ChannelInputStream(entry.seg.channel, entry.offset), LocalFileUtils.BUFFER_SIZE);
+			try {
+				ret.readFields(in);
+			}
+			finally {
+				in.close();
+			}
+		}
+
+		return ret;
+	}
+
+	/**
+	 * Deletes the given entry (if existing) and reclaims the space of its
+	 * segment if the segment contains no other live entries.
+	 *
+	 * @param fname
+	 * @return true if the entry existed
+	 */
+	public static boolean deleteMatrix( String fname )
+	{
+		synchronized( _index )
+		{
+			SpillEntry entry = _index.remove(fname);
+			if( entry == null )
+				return false;
+
+			release(entry);
+			return true;
+		}
+	}
+
+	/**
+	 * Returns the number of allocated (live) bytes over all segments.
+	 *
+	 * @return
+	 */
+	public static long getAllocatedSize()
+	{
+		synchronized( _index )
+		{
+			long ret = 0;
+			for( Segment seg : _segments )
+				ret += seg.live;
+			return ret;
+		}
+	}
+
+	/**
+	 * Returns the number of open segment files.
+	 *
+	 * @return
+	 */
+	public static int getNumSegments()
+	{
+		synchronized( _index ) {
+			return _segments.size();
+		}
+	}
+
+	/**
+	 * Releases the region of the given entry and reclaims the space of its
+	 * segment if the segment contains no other live entries. This method
+	 * must be called while holding the index lock.
+	 *
+	 * @param entry
+	 */
+	private static void release( SpillEntry entry )
+	{
+		entry.seg.live -= entry.length;
+		reclaim(entry.seg);
+	}
+	
+	/**
+	 * Reclaims the space of the given segment if it contains no live entries
+	 * and is not pinned by concurrent readers. This method must be called 
+	 * while holding the index lock.
+	 * 
+	 * @param seg
+	 */
+	private static void reclaim( Segment seg )
+	{
+		if( seg.live <= 0 && seg.readers <= 0 && _segments.contains(seg) ) {
+			if( seg == _active ) {
+				seg.pos = 0; //reuse active segment
+			}
+			else {
+				seg.close();
+				_segments.remove(seg);
+			}
+		}
+	}
+
+	/**
+	 * Explicitly unmaps the given mapped region via its cleaner because mapped
+	 * regions are otherwise only released on garbage collection, which keeps
+	 * deleted segment files and the mapped virtual memory alive. If the cleaner
+	 * is not accessible, we fall back to the release on garbage collection.
+	 *
+	 * @param buff
+	 */
+	private static void unmap( MappedByteBuffer buff )
+	{
+		try {
+			Method mcleaner = buff.getClass().getMethod("cleaner");
+			mcleaner.setAccessible(true);
+			Object cleaner = mcleaner.invoke(buff);
+			if( cleaner != null ) {
+				Method mclean = cleaner.getClass().getMethod("clean");
+				mclean.setAccessible(true);
+				mclean.invoke(cleaner);
+			}
+		}
+		catch(Exception ex) {
+			//ignore, released on garbage collection
+		}
+	}
+
+	/**
+	 * Allocates a region of the given size in the active segment, or
+	 * in a new segment if the active segment has not enough space left.
+	 *
+	 * @param fname
+	 * @param len
+	 * @param dense
+	 * @return
+	 * @throws IOException
+	 */
+	private static SpillEntry allocate( String fname, long len, boolean dense )
+		throws IOException
+	{
+		synchronized( _index )
+		{
+			if( _active == null || (_active.pos > 0 && _active.pos+len > SEGMENT_SIZE) )
+			{
+				//seal active segment (and reclaim if empty and not pinned)
+				Segment sealed = _active;
+				_active = null;
+				if( sealed != null )
+					reclaim(sealed);
+
+				//create new segment file
+				String sname = CacheableData.cacheEvictionLocalFilePath + SEGMENT_PREFIX
+						+ String.format("%05d", _seq++) + SEGMENT_EXTENSION;
+				_active = new Segment(new File(sname));
+				_segments.add(_active);
+			}
+
+			SpillEntry entry = new SpillEntry(_active, _active.pos, len, dense);
+			_active.pos += len;
+			_active.live += len;
+
+			return entry;
+		}
+	}
+
+	/**
+	 * Segment file with append position, number of live bytes, and
+	 * number of pinned readers.
+	 *
+	 */
+	private static class Segment
+	{
+		private final File file;
+		private final RandomAccessFile raf;
+		private final FileChannel channel;
+		private long pos = 0;
+		private long live = 0;
+		private int readers = 0;
+
+		public Segment( File f )
+			throws IOException
+		{
+			file = f;
+			raf = new RandomAccessFile(f, "rw");
+			channel = raf.getChannel();
+		}
+
+		public void close()
+		{
+			//note: no mapped regions left (unmapped after each access)
+			try {
+				channel.close();
+				raf.close();
+			}
+			catch(IOException ex) {
+				//ignore close exceptions
+			}
+			if( file.exists() )
+				file.delete();
+		}
+	}
+
+	/**
+	 * Region of a segment, incl meta data of dense blocks.
+	 *
+	 */
+	private static class SpillEntry
+	{
+		private final Segment seg;
+		private final long offset;
+		private final long length;
+		private final boolean dense;
+		private int rlen = -1;
+		private int clen = -1;
+		private long nnz = -1;
+
+		public SpillEntry( Segment s, long off, long len, boolean d )
+		{
+			seg = s;
+			offset = off;
+			length = len;
+			dense = d;
+		}
+	}
+
+	/**
+	 * Output stream for positional writes into a file channel, which allows
+	 * concurrent writes into disjoint regions of the same segment.
+	 *
+	 */
+	private static class ChannelOutputStream extends OutputStream
+	{
+		private final FileChannel _channel;
+		private long _pos;
+
+		public ChannelOutputStream( FileChannel channel, long pos )
+		{
+			_channel = channel;
+			_pos = pos;
+		}
+
+		@Override
+		public void write(int b)
+			throws IOException
+		{
+			write(new byte[]{(byte)b}, 0, 1);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len)
+			throws IOException
+		{
+			java.nio.ByteBuffer buff = java.nio.ByteBuffer.wrap(b, off, len);
+			while( buff.hasRemaining() )
+				_pos += _channel.write(buff, _pos);
+		}
+
+		@Override
+		public void close()
+		{
+			//no close of shared segment channel
+		}
+	}
+
+	/**
+	 * Input stream for positional reads from a file channel.
+	 *
+	 */
+	private static class ChannelInputStream extends InputStream
+	{
+		private final FileChannel _channel;
+		private long _pos;
+
+		public ChannelInputStream( FileChannel channel, long pos )
+		{
+			_channel = channel;
+			_pos = pos;
+		}
+
+		@Override
+		public int read()
+			throws IOException
+		{
+			byte[] b = new byte[1];
+			int n = read(b, 0, 1);
+			return (n <= 0) ? -1 : (b[0] & 0xFF);
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len)
+			throws IOException
+		{
+			int n = _channel.read(java.nio.ByteBuffer.wrap(b, off, len), _pos);
+			if( n > 0 )
+				_pos += n;
+			return n;
+		}
+
+		@Override
+		public void close()
+		{
+			//no close of shared segment channel
+		}
+	}
+}
@@ -71,8 +71,9 @@ public class MatrixObject extends CacheableData
 
 	/**
 	 * Container object that holds the actual data.
+	 * (volatile in order to allow unsynchronized unpinned in-memory reads)
 	 */
-	private MatrixBlock _data = null;
+	private volatile MatrixBlock _data = null;
 
 	/**
 	 * The name of HDFS file in which the data is backed up.
@@ -113,6 +114,8 @@ public class MatrixObject extends CacheableData
 	private boolean _isAcquireFromEmpty = false; //flag if read from status empty 
 	private boolean _cleanupFlag = true; //flag if obj unpinned (cleanup enabled)
 	private boolean _updateInPlaceFlag = false; //flag if in-place update
+	private boolean _liveHint = false; //flag if live-out of current program block (for cost-based eviction)
+	private LineageItem _lineage = null; //lineage of the data (for reuse of intermediates), null if unknown
 	
 	//spark-specific handles
 	//note: we use the abstraction of LineageObjects for two reasons: (1) to keep track of cleanup
@@ -455,10 +458,31 @@ public class MatrixObject extends CacheableData
 	 * In-Status:  EMPTY, EVICTABLE, EVICTED, READ;
 	 * Out-Status: READ(+1).
 	 * 
+	 * If caching is disabled (pure in-memory execution, e.g., JMLC), the data is
+	 * never evicted. Hence, reads of in-memory data are unpinned, i.e., they take 
+	 * neither the object lock nor change the cache status, and the corresponding
+	 * release is a no-op (see {@link #release()}).
+	 * 
 	 * @return the matrix data reference
 	 * @throws CacheException 
 	 */
-	public synchronized MatrixBlock acquireRead()
+	public MatrixBlock acquireRead()
+		throws CacheException
+	{
+		//fast path for pure in-memory execution w/o caching (unpinned read)
+		MatrixBlock data = _data;
+		if( data != null && !isCachingActive() && !isModify() )
+			return data;
+		
+		return acquireReadIntern();
+	}
+	
+	/**
+	 * 
+	 * @return
+	 * @throws CacheException
+	 */
+	private synchronized MatrixBlock acquireReadIntern()
 		throws CacheException
 	{
 		if( LOG.isTraceEnabled() )
@@ -524,6 +548,10 @@ public class MatrixObject extends CacheableData
 		//cache status maintenance
 		super.acquire( false, _data==null );	
 		
+		//unpin data read w/o caching (consistent with unpinned in-memory reads)
+		if( !isCachingActive() )
+			super.release(_isAcquireFromEmpty && !_requiresLocalWrite);
+		
 		if( DMLScript.STATISTICS ){
 			long t1 = System.nanoTime();
 			CacheStatistics.incrementAcquireRTime(t1-t0);
@@ -553,6 +581,9 @@ public class MatrixObject extends CacheableData
 		if ( !isAvailableToModify() )
 			throw new CacheStatusException("MatrixObject not available to modify.");
 		
+		//invalidate lineage of modified data
+		_lineage = null;
+		
 		//get object from cache
 		if( _data == null )
 			getCache();
@@ -603,6 +634,9 @@ public class MatrixObject extends CacheableData
 	public synchronized MatrixBlock acquireModify(MatrixBlock newData)
 		throws CacheException
 	{
+		//invalidate lineage of replaced data
+		_lineage = null;
+		
 		if( LOG.isTraceEnabled() )
 			LOG.trace("Acquire modify newdata "+_varName);
 		long t0 = DMLScript.STATISTICS ? System.nanoTime() : 0;
@@ -641,9 +675,26 @@ public class MatrixObject extends CacheableData
 	 * In-Status:  READ, MODIFY;
 	 * Out-Status: READ(-1), EVICTABLE, EMPTY.
 	 * 
+	 * If caching is disabled, releases of unpinned in-memory reads are no-ops, 
+	 * which also means that redundant releases of reads are not detected.
+	 * 
 	 * @throws CacheStatusException
 	 */
-	public synchronized void release() 
+	public void release() 
+		throws CacheException
+	{
+		//fast path for pure in-memory execution w/o caching (unpinned read)
+		if( !isCachingActive() && !isModify() )
+			return;
+		
+		releaseIntern();
+	}
+	
+	/**
+	 * 
+	 * @throws CacheException
+	 */
+	private synchronized void releaseIntern() 
 		throws CacheException
 	{
 		if( LOG.isTraceEnabled() )
@@ -701,6 +752,61 @@ public class MatrixObject extends CacheableData
 		}
 	}
 
+	/**
+	 * Indicates if this matrix object is evicted and hence a candidate for
+	 * prefetch. This is an unsynchronized hint, prefetch re-checks the status.
+	 * 
+	 * @return
+	 */
+	public boolean isPrefetchable()
+	{
+		SoftReference<MatrixBlock> cache = _cache;
+		return isCachingActive() && _data == null && isCached(false)
+			&& (cache == null || cache.get() == null);
+	}
+	
+	/**
+	 * Restores an evicted matrix into the in-memory (soft reference) cache, 
+	 * without acquiring a lock. Subsequent acquires obtain the data from the
+	 * cache, i.e., the restore is moved off the critical path.
+	 * 
+	 * In-Status:  CACHED;
+	 * Out-Status: CACHED.
+	 * 
+	 * @return true if the matrix was restored
+	 * @throws CacheException
+	 */
+	public synchronized boolean prefetch()
+		throws CacheException
+	{
+		//check for evicted matrix (status might have changed)
+		if( !isCachingActive() || _data != null || !isCached(false) )
+			return false;
+		
+		getCache();
+		boolean restore = (_data == null);
+		if( restore )
+			restoreBlobIntoMemory();
+		
+		//keep data only in soft reference cache
+		createCache();
+		_data = null;
+		
+		return restore;
+	}
+	
+	/**
+	 * Clears the in-memory (soft reference) cache of an evicted matrix, which 
+	 * mimics the garbage collection of cached data under memory pressure (e.g., 
+	 * for tests of prefetch). Subsequent acquires restore the evicted matrix.
+	 * 
+	 */
+	public synchronized void clearSoftReferenceCache()
+	{
+		if( _data == null )
+			clearCache();
+	}
+	
 	/**
 	 * Sets the matrix data reference to <code>null</code>, abandons the old matrix.
 	 * Makes the "envelope" empty.  Run it to finalize the matrix (otherwise the
@@ -729,6 +835,7 @@ public class MatrixObject extends CacheableData
 		
 		// clear the in-memory data
 		_data = null;	
+		_lineage = null;
 		clearCache();
 		
 		// clear rdd/broadcast back refs
@@ -742,6 +849,27 @@ public class MatrixObject extends CacheableData
 		setEmpty();
 	}
 	
+	/**
+	 * Clears the data (see clearData) and returns the dense array of the in-memory
+	 * matrix block to the array pool. This is only valid if there are no remaining 
+	 * references to this matrix object (e.g., on rmvar), and skipped for blocks that
+	 * might be shared with rdds, broadcasts, or in-place updates.
+	 * 
+	 * @throws CacheException
+	 */
+	public synchronized void clearDataAndRecycle() 
+		throws CacheException
+	{
+		MatrixBlock mb = _data;
+		boolean recycle = (mb != null && _cleanupFlag && isAvailableToModify()
+			&& !isUpdateInPlace() && _rddHandle == null && _bcHandle == null);
+		
+		clearData();
+		
+		if( recycle )
+			mb.cleanupBlock(true, false);
+	}
+	
 	public synchronized void exportData()
 		throws CacheException
 	{
@@ -824,6 +952,10 @@ public class MatrixObject extends CacheableData
 		else {
 			pWrite = true;  // i.e., export is called from "write" instruction
 		}
+		
+		//invalidate lineage of reads of the written file (prevent stale reuse)
+		if( pWrite && CACHING_REUSE )
+			LineageCache.invalidateFile(fName);
 
 		//actual export (note: no direct transfer of local copy in order to ensure blocking (and hence, parallelism))
 		if(  isDirty()  ||      //use dirty for skipping parallel exports
@@ -867,7 +999,7 @@ public class MatrixObject extends CacheableData
 			}
 			finally
 			{
-				release();
+				releaseIntern(); //full release, incl. w/o caching
 			}
 		}
 		else if( pWrite ) // pwrite with same output format
@@ -1340,7 +1472,7 @@ public class MatrixObject extends CacheableData
 		{
 			//prevent unnecessary collect through rdd checkpoint
 			if( rdd.allowsShortCircuitCollect() ) {
-				lrdd = (RDDObject)rdd.getLineageChilds().get(0);
+				lrdd = (RDDObject)rdd.getCheckpointInput();
 			}
 			
 			//obtain matrix block from RDD
@@ -1446,7 +1578,7 @@ public class MatrixObject extends CacheableData
 	private void writeMatrix (String filePathAndName)
 		throws DMLRuntimeException, IOException
 	{
-		LazyWriteBuffer.writeMatrix(filePathAndName, _data);
+		LazyWriteBuffer.writeMatrix(filePathAndName, _data, _liveHint);
 	}
 
 	/**
@@ -1635,6 +1767,49 @@ public class MatrixObject extends CacheableData
 		return _cleanupFlag;
 	}
 	
+	/**
+	 * Sets the liveness hint (e.g., live-out of the current program block)
+	 * for cost-based buffer eviction, incl the hint of an existing buffer entry.
+	 * 
+	 * @param flag
+	 */
+	public synchronized void setLiveHint(boolean flag)
+	{
+		if( _liveHint == flag )
+			return;
+		
+		_liveHint = flag;
+		if( isCachingActive() && isCached(false) )
+			LazyWriteBuffer.setLiveHint(getCacheFilePathAndName(), flag);
+	}
+	
+	/**
+	 * 
+	 * @return
+	 */
+	public boolean isLiveHint()
+	{
+		return _liveHint;
+	}
+	
+	/**
+	 * 
+	 * @param lineage
+	 */
+	public synchronized void setLineage(LineageItem lineage)
+	{
+		_lineage = lineage;
+	}
+	
+	/**
+	 * 
+	 * @return
+	 */
+	public synchronized LineageItem getLineage()
+	{
+		return _lineage;
+	}
+	
 	/**
 	 * 
 	 * @param flag
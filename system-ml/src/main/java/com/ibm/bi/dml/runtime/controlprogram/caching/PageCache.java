@@ -19,10 +19,19 @@ package com.ibm.bi.dml.runtime.controlprogram.caching;
 
 import java.lang.ref.SoftReference;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.Map.Entry;
+
+import com.ibm.bi.dml.api.DMLScript;
+import com.ibm.bi.dml.runtime.controlprogram.parfor.stat.InfrastructureAnalyzer;
 
 /**
- * 
+ * Pools of reusable arrays, bucketed by exact array length. Besides the pages of
+ * serialized matrices (byte[]), this includes a bounded pool of double[] and int[]
+ * arrays for dense blocks and large temporary buffers, which reduces the allocation 
+ * and garbage collection overhead of iterative scripts that repeatedly create and 
+ * drop intermediates of identical size. All pooled arrays are held via soft references.
  * 
  */
 public class PageCache 
@@ -31,6 +40,15 @@ public class PageCache
 	private static final int CLEANUP_THRESHOLD = 128;
 	private static HashMap<Integer, LinkedList<SoftReference<byte[]>>> _pool;
 	
+	//array pool configuration (min array length, max fraction of heap)
+	public static final int ARRAY_MIN_SIZE = 64*1024; //64K elements
+	private static final double ARRAY_POOL_FRACTION = 0.05; 
+	
+	//array pools for double[] and int[] (guarded by class lock)
+	private static ArrayPool<double[]> _dpool = null;
+	private static ArrayPool<int[]> _ipool = null;
+	private static long _arrayLimit = 0; //in bytes
+	
 	/**
 	 * 
 	 */
@@ -83,4 +101,189 @@ public class PageCache
 		}
 		return null;
 	}
+	
+	/**
+	 * 
+	 */
+	public static synchronized void initArrayPool()
+	{
+		_dpool = new ArrayPool<double[]>(8);
+		_ipool = new ArrayPool<int[]>(4);
+		_arrayLimit = (long)(ARRAY_POOL_FRACTION * InfrastructureAnalyzer.getLocalMaxMemory());
+	}
+	
+	/**
+	 * 
+	 */
+	public static synchronized void clearArrayPool()
+	{
+		_dpool = null;
+		_ipool = null;
+	}
+	
+	/**
+	 * Obtains a pooled double array of the given length, or null if no such array is
+	 * available. Note that the content of returned arrays is undefined, i.e., callers
+	 * need to reset the array if required.
+	 * 
+	 * @param len
+	 * @return
+	 */
+	public static double[] getDoubleArray( int len )
+	{
+		if( len < ARRAY_MIN_SIZE )
+			return null;
+		
+		synchronized( PageCache.class ) {
+			if( _dpool == null )
+				return null;
+			double[] ret = _dpool.get(len);
+			if( DMLScript.STATISTICS )
+				CacheStatistics.incrementArrayPoolHits(ret != null);
+			return ret;
+		}
+	}
+	
+	/**
+	 * Returns the given double array to the pool. The caller must not hold 
+	 * any references to the array afterwards.
+	 * 
+	 * @param data
+	 */
+	public static void putDoubleArray( double[] data )
+	{
+		if( data == null || data.length < ARRAY_MIN_SIZE )
+			return;
+		
+		synchronized( PageCache.class ) {
+			if( _dpool != null && reserveArray(8L*data.length) )
+				_dpool.put(data, data.length);
+		}
+	}
+	
+	/**
+	 * Obtains a pooled int array of the given length, or null if no such array is
+	 * available. Note that the content of returned arrays is undefined.
+	 * 
+	 * @param len
+	 * @return
+	 */
+	public static int[] getIntArray( int len )
+	{
+		if( len < ARRAY_MIN_SIZE )
+			return null;
+		
+		synchronized( PageCache.class ) {
+			if( _ipool == null )
+				return null;
+			int[] ret = _ipool.get(len);
+			if( DMLScript.STATISTICS )
+				CacheStatistics.incrementArrayPoolHits(ret != null);
+			return ret;
+		}
+	}
+	
+	/**
+	 * Returns the given int array to the pool. The caller must not hold 
+	 * any references to the array afterwards.
+	 * 
+	 * @param data
+	 */
+	public static void putIntArray( int[] data )
+	{
+		if( data == null || data.length < ARRAY_MIN_SIZE )
+			return;
+		
+		synchronized( PageCache.class ) {
+			if( _ipool != null && reserveArray(4L*data.length) )
+				_ipool.put(data, data.length);
+		}
+	}
+	
+	/**
+	 * Checks if an array of the given size fits into the pool budget, where
+	 * references cleared by the garbage collector are purged on demand.
+	 * 
+	 * @param size
+	 * @return
+	 */
+	private static boolean reserveArray( long size )
+	{
+		if( _dpool.getSize() + _ipool.getSize() + size > _arrayLimit ) {
+			_dpool.purge();
+			_ipool.purge();
+		}
+		
+		return (_dpool.getSize() + _ipool.getSize() + size <= _arrayLimit);
+	}
+	
+	/**
+	 * Size-bucketed pool of soft-referenced arrays, incl the total size of
+	 * all pooled arrays (which includes not yet purged cleared references).
+	 * 
+	 */
+	private static class ArrayPool<T>
+	{
+		private final HashMap<Integer, LinkedList<SoftReference<T>>> _buckets;
+		private final int _elemSize;
+		private long _size = 0; //in bytes
+		
+		public ArrayPool( int elemSize )
+		{
+			_buckets = new HashMap<Integer, LinkedList<SoftReference<T>>>();
+			_elemSize = elemSize;
+		}
+		
+		public long getSize()
+		{
+			return _size;
+		}
+		
+		public T get( int len )
+		{
+			LinkedList<SoftReference<T>> list = _buckets.get( len );
+			if( list!=null ) {
+				while( !list.isEmpty() ) {
+					T tmp = list.removeFirst().get();
+					_size -= (long)_elemSize * len;
+					if( tmp!=null )
+						return tmp;
+				}
+			}
+			return null;
+		}
+		
+		public void put( T data, int len )
+		{
+			//cleanup if too many different size lists
+			if( _buckets.size()>CLEANUP_THRESHOLD ) {
+				_buckets.clear();
+				_size = 0;
+			}
+			
+			LinkedList<SoftReference<T>> list = _buckets.get( len );
+			if( list==null ){
+				list = new LinkedList<SoftReference<T>>();
+				_buckets.put(len, list);
+			}
+			list.addLast(new SoftReference<T>(data));
+			_size += (long)_elemSize * len;
+		}
+		
+		public void purge()
+		{
+			Iterator<Entry<Integer, LinkedList<SoftReference<T>>>> iter = _buckets.entrySet().iterator();
+			while( iter.hasNext() ) {
+				Entry<Integer, LinkedList<SoftReference<T>>> e = iter.next();
+				Iterator<SoftReference<T>> iter2 = e.getValue().iterator();
+				while( iter2.hasNext() )
+					if( iter2.next().get()==null ) {
+						iter2.remove();
+						_size -= (long)_elemSize * e.getKey();
+					}
+				if( e.getValue().isEmpty() )
+					iter.remove();
+			}
+		}
+	}
 }
@@ -17,8 +17,15 @@
 
 package com.ibm.bi.dml.runtime.controlprogram.context;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -46,6 +53,7 @@ import com.ibm.bi.dml.runtime.controlprogram.parfor.stat.InfrastructureAnalyzer;
 import com.ibm.bi.dml.runtime.instructions.spark.SPInstruction;
 import com.ibm.bi.dml.runtime.instructions.spark.data.BroadcastObject;
 import com.ibm.bi.dml.runtime.instructions.spark.data.LineageObject;
+import com.ibm.bi.dml.runtime.instructions.spark.data.PartitionedBroadcastMatrix;
 import com.ibm.bi.dml.runtime.instructions.spark.data.PartitionedMatrixBlock;
 import com.ibm.bi.dml.runtime.instructions.spark.data.RDDObject;
 import com.ibm.bi.dml.runtime.instructions.spark.functions.ComputeNonZerosBlockFunction;
@@ -53,13 +61,16 @@ import com.ibm.bi.dml.runtime.instructions.spark.functions.CopyBinaryCellFunctio
 import com.ibm.bi.dml.runtime.instructions.spark.functions.CopyBlockPairFunction;
 import com.ibm.bi.dml.runtime.instructions.spark.functions.CopyTextInputFunction;
 import com.ibm.bi.dml.runtime.instructions.spark.utils.RDDAggregateUtils;
+import com.ibm.bi.dml.runtime.instructions.spark.utils.SparkKryoRegistrator;
 import com.ibm.bi.dml.runtime.instructions.spark.utils.SparkUtils;
 import com.ibm.bi.dml.runtime.matrix.data.InputInfo;
 import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
 import com.ibm.bi.dml.runtime.matrix.data.MatrixIndexes;
 import com.ibm.bi.dml.runtime.matrix.data.MatrixCell;
 import com.ibm.bi.dml.runtime.matrix.data.OutputInfo;
+import com.ibm.bi.dml.runtime.matrix.data.SparseRow;
 import com.ibm.bi.dml.runtime.matrix.mapred.MRJobConfiguration;
+import com.ibm.bi.dml.runtime.util.CommonThreadPool;
 import com.ibm.bi.dml.runtime.util.MapReduceTool;
 import com.ibm.bi.dml.runtime.util.UtilFunctions;
 import com.ibm.bi.dml.utils.Statistics;
@@ -74,6 +85,11 @@ public class SparkExecutionContext extends ExecutionContext
 	private static boolean LAZY_SPARKCTX_CREATION = true;
 	private static boolean ASYNCHRONOUS_VAR_DESTROY = true;
 	private static boolean FAIR_SCHEDULER_MODE = true;
+	private static boolean KRYO_SERIALIZATION = true;
+	private static final String KRYO_BUFFER_MAX = "2047m"; //max allowed by spark
+	
+	//max fraction of local memory for collected partitions (per batch, small batches in tests)
+	public static double COLLECT_BATCH_FRACTION = 0.05;
 	
 	//executor memory and relative fractions as obtained from the spark configuration
 	private static long _memExecutors = -1; //mem per executors
@@ -182,6 +198,7 @@ public class SparkExecutionContext extends ExecutionContext
 				// This is discouraged in spark but have added only for those testcase that cannot stop the context properly
 				// conf.set("spark.driver.allowMultipleContexts", "true");
 				conf.set("spark.ui.enabled", "false");
+				setKryoSerialization(conf);
 				_spctx = new JavaSparkContext(conf);
 			}
 			else //default cluster setup
@@ -199,6 +216,9 @@ public class SparkExecutionContext extends ExecutionContext
 					conf.set("spark.scheduler.mode", "FAIR");
 				}
 				
+				//use kryo w/ our custom serializers for shuffles of matrix indexes/blocks
+				setKryoSerialization(conf);
+				
 				_spctx = new JavaSparkContext(conf);
 			}
 		}
@@ -214,6 +234,27 @@ public class SparkExecutionContext extends ExecutionContext
 		}
 	}	
 	
+	/**
+	 * Enables kryo serialization and registers our custom serializers (unless
+	 * the user explicitly configured a different serializer or registrator).
+	 * Since kryo is also used for task results, we raise the max serialization 
+	 * buffer (default 64MB) to its upper limit in order to allow the collect of 
+	 * large partitions (unless explicitly configured by the user).
+	 * 
+	 * @param conf
+	 */
+	public static void setKryoSerialization( SparkConf conf )
+	{
+		if( KRYO_SERIALIZATION && !conf.contains("spark.serializer") 
+			&& !conf.contains("spark.kryo.registrator") ) 
+		{
+			conf.set("spark.serializer", "org.apache.spark.serializer.KryoSerializer");
+			conf.set("spark.kryo.registrator", SparkKryoRegistrator.class.getName());
+			if( !conf.contains("spark.kryoserializer.buffer.max") )
+				conf.set("spark.kryoserializer.buffer.max", KRYO_BUFFER_MAX);
+		}
+	}
+	
 	/**
 	 * Spark instructions should call this for all matrix inputs except broadcast
 	 * variables.
@@ -330,12 +371,29 @@ public class SparkExecutionContext extends ExecutionContext
 	 * @throws DMLRuntimeException
 	 * @throws DMLUnsupportedOperationException
 	 */
-	public Broadcast<PartitionedMatrixBlock> getBroadcastForVariable( String varname ) 
+	public PartitionedBroadcastMatrix getBroadcastForVariable( String varname ) 
+		throws DMLRuntimeException, DMLUnsupportedOperationException
+	{
+		return getBroadcastForVariable(varname, false);
+	}
+	
+	/**
+	 * Obtains a chunked broadcast of the given variable, where colMajor specifies the
+	 * order of blocks within chunks (column-major for consumers that access column
+	 * stripes). An existing valid broadcast is reused independent of its order.
+	 * 
+	 * @param varname
+	 * @param colMajor
+	 * @return
+	 * @throws DMLRuntimeException
+	 * @throws DMLUnsupportedOperationException
+	 */
+	public PartitionedBroadcastMatrix getBroadcastForVariable( String varname, boolean colMajor ) 
 		throws DMLRuntimeException, DMLUnsupportedOperationException
 	{
 		MatrixObject mo = getMatrixObject(varname);
 		
-		Broadcast<PartitionedMatrixBlock> bret = null;
+		PartitionedBroadcastMatrix bret = null;
 		if(    mo.getBroadcastHandle()!=null 
 			&& mo.getBroadcastHandle().getBroadcast().isValid() ) 
 		{
@@ -349,8 +407,11 @@ public class SparkExecutionContext extends ExecutionContext
 			
 			//read data into memory (no matter where it comes from)
 			MatrixBlock mb = mo.acquireRead();
-			PartitionedMatrixBlock pmb = new PartitionedMatrixBlock(mb, brlen, bclen);
-			bret = getSparkContext().broadcast(pmb);
+			
+			//create chunked broadcast (one broadcast per contiguous range of blocks), 
+			//which allows executors to fetch only the chunks of accessed blocks
+			int chunkLen = PartitionedBroadcastMatrix.computeChunkLength(mb, brlen, bclen);
+			bret = createPartitionedBroadcast(getSparkContext(), mb, brlen, bclen, chunkLen, colMajor);
 			BroadcastObject bchandle = new BroadcastObject(bret, varname);
 			mo.setBroadcastHandle(bchandle);
 			mo.release();
@@ -359,6 +420,32 @@ public class SparkExecutionContext extends ExecutionContext
 		return bret;
 	}
 	
+	/**
+	 * Creates a chunked broadcast of the given matrix block with chunkLen blocks per chunk
+	 * in row-major or column-major order of block indexes.
+	 * 
+	 * @param sc
+	 * @param mb
+	 * @param brlen
+	 * @param bclen
+	 * @param chunkLen
+	 * @param colMajor
+	 * @return
+	 */
+	@SuppressWarnings("unchecked")
+	public static PartitionedBroadcastMatrix createPartitionedBroadcast( JavaSparkContext sc, MatrixBlock mb, 
+			int brlen, int bclen, int chunkLen, boolean colMajor )
+	{
+		int nblks = (int)(Math.ceil((double)mb.getNumRows()/brlen) * Math.ceil((double)mb.getNumColumns()/bclen));
+		Broadcast<PartitionedMatrixBlock>[] bc = new Broadcast[(int)Math.ceil((double)nblks/chunkLen)];
+		for( int i=0; i<bc.length; i++ ) {
+			PartitionedMatrixBlock pmb = new PartitionedMatrixBlock(mb, brlen, bclen, 
+					i*chunkLen, Math.min(chunkLen, nblks-i*chunkLen), colMajor);
+			bc[i] = sc.broadcast(pmb);
+		}
+		return new PartitionedBroadcastMatrix(bc, mb.getNumRows(), mb.getNumColumns(), brlen, bclen, chunkLen, colMajor);
+	}
+	
 	/**
 	 * Keep the output rdd of spark rdd operations as meta data of matrix objects in the 
 	 * symbol table.
@@ -449,8 +536,9 @@ public class SparkExecutionContext extends ExecutionContext
 	 * Utility method for creating a single matrix block out of an RDD. Note that this collect call
 	 * might trigger execution of any pending transformations. 
 	 * 
-	 * NOTE: This is an unguarded utility function, which requires memory for both the output matrix
-	 * and its collected, blocked representation.
+	 * For multiple blocks, partitions are collected in batches (bounded by a fraction of the local
+	 * memory) and copied directly into the pre-allocated output by multiple threads, i.e., the driver 
+	 * requires memory for the output matrix and a single batch of collected blocks only.
 	 * 
 	 * @param rdd
 	 * @param numRows
@@ -480,38 +568,74 @@ public class SparkExecutionContext extends ExecutionContext
 			long lnnz = (nnz >= 0) ? nnz : (long)rlen * clen;
 			boolean sparse = MatrixBlock.evalSparseFormatInMemory(rlen, clen, lnnz);
 			
-			//create output matrix block (w/ lazy allocation)
+			//create and allocate output matrix block (for concurrent copy of disjoint rows)
 			out = new MatrixBlock(rlen, clen, sparse);
-			List<Tuple2<MatrixIndexes,MatrixBlock>> list = rdd.collect();
+			if( sparse )
+				out.allocateSparseRowsBlock();
+			else
+				out.allocateDenseBlock();
 			
-			//copy blocks one-at-a-time into output matrix block
-			for( Tuple2<MatrixIndexes,MatrixBlock> keyval : list )
+			//determine number of partitions per collect batch
+			int numParts = rdd.partitions().size();
+			double sp = Math.min(OptimizerUtils.getSparsity(rlen, clen, lnnz), 1);
+			double partSize = (double)MatrixBlock.estimateSizeInMemory(rlen, clen, sp) / numParts;
+			double budget = COLLECT_BATCH_FRACTION * InfrastructureAnalyzer.getLocalMaxMemory();
+			int batchSize = (int)Math.max(Math.min(budget/partSize, numParts), 1);
+			
+			//meta data of appended column offsets per row block (for sparse rows in order)
+			int nrb = (int)Math.ceil((double)rlen/brlen);
+			int[] lastCol = new int[nrb];
+			boolean[] unsorted = new boolean[nrb];
+			Arrays.fill(lastCol, -1);
+			
+			//collect and copy partitions batch-at-a-time
+			int k = InfrastructureAnalyzer.getLocalParallelism();
+			long onnz = 0;
+			try
 			{
-				//unpack index-block pair
-				MatrixIndexes ix = keyval._1();
-				MatrixBlock block = keyval._2();
-				
-				//compute row/column block offsets
-				int row_offset = (int)(ix.getRowIndex()-1)*brlen;
-				int col_offset = (int)(ix.getColumnIndex()-1)*bclen;
-				int rows = block.getNumRows();
-				int cols = block.getNumColumns();
-				
-				if( sparse ) { //SPARSE OUTPUT
-					//append block to sparse target in order to avoid shifting
-					//note: this append requires a final sort of sparse rows
-					out.appendToSparse(block, row_offset, col_offset);
+				for( int pl=0; pl<numParts; pl+=batchSize )
+				{
+					//collect batch of partitions
+					int[] pids = new int[Math.min(batchSize, numParts-pl)];
+					for( int i=0; i<pids.length; i++ )
+						pids[i] = pl + i;
+					List<Tuple2<MatrixIndexes,MatrixBlock>>[] parts = rdd.collectPartitions(pids);
+					
+					//group blocks by row block (in order of column blocks) 
+					ArrayList<Tuple2<MatrixIndexes,MatrixBlock>> list = new ArrayList<Tuple2<MatrixIndexes,MatrixBlock>>();
+					for( List<Tuple2<MatrixIndexes,MatrixBlock>> part : parts )
+						list.addAll(part);
+					parts = null;
+					Collections.sort(list, new IndexComparator());
+					
+					//copy blocks into output, where each task copies a disjoint set of row blocks
+					ExecutorService pool = CommonThreadPool.get(k);
+					ArrayList<CopyBlocksTask> tasks = new ArrayList<CopyBlocksTask>();
+					for( int i=0; i<k; i++ )
+						tasks.add(new CopyBlocksTask(list, out, brlen, bclen, lastCol, unsorted, k, i));
+					List<Future<Long>> rtasks = pool.invokeAll(tasks);
+					pool.shutdown();
+					for( Future<Long> task : rtasks )
+						onnz += task.get();
 				}
-				else { //DENSE OUTPUT
-					out.copy( row_offset, row_offset+rows-1, 
-							  col_offset, col_offset+cols-1, block, false );	
+				
+				//sort sparse rows of row blocks with out-of-order appends (if any)
+				if( sparse ) {
+					ExecutorService pool = CommonThreadPool.get(k);
+					ArrayList<SortRowsTask> tasks = new ArrayList<SortRowsTask>();
+					for( int i=0; i<k; i++ )
+						tasks.add(new SortRowsTask(out, brlen, unsorted, k, i));
+					for( Future<Object> task : pool.invokeAll(tasks) )
+						task.get();
+					pool.shutdown();
 				}
 			}
+			catch(Exception ex) {
+				throw new DMLRuntimeException(ex);
+			}
 			
 			//post-processing output matrix
-			if( sparse )
-				out.sortSparseRows();
-			out.recomputeNonZeros();
+			out.setNonZeros(onnz);
 			out.examSparsity();
 		}
 		
@@ -797,6 +921,16 @@ public class SparkExecutionContext extends ExecutionContext
 	 * 
 	 * @param inV
 	 */
+	public void cleanupBroadcastVariable(PartitionedBroadcastMatrix bvar) 
+	{
+		for( Broadcast<PartitionedMatrixBlock> bc : bvar.getBroadcasts() )
+			cleanupBroadcastVariable(bc);
+	}
+	
+	/**
+	 * 
+	 * @param bvar
+	 */
 	public void cleanupBroadcastVariable(Broadcast<?> bvar) 
 	{
 		//in comparison to 'unpersist' (which would only delete the broadcast from the executors),
@@ -995,5 +1129,119 @@ public class SparkExecutionContext extends ExecutionContext
 		
 	}
 	
-
+	/**
+	 * Comparator of index-block pairs in row-major order of block indexes.
+	 * 
+	 */
+	private static class IndexComparator implements Comparator<Tuple2<MatrixIndexes,MatrixBlock>>
+	{
+		@Override
+		public int compare(Tuple2<MatrixIndexes,MatrixBlock> o1, Tuple2<MatrixIndexes,MatrixBlock> o2) 
+		{
+			return o1._1().compareTo(o2._1());
+		}
+	}
+	
+	/**
+	 * Copies all blocks of a disjoint set of row blocks (row block index modulo k) into the 
+	 * output. Sparse blocks are appended in order of column blocks, where out-of-order appends 
+	 * (w.r.t. previously collected batches) are recorded per row block.
+	 * 
+	 */
+	private static class CopyBlocksTask implements Callable<Long>
+	{
+		private final List<Tuple2<MatrixIndexes,MatrixBlock>> _blocks;
+		private final MatrixBlock _out;
+		private final int _brlen;
+		private final int _bclen;
+		private final int[] _lastCol;
+		private final boolean[] _unsorted;
+		private final int _k;
+		private final int _id;
+		
+		public CopyBlocksTask( List<Tuple2<MatrixIndexes,MatrixBlock>> blocks, MatrixBlock out, int brlen, int bclen, 
+				int[] lastCol, boolean[] unsorted, int k, int id )
+		{
+			_blocks = blocks;
+			_out = out;
+			_brlen = brlen;
+			_bclen = bclen;
+			_lastCol = lastCol;
+			_unsorted = unsorted;
+			_k = k;
+			_id = id;
+		}
+		
+		@Override
+		public Long call() throws DMLRuntimeException 
+		{
+			long lnnz = 0;
+			
+			for( Tuple2<MatrixIndexes,MatrixBlock> keyval : _blocks )
+			{
+				//unpack index-block pair and probe assigned row blocks
+				MatrixIndexes ix = keyval._1();
+				MatrixBlock block = keyval._2();
+				int rb = (int)ix.getRowIndex()-1;
+				if( rb % _k != _id )
+					continue;
+				
+				//compute row/column block offsets
+				int row_offset = rb*_brlen;
+				int col_offset = (int)(ix.getColumnIndex()-1)*_bclen;
+				int rows = block.getNumRows();
+				int cols = block.getNumColumns();
+				
+				if( _out.isInSparseFormat() ) { //SPARSE OUTPUT
+					//append block to sparse target in order to avoid shifting
+					_unsorted[rb] |= (col_offset <= _lastCol[rb]);
+					_lastCol[rb] = col_offset;
+					_out.appendToSparse(block, row_offset, col_offset);
+				}
+				else { //DENSE OUTPUT
+					_out.copy( row_offset, row_offset+rows-1, 
+							   col_offset, col_offset+cols-1, block, false );	
+				}
+				
+				block.recomputeNonZeros();
+				lnnz += block.getNonZeros();
+			}
+			
+			return lnnz;
+		}
+	}
+	
+	/**
+	 * Sorts the sparse rows of a disjoint set of row blocks with out-of-order appends.
+	 * 
+	 */
+	private static class SortRowsTask implements Callable<Object>
+	{
+		private final MatrixBlock _out;
+		private final int _brlen;
+		private final boolean[] _unsorted;
+		private final int _k;
+		private final int _id;
+		
+		public SortRowsTask( MatrixBlock out, int brlen, boolean[] unsorted, int k, int id )
+		{
+			_out = out;
+			_brlen = brlen;
+			_unsorted = unsorted;
+			_k = k;
+			_id = id;
+		}
+		
+		@Override
+		public Object call() 
+		{
+			SparseRow[] rows = _out.getSparseRows();
+			for( int rb=_id; rb<_unsorted.length; rb+=_k )
+				if( _unsorted[rb] )
+					for( int i=rb*_brlen; i<Math.min((rb+1)*_brlen, rows.length); i++ )
+						if( rows[i]!=null && rows[i].size()>1 )
+							rows[i].sort();
+			return null;
+		}
+	}
 }
@@ -1521,7 +1521,7 @@ public class OptimizerRuleBased extends Optimizer
 					//set degree of parallelism for multi-threaded leaf nodes
 					Hop h = OptTreeConverter.getAbstractPlanMapping().getMappedHop(c.getID());
 					if(    OptimizerUtils.PARALLEL_CP_MATRIX_MULTIPLY 
-						&& h instanceof MultiThreadedHop ) //abop, datagenop, qop
+						&& h instanceof MultiThreadedHop ) //abop, datagenop, qop, bop, rop, top, uop
 					{
 						MultiThreadedHop mhop = (MultiThreadedHop) h;
 						mhop.setMaxNumThreads(opsK); //set max constraint in hop
@@ -319,6 +319,17 @@ public class InfrastructureAnalyzer
 		return _blocksize;		
 	}
 	
+	/**
+	 * Sets the HDFS blocksize in bytes, e.g., for small part files 
+	 * of parallel writers in tests.
+	 * 
+	 * @param blocksize
+	 */
+	public static void setHDFSBlockSize( long blocksize )
+	{
+		_blocksize = blocksize;
+	}
+	
 
 	/**
 	 * 
@@ -80,6 +80,9 @@ public class CTable extends ValueFunction
 		if( row <= 0 || col <= 0 ) {
 			throw new DMLRuntimeException("Erroneous input while computing the contingency table (one of the value <= zero): "+v1+" "+v2);
 		} 
+		if( row > Integer.MAX_VALUE || col > Integer.MAX_VALUE ) {
+			throw new DMLRuntimeException("Erroneous input while computing the contingency table (one of the value > "+Integer.MAX_VALUE+"): "+v1+" "+v2);
+		}
 	
 		//hash group-by for core ctable computation
 		resultMap.aggregate(row, col, w);	
@@ -115,6 +118,9 @@ public class CTable extends ValueFunction
 		if( row <= 0 || col <= 0 ) {
 			throw new DMLRuntimeException("Erroneous input while computing the contingency table (one of the value <= zero): "+v1+" "+v2);
 		}
+		if( row > Integer.MAX_VALUE || col > Integer.MAX_VALUE ) {
+			throw new DMLRuntimeException("Erroneous input while computing the contingency table (one of the value > "+Integer.MAX_VALUE+"): "+v1+" "+v2);
+		}
 		
 		// skip this entry as it does not fall within specified output dimensions
 		if( row > ctableResult.getNumRows() || col > ctableResult.getNumColumns() ) {
@@ -147,6 +153,9 @@ public class CTable extends ValueFunction
 		if( col <= 0 ) {
 			throw new DMLRuntimeException("Erroneous input while computing the contingency table (value <= zero): "+v2);
 		} 
+		if( col > Integer.MAX_VALUE ) {
+			throw new DMLRuntimeException("Erroneous input while computing the contingency table (value > "+Integer.MAX_VALUE+"): "+v2);
+		}
 		
 		//set weight as value (expand is guaranteed to address different cells)
 		ctableResult.quickSetValue((int)row-1, (int)col-1, w);
@@ -178,6 +187,9 @@ public class CTable extends ValueFunction
 		if( col <= 0 ) {
 			throw new DMLRuntimeException("Erroneous input while computing the contingency table (value <= zero): "+v2);
 		} 
+		if( row > Integer.MAX_VALUE || col > Integer.MAX_VALUE ) {
+			throw new DMLRuntimeException("Erroneous input while computing the contingency table (one of the value > "+Integer.MAX_VALUE+"): "+row+" "+v2);
+		}
 		
 		return new Pair<MatrixIndexes,Double>(new MatrixIndexes(row, col), w);
 	}
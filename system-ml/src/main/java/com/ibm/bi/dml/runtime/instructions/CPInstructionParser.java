@@ -348,8 +348,8 @@ public class CPInstructionParser extends InstructionParser
 		case Builtin: 
 			String []parts = InstructionUtils.getInstructionPartsWithValueType(str);
 			if ( parts[0].equals("log") || parts[0].equals("log_nz") ) {
-				if ( parts.length == 3 ) {
-					// B=log(A), y=log(x)
+				if ( parts.length == 3 || (parts.length == 4 && BuiltinUnaryCPInstruction.isMultiThreadedUnaryInstruction(parts)) ) {
+					// B=log(A), y=log(x) (optionally w/ degree of parallelism)
 					return (CPInstruction) BuiltinUnaryCPInstruction.parseInstruction(str);
 				} else if ( parts.length == 4 ) {
 					// B=log(A,10), y=log(x,10)
@@ -73,6 +73,9 @@ public abstract class ArithmeticBinaryCPInstruction extends BinaryCPInstruction
 					InstructionUtils.parseScalarBinaryOperator(opcode, (dt1 == DataType.SCALAR)) : 
 					InstructionUtils.parseBinaryOperator(opcode);
 		
+		//set degree of parallelism for multi-threaded matrix operations
+		setNumThreads(operator, parseNumThreads(str));
+		
 		if ( opcode.equalsIgnoreCase("+") && dt1 == DataType.SCALAR && dt2 == DataType.SCALAR) 
 		{
 			return new ScalarScalarArithmeticCPInstruction(operator, in1, in2, out, opcode, str);
@@ -19,7 +19,9 @@ package com.ibm.bi.dml.runtime.instructions.cp;
 
 import com.ibm.bi.dml.runtime.DMLRuntimeException;
 import com.ibm.bi.dml.runtime.instructions.InstructionUtils;
+import com.ibm.bi.dml.runtime.matrix.operators.BinaryOperator;
 import com.ibm.bi.dml.runtime.matrix.operators.Operator;
+import com.ibm.bi.dml.runtime.matrix.operators.ScalarOperator;
 
 
 public abstract class BinaryCPInstruction extends ComputationCPInstruction
@@ -47,7 +49,8 @@ public abstract class BinaryCPInstruction extends ComputationCPInstruction
 	static String parseBinaryInstruction(String instr, CPOperand in1, CPOperand in2, CPOperand out)
 		throws DMLRuntimeException{
 		
-		InstructionUtils.checkNumFields ( instr, 3 );
+		//note: optional 4th field for degree of parallelism (see parseNumThreads)
+		InstructionUtils.checkNumFields ( instr, 3, 4 );
 		
 		String[] parts = InstructionUtils.getInstructionPartsWithValueType(instr);
 		String opcode = parts[0];
@@ -58,6 +61,32 @@ public abstract class BinaryCPInstruction extends ComputationCPInstruction
 		return opcode;
 	}
 	
+	/**
+	 * Parses the degree of parallelism of multi-threaded matrix operations, which is 
+	 * appended as an optional last field to arithmetic and relational instructions.
+	 * 
+	 * @param instr
+	 * @return
+	 */
+	static int parseNumThreads(String instr)
+	{
+		String[] parts = InstructionUtils.getInstructionPartsWithValueType(instr);
+		return (parts.length > 4) ? Integer.parseInt(parts[4]) : 1;
+	}
+	
+	/**
+	 * 
+	 * @param op
+	 * @param k
+	 */
+	static void setNumThreads(Operator op, int k)
+	{
+		if( op instanceof BinaryOperator )
+			((BinaryOperator)op).setNumThreads(k);
+		else if( op instanceof ScalarOperator )
+			((ScalarOperator)op).setNumThreads(k);
+	}
+	
 	static String parseBinaryInstruction(String instr, CPOperand in1, CPOperand in2, CPOperand in3, CPOperand out)
 	throws DMLRuntimeException{
 	
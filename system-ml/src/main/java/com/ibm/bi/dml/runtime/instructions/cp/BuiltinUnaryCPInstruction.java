@@ -56,7 +56,17 @@ public abstract class BuiltinUnaryCPInstruction extends UnaryCPInstruction
 		String opcode = null;
 		ValueFunction func = null;
 		
-		if( parts.length==4 ) //print or stop
+		if( parts.length==4 && isMultiThreadedUnaryInstruction(parts) ) //matrix builtin w/ k
+		{
+			opcode = parts[0];
+			in.split(parts[1]);
+			out.split(parts[2]);
+			func = Builtin.getBuiltinFnObject(opcode);
+			int k = Integer.parseInt(parts[3]);
+			
+			return new MatrixBuiltinCPInstruction(new UnaryOperator(func, k), in, out, opcode, str);
+		}
+		else if( parts.length==4 ) //print or stop
 		{
 			opcode = parts[0];
 			in.split(parts[1]);
@@ -78,4 +88,17 @@ public abstract class BuiltinUnaryCPInstruction extends UnaryCPInstruction
 		
 		return null;
 	}
+	
+	/**
+	 * Indicates if the given instruction parts (opcode, input, output, k) refer to a
+	 * multi-threaded unary builtin, i.e., if the last part is the degree of parallelism
+	 * instead of an operand (e.g., of print or log with base).
+	 * 
+	 * @param parts
+	 * @return
+	 */
+	public static boolean isMultiThreadedUnaryInstruction( String[] parts ) 
+	{
+		return !parts[parts.length-1].contains(Instruction.DATATYPE_PREFIX);
+	}
 }
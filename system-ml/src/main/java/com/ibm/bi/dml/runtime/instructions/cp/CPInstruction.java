@@ -54,6 +54,10 @@ public abstract class CPInstruction extends Instruction
 		return _cptype;
 	}
 	
+	public Operator getOperator() {
+		return _optr;
+	}
+	
 	@Override
 	public boolean requiresLabelUpdate()
 	{
@@ -49,6 +49,10 @@ public class QuaternaryCPInstruction extends ComputationCPInstruction
 		_numThreads = k;
 	}
 
+	public CPOperand getInput4() {
+		return input4;
+	}
+
 	/**
 	 * 
 	 * @param inst
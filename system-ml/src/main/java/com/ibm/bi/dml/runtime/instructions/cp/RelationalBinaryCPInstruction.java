@@ -35,7 +35,7 @@ public abstract class RelationalBinaryCPInstruction extends BinaryCPInstruction
 	}
 	
 	public static Instruction parseInstruction ( String str ) throws DMLRuntimeException {
-		InstructionUtils.checkNumFields (str, 3);
+		InstructionUtils.checkNumFields (str, 3, 4);
 		CPOperand in1 = new CPOperand("", ValueType.UNKNOWN, DataType.UNKNOWN);
 		CPOperand in2 = new CPOperand("", ValueType.UNKNOWN, DataType.UNKNOWN);
 		CPOperand out = new CPOperand("", ValueType.UNKNOWN, DataType.UNKNOWN);
@@ -74,6 +74,9 @@ public abstract class RelationalBinaryCPInstruction extends BinaryCPInstruction
 					InstructionUtils.parseScalarBinaryOperator(opcode, (dt1 == DataType.SCALAR)) : 
 					InstructionUtils.parseBinaryOperator(opcode);
 		
+		//set degree of parallelism for multi-threaded matrix operations
+		setNumThreads(operator, parseNumThreads(str));
+		
 		//for scalar relational operations we only allow boolean operands
 		//or when both operands are numeric (int or double)
 		if(dt1 == DataType.SCALAR && dt2 == DataType.SCALAR){
@@ -80,15 +80,19 @@ public class ReorgCPInstruction extends UnaryCPInstruction
 		String opcode = InstructionUtils.getOpCode(str);
 		
 		if ( opcode.equalsIgnoreCase("r'") ) {
-			parseUnaryInstruction(str, in, out); //max 2 operands
-			return new ReorgCPInstruction(new ReorgOperator(SwapIndex.getSwapIndexFnObject()), in, out, opcode, str);
+			InstructionUtils.checkNumFields(str, 2, 3);
+			String[] parts = InstructionUtils.getInstructionPartsWithValueType(str);
+			in.split(parts[1]);
+			out.split(parts[2]);
+			int k = (parts.length > 3) ? Integer.parseInt(parts[3]) : 1;
+			return new ReorgCPInstruction(new ReorgOperator(SwapIndex.getSwapIndexFnObject(), k), in, out, opcode, str);
 		} 
 		else if ( opcode.equalsIgnoreCase("rdiag") ) {
 			parseUnaryInstruction(str, in, out); //max 2 operands
 			return new ReorgCPInstruction(new ReorgOperator(DiagIndex.getDiagIndexFnObject()), in, out, opcode, str);
 		} 
 		else if ( opcode.equalsIgnoreCase("rsort") ) {
-			InstructionUtils.checkNumFields(str, 5);
+			InstructionUtils.checkNumFields(str, 5, 6);
 			String[] parts = InstructionUtils.getInstructionPartsWithValueType(str);
 			in.split(parts[1]);
 			out.split(parts[5]);
@@ -98,8 +102,9 @@ public class ReorgCPInstruction extends UnaryCPInstruction
 			col.split(parts[2]);
 			desc.split(parts[3]);
 			ixret.split(parts[4]);
+			int k = (parts.length > 6) ? Integer.parseInt(parts[6]) : 1;
 			
-			return new ReorgCPInstruction(new ReorgOperator(SortIndex.getSortIndexFnObject(1,false,false)), 
+			return new ReorgCPInstruction(new ReorgOperator(SortIndex.getSortIndexFnObject(1,false,false), k), 
 					                      in, col, desc, ixret, out, opcode, str);
 		}
 		else {
@@ -119,7 +124,9 @@ public class ReorgCPInstruction extends UnaryCPInstruction
 			int col = (int)ec.getScalarInput(_col.getName(), _col.getValueType(), _col.isLiteral()).getLongValue();
 			boolean desc = ec.getScalarInput(_desc.getName(), _desc.getValueType(), _desc.isLiteral()).getBooleanValue();
 			boolean ixret = ec.getScalarInput(_ixret.getName(), _ixret.getValueType(), _ixret.isLiteral()).getBooleanValue();
-			r_op.fn = SortIndex.getSortIndexFnObject(col, desc, ixret);
+			//create sort operator per invocation (no modification of the shared
+			//instruction operator, which would be unsafe for concurrent execution)
+			r_op = new ReorgOperator(SortIndex.getSortIndexFnObject(col, desc, ixret), r_op.getNumThreads());
 		}
 		
 		//execute operation
@@ -25,6 +25,8 @@ import com.ibm.bi.dml.parser.Expression.DataType;
 import com.ibm.bi.dml.parser.Expression.ValueType;
 import com.ibm.bi.dml.runtime.DMLRuntimeException;
 import com.ibm.bi.dml.runtime.DMLUnsupportedOperationException;
+import com.ibm.bi.dml.runtime.controlprogram.caching.CacheableData;
+import com.ibm.bi.dml.runtime.controlprogram.caching.LineageCache;
 import com.ibm.bi.dml.runtime.controlprogram.caching.MatrixObject;
 import com.ibm.bi.dml.runtime.controlprogram.context.ExecutionContext;
 import com.ibm.bi.dml.runtime.controlprogram.parfor.ProgramConverter;
@@ -444,6 +446,11 @@ public class VariableCPInstruction extends CPInstruction
 				mobj.setMetaData((MetaData)metadata.clone());
 				mobj.setFileFormatProperties(formatProperties);
 				
+				//trace lineage of persistent reads (for reuse of intermediates)
+				if( CacheableData.CACHING_REUSE && !overrideFileName 
+					&& input1.getName().startsWith(LineageCache.READ_VAR_PREFIX) )
+					LineageCache.setReadLineage(mobj, fname);
+				
 				ec.setVariable(input1.getName(), mobj);
 			}
 			else if ( input1.getDataType() == DataType.SCALAR ){
@@ -727,7 +734,12 @@ public class VariableCPInstruction extends CPInstruction
 
 		//cleanup matrix data on fs/hdfs (if necessary)
 		if ( input1_data instanceof MatrixObject ) {
-			ec.cleanupMatrixObject( (MatrixObject) input1_data );
+			MatrixObject mo = (MatrixObject) input1_data;
+			//recycle dense block of unreferenced matrices (if array pooling enabled)
+			if( CacheableData.CACHING_ARRAY_POOL && mo.isCleanupEnabled() 
+				&& !ec.getVariables().hasReferences(mo) )
+				mo.clearDataAndRecycle();
+			ec.cleanupMatrixObject( mo );
 		}
 	}
 	
@@ -22,7 +22,6 @@ import java.util.Iterator;
 
 import org.apache.spark.api.java.JavaPairRDD;
 import org.apache.spark.api.java.function.PairFlatMapFunction;
-import org.apache.spark.broadcast.Broadcast;
 
 import scala.Tuple2;
 
@@ -35,7 +34,7 @@ import com.ibm.bi.dml.runtime.instructions.Instruction;
 import com.ibm.bi.dml.runtime.instructions.InstructionUtils;
 import com.ibm.bi.dml.runtime.instructions.cp.CPOperand;
 import com.ibm.bi.dml.runtime.instructions.spark.data.LazyIterableIterator;
-import com.ibm.bi.dml.runtime.instructions.spark.data.PartitionedMatrixBlock;
+import com.ibm.bi.dml.runtime.instructions.spark.data.PartitionedBroadcastMatrix;
 import com.ibm.bi.dml.runtime.instructions.spark.utils.SparkUtils;
 import com.ibm.bi.dml.runtime.matrix.MatrixCharacteristics;
 import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
@@ -101,7 +100,7 @@ public class AppendMSPInstruction extends BinarySPInstruction
 		}
 		
 		JavaPairRDD<MatrixIndexes,MatrixBlock> in1 = sec.getBinaryBlockRDDHandleForVariable( input1.getName() );
-		Broadcast<PartitionedMatrixBlock> in2 = sec.getBroadcastForVariable( input2.getName() );
+		PartitionedBroadcastMatrix in2 = sec.getBroadcastForVariable( input2.getName() );
 		long off = sec.getScalarInput( _offset.getName(), _offset.getValueType(), _offset.isLiteral()).getLongValue();
 		
 		//execute map-append operations (partitioning preserving if #in-blocks = #out-blocks)
@@ -144,14 +143,14 @@ public class AppendMSPInstruction extends BinarySPInstruction
 	{
 		private static final long serialVersionUID = 2738541014432173450L;
 		
-		private Broadcast<PartitionedMatrixBlock> _pm = null;
+		private PartitionedBroadcastMatrix _pm = null;
 		
 		private long _offset; 
 		private int _brlen; 
 		private int _bclen;
 		private long _lastBlockColIndex;
 		
-		public MapSideAppendFunction(Broadcast<PartitionedMatrixBlock> binput, long offset, int brlen, int bclen)  
+		public MapSideAppendFunction(PartitionedBroadcastMatrix binput, long offset, int brlen, int bclen)  
 		{
 			_pm = binput;
 			
@@ -184,12 +183,12 @@ public class AppendMSPInstruction extends BinarySPInstruction
 				//output shallow copy of rhs block
 				ret.add( new Tuple2<MatrixIndexes, MatrixBlock>(
 						new MatrixIndexes(in1.getIndexes().getRowIndex(), in1.getIndexes().getColumnIndex()+1),
-						_pm.getValue().getMatrixBlock((int)in1.getIndexes().getRowIndex(), 1)) );
+						_pm.getMatrixBlock((int)in1.getIndexes().getRowIndex(), 1)) );
 			}
 			//case 3: append operation on boundary block
 			else 
 			{
-				MatrixBlock value_in2 = _pm.getValue().getMatrixBlock((int)in1.getIndexes().getRowIndex(), 1);
+				MatrixBlock value_in2 = _pm.getMatrixBlock((int)in1.getIndexes().getRowIndex(), 1);
 				
 				//allocate space for the output value
 				ArrayList<IndexedMatrixValue> outlist=new ArrayList<IndexedMatrixValue>(2);
@@ -218,10 +217,10 @@ public class AppendMSPInstruction extends BinarySPInstruction
 	{
 		private static final long serialVersionUID = 5767240739761027220L;
 
-		private Broadcast<PartitionedMatrixBlock> _pm = null;
+		private PartitionedBroadcastMatrix _pm = null;
 		private long _lastBlockColIndex;
 		
-		public MapSideAppendPartitionFunction(Broadcast<PartitionedMatrixBlock> binput, long offset, int bclen)  
+		public MapSideAppendPartitionFunction(PartitionedBroadcastMatrix binput, long offset, int bclen)  
 		{
 			_pm = binput;
 			
@@ -252,7 +251,7 @@ public class AppendMSPInstruction extends BinarySPInstruction
 				throws Exception
 			{
 				//get the broadcast once
-				PartitionedMatrixBlock pm = _pm.value();
+				PartitionedBroadcastMatrix pm = _pm;
 				
 				MatrixIndexes ix = arg._1();
 				MatrixBlock in1 = arg._2();
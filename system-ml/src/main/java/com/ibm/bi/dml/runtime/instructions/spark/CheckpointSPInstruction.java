@@ -21,6 +21,7 @@ import org.apache.spark.api.java.JavaPairRDD;
 import org.apache.spark.storage.StorageLevel;
 
 import com.ibm.bi.dml.hops.OptimizerUtils;
+import com.ibm.bi.dml.lops.Checkpoint.CheckpointFormat;
 import com.ibm.bi.dml.parser.Expression.DataType;
 import com.ibm.bi.dml.parser.Expression.ValueType;
 import com.ibm.bi.dml.runtime.DMLRuntimeException;
@@ -33,8 +34,12 @@ import com.ibm.bi.dml.runtime.instructions.Instruction;
 import com.ibm.bi.dml.runtime.instructions.InstructionUtils;
 import com.ibm.bi.dml.runtime.instructions.cp.BooleanObject;
 import com.ibm.bi.dml.runtime.instructions.cp.CPOperand;
+import com.ibm.bi.dml.runtime.instructions.spark.data.LineageObject;
 import com.ibm.bi.dml.runtime.instructions.spark.data.RDDObject;
+import com.ibm.bi.dml.runtime.instructions.spark.data.SerializedMatrixBlock;
 import com.ibm.bi.dml.runtime.instructions.spark.functions.CopyBlockFunction;
+import com.ibm.bi.dml.runtime.instructions.spark.functions.DeserializeBlockFunction;
+import com.ibm.bi.dml.runtime.instructions.spark.functions.SerializeBlockFunction;
 import com.ibm.bi.dml.runtime.matrix.MatrixCharacteristics;
 import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
 import com.ibm.bi.dml.runtime.matrix.data.MatrixIndexes;
@@ -45,12 +50,15 @@ public class CheckpointSPInstruction extends UnarySPInstruction
 {
 	//default storage level
 	private StorageLevel _level = null;
+	//block format (deserialized or compact)
+	private CheckpointFormat _format = null;
 	
-	public CheckpointSPInstruction(Operator op, CPOperand in, CPOperand out, StorageLevel level, String opcode, String istr){
+	public CheckpointSPInstruction(Operator op, CPOperand in, CPOperand out, StorageLevel level, CheckpointFormat format, String opcode, String istr){
 		super(op, in, out, opcode, istr);
 		_sptype = SPINSTRUCTION_TYPE.Reorg;
 		
 		_level = level;
+		_format = format;
 	}
 	
 	public static Instruction parseInstruction ( String str ) 
@@ -58,7 +66,7 @@ public class CheckpointSPInstruction extends UnarySPInstruction
 		CPOperand in = new CPOperand("", ValueType.UNKNOWN, DataType.UNKNOWN);
 		CPOperand out = new CPOperand("", ValueType.UNKNOWN, DataType.UNKNOWN);
 		
-		InstructionUtils.checkNumFields(str, 3);
+		InstructionUtils.checkNumFields(str, 4);
 		String[] parts = InstructionUtils.getInstructionPartsWithValueType(str);
 		
 		String opcode = parts[0];
@@ -66,8 +74,9 @@ public class CheckpointSPInstruction extends UnarySPInstruction
 		out.split(parts[2]);
 
 		StorageLevel level = StorageLevel.fromString(parts[3]);
+		CheckpointFormat format = CheckpointFormat.valueOf(parts[4]);
 
-		return new CheckpointSPInstruction(null, in, out, level, opcode, str);
+		return new CheckpointSPInstruction(null, in, out, level, format, opcode, str);
 	}
 	
 	@Override
@@ -97,7 +106,10 @@ public class CheckpointSPInstruction extends UnarySPInstruction
 		// This prevents unnecessary overhead if the dataset is only consumed by cp operations.
 
 		JavaPairRDD<MatrixIndexes,MatrixBlock> out = null;
-		if( !in.getStorageLevel().equals( _level ) ) 
+		JavaPairRDD<MatrixIndexes,SerializedMatrixBlock> ser = null;
+		boolean compact = (_format != CheckpointFormat.DESERIALIZED);
+		if( compact ? !isCompactCheckpoint(sec.getMatrixObject(input1.getName()).getRDDHandle()) 
+			: !in.getStorageLevel().equals( _level ) ) 
 		{
 			//investigate issue of unnecessarily large number of partitions
 			boolean coalesce = false;
@@ -114,14 +126,26 @@ public class CheckpointSPInstruction extends UnarySPInstruction
 				//merge partitions without shuffle if too many partitions
 				out = in.coalesce( numPartitions );
 			}
-			else {
+			else if( !compact ) {
 				//since persist is an in-place marker for a storage level, we 
 				//apply a narrow shallow copy to allow for short-circuit collects 
 				out = in.mapValues(new CopyBlockFunction(false));	
 			}
-				
-			//actual checkpoint into given storage level
-			out = out.persist( _level );
+			else {
+				out = in; //serialization creates new blocks anyway
+			}
+			
+			if( compact ) {
+				//actual checkpoint of compact serialized blocks into given storage level,
+				//with lazy deserialization per task on access of the output rdd
+				ser = out.mapValues(new SerializeBlockFunction(_format==CheckpointFormat.COMPACT_COMPRESSED))
+						 .persist( _level );
+				out = ser.mapValues(new DeserializeBlockFunction());
+			}
+			else {
+				//actual checkpoint into given storage level
+				out = out.persist( _level );
+			}
 		}
 		else {
 			out = in; //pass-through
@@ -141,10 +165,31 @@ public class CheckpointSPInstruction extends UnarySPInstruction
 			RDDObject inro =  mo.getRDDHandle();  //guaranteed to exist (see above)
 			RDDObject outro = new RDDObject(out, output.getName()); //create new rdd object
 			outro.setCheckpointRDD(true);         //mark as checkpointed
-			outro.addLineageChild(inro);          //keep lineage to prevent cycles on cleanup
+			if( ser != null ) {                   //compact checkpoint via serialized rdd
+				RDDObject serro = new RDDObject(ser, output.getName());
+				serro.setCompactRDD(true);
+				serro.addLineageChild(inro);
+				outro.addLineageChild(serro);
+			}
+			else
+				outro.addLineageChild(inro);      //keep lineage to prevent cycles on cleanup
 			mo.setRDDHandle(outro);
 		}
 		sec.setVariable( output.getName(), mo);
 	}
-}
-
+	
+	/**
+	 * Indicates if the given rdd handle is already a compact checkpoint, 
+	 * in which case we pass-through the input rdd.
+	 * 
+	 * @param ro
+	 * @return
+	 */
+	private static boolean isCompactCheckpoint( RDDObject ro )
+	{
+		if( ro == null || !ro.isCheckpointRDD() || ro.getLineageChilds().size() != 1 )
+			return false;
+		LineageObject lo = ro.getLineageChilds().get(0);
+		return ( lo instanceof RDDObject && ((RDDObject)lo).isCompactRDD() );
+	}
+}
\ No newline at end of file
@@ -24,7 +24,6 @@ import java.util.Iterator;
 import org.apache.spark.api.java.JavaPairRDD;
 import org.apache.spark.api.java.function.PairFlatMapFunction;
 import org.apache.spark.api.java.function.PairFunction;
-import org.apache.spark.broadcast.Broadcast;
 
 import scala.Tuple2;
 
@@ -40,7 +39,7 @@ import com.ibm.bi.dml.runtime.functionobjects.Plus;
 import com.ibm.bi.dml.runtime.instructions.InstructionUtils;
 import com.ibm.bi.dml.runtime.instructions.cp.CPOperand;
 import com.ibm.bi.dml.runtime.instructions.spark.data.LazyIterableIterator;
-import com.ibm.bi.dml.runtime.instructions.spark.data.PartitionedMatrixBlock;
+import com.ibm.bi.dml.runtime.instructions.spark.data.PartitionedBroadcastMatrix;
 import com.ibm.bi.dml.runtime.instructions.spark.functions.FilterNonEmptyBlocksFunction;
 import com.ibm.bi.dml.runtime.instructions.spark.utils.RDDAggregateUtils;
 import com.ibm.bi.dml.runtime.matrix.MatrixCharacteristics;
@@ -118,7 +117,8 @@ public class MapmmSPInstruction extends BinarySPInstruction
 		
 		//get inputs
 		JavaPairRDD<MatrixIndexes,MatrixBlock> in1 = sec.getBinaryBlockRDDHandleForVariable( rddVar );
-		Broadcast<PartitionedMatrixBlock> in2 = sec.getBroadcastForVariable( bcastVar ); 
+		//(w/ column-major chunks for left broadcasts, where tasks access column stripes)
+		PartitionedBroadcastMatrix in2 = sec.getBroadcastForVariable( bcastVar, _type==CacheType.LEFT ); 
 				
 		//empty input block filter
 		if( !_outputEmpty )
@@ -197,9 +197,9 @@ public class MapmmSPInstruction extends BinarySPInstruction
 
 		private CacheType _type = null;
 		private AggregateBinaryOperator _op = null;
-		private Broadcast<PartitionedMatrixBlock> _pbc = null;
+		private PartitionedBroadcastMatrix _pbc = null;
 		
-		public RDDMapMMFunction( CacheType type, Broadcast<PartitionedMatrixBlock> binput, int brlen, int bclen )
+		public RDDMapMMFunction( CacheType type, PartitionedBroadcastMatrix binput, int brlen, int bclen )
 		{
 			_type = type;
 			
@@ -215,7 +215,7 @@ public class MapmmSPInstruction extends BinarySPInstruction
 		public Tuple2<MatrixIndexes, MatrixBlock> call( Tuple2<MatrixIndexes, MatrixBlock> arg0 ) 
 			throws Exception 
 		{
-			PartitionedMatrixBlock pm = _pbc.value();
+			PartitionedBroadcastMatrix pm = _pbc;
 			
 			MatrixIndexes ixIn = arg0._1();
 			MatrixBlock blkIn = arg0._2();
@@ -257,9 +257,9 @@ public class MapmmSPInstruction extends BinarySPInstruction
 	
 		private CacheType _type = null;
 		private AggregateBinaryOperator _op = null;
-		private Broadcast<PartitionedMatrixBlock> _pbc = null;
+		private PartitionedBroadcastMatrix _pbc = null;
 		
-		public RDDMapMMPartitionFunction( CacheType type, Broadcast<PartitionedMatrixBlock> binput, int brlen, int bclen )
+		public RDDMapMMPartitionFunction( CacheType type, PartitionedBroadcastMatrix binput, int brlen, int bclen )
 		{
 			_type = type;
 			
@@ -300,7 +300,7 @@ public class MapmmSPInstruction extends BinarySPInstruction
 				if( _type == CacheType.LEFT )
 				{
 					//get the right hand side matrix
-					MatrixBlock left = _pbc.value().getMatrixBlock(1, (int)ixIn.getRowIndex());
+					MatrixBlock left = _pbc.getMatrixBlock(1, (int)ixIn.getRowIndex());
 					
 					//execute index preserving matrix multiplication
 					left.aggregateBinaryOperations(left, blkIn, blkOut, _op);						
@@ -308,7 +308,7 @@ public class MapmmSPInstruction extends BinarySPInstruction
 				else //if( _type == CacheType.RIGHT )
 				{
 					//get the right hand side matrix
-					MatrixBlock right = _pbc.value().getMatrixBlock((int)ixIn.getColumnIndex(), 1);
+					MatrixBlock right = _pbc.getMatrixBlock((int)ixIn.getColumnIndex(), 1);
 
 					//execute index preserving matrix multiplication
 					blkIn.aggregateBinaryOperations(blkIn, right, blkOut, _op);					
@@ -329,9 +329,9 @@ public class MapmmSPInstruction extends BinarySPInstruction
 		
 		private CacheType _type = null;
 		private AggregateBinaryOperator _op = null;
-		private Broadcast<PartitionedMatrixBlock> _pbc = null;
+		private PartitionedBroadcastMatrix _pbc = null;
 		
-		public RDDFlatMapMMFunction( CacheType type, Broadcast<PartitionedMatrixBlock> binput, int brlen, int bclen )
+		public RDDFlatMapMMFunction( CacheType type, PartitionedBroadcastMatrix binput, int brlen, int bclen )
 		{
 			_type = type;
 			
@@ -348,7 +348,7 @@ public class MapmmSPInstruction extends BinarySPInstruction
 			throws Exception 
 		{
 			ArrayList<Tuple2<MatrixIndexes, MatrixBlock>> ret = new ArrayList<Tuple2<MatrixIndexes, MatrixBlock>>();
-			PartitionedMatrixBlock pm = _pbc.value();
+			PartitionedBroadcastMatrix pm = _pbc;
 			
 			MatrixIndexes ixIn = arg0._1();
 			MatrixBlock blkIn = arg0._2();
@@ -17,14 +17,12 @@
 
 package com.ibm.bi.dml.runtime.instructions.spark.data;
 
-import org.apache.spark.broadcast.Broadcast;
-
 public class BroadcastObject extends LineageObject
 {
 
-	private Broadcast<PartitionedMatrixBlock> _bcHandle = null;
+	private PartitionedBroadcastMatrix _bcHandle = null;
 	
-	public BroadcastObject( Broadcast<PartitionedMatrixBlock> bvar, String varName )
+	public BroadcastObject( PartitionedBroadcastMatrix bvar, String varName )
 	{
 		_bcHandle = bvar;
 		_varName = varName;
@@ -34,7 +32,7 @@ public class BroadcastObject extends LineageObject
 	 * 
 	 * @return
 	 */
-	public Broadcast<PartitionedMatrixBlock> getBroadcast()
+	public PartitionedBroadcastMatrix getBroadcast()
 	{
 		return _bcHandle;
 	}
@@ -0,0 +1,211 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.ibm.bi.dml.runtime.instructions.spark.data;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+
+import org.apache.spark.broadcast.Broadcast;
+
+import com.ibm.bi.dml.runtime.DMLRuntimeException;
+import com.ibm.bi.dml.runtime.DMLUnsupportedOperationException;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixIndexes;
+import com.ibm.bi.dml.runtime.matrix.data.OperationsOnMatrixValues;
+import com.ibm.bi.dml.runtime.matrix.mapred.IndexedMatrixValue;
+import com.ibm.bi.dml.runtime.util.IndexRange;
+
+/**
+ * Handle for chunked, block-partitioned broadcasts. The blocks of a matrix are split (in
+ * row-major or column-major order of block indexes) into contiguous chunks, each of which is a 
+ * separate broadcast of a partitioned matrix block. This handle is shipped with the task closures 
+ * but contains only the broadcast handles and meta data; a chunk is fetched and deserialized (once 
+ * per executor) on the first access of one of its blocks. Hence, tasks that touch only a row stripe
+ * (row-major) or column stripe (column-major, e.g., left broadcasts in mapmm) only materialize the 
+ * chunks of these blocks.
+ *
+ */
+public class PartitionedBroadcastMatrix implements Serializable
+{
+	private static final long serialVersionUID = 1260289839633213961L;
+
+	//target size of a single broadcast chunk
+	public static final long CHUNK_SIZE = 64L*1024*1024; //64MB
+
+	private Broadcast<PartitionedMatrixBlock>[] _pbc = null;
+	private int _rlen = -1;
+	private int _clen = -1;
+	private int _brlen = -1;
+	private int _bclen = -1;
+	private int _chunkLen = -1; //number of blocks per chunk
+	private boolean _colMajor = false; //order of blocks in chunks
+
+	public PartitionedBroadcastMatrix(Broadcast<PartitionedMatrixBlock>[] pbc, int rlen, int clen, int brlen, int bclen, int chunkLen, boolean colMajor)
+	{
+		_pbc = pbc;
+		_rlen = rlen;
+		_clen = clen;
+		_brlen = brlen;
+		_bclen = bclen;
+		_chunkLen = chunkLen;
+		_colMajor = colMajor;
+	}
+
+	/**
+	 * Obtains the number of blocks per chunk for the given matrix, such that each
+	 * chunk is approximately of size CHUNK_SIZE.
+	 *
+	 * @param mb
+	 * @param brlen
+	 * @param bclen
+	 * @return
+	 */
+	public static int computeChunkLength(MatrixBlock mb, int brlen, int bclen)
+	{
+		long nblks = (long)Math.ceil((double)mb.getNumRows()/brlen)
+				* (long)Math.ceil((double)mb.getNumColumns()/bclen);
+		double blkSize = (double)mb.estimateSizeInMemory() / nblks;
+		return (int)Math.min(Math.max(CHUNK_SIZE / blkSize, 1), nblks);
+	}
+
+	/**
+	 *
+	 * @return
+	 */
+	public Broadcast<PartitionedMatrixBlock>[] getBroadcasts()
+	{
+		return _pbc;
+	}
+
+	/**
+	 * Indicates if all chunks of this broadcast are still valid.
+	 *
+	 * @return
+	 */
+	public boolean isValid()
+	{
+		for( Broadcast<PartitionedMatrixBlock> bc : _pbc )
+			if( !bc.isValid() )
+				return false;
+		return true;
+	}
+
+	public int getNumRowBlocks()
+	{
+		return (int)Math.ceil((double)_rlen/_brlen);
+	}
+
+	public int getNumColumnBlocks()
+	{
+		return (int)Math.ceil((double)_clen/_bclen);
+	}
+
+	public long getNumRows() {
+		return _rlen;
+	}
+
+	public long getNumCols() {
+		return _clen;
+	}
+	
+	public int getNumChunks() {
+		return _pbc.length;
+	}
+
+	/**
+	 * Obtains the index of the chunk that contains the given block.
+	 * 
+	 * @param rowIndex
+	 * @param colIndex
+	 * @return
+	 */
+	public int getChunkIndex(int rowIndex, int colIndex) 
+	{
+		int ix = PartitionedMatrixBlock.getLinearBlockIndex(rowIndex-1, colIndex-1, 
+				getNumRowBlocks(), getNumColumnBlocks(), _colMajor);
+		return ix / _chunkLen;
+	}
+
+	/**
+	 * Gets the requested block, where the containing chunk is fetched
+	 * on first access.
+	 *
+	 * @param rowIndex
+	 * @param colIndex
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	public MatrixBlock getMatrixBlock(int rowIndex, int colIndex)
+		throws DMLRuntimeException
+	{
+		//check for valid block index
+		int nrblks = getNumRowBlocks();
+		int ncblks = getNumColumnBlocks();
+		if( rowIndex <= 0 || rowIndex > nrblks || colIndex <= 0 || colIndex > ncblks ) {
+			throw new DMLRuntimeException("Block indexes ["+rowIndex+","+colIndex+"] out of range ["+nrblks+","+ncblks+"]");
+		}
+
+		//get the requested matrix block from its chunk
+		return _pbc[getChunkIndex(rowIndex, colIndex)].value().getMatrixBlock(rowIndex, colIndex);
+	}
+
+	/**
+	 * Utility for slice operations over partitioned matrices, where the index range can cover
+	 * multiple blocks (see PartitionedMatrixBlock.sliceOperations), and only the chunks of
+	 * the covered blocks are fetched.
+	 *
+	 * @param rl
+	 * @param ru
+	 * @param cl
+	 * @param cu
+	 * @param matrixBlock
+	 * @return
+	 * @throws DMLRuntimeException
+	 * @throws DMLUnsupportedOperationException
+	 */
+	public MatrixBlock sliceOperations(long rl, long ru, long cl, long cu, MatrixBlock matrixBlock)
+		throws DMLRuntimeException, DMLUnsupportedOperationException
+	{
+		int lrl = (int) rl;
+		int lru = (int) ru;
+		int lcl = (int) cl;
+		int lcu = (int) cu;
+
+		ArrayList<IndexedMatrixValue> allBlks = new ArrayList<IndexedMatrixValue>();
+		IndexRange ixrange = new IndexRange(rl, ru, cl, cu);
+		for( int iix = (lrl-1)/_brlen+1; iix <= (lru-1)/_brlen+1; iix++ )
+			for( int jix = (lcl-1)/_bclen+1; jix <= (lcu-1)/_bclen+1; jix++ ) {
+				MatrixBlock in = getMatrixBlock(iix, jix);
+				IndexedMatrixValue imv = new IndexedMatrixValue(new MatrixIndexes(iix, jix), in);
+				ArrayList<IndexedMatrixValue> outlist = new ArrayList<IndexedMatrixValue>();
+				OperationsOnMatrixValues.performSlice(imv, ixrange, _brlen, _bclen, outlist);
+				allBlks.addAll(outlist);
+			}
+
+		if( allBlks.size() == 1 ) {
+			return (MatrixBlock) allBlks.get(0).getValue();
+		}
+		else {
+			//allocate output matrix
+			MatrixBlock ret = new MatrixBlock(lru-lrl+1, lcu-lcl+1, false);
+			for( IndexedMatrixValue imv : allBlks )
+				ret.merge((MatrixBlock)imv.getValue(), false);
+			return ret;
+		}
+	}
+}
@@ -46,6 +46,10 @@ import com.ibm.bi.dml.runtime.util.IndexRange;
  * task would create instance-local copies and hence replicate broadcast variables which are shared
  * by all tasks within an executor.  
  * 
+ * A partitioned matrix block might also hold only a contiguous range of blocks (in row-major 
+ * or column-major order of block indexes), which is used for chunked broadcasts (see 
+ * PartitionedBroadcastMatrix).
+ * 
  */
 public class PartitionedMatrixBlock implements Externalizable
 {
@@ -57,12 +61,31 @@ public class PartitionedMatrixBlock implements Externalizable
 	private int _clen = -1;
 	private int _brlen = -1;
 	private int _bclen = -1;
+	private int _offset = 0; //linear index of first block
+	private boolean _colMajor = false; //order of linear block indexes
 	
 	public PartitionedMatrixBlock() {
 		//do nothing (required for Externalizable)
 	}
 	
 	public PartitionedMatrixBlock(MatrixBlock mb, int brlen, int bclen) 
+	{
+		this(mb, brlen, bclen, 0, (int)(Math.ceil((double)mb.getNumRows()/brlen)
+				* Math.ceil((double)mb.getNumColumns()/bclen)), false);
+	}
+	
+	/**
+	 * Creates a partitioned matrix block of the blocks with linear indexes [offset, offset+len) 
+	 * in row-major or column-major order of block indexes.
+	 * 
+	 * @param mb
+	 * @param brlen
+	 * @param bclen
+	 * @param offset
+	 * @param len
+	 * @param colMajor
+	 */
+	public PartitionedMatrixBlock(MatrixBlock mb, int brlen, int bclen, int offset, int len, boolean colMajor) 
 	{
 		//get the input matrix block
 		int rlen = mb.getNumRows();
@@ -73,21 +96,24 @@ public class PartitionedMatrixBlock implements Externalizable
 		_clen = clen;
 		_brlen = brlen;
 		_bclen = bclen;
+		_offset = offset;
+		_colMajor = colMajor;
 		
 		int nrblks = getNumRowBlocks();
 		int ncblks = getNumColumnBlocks();
-		_partBlocks = new MatrixBlock[nrblks * ncblks];
+		_partBlocks = new MatrixBlock[len];
 		
 		try
 		{
-			for( int i=0, ix=0; i<nrblks; i++ )
-				for( int j=0; j<ncblks; j++, ix++ )
-				{
-					MatrixBlock tmp = new MatrixBlock();
-					mb.sliceOperations(i*brlen, Math.min((i+1)*brlen, rlen)-1, 
-							           j*bclen, Math.min((j+1)*bclen, clen)-1, tmp);
-					_partBlocks[ix] = tmp;
-				}
+			for( int ix=0; ix<len; ix++ )
+			{
+				int i = colMajor ? (offset+ix) % nrblks : (offset+ix) / ncblks;
+				int j = colMajor ? (offset+ix) / nrblks : (offset+ix) % ncblks;
+				MatrixBlock tmp = new MatrixBlock();
+				mb.sliceOperations(i*brlen, Math.min((i+1)*brlen, rlen)-1, 
+						           j*bclen, Math.min((j+1)*bclen, clen)-1, tmp);
+				_partBlocks[ix] = tmp;
+			}
 		}
 		catch(Exception ex) {
 			throw new RuntimeException("Failed partitioning of broadcast variable input.", ex);
@@ -138,9 +164,28 @@ public class PartitionedMatrixBlock implements Externalizable
 		}
 		
 		//get the requested matrix block
-		int rix = rowIndex - 1;
-		int cix = colIndex - 1;
-		return _partBlocks[rix*ncblks + cix];
+		int ix = getLinearBlockIndex(rowIndex-1, colIndex-1, nrblks, ncblks, _colMajor) - _offset;
+		if( ix < 0 || ix >= _partBlocks.length ) {
+			throw new DMLRuntimeException("Block indexes ["+rowIndex+","+colIndex+"] not contained in block range ["
+					+_offset+","+(_offset+_partBlocks.length)+")");
+		}
+		return _partBlocks[ix];
+	}
+	
+	/**
+	 * Obtains the linear index of the given 0-based block indexes in row-major 
+	 * or column-major order of block indexes.
+	 * 
+	 * @param rix
+	 * @param cix
+	 * @param nrblks
+	 * @param ncblks
+	 * @param colMajor
+	 * @return
+	 */
+	public static int getLinearBlockIndex(int rix, int cix, int nrblks, int ncblks, boolean colMajor)
+	{
+		return colMajor ? cix*nrblks + rix : rix*ncblks + cix;
 	}
 	
 	/**
@@ -284,6 +329,9 @@ public class PartitionedMatrixBlock implements Externalizable
 		dos.writeInt(_clen);
 		dos.writeInt(_brlen);
 		dos.writeInt(_bclen);
+		dos.writeInt(_offset);
+		dos.writeBoolean(_colMajor);
+		dos.writeInt(_partBlocks.length);
 		for( MatrixBlock mb : _partBlocks )
 			mb.write(dos);
 	}
@@ -300,9 +348,9 @@ public class PartitionedMatrixBlock implements Externalizable
 		_clen = dis.readInt();
 		_brlen = dis.readInt();
 		_bclen = dis.readInt();
-		int nrblks = getNumRowBlocks();
-		int ncblks = getNumColumnBlocks();
-		_partBlocks = new MatrixBlock[nrblks * ncblks];
+		_offset = dis.readInt();
+		_colMajor = dis.readBoolean();
+		_partBlocks = new MatrixBlock[dis.readInt()];
 		
 		for( int i=0; i<_partBlocks.length; i++ ){
 			_partBlocks[i] = new MatrixBlock();
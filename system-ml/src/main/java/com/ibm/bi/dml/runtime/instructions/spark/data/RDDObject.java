@@ -27,6 +27,7 @@ public class RDDObject extends LineageObject
 	//meta data on origin of given rdd handle
 	private boolean _checkpointed = false; //created via checkpoint instruction
 	private boolean _hdfsfile = false;     //created from hdfs file
+	private boolean _compact = false;      //serialized blocks of compact checkpoint
 	
 	public RDDObject( JavaPairRDD<?,?> rddvar, String varName)
 	{
@@ -63,6 +64,35 @@ public class RDDObject extends LineageObject
 		return _hdfsfile;
 	}
 	
+	public void setCompactRDD( boolean flag )
+	{
+		_compact = flag;
+	}
+	
+	public boolean isCompactRDD()
+	{
+		return _compact;
+	}
+	
+	/**
+	 * Obtains the input of a checkpoint rdd, where we skip the intermediate rdd of 
+	 * serialized blocks for compact checkpoints (i.e., checkpoint -> serialized -> input).
+	 * 
+	 * @return
+	 */
+	public LineageObject getCheckpointInput()
+	{
+		if( !isCheckpointRDD() || getLineageChilds().size() != 1 )
+			return null;
+		
+		LineageObject lo = getLineageChilds().get(0);
+		if( lo instanceof RDDObject && ((RDDObject)lo).isCompactRDD() ) {
+			lo = (lo.getLineageChilds().size() == 1) ? 
+				lo.getLineageChilds().get(0) : null;
+		}
+		
+		return lo;
+	}
 
 	/**
 	 * Indicates if rdd is an hdfs file or a checkpoint over an hdfs file;
@@ -75,8 +105,8 @@ public class RDDObject extends LineageObject
 	{
 		boolean ret = isHDFSFile();
 		
-		if( isCheckpointRDD() && getLineageChilds().size() == 1 ) {
-			LineageObject lo = getLineageChilds().get(0);
+		LineageObject lo = getCheckpointInput();
+		if( lo != null ) {
 			ret = ( lo instanceof RDDObject && ((RDDObject)lo).isHDFSFile() );
 		}
 		
@@ -89,8 +119,7 @@ public class RDDObject extends LineageObject
 	 */
 	public boolean allowsShortCircuitCollect()
 	{
-		return ( isCheckpointRDD() && getLineageChilds().size() == 1
-			     && getLineageChilds().get(0) instanceof RDDObject );
+		return ( getCheckpointInput() instanceof RDDObject );
 	}
 	
 	/**
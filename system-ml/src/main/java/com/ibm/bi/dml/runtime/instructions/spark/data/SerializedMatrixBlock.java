@@ -0,0 +1,149 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.ibm.bi.dml.runtime.instructions.spark.data;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+import com.ibm.bi.dml.runtime.controlprogram.caching.CacheDataInput;
+import com.ibm.bi.dml.runtime.controlprogram.caching.CacheDataOutput;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
+import com.ibm.bi.dml.runtime.util.FastBufferedDataInputStream;
+import com.ibm.bi.dml.runtime.util.FastBufferedDataOutputStream;
+import com.ibm.bi.dml.runtime.util.LocalFileUtils;
+
+/**
+ * Compact representation of a matrix block for serialized rdd checkpoints, i.e., a single
+ * byte array in our binary block format (incl the selection of ultra-sparse, sparse, and dense
+ * representations), which is optionally deflate-compressed. Compared to deserialized blocks,
+ * this representation eliminates the object overhead of sparse rows and allows for compressed
+ * and off-heap storage. Blocks are deserialized on demand, i.e., lazily per task.
+ *
+ */
+public class SerializedMatrixBlock implements Externalizable
+{
+	private static final long serialVersionUID = -4203473418735212384L;
+
+	private byte[] _data = null;
+	private boolean _compressed = false;
+
+	public SerializedMatrixBlock() {
+		//do nothing (required for Externalizable)
+	}
+
+	/**
+	 *
+	 * @param mb
+	 * @param compress
+	 * @throws IOException
+	 */
+	public SerializedMatrixBlock( MatrixBlock mb, boolean compress )
+		throws IOException
+	{
+		_compressed = compress;
+
+		if( compress ) //COMPRESSED
+		{
+			Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+			ByteArrayOutputStream bos = new ByteArrayOutputStream(
+					(int)Math.min(mb.getExactSizeOnDisk(), LocalFileUtils.BUFFER_SIZE*128));
+			FastBufferedDataOutputStream out = new FastBufferedDataOutputStream(
+					new DeflaterOutputStream(bos, deflater, LocalFileUtils.BUFFER_SIZE), LocalFileUtils.BUFFER_SIZE);
+			try {
+				mb.write(out);
+			}
+			finally {
+				out.close(); //incl finish deflater
+				deflater.end();
+			}
+			_data = bos.toByteArray();
+		}
+		else //UNCOMPRESSED
+		{
+			_data = new byte[(int)mb.getExactSizeOnDisk()];
+			mb.write(new CacheDataOutput(_data));
+		}
+	}
+
+	/**
+	 * Deserializes the matrix block (new instance per call).
+	 *
+	 * @return
+	 * @throws IOException
+	 */
+	public MatrixBlock getMatrixBlock()
+		throws IOException
+	{
+		MatrixBlock ret = new MatrixBlock();
+
+		if( _compressed ) //COMPRESSED
+		{
+			Inflater inflater = new Inflater();
+			FastBufferedDataInputStream in = new FastBufferedDataInputStream(new InflaterInputStream(
+					new ByteArrayInputStream(_data), inflater, LocalFileUtils.BUFFER_SIZE), LocalFileUtils.BUFFER_SIZE);
+			try {
+				ret.readFields(in);
+			}
+			finally {
+				in.close();
+				inflater.end();
+			}
+		}
+		else //UNCOMPRESSED
+		{
+			ret.readFields(new CacheDataInput(_data));
+		}
+
+		return ret;
+	}
+
+	/**
+	 *
+	 * @return
+	 */
+	public long getSize()
+	{
+		return _data.length;
+	}
+
+	@Override
+	public void writeExternal(ObjectOutput os)
+		throws IOException
+	{
+		os.writeBoolean(_compressed);
+		os.writeInt(_data.length);
+		os.write(_data);
+	}
+
+	@Override
+	public void readExternal(ObjectInput is)
+		throws IOException
+	{
+		_compressed = is.readBoolean();
+		_data = new byte[is.readInt()];
+		is.readFully(_data);
+	}
+}
@@ -0,0 +1,39 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package com.ibm.bi.dml.runtime.instructions.spark.functions;
+
+import org.apache.spark.api.java.function.Function;
+
+import com.ibm.bi.dml.runtime.instructions.spark.data.SerializedMatrixBlock;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
+
+/**
+ * Converts compact serialized matrix blocks back into matrix blocks. Used in mapValues
+ * on top of serialized rdd checkpoints, this deserializes blocks lazily per task.
+ * 
+ */
+public class DeserializeBlockFunction implements Function<SerializedMatrixBlock,MatrixBlock> 
+{
+	private static final long serialVersionUID = 3925148213857431026L;
+
+	@Override
+	public MatrixBlock call(SerializedMatrixBlock arg0)
+		throws Exception 
+	{
+		return arg0.getMatrixBlock();
+	}
+}
@@ -18,12 +18,11 @@
 package com.ibm.bi.dml.runtime.instructions.spark.functions;
 
 import org.apache.spark.api.java.function.PairFunction;
-import org.apache.spark.broadcast.Broadcast;
 
 import scala.Tuple2;
 
 import com.ibm.bi.dml.lops.BinaryM.VectorType;
-import com.ibm.bi.dml.runtime.instructions.spark.data.PartitionedMatrixBlock;
+import com.ibm.bi.dml.runtime.instructions.spark.data.PartitionedBroadcastMatrix;
 import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
 import com.ibm.bi.dml.runtime.matrix.data.MatrixIndexes;
 import com.ibm.bi.dml.runtime.matrix.operators.BinaryOperator;
@@ -34,10 +33,10 @@ public class MatrixVectorBinaryOpFunction implements PairFunction<Tuple2<MatrixI
 	private static final long serialVersionUID = -7695883019452417300L;
 	
 	private BinaryOperator _op = null;
-	private Broadcast<PartitionedMatrixBlock> _pmV = null;
+	private PartitionedBroadcastMatrix _pmV = null;
 	private VectorType _vtype = null;
 	
-	public MatrixVectorBinaryOpFunction( BinaryOperator op, Broadcast<PartitionedMatrixBlock> binput, VectorType vtype ) 
+	public MatrixVectorBinaryOpFunction( BinaryOperator op, PartitionedBroadcastMatrix binput, VectorType vtype ) 
 	{
 		_op = op;
 		_pmV = binput;
@@ -54,7 +53,7 @@ public class MatrixVectorBinaryOpFunction implements PairFunction<Tuple2<MatrixI
 		//get the rhs block 
 		int rix= (int)((_vtype==VectorType.COL_VECTOR) ? ix.getRowIndex() : 1);
 		int cix= (int)((_vtype==VectorType.COL_VECTOR) ? 1 : ix.getColumnIndex());
-		MatrixBlock in2 = _pmV.value().getMatrixBlock(rix, cix);
+		MatrixBlock in2 = _pmV.getMatrixBlock(rix, cix);
 			
 		//execute the binary operation
 		MatrixBlock ret = (MatrixBlock) (in1.binaryOperations (_op, in2, new MatrixBlock()));
@@ -20,11 +20,10 @@ package com.ibm.bi.dml.runtime.instructions.spark.functions;
 import java.util.Iterator;
 
 import org.apache.spark.api.java.function.PairFlatMapFunction;
-import org.apache.spark.broadcast.Broadcast;
 
 import scala.Tuple2;
 
-import com.ibm.bi.dml.runtime.instructions.spark.data.PartitionedMatrixBlock;
+import com.ibm.bi.dml.runtime.instructions.spark.data.PartitionedBroadcastMatrix;
 import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
 import com.ibm.bi.dml.runtime.matrix.data.MatrixIndexes;
 import com.ibm.bi.dml.runtime.matrix.operators.BinaryOperator;
@@ -35,9 +34,9 @@ public class OuterVectorBinaryOpFunction implements PairFlatMapFunction<Tuple2<M
 	private static final long serialVersionUID = 1730704346934726826L;
 	
 	private BinaryOperator _op;
-	private Broadcast<PartitionedMatrixBlock> _pmV;
+	private PartitionedBroadcastMatrix _pmV;
 	
-	public OuterVectorBinaryOpFunction( BinaryOperator op, Broadcast<PartitionedMatrixBlock> binput ) 
+	public OuterVectorBinaryOpFunction( BinaryOperator op, PartitionedBroadcastMatrix binput ) 
 	{
 		_op = op;
 		_pmV = binput;
@@ -70,7 +69,7 @@ public class OuterVectorBinaryOpFunction implements PairFlatMapFunction<Tuple2<M
 		@Override
 		public boolean hasNext() {
 			return (_currBlk != null 
-				&& _currPos <= _pmV.value().getNumColumnBlocks());
+				&& _currPos <= _pmV.getNumColumnBlocks());
 		}
 		
 		@Override
@@ -84,7 +83,7 @@ public class OuterVectorBinaryOpFunction implements PairFlatMapFunction<Tuple2<M
 				MatrixIndexes ix = _currBlk._1();
 				MatrixBlock in1 = _currBlk._2();
 				
-				MatrixBlock in2 = _pmV.value().getMatrixBlock(1, _currPos);
+				MatrixBlock in2 = _pmV.getMatrixBlock(1, _currPos);
 				MatrixBlock resultBlk = (MatrixBlock)in1.binaryOperations (_op, in2, new MatrixBlock());
 				resultBlk.examSparsity(); 
 				ret = new Tuple2<MatrixIndexes,MatrixBlock>(
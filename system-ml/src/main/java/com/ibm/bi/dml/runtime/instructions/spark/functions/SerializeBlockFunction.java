@@ -0,0 +1,45 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package com.ibm.bi.dml.runtime.instructions.spark.functions;
+
+import org.apache.spark.api.java.function.Function;
+
+import com.ibm.bi.dml.runtime.instructions.spark.data.SerializedMatrixBlock;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
+
+/**
+ * Converts matrix blocks into their compact serialized representation (e.g., for 
+ * serialized rdd checkpoints), optionally with compression.
+ * 
+ */
+public class SerializeBlockFunction implements Function<MatrixBlock,SerializedMatrixBlock> 
+{
+	private static final long serialVersionUID = -2587359410498724712L;
+
+	private boolean _compress = false;
+	
+	public SerializeBlockFunction(boolean compress) {
+		_compress = compress;
+	}
+
+	@Override
+	public SerializedMatrixBlock call(MatrixBlock arg0)
+		throws Exception 
+	{
+		return new SerializedMatrixBlock(arg0, _compress);
+	}
+}
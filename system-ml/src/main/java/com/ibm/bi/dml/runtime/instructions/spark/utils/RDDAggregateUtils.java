@@ -17,10 +17,15 @@
 
 package com.ibm.bi.dml.runtime.instructions.spark.utils;
 
+import java.util.ArrayList;
+import java.util.Iterator;
+
 import org.apache.spark.api.java.JavaPairRDD;
+import org.apache.spark.api.java.function.FlatMapFunction;
 import org.apache.spark.api.java.function.Function;
 import org.apache.spark.api.java.function.Function2;
 
+import com.ibm.bi.dml.hops.OptimizerUtils;
 import com.ibm.bi.dml.lops.PartialAggregate.CorrectionLocationType;
 import com.ibm.bi.dml.runtime.DMLRuntimeException;
 import com.ibm.bi.dml.runtime.functionobjects.KahanPlus;
@@ -41,28 +46,22 @@ import com.ibm.bi.dml.runtime.matrix.operators.AggregateOperator;
  */
 public class RDDAggregateUtils 
 {
-	
-	//internal configuration to use tree aggregation (treeReduce w/ depth=2),
-	//this is currently disabled because it was 2x slower than a simple
-	//single-block reduce due to additional overhead for shuffling 
-	private static final boolean TREE_AGGREGATION = false; 
-	
 	/**
+	 * Stable sum of all blocks into a single block. We first aggregate all blocks 
+	 * per partition (in-place, with a single correction block per partition) and
+	 * subsequently combine the partial aggregates, i.e., one block per partition, 
+	 * at the driver or via a multi-level tree reduce (if configured with depth>1),
+	 * which can reduce the load of the driver for very large numbers of partitions.
 	 * 
 	 * @param in
 	 * @return
 	 */
 	public static MatrixBlock sumStable( JavaPairRDD<MatrixIndexes, MatrixBlock> in )
 	{
-		//stable sum of all blocks with correction block per function instance
-		if( TREE_AGGREGATION ) {
-			return in.values().treeReduce( 
-					new SumSingleBlockFunction() );	
-		}
-		else { //DEFAULT
-			return in.values().reduce( 
-					new SumSingleBlockFunction() );
-		}
+		return in.values()
+				 .mapPartitions(new SumPartitionFunction())
+				 .treeReduce(new MergeSumBlockCombinerFunction(), getAggregationDepth())
+				 .getValue();
 	}
 	
 	/**
@@ -139,9 +138,12 @@ public class RDDAggregateUtils
 	 */
 	public static MatrixBlock aggStable( JavaPairRDD<MatrixIndexes, MatrixBlock> in, AggregateOperator aop )
 	{
-		//stable aggregate of all blocks with correction block per function instance
-		return in.values().reduce( 
-				new AggregateSingleBlockFunction(aop) );
+		//stable aggregate of all blocks with correction block per partition, and
+		//multi-level aggregation of partial aggregates (see sumStable)
+		return in.values()
+				 .mapPartitions(new AggregatePartitionFunction(aop))
+				 .treeReduce(new MergeAggBlockCombinerFunction(aop), getAggregationDepth())
+				 .getValue();
 	}
 	
 	/**
@@ -179,6 +181,17 @@ public class RDDAggregateUtils
 		return out;
 	}
 	
+	/**
+	 * Obtains the configured depth of tree aggregation (at least 1, where
+	 * 1 refers to a flat reduce of all partial aggregates at the driver).
+	 * 
+	 * @return
+	 */
+	private static int getAggregationDepth()
+	{
+		return Math.max(OptimizerUtils.SPARK_AGGREGATION_DEPTH, 1);
+	}
+	
 	/**
 	 * Merges disjoint data of all blocks per key.
 	 * 
@@ -513,40 +526,43 @@ public class RDDAggregateUtils
 	}
 
 	/**
-	 * This aggregate function uses kahan+ with corrections to aggregate input blocks; it is meant for 
-	 * reduce all operations where we can reuse the same correction block independent of the input
-	 * block indexes. Note that this aggregation function does not apply to embedded corrections.
+	 * This aggregate function uses kahan+ with corrections to aggregate all input blocks of a 
+	 * partition; the first block is copied and the correction block is allocated once per partition
+	 * and reused (in-place) across all incremental aggregations. Empty partitions produce no output.
 	 * 
 	 */
-	private static class SumSingleBlockFunction implements Function2<MatrixBlock, MatrixBlock, MatrixBlock> 
+	private static class SumPartitionFunction implements FlatMapFunction<Iterator<MatrixBlock>, CorrMatrixBlock> 
 	{
 		private static final long serialVersionUID = 1737038715965862222L;
 		
 		private AggregateOperator _op = null;
-		private MatrixBlock _corr = null;
 		
-		public SumSingleBlockFunction()
+		public SumPartitionFunction()
 		{
 			_op = new AggregateOperator(0, KahanPlus.getKahanPlusFnObject(), true, CorrectionLocationType.NONE);	
-			_corr = null;
 		}
 		
 		@Override
-		public MatrixBlock call(MatrixBlock arg0, MatrixBlock arg1)
+		public Iterable<CorrMatrixBlock> call(Iterator<MatrixBlock> arg0)
 			throws Exception 
 		{
-			//create correction block (on demand)
-			if( _corr == null ){
-				_corr = new MatrixBlock(arg0.getNumRows(), arg0.getNumColumns(), false);
-			}
+			ArrayList<CorrMatrixBlock> ret = new ArrayList<CorrMatrixBlock>();
+			if( !arg0.hasNext() )
+				return ret;
 			
-			//copy one input to output
-			MatrixBlock out = new MatrixBlock(arg0);
+			//copy first input to output
+			MatrixBlock out = new MatrixBlock(arg0.next());
+			MatrixBlock corr = null;
 			
-			//aggregate other input
-			OperationsOnMatrixValues.incrementalAggregation(out, _corr, arg1, _op, false);
+			//aggregate remaining inputs with reused correction block
+			while( arg0.hasNext() ) {
+				if( corr == null ) //on demand
+					corr = new MatrixBlock(out.getNumRows(), out.getNumColumns(), false);
+				OperationsOnMatrixValues.incrementalAggregation(out, corr, arg0.next(), _op, false);
+			}
 			
-			return out;
+			ret.add(new CorrMatrixBlock(out, corr));
+			return ret;
 		}
 	}
 	
@@ -586,46 +602,47 @@ public class RDDAggregateUtils
 	
 
 	/**
-	 * Note: currently we always include the correction and use a subsequent maptopair to
-	 * drop them at the end because during aggregation we dont know if we produce an
-	 * intermediate or the final aggregate. 
+	 * This aggregate function aggregates all input blocks of a partition with a single correction
+	 * block per partition (see SumPartitionFunction). Note that we always keep embedded corrections
+	 * because during aggregation we dont know if we produce an intermediate or the final aggregate. 
 	 */
-	private static class AggregateSingleBlockFunction implements Function2<MatrixBlock, MatrixBlock, MatrixBlock> 
+	private static class AggregatePartitionFunction implements FlatMapFunction<Iterator<MatrixBlock>, CorrMatrixBlock> 
 	{
 		private static final long serialVersionUID = -3672377410407066396L;
 
 		private AggregateOperator _op = null;
-		private MatrixBlock _corr = null;
 		
-		public AggregateSingleBlockFunction( AggregateOperator op )
+		public AggregatePartitionFunction( AggregateOperator op )
 		{
 			_op = op;	
-			_corr = null;
 		}
 		
 		@Override
-		public MatrixBlock call(MatrixBlock arg0, MatrixBlock arg1)
+		public Iterable<CorrMatrixBlock> call(Iterator<MatrixBlock> arg0)
 			throws Exception 
 		{
-			//copy one first input
-			MatrixBlock out = new MatrixBlock(arg0); 
+			ArrayList<CorrMatrixBlock> ret = new ArrayList<CorrMatrixBlock>();
+			if( !arg0.hasNext() )
+				return ret;
 			
-			//create correction block (on demand)
-			if( _corr == null ){
-				_corr = new MatrixBlock(arg0.getNumRows(), arg0.getNumColumns(), false);
-			}
+			//copy first input to output
+			MatrixBlock out = new MatrixBlock(arg0.next()); 
+			MatrixBlock corr = null;
 			
-			//aggregate second input
-			if(_op.correctionExists) {
-				OperationsOnMatrixValues.incrementalAggregation(
-						out, _corr, arg1, _op, true);
-			}
-			else {
-				OperationsOnMatrixValues.incrementalAggregation(
-						out, null, arg1, _op, true);
+			//aggregate remaining inputs with reused correction block
+			while( arg0.hasNext() ) {
+				if( _op.correctionExists ) {
+					if( corr == null ) //on demand
+						corr = new MatrixBlock(out.getNumRows(), out.getNumColumns(), false);
+					OperationsOnMatrixValues.incrementalAggregation(out, corr, arg0.next(), _op, true);
+				}
+				else {
+					OperationsOnMatrixValues.incrementalAggregation(out, null, arg0.next(), _op, true);
+				}
 			}
 			
-			return out;
+			ret.add(new CorrMatrixBlock(out, corr));
+			return ret;
 		}
 	}
 	
@@ -0,0 +1,110 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+
+package com.ibm.bi.dml.runtime.instructions.spark.utils;
+
+import org.apache.spark.serializer.KryoRegistrator;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.KryoException;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import com.ibm.bi.dml.runtime.controlprogram.caching.CacheDataInput;
+import com.ibm.bi.dml.runtime.controlprogram.caching.CacheDataOutput;
+import com.ibm.bi.dml.runtime.instructions.spark.data.CorrMatrixBlock;
+import com.ibm.bi.dml.runtime.instructions.spark.data.PartitionedMatrixBlock;
+import com.ibm.bi.dml.runtime.instructions.spark.data.SerializedMatrixBlock;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixIndexes;
+
+/**
+ * Kryo registrator for our core block types, registered via spark.kryo.registrator when 
+ * the spark context is created. Matrix indexes are written as two var-length longs (1-2 bytes 
+ * for typical block indexes instead of 16 bytes), and matrix blocks reuse our binary block 
+ * format (incl ultra-sparse, sparse, and dense encodings) via fast in-memory serialization
+ * into a byte array of exact size.
+ * 
+ */
+public class SparkKryoRegistrator implements KryoRegistrator 
+{
+	@Override
+	public void registerClasses(Kryo kryo) 
+	{
+		kryo.register(MatrixIndexes.class, new MatrixIndexesSerializer());
+		kryo.register(MatrixBlock.class, new MatrixBlockSerializer());
+		kryo.register(MatrixBlock[].class);
+		kryo.register(CorrMatrixBlock.class);
+		kryo.register(SerializedMatrixBlock.class);
+		kryo.register(PartitionedMatrixBlock.class);
+	}
+	
+	/**
+	 * 
+	 */
+	public static class MatrixIndexesSerializer extends Serializer<MatrixIndexes>
+	{
+		@Override
+		public void write(Kryo kryo, Output output, MatrixIndexes ix) 
+		{
+			output.writeLong(ix.getRowIndex(), true);
+			output.writeLong(ix.getColumnIndex(), true);
+		}
+
+		@Override
+		public MatrixIndexes read(Kryo kryo, Input input, Class<MatrixIndexes> type) 
+		{
+			long rix = input.readLong(true);
+			long cix = input.readLong(true);
+			return new MatrixIndexes(rix, cix);
+		}
+	}
+	
+	/**
+	 * 
+	 */
+	public static class MatrixBlockSerializer extends Serializer<MatrixBlock>
+	{
+		@Override
+		public void write(Kryo kryo, Output output, MatrixBlock mb) 
+		{
+			try {
+				byte[] buff = new byte[(int)mb.getExactSizeOnDisk()];
+				mb.write(new CacheDataOutput(buff));
+				output.writeInt(buff.length, true);
+				output.writeBytes(buff);
+			}
+			catch(Exception ex) {
+				throw new KryoException(ex);
+			}
+		}
+
+		@Override
+		public MatrixBlock read(Kryo kryo, Input input, Class<MatrixBlock> type) 
+		{
+			try {
+				byte[] buff = input.readBytes(input.readInt(true));
+				MatrixBlock ret = new MatrixBlock();
+				ret.readFields(new CacheDataInput(buff));
+				return ret;
+			}
+			catch(Exception ex) {
+				throw new KryoException(ex);
+			}
+		}
+	}
+}
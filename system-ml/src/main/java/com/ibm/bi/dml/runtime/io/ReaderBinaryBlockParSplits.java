@@ -22,7 +22,6 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
@@ -41,6 +40,7 @@ import com.ibm.bi.dml.runtime.matrix.data.MatrixIndexes;
 import com.ibm.bi.dml.runtime.matrix.mapred.IndexedMatrixValue;
 import com.ibm.bi.dml.runtime.matrix.mapred.MRJobConfiguration;
 import com.ibm.bi.dml.runtime.util.BinaryBlockInputFormat;
+import com.ibm.bi.dml.runtime.util.CommonThreadPool;
 
 public class ReaderBinaryBlockParSplits extends MatrixReader {
 
@@ -152,7 +152,7 @@ public class ReaderBinaryBlockParSplits extends MatrixReader {
 		BinaryBlockInputFormat informat = new BinaryBlockInputFormat();
 		InputSplit[] seqsplits = informat.getSplits(job, _numThreads);
 		
-		ExecutorService pool = Executors.newFixedThreadPool(_numThreads);
+		ExecutorService pool = CommonThreadPool.get(_numThreads);
 		try 
 		{
 			//create read tasks for all splits
@@ -201,7 +201,7 @@ public class ReaderBinaryBlockParSplits extends MatrixReader {
 		if( MRJobConfiguration.USE_BINARYBLOCK_SERIALIZATION )
 			MRJobConfiguration.addBinaryBlockSerializationFramework( job );
 		
-		ExecutorService pool = Executors.newFixedThreadPool(_numThreads);
+		ExecutorService pool = CommonThreadPool.get(_numThreads);
 		try 
 		{
 			//create read tasks for all splits
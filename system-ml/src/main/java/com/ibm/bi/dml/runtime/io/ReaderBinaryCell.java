@@ -29,6 +29,7 @@ import com.ibm.bi.dml.runtime.DMLRuntimeException;
 import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
 import com.ibm.bi.dml.runtime.matrix.data.MatrixCell;
 import com.ibm.bi.dml.runtime.matrix.data.MatrixIndexes;
+import com.ibm.bi.dml.runtime.matrix.data.SparseBlockBuilderCOO;
 
 /**
  * 
@@ -53,7 +54,7 @@ public class ReaderBinaryCell extends MatrixReader
 		checkValidInputFile(fs, path); 
 	
 		//core read 
-		readBinaryCellMatrixFromHDFS(path, job, fs, ret, rlen, clen, brlen, bclen);
+		readBinaryCellMatrixFromHDFS(path, job, fs, ret, rlen, clen, brlen, bclen, estnnz);
 		
 		//finally check if change of sparse/dense block representation required
 		//(nnz maintained via append during read for both dense/sparse)
@@ -72,10 +73,11 @@ public class ReaderBinaryCell extends MatrixReader
 	 * @param clen
 	 * @param brlen
 	 * @param bclen
+	 * @param estnnz
 	 * @throws IOException
 	 */
 	@SuppressWarnings("deprecation")
-	private void readBinaryCellMatrixFromHDFS( Path path, JobConf job, FileSystem fs, MatrixBlock dest, long rlen, long clen, int brlen, int bclen )
+	private void readBinaryCellMatrixFromHDFS( Path path, JobConf job, FileSystem fs, MatrixBlock dest, long rlen, long clen, int brlen, int bclen, long estnnz )
 		throws IOException
 	{
 		boolean sparse = dest.isInSparseFormat();		
@@ -86,6 +88,8 @@ public class ReaderBinaryCell extends MatrixReader
 		
 		try
 		{
+			SparseBlockBuilderCOO coo = sparse ? new SparseBlockBuilderCOO(dest, estnnz) : null;
+			
 			for( Path lpath : getSequenceFilePaths(fs,path) ) //1..N files 
 			{
 				//directly read from sequence files (individual partfiles)
@@ -100,7 +104,7 @@ public class ReaderBinaryCell extends MatrixReader
 							row = (int)key.getRowIndex()-1;
 							col = (int)key.getColumnIndex()-1;
 							double lvalue = value.getValue();
-							dest.appendValue(row, col, lvalue);
+							coo.append(row, col, lvalue);
 						}
 					}
 					else
@@ -120,8 +124,9 @@ public class ReaderBinaryCell extends MatrixReader
 				}
 			}
 			
+			//bulk write of buffered cells into sorted sparse rows
 			if( sparse )
-				dest.sortSparseRows();
+				coo.close();
 		}
 		catch(Exception ex)
 		{
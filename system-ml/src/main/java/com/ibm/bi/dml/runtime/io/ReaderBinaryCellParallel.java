@@ -0,0 +1,237 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.ibm.bi.dml.runtime.io;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.mapred.FileInputFormat;
+import org.apache.hadoop.mapred.InputSplit;
+import org.apache.hadoop.mapred.JobConf;
+import org.apache.hadoop.mapred.RecordReader;
+import org.apache.hadoop.mapred.Reporter;
+import org.apache.hadoop.mapred.SequenceFileInputFormat;
+
+import com.ibm.bi.dml.conf.ConfigurationManager;
+import com.ibm.bi.dml.hops.OptimizerUtils;
+import com.ibm.bi.dml.runtime.DMLRuntimeException;
+import com.ibm.bi.dml.runtime.io.ReaderTextCellParallel.PartitionedCellBuffer;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixCell;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixIndexes;
+import com.ibm.bi.dml.runtime.util.CommonThreadPool;
+
+/**
+ * Parallel version of ReaderBinaryCell.java. Similar to ReaderTextCellParallel, we create
+ * read tasks per split and execute these tasks on the shared thread pool (CommonThreadPool),
+ * bounded by the degree of parallelism for binary reads. If the target matrix is dense, the 
+ * inserts are done lock-free. If the matrix is sparse, each task buffers its unordered input
+ * cells per row partition and appends full buffers under the lock of this row partition only
+ * (no global lock on the target matrix).
+ *
+ */
+public class ReaderBinaryCellParallel extends MatrixReader
+{
+
+	private int _numThreads = 1;
+
+	public ReaderBinaryCellParallel()
+	{
+		_numThreads = OptimizerUtils.getParallelBinaryReadParallelism();
+	}
+
+	@Override
+	public MatrixBlock readMatrixFromHDFS(String fname, long rlen, long clen, int brlen, int bclen, long estnnz)
+		throws IOException, DMLRuntimeException
+	{
+		//allocate output matrix block (incl sparse rows array for concurrent appends)
+		MatrixBlock ret = createOutputMatrixBlock(rlen, clen, estnnz, true, false);
+		if( ret.isInSparseFormat() )
+			ret.allocateSparseRowsBlock(false);
+
+		//prepare file access
+		JobConf job = new JobConf(ConfigurationManager.getCachedJobConf());
+		FileSystem fs = FileSystem.get(job);
+		Path path = new Path( fname );
+
+		//check existence and non-empty file
+		checkValidInputFile(fs, path);
+
+		//core read
+		readBinaryCellMatrixFromHDFS(path, job, ret, rlen, clen, estnnz);
+
+		//post-processing (representation-specific, change of sparse/dense block representation)
+		//(nnz not maintained during concurrent appends for both dense/sparse)
+		if( ret.isInSparseFormat() )
+			ret.sortSparseRows();
+		ret.recomputeNonZeros();
+		ret.examSparsity();
+
+		return ret;
+	}
+
+	/**
+	 *
+	 * @param path
+	 * @param job
+	 * @param dest
+	 * @param rlen
+	 * @param clen
+	 * @param estnnz
+	 * @throws IOException
+	 */
+	private void readBinaryCellMatrixFromHDFS( Path path, JobConf job, MatrixBlock dest, long rlen, long clen, long estnnz )
+		throws IOException
+	{
+		int par = _numThreads;
+
+		FileInputFormat.addInputPath(job, path);
+		SequenceFileInputFormat<MatrixIndexes, MatrixCell> informat = new SequenceFileInputFormat<MatrixIndexes, MatrixCell>();
+		InputSplit[] splits = informat.getSplits(job, par);
+
+		ExecutorService pool = CommonThreadPool.get(par);
+
+		try
+		{
+			//create row partition locks for sparse appends
+			Object[] locks = PartitionedCellBuffer.createPartitionLocks(par);
+
+			//create read tasks for all splits
+			ArrayList<ReadTask> tasks = new ArrayList<ReadTask>();
+			for( InputSplit split : splits ){
+				ReadTask t = new ReadTask(split, informat, job, dest, locks, rlen, clen, estnnz);
+				tasks.add(t);
+			}
+
+			//wait until all tasks have been executed
+			List<Future<Object>> rt = pool.invokeAll(tasks);
+			pool.shutdown();
+
+			//check for exceptions
+			for( Future<Object> task : rt )
+				task.get();
+		}
+		catch (Exception e) {
+			throw new IOException("Parallel read of binary cell input failed.", e);
+		}
+	}
+
+	/**
+	 *
+	 *
+	 */
+	private static class ReadTask implements Callable<Object>
+	{
+		private InputSplit _split = null;
+		private boolean _sparse = false;
+		private SequenceFileInputFormat<MatrixIndexes, MatrixCell> _informat = null;
+		private JobConf _job = null;
+		private MatrixBlock _dest = null;
+		private Object[] _locks = null;
+		private long _rlen = -1;
+		private long _clen = -1;
+		private long _estnnz = -1;
+
+		public ReadTask( InputSplit split, SequenceFileInputFormat<MatrixIndexes, MatrixCell> informat, JobConf job,
+				         MatrixBlock dest, Object[] locks, long rlen, long clen, long estnnz )
+		{
+			_split = split;
+			_sparse = dest.isInSparseFormat();
+			_informat = informat;
+			_job = job;
+			_dest = dest;
+			_locks = locks;
+			_rlen = rlen;
+			_clen = clen;
+			_estnnz = estnnz;
+		}
+
+		@Override
+		public Object call() throws Exception
+		{
+			//writables for reuse during read
+			MatrixIndexes key = new MatrixIndexes();
+			MatrixCell value = new MatrixCell();
+
+			//required for error handling
+			int row = -1;
+			int col = -1;
+
+			try
+			{
+				RecordReader<MatrixIndexes, MatrixCell> reader = _informat.getRecordReader(_split, _job, Reporter.NULL);
+
+				try
+				{
+					if( _sparse ) //SPARSE<-value
+					{
+						PartitionedCellBuffer buff = new PartitionedCellBuffer(_dest, _locks, _estnnz);
+
+						while( reader.next(key, value) )
+						{
+							row = (int)key.getRowIndex()-1;
+							col = (int)key.getColumnIndex()-1;
+							double lvalue = value.getValue();
+
+							//buffer cell (incl flush of row partition on demand)
+							buff.addCell(row, col, lvalue);
+						}
+
+						//final buffer flush
+						buff.flush();
+					}
+					else //DENSE<-value
+					{
+						while( reader.next(key, value) )
+						{
+							row = (int)key.getRowIndex()-1;
+							col = (int)key.getColumnIndex()-1;
+							double lvalue = value.getValue();
+							_dest.setValueDenseUnsafe( row, col, lvalue );
+						}
+					}
+				}
+				finally
+				{
+					IOUtilFunctions.closeSilently(reader);
+				}
+			}
+			catch(Exception ex)
+			{
+				//post-mortem error handling and bounds checking
+				if( row < 0 || row + 1 > _rlen || col < 0 || col + 1 > _clen )
+				{
+					throw new IOException("Matrix cell ["+(row+1)+","+(col+1)+"] " +
+										  "out of overall matrix range [1:"+_rlen+",1:"+_clen+"].", ex);
+				}
+				else
+				{
+					throw new IOException( "Unable to read matrix in binary cell format.", ex );
+				}
+			}
+
+			return null;
+		}
+	}
+}
@@ -35,6 +35,7 @@ import com.ibm.bi.dml.runtime.DMLRuntimeException;
 import com.ibm.bi.dml.runtime.matrix.CSVReblockMR;
 import com.ibm.bi.dml.runtime.matrix.data.CSVFileFormatProperties;
 import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
+import com.ibm.bi.dml.runtime.matrix.data.SparseBlockBuilderCOO;
 import com.ibm.bi.dml.runtime.util.UtilFunctions;
 
 public class ReaderTextCSV extends MatrixReader
@@ -66,7 +67,7 @@ public class ReaderTextCSV extends MatrixReader
 		checkValidInputFile(fs, path); 
 	
 		//core read 
-		ret = readCSVMatrixFromHDFS(path, job, fs, ret, rlen, clen, brlen, bclen, 
+		ret = readCSVMatrixFromHDFS(path, job, fs, ret, rlen, clen, brlen, bclen, estnnz,
 				   _props.hasHeader(), _props.getDelim(), _props.isFill(), _props.getFillValue() );
 		
 		//finally check if change of sparse/dense block representation required
@@ -86,6 +87,7 @@ public class ReaderTextCSV extends MatrixReader
 	 * @param clen
 	 * @param brlen
 	 * @param bclen
+	 * @param estnnz
 	 * @param hasHeader
 	 * @param delim
 	 * @param fill
@@ -95,7 +97,7 @@ public class ReaderTextCSV extends MatrixReader
 	 */
 	@SuppressWarnings("unchecked")
 	private MatrixBlock readCSVMatrixFromHDFS( Path path, JobConf job, FileSystem fs, MatrixBlock dest, 
-			long rlen, long clen, int brlen, int bclen, boolean hasHeader, String delim, boolean fill, double fillValue )
+			long rlen, long clen, int brlen, int bclen, long estnnz, boolean hasHeader, String delim, boolean fill, double fillValue )
 		throws IOException
 	{
 		ArrayList<Path> files=new ArrayList<Path>();
@@ -120,6 +122,7 @@ public class ReaderTextCSV extends MatrixReader
 		int col = -1;
 		double cellValue = 0;
 		long lnnz = 0;
+		SparseBlockBuilderCOO coo = sparse ? new SparseBlockBuilderCOO(dest, estnnz) : null;
 		
 		for(int fileNo=0; fileNo<files.size(); fileNo++)
 		{
@@ -151,7 +154,7 @@ public class ReaderTextCSV extends MatrixReader
 								cellValue = UtilFunctions.parseToDouble(part);
 							}
 							if ( cellValue != 0 ) {
-								dest.appendValue(row, col, cellValue);
+								coo.append(row, col, cellValue);
 								lnnz++;
 							}
 							col++;
@@ -202,6 +205,8 @@ public class ReaderTextCSV extends MatrixReader
 		}
 		
 		//post processing
+		if( sparse )
+			coo.close(); //bulk write of buffered cells
 		dest.setNonZeros( lnnz );
 		
 		return dest;
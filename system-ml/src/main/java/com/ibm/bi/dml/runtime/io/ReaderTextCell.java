@@ -37,6 +37,7 @@ import com.ibm.bi.dml.conf.ConfigurationManager;
 import com.ibm.bi.dml.runtime.DMLRuntimeException;
 import com.ibm.bi.dml.runtime.matrix.data.InputInfo;
 import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
+import com.ibm.bi.dml.runtime.matrix.data.SparseBlockBuilderCOO;
 import com.ibm.bi.dml.runtime.util.FastStringTokenizer;
 
 public class ReaderTextCell extends MatrixReader
@@ -66,9 +67,9 @@ public class ReaderTextCell extends MatrixReader
 	
 		//core read 
 		if( fs.isDirectory(path) )
-			readTextCellMatrixFromHDFS(path, job, ret, rlen, clen, brlen, bclen);
+			readTextCellMatrixFromHDFS(path, job, ret, rlen, clen, brlen, bclen, estnnz);
 		else
-			readRawTextCellMatrixFromHDFS(path, job, fs, ret, rlen, clen, brlen, bclen, _isMMFile);
+			readRawTextCellMatrixFromHDFS(path, job, fs, ret, rlen, clen, brlen, bclen, estnnz, _isMMFile);
 		
 		//finally check if change of sparse/dense block representation required
 		if( !ret.isInSparseFormat() )
@@ -85,7 +86,7 @@ public class ReaderTextCell extends MatrixReader
 		MatrixBlock ret = createOutputMatrixBlock(rlen, clen, estnnz, true, false);
 	
 		//core read 
-		readRawTextCellMatrixFromInputStream(is, ret, rlen, clen, brlen, bclen, _isMMFile);
+		readRawTextCellMatrixFromInputStream(is, ret, rlen, clen, brlen, bclen, estnnz, _isMMFile);
 		
 		//finally check if change of sparse/dense block representation required
 		if( !ret.isInSparseFormat() )
@@ -105,11 +106,12 @@ public class ReaderTextCell extends MatrixReader
 	 * @param clen
 	 * @param brlen
 	 * @param bclen
+	 * @param estnnz
 	 * @throws IOException
 	 * @throws IllegalAccessException
 	 * @throws InstantiationException
 	 */
-	private void readTextCellMatrixFromHDFS( Path path, JobConf job, MatrixBlock dest, long rlen, long clen, int brlen, int bclen )
+	private void readTextCellMatrixFromHDFS( Path path, JobConf job, MatrixBlock dest, long rlen, long clen, int brlen, int bclen, long estnnz )
 		throws IOException
 	{
 		boolean sparse = dest.isInSparseFormat();
@@ -126,6 +128,7 @@ public class ReaderTextCell extends MatrixReader
 		try
 		{
 			FastStringTokenizer st = new FastStringTokenizer(' ');
+			SparseBlockBuilderCOO coo = sparse ? new SparseBlockBuilderCOO(dest, estnnz) : null;
 			
 			for(InputSplit split: splits)
 			{
@@ -141,10 +144,8 @@ public class ReaderTextCell extends MatrixReader
 							row = st.nextInt() - 1;
 							col = st.nextInt() - 1;
 							double lvalue = st.nextDouble();
-							dest.appendValue(row, col, lvalue);
+							coo.append(row, col, lvalue);
 						}
-						
-						dest.sortSparseRows();
 					} 
 					else //DENSE<-value
 					{
@@ -164,6 +165,10 @@ public class ReaderTextCell extends MatrixReader
 						reader.close();
 				}
 			}
+			
+			//bulk write of buffered cells into sorted sparse rows
+			if( sparse )
+				coo.close();
 		}
 		catch(Exception ex)
 		{
@@ -190,18 +195,19 @@ public class ReaderTextCell extends MatrixReader
 	 * @param clen
 	 * @param brlen
 	 * @param bclen
+	 * @param estnnz
 	 * @throws IOException
 	 * @throws IllegalAccessException
 	 * @throws InstantiationException
 	 */
-	private void readRawTextCellMatrixFromHDFS( Path path, JobConf job, FileSystem fs, MatrixBlock dest, long rlen, long clen, int brlen, int bclen, boolean matrixMarket )
+	private void readRawTextCellMatrixFromHDFS( Path path, JobConf job, FileSystem fs, MatrixBlock dest, long rlen, long clen, int brlen, int bclen, long estnnz, boolean matrixMarket )
 		throws IOException
 	{
 		//create input stream for path
 		InputStream inputStream = fs.open(path);
 		
 		//actual read
-		readRawTextCellMatrixFromInputStream(inputStream, dest, rlen, clen, brlen, bclen, matrixMarket);
+		readRawTextCellMatrixFromInputStream(inputStream, dest, rlen, clen, brlen, bclen, estnnz, matrixMarket);
 	}
 	
 	/**
@@ -212,12 +218,13 @@ public class ReaderTextCell extends MatrixReader
 	 * @param clen
 	 * @param brlen
 	 * @param bclen
+	 * @param estnnz
 	 * @param matrixMarket
 	 * @throws IOException
 	 * @throws IllegalAccessException
 	 * @throws InstantiationException
 	 */
-	private void readRawTextCellMatrixFromInputStream( InputStream is, MatrixBlock dest, long rlen, long clen, int brlen, int bclen, boolean matrixMarket )
+	private void readRawTextCellMatrixFromInputStream( InputStream is, MatrixBlock dest, long rlen, long clen, int brlen, int bclen, long estnnz, boolean matrixMarket )
 			throws IOException
 	{
 		BufferedReader br = new BufferedReader(new InputStreamReader( is ));	
@@ -255,16 +262,18 @@ public class ReaderTextCell extends MatrixReader
 			
 			if( sparse ) //SPARSE<-value
 			{
+				SparseBlockBuilderCOO coo = new SparseBlockBuilderCOO(dest, estnnz);
 				while( (value=br.readLine())!=null )
 				{
 					st.reset( value ); //reinit tokenizer
 					row = st.nextInt()-1;
 					col = st.nextInt()-1;
 					double lvalue = st.nextDouble();
-					dest.appendValue(row, col, lvalue);
+					coo.append(row, col, lvalue);
 				}
 				
-				dest.sortSparseRows();
+				//bulk write of buffered cells into sorted sparse rows
+				coo.close();
 			} 
 			else //DENSE<-value
 			{
@@ -21,7 +21,6 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
@@ -39,14 +38,18 @@ import com.ibm.bi.dml.hops.OptimizerUtils;
 import com.ibm.bi.dml.runtime.DMLRuntimeException;
 import com.ibm.bi.dml.runtime.matrix.data.InputInfo;
 import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
+import com.ibm.bi.dml.runtime.matrix.data.SparseRow;
+import com.ibm.bi.dml.runtime.util.CommonThreadPool;
 import com.ibm.bi.dml.runtime.util.FastStringTokenizer;
 import com.ibm.bi.dml.runtime.util.MapReduceTool;
 
 /**
  * Parallel version of ReaderTextCell.java. To summarize, we create read tasks per split
- * and use a fixed-size thread pool, to executed these tasks. If the target matrix is dense,
- * the inserts are done lock-free. If the matrix is sparse, we use a buffer to collect
- * unordered input cells, lock the the target sparse matrix once, and append all buffered values.
+ * and execute these tasks on the shared CommonThreadPool. If the target matrix is dense,
+ * the inserts are done lock-free. If the matrix is sparse, we use per-task buffers to collect
+ * unordered input cells, partitioned by disjoint row ranges of the target sparse matrix, and 
+ * append all buffered values of a row partition under a lock of this partition only (i.e., 
+ * there is no global lock on the target matrix).
  * 
  * Note MatrixMarket:
  * 1) For matrix market files each read task probes for comments until it finds data because
@@ -86,17 +89,19 @@ public class ReaderTextCellParallel extends MatrixReader
 		//check existence and non-empty file
 		checkValidInputFile(fs, path);
 		
-		//allocate output matrix block
+		//allocate output matrix block (incl sparse rows array for concurrent appends)
 		MatrixBlock ret = createOutputMatrixBlock(rlen, clen, estnnz, true, false);
+		if( ret.isInSparseFormat() )
+			ret.allocateSparseRowsBlock(false);
 	
 		//core read 
-		readTextCellMatrixFromHDFS(path, job, ret, rlen, clen, brlen, bclen, _isMMFile);
+		readTextCellMatrixFromHDFS(path, job, ret, rlen, clen, brlen, bclen, estnnz, _isMMFile);
 		
 		//post-processing (representation-specific, change of sparse/dense block representation)
+		//(nnz not maintained during concurrent appends for both dense/sparse)
 		if( ret.isInSparseFormat() )
 			ret.sortSparseRows();
-		else
-			ret.recomputeNonZeros();			
+		ret.recomputeNonZeros();			
 		ret.examSparsity();
 
 		return ret;
@@ -112,11 +117,12 @@ public class ReaderTextCellParallel extends MatrixReader
 	 * @param clen
 	 * @param brlen
 	 * @param bclen
+	 * @param estnnz
 	 * @throws IOException
 	 * @throws IllegalAccessException
 	 * @throws InstantiationException
 	 */
-	private void readTextCellMatrixFromHDFS( Path path, JobConf job, MatrixBlock dest, long rlen, long clen, int brlen, int bclen, boolean matrixMarket )
+	private void readTextCellMatrixFromHDFS( Path path, JobConf job, MatrixBlock dest, long rlen, long clen, int brlen, int bclen, long estnnz, boolean matrixMarket )
 		throws IOException
 	{
 		int par = _numThreads;
@@ -131,15 +137,18 @@ public class ReaderTextCellParallel extends MatrixReader
 			par = ( len < MIN_FILESIZE_MM ) ? 1: par; 
 		}	
 		
-		ExecutorService pool = Executors.newFixedThreadPool(par);
+		ExecutorService pool = CommonThreadPool.get(par);
 		InputSplit[] splits = informat.getSplits(job, par);
 		
 		try 
 		{
+			//create row partition locks for sparse appends
+			Object[] locks = PartitionedCellBuffer.createPartitionLocks(par);
+			
 			//create read tasks for all splits
 			ArrayList<ReadTask> tasks = new ArrayList<ReadTask>();
 			for( InputSplit split : splits ){
-				ReadTask t = new ReadTask(split, informat, job, dest, rlen, clen, matrixMarket);
+				ReadTask t = new ReadTask(split, informat, job, dest, locks, rlen, clen, estnnz, matrixMarket);
 				tasks.add(t);
 			}
 			
@@ -172,22 +181,26 @@ public class ReaderTextCellParallel extends MatrixReader
 		private TextInputFormat _informat = null;
 		private JobConf _job = null;
 		private MatrixBlock _dest = null;
+		private Object[] _locks = null;
 		private long _rlen = -1;
 		private long _clen = -1;
+		private long _estnnz = -1;
 		private boolean _matrixMarket = false;
 		
 		private boolean _rc = true;
 		private String _errMsg = null;
 		
-		public ReadTask( InputSplit split, TextInputFormat informat, JobConf job, MatrixBlock dest, long rlen, long clen, boolean matrixMarket )
+		public ReadTask( InputSplit split, TextInputFormat informat, JobConf job, MatrixBlock dest, Object[] locks, long rlen, long clen, long estnnz, boolean matrixMarket )
 		{
 			_split = split;
 			_sparse = dest.isInSparseFormat();
 			_informat = informat;
 			_job = job;
 			_dest = dest;
+			_locks = locks;
 			_rlen = rlen;
 			_clen = clen;
+			_estnnz = estnnz;
 			_matrixMarket = matrixMarket;
 		}
 
@@ -214,6 +227,7 @@ public class ReaderTextCellParallel extends MatrixReader
 			{			
 				FastStringTokenizer st = new FastStringTokenizer(' ');
 				RecordReader<LongWritable,Text> reader = _informat.getRecordReader(_split, _job, Reporter.NULL);
+				PartitionedCellBuffer buff = _sparse ? new PartitionedCellBuffer(_dest, _locks, _estnnz) : null;
 				
 				// Read the header lines, if reading from a matrixMarket file
 				if ( _matrixMarket ) {
@@ -231,9 +245,10 @@ public class ReaderTextCellParallel extends MatrixReader
 						row = st.nextInt()-1;
 						col = st.nextInt()-1;
 						double lvalue = st.nextDoubleForParallel();
-						synchronized( _dest ){ //sparse requires lock	
-							_dest.appendValue(row, col, lvalue);
-						}
+						if( _sparse )
+							buff.addCell(row, col, lvalue);
+						else
+							_dest.setValueDenseUnsafe(row, col, lvalue);
 					}
 				}
 
@@ -242,8 +257,6 @@ public class ReaderTextCellParallel extends MatrixReader
 				{
 					if( _sparse ) //SPARSE<-value
 					{
-						CellBuffer buff = new CellBuffer();
-						
 						while( reader.next(key, value) )
 						{
 							st.reset( value.toString() ); //reinit tokenizer
@@ -251,18 +264,12 @@ public class ReaderTextCellParallel extends MatrixReader
 							col = st.nextInt() - 1;
 							double lvalue = st.nextDoubleForParallel();
 							
+							//buffer cell (incl flush of row partition on demand)
 							buff.addCell(row, col, lvalue);
-							//capacity buffer flush on demand
-							if( buff.size()>=CellBuffer.CAPACITY ) 
-								synchronized( _dest ){ //sparse requires lock
-									buff.flushCellBufferToMatrixBlock(_dest);
-								}
 						}
 						
 						//final buffer flush 
-						synchronized( _dest ){ //sparse requires lock
-							buff.flushCellBufferToMatrixBlock(_dest);
-						}
+						buff.flush();
 					} 
 					else //DENSE<-value
 					{
@@ -322,9 +329,14 @@ public class ReaderTextCellParallel extends MatrixReader
 		
 		public CellBuffer( )
 		{
-			_rlen = new int[CAPACITY];
-			_clen = new int[CAPACITY];
-			_vals = new double[CAPACITY];
+			this( CAPACITY );
+		}
+		
+		public CellBuffer( int capacity )
+		{
+			_rlen = new int[capacity];
+			_clen = new int[capacity];
+			_vals = new double[capacity];
 			_pos = -1;
 		}
 		
@@ -344,14 +356,130 @@ public class ReaderTextCellParallel extends MatrixReader
 			reset();
 		}
 		
+		/**
+		 * Appends all buffered cells directly to the given sparse rows, without
+		 * maintaining the number of non-zeros of the target matrix block.
+		 * 
+		 * @param rows
+		 * @param estnnz
+		 * @param clen
+		 */
+		public void flushCellBufferToSparseRows( SparseRow[] rows, int estnnz, int clen )
+		{
+			for( int i=0; i<=_pos; i++ ) {
+				int r = _rlen[i];
+				if( rows[r]==null )
+					rows[r] = new SparseRow(estnnz, clen);
+				rows[r].append(_clen[i], _vals[i]);
+			}
+			
+			reset();
+		}
+		
 		public int size()
 		{
 			return _pos+1;
 		}
 		
+		public int capacity()
+		{
+			return _vals.length;
+		}
+		
 		public void reset()
 		{
 			_pos = -1;
 		}
 	}
+	
+	/**
+	 * Per-task buffer of unordered cells for concurrent appends to a sparse target
+	 * matrix (with pre-allocated sparse rows array). The cells are buffered per disjoint 
+	 * row partition of the target, and a full buffer is flushed under the lock of its 
+	 * row partition only. Hence, concurrent tasks only contend if they flush the same 
+	 * partition at the same time. The number of non-zeros of the target is not maintained 
+	 * and needs to be recomputed after all tasks finished.
+	 * 
+	 */
+	public static class PartitionedCellBuffer
+	{
+		private static final int MIN_CAPACITY = 1024;
+		
+		private MatrixBlock _dest = null;
+		private Object[] _locks = null;
+		private CellBuffer[] _buffs = null;
+		private int _blen = -1;
+		private int _estnnzRow = -1;
+		
+		public PartitionedCellBuffer( MatrixBlock dest, Object[] locks, long estnnz )
+		{
+			int rlen = dest.getNumRows();
+			int numPart = locks.length;
+			int capacity = Math.max(CellBuffer.CAPACITY/numPart, MIN_CAPACITY);
+			
+			_dest = dest;
+			_locks = locks;
+			_blen = Math.max((int)Math.ceil((double)rlen/numPart), 1);
+			_estnnzRow = (int)Math.ceil((double)estnnz/Math.max(rlen, 1));
+			_buffs = new CellBuffer[numPart];
+			for( int i=0; i<numPart; i++ )
+				_buffs[i] = new CellBuffer(capacity);
+		}
+		
+		/**
+		 * 
+		 * @param numPart
+		 * @return
+		 */
+		public static Object[] createPartitionLocks( int numPart )
+		{
+			Object[] locks = new Object[numPart];
+			for( int i=0; i<numPart; i++ )
+				locks[i] = new Object();
+			return locks;
+		}
+		
+		/**
+		 * 
+		 * @param rlen
+		 * @param clen
+		 * @param val
+		 */
+		public void addCell( int rlen, int clen, double val )
+		{
+			//row bounds check (partition lookup would mask invalid rows)
+			if( rlen < 0 || rlen >= _dest.getNumRows() )
+				throw new IndexOutOfBoundsException("Row index "+rlen+" out of range [0:"+_dest.getNumRows()+").");
+			
+			int p = rlen / _blen;
+			CellBuffer buff = _buffs[p];
+			buff.addCell(rlen, clen, val);
+			
+			//capacity buffer flush on demand
+			if( buff.size() >= buff.capacity() )
+				flush(p);
+		}
+		
+		/**
+		 * Flushes the buffers of all row partitions.
+		 */
+		public void flush()
+		{
+			for( int p=0; p<_buffs.length; p++ )
+				if( _buffs[p].size() > 0 )
+					flush(p);
+		}
+		
+		/**
+		 * 
+		 * @param p
+		 */
+		private void flush( int p )
+		{
+			synchronized( _locks[p] ) { //row partition lock
+				_buffs[p].flushCellBufferToSparseRows(
+						_dest.getSparseRows(), _estnnzRow, _dest.getNumColumns());
+			}
+		}
+	}
 }
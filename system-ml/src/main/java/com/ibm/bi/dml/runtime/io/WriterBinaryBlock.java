@@ -95,17 +95,42 @@ public class WriterBinaryBlock extends MatrixWriter
 	 * @throws DMLUnsupportedOperationException 
 	 * @throws DMLRuntimeException 
 	 */
-	@SuppressWarnings("deprecation")
 	protected void writeBinaryBlockMatrixToHDFS( Path path, JobConf job, MatrixBlock src, long rlen, long clen, int brlen, int bclen, int replication )
 		throws IOException, DMLRuntimeException, DMLUnsupportedOperationException
 	{
-		boolean sparse = src.isInSparseFormat();
-		FileSystem fs = FileSystem.get(job);
-		
 		//set up preferred custom serialization framework for binary block format
 		if( MRJobConfiguration.USE_BINARYBLOCK_SERIALIZATION )
 			MRJobConfiguration.addBinaryBlockSerializationFramework( job );
 		
+		//write all row blocks into a single sequence file
+		int numBlockRows = (int)Math.ceil(src.getNumRows()/(double)brlen);
+		writeBinaryBlockMatrixToSequenceFile(path, job, src, rlen, clen, brlen, bclen, replication, 0, numBlockRows);
+	}
+	
+	/**
+	 * Writes the row blocks [bl, bu) of the given matrix into one sequence file.
+	 * 
+	 * @param path
+	 * @param job
+	 * @param src
+	 * @param rlen
+	 * @param clen
+	 * @param brlen
+	 * @param bclen
+	 * @param replication
+	 * @param bl
+	 * @param bu
+	 * @throws IOException
+	 * @throws DMLUnsupportedOperationException 
+	 * @throws DMLRuntimeException 
+	 */
+	@SuppressWarnings("deprecation")
+	protected static void writeBinaryBlockMatrixToSequenceFile( Path path, JobConf job, MatrixBlock src, long rlen, long clen, int brlen, int bclen, int replication, int bl, int bu )
+		throws IOException, DMLRuntimeException, DMLUnsupportedOperationException
+	{
+		boolean sparse = src.isInSparseFormat();
+		FileSystem fs = FileSystem.get(job);
+		
 		// 1) create sequence file writer, with right replication factor 
 		// (config via 'dfs.replication' not possible since sequence file internally calls fs.getDefaultReplication())
 		SequenceFile.Writer writer = null;
@@ -144,7 +169,7 @@ public class WriterBinaryBlock extends MatrixWriter
 				MatrixBlock[] blocks = createMatrixBlocksForReuse(rlen, clen, brlen, bclen, sparse, src.getNonZeros());  
 				
 				//create and write subblocks of matrix
-				for(int blockRow = 0; blockRow < (int)Math.ceil(src.getNumRows()/(double)brlen); blockRow++)
+				for(int blockRow = bl; blockRow < bu; blockRow++)
 					for(int blockCol = 0; blockCol < (int)Math.ceil(src.getNumColumns()/(double)bclen); blockCol++)
 					{
 						int maxRow = (blockRow*brlen + brlen < src.getNumRows()) ? brlen : src.getNumRows() - blockRow*brlen;
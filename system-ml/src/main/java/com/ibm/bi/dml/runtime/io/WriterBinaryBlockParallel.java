@@ -0,0 +1,159 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.ibm.bi.dml.runtime.io;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.mapred.JobConf;
+
+import com.ibm.bi.dml.conf.DMLConfig;
+import com.ibm.bi.dml.hops.OptimizerUtils;
+import com.ibm.bi.dml.runtime.DMLRuntimeException;
+import com.ibm.bi.dml.runtime.DMLUnsupportedOperationException;
+import com.ibm.bi.dml.runtime.controlprogram.parfor.stat.InfrastructureAnalyzer;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
+import com.ibm.bi.dml.runtime.matrix.mapred.MRJobConfiguration;
+import com.ibm.bi.dml.runtime.util.CommonThreadPool;
+import com.ibm.bi.dml.runtime.util.MapReduceTool;
+
+/**
+ * Multi-threaded binary block writer, which writes disjoint ranges of row blocks
+ * concurrently into separate part files of the output directory.
+ *
+ */
+public class WriterBinaryBlockParallel extends WriterBinaryBlock
+{
+
+	public WriterBinaryBlockParallel( int replication )
+	{
+		super(replication);
+	}
+
+	/**
+	 *
+	 * @param path
+	 * @param job
+	 * @param src
+	 * @param rlen
+	 * @param clen
+	 * @param brlen
+	 * @param bclen
+	 * @param replication
+	 * @throws IOException
+	 * @throws DMLUnsupportedOperationException
+	 * @throws DMLRuntimeException
+	 */
+	@Override
+	protected void writeBinaryBlockMatrixToHDFS( Path path, JobConf job, MatrixBlock src, long rlen, long clen, int brlen, int bclen, int replication )
+		throws IOException, DMLRuntimeException, DMLUnsupportedOperationException
+	{
+		//estimate output size and number of output blocks (min 1)
+		int numPartFiles = (int)(MatrixBlock.estimateSizeOnDisk(src.getNumRows(), src.getNumColumns(), src.getNonZeros())
+				                 / InfrastructureAnalyzer.getHDFSBlockSize());
+		numPartFiles = Math.max(numPartFiles, 1);
+
+		//determine degree of parallelism (at most one thread per row block)
+		int numBlockRows = (int)Math.ceil(src.getNumRows()/(double)brlen);
+		int numThreads = OptimizerUtils.getParallelBinaryWriteParallelism();
+		numThreads = Math.min(numThreads, Math.min(numPartFiles, numBlockRows));
+
+		//fall back to sequential write for small outputs (single file)
+		if( numThreads <= 1 ) {
+			super.writeBinaryBlockMatrixToHDFS(path, job, src, rlen, clen, brlen, bclen, replication);
+			return;
+		}
+
+		//set up preferred custom serialization framework for binary block format
+		if( MRJobConfiguration.USE_BINARYBLOCK_SERIALIZATION )
+			MRJobConfiguration.addBinaryBlockSerializationFramework( job );
+
+		//create thread pool
+		ExecutorService pool = CommonThreadPool.get(numThreads);
+
+		try
+		{
+			MapReduceTool.createDirIfNotExistOnHDFS(path.toString(), DMLConfig.DEFAULT_SHARED_DIR_PERMISSION);
+
+			//create write tasks for all row block ranges
+			ArrayList<WriteFileTask> tasks = new ArrayList<WriteFileTask>();
+			int blklen = (int)Math.ceil((double)numBlockRows / numThreads);
+			for( int i=0; i<numThreads & i*blklen<numBlockRows; i++ ) {
+				Path newPath = new Path(path, String.format("0-m-%05d",i));
+				tasks.add(new WriteFileTask(newPath, job, src, rlen, clen, brlen, bclen, replication,
+						                    i*blklen, Math.min((i+1)*blklen, numBlockRows)));
+			}
+
+			//wait until all tasks have been executed
+			List<Future<Object>> rt = pool.invokeAll(tasks);
+			pool.shutdown();
+
+			//check for exceptions
+			for( Future<Object> task : rt )
+				task.get();
+		}
+		catch (Exception e) {
+			throw new IOException("Parallel write of binary block output failed.", e);
+		}
+	}
+
+	/**
+	 *
+	 *
+	 */
+	private static class WriteFileTask implements Callable<Object>
+	{
+		private Path _path = null;
+		private JobConf _job = null;
+		private MatrixBlock _src = null;
+		private long _rlen = -1;
+		private long _clen = -1;
+		private int _brlen = -1;
+		private int _bclen = -1;
+		private int _replication = -1;
+		private int _bl = -1;
+		private int _bu = -1;
+
+		public WriteFileTask(Path path, JobConf job, MatrixBlock src, long rlen, long clen, int brlen, int bclen, int replication, int bl, int bu)
+		{
+			_path = path;
+			_job = job;
+			_src = src;
+			_rlen = rlen;
+			_clen = clen;
+			_brlen = brlen;
+			_bclen = bclen;
+			_replication = replication;
+			_bl = bl;
+			_bu = bu;
+		}
+
+		@Override
+		public Object call()
+			throws Exception
+		{
+			writeBinaryBlockMatrixToSequenceFile(_path, _job, _src, _rlen, _clen, _brlen, _bclen, _replication, _bl, _bu);
+			return null;
+		}
+	}
+}
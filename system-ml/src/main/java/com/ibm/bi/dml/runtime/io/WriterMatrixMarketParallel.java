@@ -23,7 +23,6 @@ import java.io.OutputStreamWriter;
 import java.util.ArrayList;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
@@ -39,6 +38,7 @@ import com.ibm.bi.dml.runtime.matrix.data.IJV;
 import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
 import com.ibm.bi.dml.runtime.matrix.data.OutputInfo;
 import com.ibm.bi.dml.runtime.matrix.data.SparseRowsIterator;
+import com.ibm.bi.dml.runtime.util.CommonThreadPool;
 import com.ibm.bi.dml.runtime.util.MapReduceTool;
 
 public class WriterMatrixMarketParallel extends WriterMatrixMarket
@@ -87,7 +87,7 @@ public class WriterMatrixMarketParallel extends WriterMatrixMarket
 		_numThreads = Math.min(_numThreads, numPartFiles);
 		
 		//create thread pool
-		ExecutorService pool = Executors.newFixedThreadPool(_numThreads);
+		ExecutorService pool = CommonThreadPool.get(_numThreads);
 		
 		try 
 		{
@@ -17,9 +17,8 @@
 
 package com.ibm.bi.dml.runtime.matrix.data;
 
-import java.util.HashMap;
-import java.util.Map.Entry;
-import java.util.Set;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 
 /**
  * Ctable map is an abstraction for the hashmap used for ctable's hash group-by
@@ -27,16 +26,41 @@ import java.util.Set;
  * easier to (1) exchange the underlying data structure and (2) maintain statistics 
  * like max row/column in order to prevent scans during data conversion.
  * 
+ * The underlying data structure is a primitive open-addressing hash map (linear 
+ * probing) from packed (row, column) long keys to double values, which avoids the 
+ * boxing of keys and values and the per-entry objects of a generic hash map. Row
+ * and column indexes are 1-based and limited to the positive integer range.
+ * 
  */
 public class CTableMap 
 {
 	
-	private HashMap<MatrixIndexes, Double> _map = null;
+	private static final int INIT_CAPACITY = 16; //power of 2
+	private static final int MAX_CAPACITY = 1<<30; //max power of 2 array length
+	private static final double LOAD_FACTOR = 0.75;
+	private static final long EMPTY = 0; //invalid key for 1-based indexes
+	
+	private long[] _keys = null;
+	private double[] _values = null;
+	private int _size = 0;
 	private long _maxRow = -1;
 	private long _maxCol = -1;
 	
 	public CTableMap() {
-		_map = new HashMap<MatrixIndexes, Double>();
+		this(INIT_CAPACITY);
+	}
+	
+	/**
+	 * 
+	 * @param estsize
+	 */
+	public CTableMap(int estsize) {
+		int capacity = INIT_CAPACITY;
+		while( capacity * LOAD_FACTOR < estsize && capacity < MAX_CAPACITY )
+			capacity <<= 1;
+		_keys = new long[capacity];
+		_values = new double[capacity];
+		_size = 0;
 		_maxRow = -1;
 		_maxCol = -1;
 	}
@@ -47,17 +71,18 @@ public class CTableMap
 	 */
 	public int size() 
 	{
-		return _map.size();
+		return _size;
 	}
 	
 	/**
+	 * Get an iterator over all cells of this map. The returned cell object
+	 * is reused and the cell indexes are 1-based.
 	 * 
 	 * @return
 	 */
-	@Deprecated
-	public Set<Entry<MatrixIndexes, Double>> entrySet()
+	public Iterator<IJV> getIterator()
 	{
-		return _map.entrySet();
+		return new CTableMapIterator();
 	}
 	
 	/**
@@ -84,8 +109,12 @@ public class CTableMap
 	 */
 	public double get( long row, long col )
 	{
-		MatrixIndexes key = new MatrixIndexes(row, col);		
-		return _map.get(key);
+		long key = getKey(row, col);
+		int mask = _keys.length - 1;
+		for( int pos = hash(key) & mask; _keys[pos] != EMPTY; pos = (pos+1) & mask )
+			if( _keys[pos] == key )
+				return _values[pos];
+		return 0;
 	}
 	
 	/**
@@ -97,18 +126,46 @@ public class CTableMap
 	public void aggregate(long row, long col, double w) 
 	{
 		//hash group-by for core ctable computation
-		MatrixIndexes key = new MatrixIndexes(row, col);		
-		Double oldval = _map.get(key);
-		if( oldval != null ) //existing group
-			_map.put(key, oldval+w);
-		else             //non-existing group 
-			_map.put(key, w);
+		long key = getKey(row, col);
+		int mask = _keys.length - 1;
+		int pos = hash(key) & mask;
+		while( _keys[pos] != EMPTY ) {
+			if( _keys[pos] == key ) { //existing group
+				_values[pos] += w;
+				return;
+			}
+			pos = (pos+1) & mask;
+		}
+		
+		//non-existing group (we keep at least one empty slot in order
+		//to guarantee termination of probing at max capacity)
+		if( _size >= _keys.length - 1 )
+			throw new RuntimeException("Ctable exceeded the max number of "+(MAX_CAPACITY-1)+" distinct cells.");
+		_keys[pos] = key;
+		_values[pos] = w;
+		_size++;
+		if( _size > _keys.length * LOAD_FACTOR && _keys.length < MAX_CAPACITY )
+			resize(2 * _keys.length);
 		
 		//maintain internal summaries 
 		_maxRow = Math.max(_maxRow, row);
 		_maxCol = Math.max(_maxCol, col);
 	}
 	
+	/**
+	 * Aggregates all cells of the given map into this map.
+	 * 
+	 * @param that
+	 */
+	public void aggregate(CTableMap that)
+	{
+		long[] keys = that._keys;
+		double[] values = that._values;
+		for( int i=0; i<keys.length; i++ )
+			if( keys[i] != EMPTY )
+				aggregate(keys[i]>>>32, keys[i]&0xFFFFFFFFL, values[i]);
+	}
+	
 	/**
 	 * 
 	 * @param rlen
@@ -118,41 +175,147 @@ public class CTableMap
 	public MatrixBlock toMatrixBlock(int rlen, int clen)
 	{
 		//allocate new matrix block
-		int nnz = _map.size();
+		int nnz = _size;
 		boolean sparse = MatrixBlock.evalSparseFormatInMemory(rlen, clen, nnz); 		
 		MatrixBlock mb = new MatrixBlock(rlen, clen, sparse, nnz);
 		
 		// copy map values into new matrix block
 		if( sparse ) //SPARSE <- cells
 		{
-			//append cells to sparse target (prevent shifting)
-			for( Entry<MatrixIndexes,Double> e : _map.entrySet() ) 
-			{
-				MatrixIndexes index = e.getKey();
-				double value = e.getValue();
-				int rix = (int)index.getRowIndex();
-				int cix = (int)index.getColumnIndex();
-				if( value != 0 && rix<=rlen && cix<=clen )
-					mb.appendValue( rix-1, cix-1, value );
-			}
-			
-			//sort sparse target representation
-			mb.sortSparseRows();
+			//bulk append of unordered cells (exact row allocation, sorted rows)
+			SparseBlockBuilderCOO coo = new SparseBlockBuilderCOO(mb, nnz);
+			for( int i=0; i<_keys.length; i++ ) 
+				if( _keys[i] != EMPTY ) {
+					int rix = (int)(_keys[i]>>>32);
+					int cix = (int)(_keys[i]&0xFFFFFFFFL);
+					double value = _values[i];
+					if( value != 0 && rix<=rlen && cix<=clen )
+						coo.append( rix-1, cix-1, value );
+				}
+			coo.close();
 		}
 		else  //DENSE <- cells
 		{
 			//directly insert cells into dense target 
-			for( Entry<MatrixIndexes,Double> e : _map.entrySet() ) 
-			{
-				MatrixIndexes index = e.getKey();
-				double value = e.getValue();
-				int rix = (int)index.getRowIndex();
-				int cix = (int)index.getColumnIndex();
-				if( value != 0 && rix<=rlen && cix<=clen )
-					mb.quickSetValue( rix-1, cix-1, value );
-			}
+			for( int i=0; i<_keys.length; i++ ) 
+				if( _keys[i] != EMPTY ) {
+					int rix = (int)(_keys[i]>>>32);
+					int cix = (int)(_keys[i]&0xFFFFFFFFL);
+					double value = _values[i];
+					if( value != 0 && rix<=rlen && cix<=clen )
+						mb.quickSetValue( rix-1, cix-1, value );
+				}
 		}
 		
 		return mb;
 	}
+	
+	/**
+	 * Estimates the in-memory size of a ctable map with the given number
+	 * of distinct cells, incl the worst-case overhead of the hash table
+	 * capacity (load factor and power of 2 capacity).
+	 * 
+	 * @param numCells
+	 * @return
+	 */
+	public static long estimateSizeInMemory( long numCells )
+	{
+		long capacity = INIT_CAPACITY;
+		while( capacity * LOAD_FACTOR < numCells && capacity < MAX_CAPACITY )
+			capacity <<= 1;
+		
+		//object header and fields, keys and values arrays
+		return 48 + 2 * (16 + 8 * capacity);
+	}
+	
+	/**
+	 * 
+	 * @param row
+	 * @param col
+	 * @return
+	 */
+	private static long getKey( long row, long col )
+	{
+		if( row <= 0 || col <= 0 || row > Integer.MAX_VALUE || col > Integer.MAX_VALUE )
+			throw new IndexOutOfBoundsException("Invalid ctable cell ("+row+", "+col+").");
+		return (row << 32) | col;
+	}
+	
+	/**
+	 * 
+	 * @param key
+	 * @return
+	 */
+	private static int hash( long key )
+	{
+		//bit mixing (64bit finalizer of murmur3) to spread packed keys
+		key ^= key >>> 33;
+		key *= 0xff51afd7ed558ccdL;
+		key ^= key >>> 33;
+		key *= 0xc4ceb9fe1a85ec53L;
+		key ^= key >>> 33;
+		return (int) key;
+	}
+	
+	/**
+	 * 
+	 * @param capacity
+	 */
+	private void resize( int capacity )
+	{
+		long[] oldKeys = _keys;
+		double[] oldValues = _values;
+		
+		//reinsert all entries into new arrays
+		_keys = new long[capacity];
+		_values = new double[capacity];
+		int mask = capacity - 1;
+		for( int i=0; i<oldKeys.length; i++ )
+			if( oldKeys[i] != EMPTY ) {
+				int pos = hash(oldKeys[i]) & mask;
+				while( _keys[pos] != EMPTY )
+					pos = (pos+1) & mask;
+				_keys[pos] = oldKeys[i];
+				_values[pos] = oldValues[i];
+			}
+	}
+	
+	/**
+	 * 
+	 * 
+	 */
+	private class CTableMapIterator implements Iterator<IJV>
+	{
+		private IJV _cell = new IJV();
+		private int _pos = -1;
+		
+		private CTableMapIterator() {
+			_pos = next(0);
+		}
+		
+		@Override
+		public boolean hasNext() {
+			return (_pos < _keys.length);
+		}
+
+		@Override
+		public IJV next() {
+			if( _pos >= _keys.length )
+				throw new NoSuchElementException();
+			_cell.set((int)(_keys[_pos]>>>32), (int)(_keys[_pos]&0xFFFFFFFFL), _values[_pos]);
+			_pos = next(_pos+1);
+			return _cell;
+		}
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+		
+		private int next(int pos) {
+			while( pos < _keys.length && _keys[pos] == EMPTY )
+				pos++;
+			return pos;
+		}
+	}
 }
@@ -19,9 +19,10 @@ package com.ibm.bi.dml.runtime.matrix.data;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import com.ibm.bi.dml.lops.PartialAggregate.CorrectionLocationType;
 import com.ibm.bi.dml.runtime.DMLRuntimeException;
@@ -41,6 +42,7 @@ import com.ibm.bi.dml.runtime.instructions.cp.KahanObject;
 import com.ibm.bi.dml.runtime.matrix.operators.AggregateOperator;
 import com.ibm.bi.dml.runtime.matrix.operators.AggregateUnaryOperator;
 import com.ibm.bi.dml.runtime.matrix.operators.UnaryOperator;
+import com.ibm.bi.dml.runtime.util.CommonThreadPool;
 import com.ibm.bi.dml.runtime.util.UtilFunctions;
 
 /**
@@ -241,7 +243,7 @@ public class LibMatrixAgg
 		//core multi-threaded unary aggregate computation
 		//(currently: always parallelization over number of rows)
 		try {
-			ExecutorService pool = Executors.newFixedThreadPool( k );
+			ExecutorService pool = CommonThreadPool.get( k );
 			ArrayList<AggTask> tasks = new ArrayList<AggTask>();
 			int blklen = (int)(Math.ceil((double)m/k));
 			for( int i=0; i<k & i*blklen<m; i++ ) {
@@ -309,6 +311,88 @@ public class LibMatrixAgg
 		//System.out.println("uop ("+in.rlen+","+in.clen+","+in.sparse+") in "+time.stop()+"ms.");
 	}
 	
+	/**
+	 * Multi-threaded cumulative aggregate (cumsum, cumprod, cummin, cummax) via a two-phase
+	 * scan over row ranges: (1) parallel computation of the column aggregates per row range, 
+	 * (2) sequential scan of these aggregates into offsets per row range, and (3) parallel
+	 * cumulative aggregation per row range, initialized with the offsets. For cumsum, the 
+	 * Kahan corrections are carried through all phases. 
+	 * 
+	 * @param in
+	 * @param out
+	 * @param uop
+	 * @param k
+	 * @throws DMLRuntimeException
+	 */
+	public static void aggregateUnaryMatrix(MatrixBlock in, MatrixBlock out, UnaryOperator uop, int k) 
+		throws DMLRuntimeException
+	{
+		//fall back to sequential version if necessary
+		if( k <= 1 || (long)in.rlen*in.clen < PAR_NUMCELL_THRESHOLD || in.rlen <= k ) {
+			aggregateUnaryMatrix(in, out, uop);
+			return;
+		}
+		
+		//prepare meta data 
+		AggType aggtype = getAggType(uop);
+		final int m = in.rlen;
+		final int m2 = out.rlen;
+		final int n2 = out.clen;
+		
+		//filter empty input blocks (incl special handling for sparse-unsafe operations)
+		if( in.isEmptyBlock(false) ){
+			aggregateUnaryMatrixEmpty(in, out, aggtype, null);
+			return;
+		}	
+		
+		//Timing time = new Timing(true);
+		
+		//allocate output arrays (if required)
+		out.reset(m2, n2, false); //always dense
+		out.allocateDenseBlock();
+		
+		//core multi-threaded cumulative aggregate computation
+		//(currently: always parallelization over number of rows)
+		try {
+			ExecutorService pool = CommonThreadPool.get( k );
+			int blklen = (int)(Math.ceil((double)m/k));
+			int numRanges = (int)(Math.ceil((double)m/blklen));
+			
+			//phase 1: column aggregates per row range (except last range)
+			ArrayList<CumAggTask> tasks = new ArrayList<CumAggTask>();
+			for( int i=0; i<numRanges-1; i++ )
+				tasks.add( new CumAggTask(in, null, null, aggtype, uop.fn, i*blklen, Math.min((i+1)*blklen, m)) );
+			List<Future<double[]>> rtasks = pool.invokeAll(tasks);
+			
+			//phase 2: scan of column aggregates into offsets per row range
+			ArrayList<double[]> offsets = new ArrayList<double[]>();
+			offsets.add(null); //neutral offset for first range
+			for( int i=0; i<numRanges-1; i++ )
+				offsets.add(cumaggregateOffsets(offsets.get(i), rtasks.get(i).get(), aggtype, uop.fn, in.clen));
+			
+			//phase 3: cumulative aggregates per row range w/ offsets
+			double[] c = out.getDenseArray();
+			ArrayList<CumAggTask> tasks2 = new ArrayList<CumAggTask>();
+			for( int i=0; i<numRanges; i++ )
+				tasks2.add( new CumAggTask(in, offsets.get(i), c, aggtype, uop.fn, i*blklen, Math.min((i+1)*blklen, m)) );
+			List<Future<double[]>> rtasks2 = pool.invokeAll(tasks2);
+			pool.shutdown();
+			
+			//check for errors
+			for( Future<double[]> rtask : rtasks2 )
+				rtask.get();
+		}
+		catch(Exception ex) {
+			throw new DMLRuntimeException(ex);
+		}
+		
+		//cleanup output and change representation (if necessary)
+		out.recomputeNonZeros();
+		out.examSparsity();
+		
+		//System.out.println("uop k="+k+" ("+in.rlen+","+in.clen+","+in.sparse+") in "+time.stop()+"ms.");
+	}
+	
 	/**
 	 * 
 	 * @param in1
@@ -358,7 +442,7 @@ public class LibMatrixAgg
 		
 		double val = -1;
 		try {
-			ExecutorService pool = Executors.newFixedThreadPool( k );
+			ExecutorService pool = CommonThreadPool.get( k );
 			ArrayList<AggTernaryTask> tasks = new ArrayList<AggTernaryTask>();
 			int blklen = (int)(Math.ceil((double)in1.rlen/k));
 			for( int i=0; i<k & i*blklen<in1.rlen; i++ )
@@ -961,19 +1045,19 @@ public class LibMatrixAgg
 			{
 				KahanObject kbuff = new KahanObject(0, 0);
 				KahanPlus kplus = KahanPlus.getKahanPlusFnObject();
-				d_ucumkp(a, c, m, n, kbuff, kplus);
+				d_ucumkp(a, null, c, m, n, kbuff, kplus, rl, ru);
 				break;
 			}
 			case CUM_PROD: //CUMPROD
 			{
-				d_ucumm(a, c, m, n);
+				d_ucumm(a, null, c, m, n, rl, ru);
 				break;
 			}
 			case CUM_MIN:
 			case CUM_MAX:
 			{
 				double init = Double.MAX_VALUE * ((optype==AggType.CUM_MAX)?-1:1);
-				d_ucummxx(a, c, m, n, init, (Builtin)vFn);
+				d_ucummxx(a, null, c, m, n, init, (Builtin)vFn, rl, ru);
 				break;
 			}
 			case MIN: 
@@ -1069,19 +1153,19 @@ public class LibMatrixAgg
 			{
 				KahanObject kbuff = new KahanObject(0, 0);
 				KahanPlus kplus = KahanPlus.getKahanPlusFnObject();
-				s_ucumkp(a, c, m, n, kbuff, kplus);
+				s_ucumkp(a, null, c, m, n, kbuff, kplus, rl, ru);
 				break;
 			}
 			case CUM_PROD: //CUMPROD
 			{
-				s_ucumm(a, c, m, n);
+				s_ucumm(a, null, c, m, n, rl, ru);
 				break;
 			}
 			case CUM_MIN:
 			case CUM_MAX:
 			{
 				double init = Double.MAX_VALUE * ((optype==AggType.CUM_MAX)?-1:1);
-				s_ucummxx(a, c, m, n, init, (Builtin)vFn);
+				s_ucummxx(a, null, c, m, n, init, (Builtin)vFn, rl, ru);
 				break;
 			}
 			case MIN:
@@ -1138,6 +1222,110 @@ public class LibMatrixAgg
 		}
 	}
 
+	/**
+	 * Cumulative aggregate over the row range [rl,ru) of the input, initialized with the given
+	 * aggregates (offsets) or the neutral element if agg is null. If c is null, only the column
+	 * aggregates of the row range are computed.
+	 * 
+	 * @param in
+	 * @param agg
+	 * @param c
+	 * @param optype
+	 * @param vFn
+	 * @param rl
+	 * @param ru
+	 * @return final column aggregates (incl corrections for cumsum)
+	 * @throws DMLRuntimeException
+	 */
+	private static double[] cumaggregateUnaryMatrix(MatrixBlock in, double[] agg, double[] c, AggType optype, ValueFunction vFn, int rl, int ru) 
+		throws DMLRuntimeException
+	{
+		final int m = in.rlen;
+		final int n = in.clen;
+		
+		switch( optype )
+		{
+			case CUM_KAHAN_SUM: //CUMSUM
+			{
+				KahanObject kbuff = new KahanObject(0, 0);
+				KahanPlus kplus = KahanPlus.getKahanPlusFnObject();
+				return !in.sparse ? d_ucumkp(in.getDenseArray(), agg, c, m, n, kbuff, kplus, rl, ru) :
+					                s_ucumkp(in.getSparseRows(), agg, c, m, n, kbuff, kplus, rl, ru);
+			}
+			case CUM_PROD: //CUMPROD
+			{
+				return !in.sparse ? d_ucumm(in.getDenseArray(), agg, c, m, n, rl, ru) :
+					                s_ucumm(in.getSparseRows(), agg, c, m, n, rl, ru);
+			}
+			case CUM_MIN:
+			case CUM_MAX:
+			{
+				double init = Double.MAX_VALUE * ((optype==AggType.CUM_MAX)?-1:1);
+				return !in.sparse ? d_ucummxx(in.getDenseArray(), agg, c, m, n, init, (Builtin)vFn, rl, ru) :
+					                s_ucummxx(in.getSparseRows(), agg, c, m, n, init, (Builtin)vFn, rl, ru);
+			}
+			
+			default:
+				throw new DMLRuntimeException("Unsupported cumulative aggregation type: "+optype);
+		}
+	}
+	
+	/**
+	 * Combines the offsets of the preceding row ranges (null for neutral offsets) 
+	 * with the column aggregates of the current row range.
+	 * 
+	 * @param offsets
+	 * @param agg
+	 * @param optype
+	 * @param vFn
+	 * @param n
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	private static double[] cumaggregateOffsets(double[] offsets, double[] agg, AggType optype, ValueFunction vFn, int n) 
+		throws DMLRuntimeException
+	{
+		//first row range, column aggregates are the new offsets
+		if( offsets == null )
+			return agg;
+		
+		double[] ret = new double[ agg.length ];
+		switch( optype )
+		{
+			case CUM_KAHAN_SUM: //CUMSUM (sums and corrections)
+			{
+				KahanObject kbuff = new KahanObject(0, 0);
+				KahanPlus kplus = KahanPlus.getKahanPlusFnObject();
+				for( int j=0; j<n; j++ ) {
+					kbuff.set(offsets[j], offsets[n+j]);
+					kplus.execute(kbuff, agg[j], agg[n+j]);
+					ret[j]   = kbuff._sum;
+					ret[n+j] = kbuff._correction;
+				}
+				break;
+			}
+			case CUM_PROD: //CUMPROD
+			{
+				for( int j=0; j<n; j++ )
+					ret[j] = offsets[j] * agg[j];
+				break;
+			}
+			case CUM_MIN:
+			case CUM_MAX:
+			{
+				Builtin builtin = (Builtin)vFn;
+				for( int j=0; j<n; j++ )
+					ret[j] = builtin.execute2(offsets[j], agg[j]);
+				break;
+			}
+			
+			default:
+				throw new DMLRuntimeException("Unsupported cumulative aggregation type: "+optype);
+		}
+		
+		return ret;
+	}
+	
 	/**
 	 * 
 	 * @param in
@@ -1258,69 +1446,99 @@ public class LibMatrixAgg
 	/**
 	 * CUMSUM, opcode: ucumk+, dense input.
 	 * 
+	 * The optional agg array provides the initial sums/corrections (e.g., offsets of
+	 * preceding row ranges); if c is null, only the final sums/corrections are computed.
+	 * 
 	 * @param a
+	 * @param agg
 	 * @param c
 	 * @param m
 	 * @param n
 	 * @param kbuff
 	 * @param kplus
+	 * @param rl
+	 * @param ru
+	 * @return
 	 */
-	private static void d_ucumkp( double[] a, double[] c, int m, int n, KahanObject kbuff, KahanPlus kplus ) 
+	private static double[] d_ucumkp( double[] a, double[] agg, double[] c, int m, int n, KahanObject kbuff, KahanPlus kplus, int rl, int ru ) 
 	{
-		//init current row sum/correction arrays w/ neutral 0
+		//init current row sum/correction arrays w/ neutral 0 or offsets
 		double[] csums = new double[ 2*n ]; 
-		Arrays.fill(csums, 0); 
+		if( agg != null )
+			System.arraycopy(agg, 0, csums, 0, 2*n);
 		
 		//scan once and compute prefix sums
-		for( int i=0, aix=0; i<m; i++, aix+=n ) {
+		for( int i=rl, aix=rl*n; i<ru; i++, aix+=n ) {
 			sumAgg( a, csums, aix, 0, n, kbuff, kplus );
-			System.arraycopy(csums, 0, c, aix, n);	
-		}			
+			if( c != null )
+				System.arraycopy(csums, 0, c, aix, n);	
+		}
+		
+		return csums;
 	}
 	
 	/**
 	 * CUMPROD, opcode: ucum*, dense input.
 	 * 
 	 * @param a
+	 * @param agg
 	 * @param c
 	 * @param m
 	 * @param n
-	 * @param kbuff
-	 * @param kplus
+	 * @param rl
+	 * @param ru
+	 * @return
 	 */
-	private static void d_ucumm( double[] a, double[] c, int m, int n ) 
+	private static double[] d_ucumm( double[] a, double[] agg, double[] c, int m, int n, int rl, int ru ) 
 	{	
-		//init current row product array w/ neutral 1
+		//init current row product array w/ neutral 1 or offsets
 		double[] cprods = new double[ n ]; 
-		Arrays.fill(cprods, 1);
+		if( agg != null )
+			System.arraycopy(agg, 0, cprods, 0, n);
+		else
+			Arrays.fill(cprods, 1);
 		
 		//scan once and compute prefix products
-		for( int i=0, aix=0; i<m; i++, aix+=n ) {
+		for( int i=rl, aix=rl*n; i<ru; i++, aix+=n ) {
 			productAgg( a, cprods, aix, 0, n );
-			System.arraycopy(cprods, 0, c, aix, n);
-		}			
+			if( c != null )
+				System.arraycopy(cprods, 0, c, aix, n);
+		}
+		
+		return cprods;
 	}
 	
 	/**
 	 * CUMMIN/CUMMAX, opcode: ucummin/ucummax, dense input.
 	 * 
 	 * @param a
+	 * @param agg
 	 * @param c
 	 * @param m
 	 * @param n
+	 * @param init
 	 * @param builtin
+	 * @param rl
+	 * @param ru
+	 * @return
 	 */
-	private static void d_ucummxx( double[] a, double[] c, int m, int n, double init, Builtin builtin )
+	private static double[] d_ucummxx( double[] a, double[] agg, double[] c, int m, int n, double init, Builtin builtin, int rl, int ru )
 	{
-		//init current row min/max array w/ extreme value 
+		//init current row min/max array w/ extreme value or offsets
 		double[] cmxx = new double[ n ]; 
-		Arrays.fill(cmxx, init);
+		if( agg != null )
+			System.arraycopy(agg, 0, cmxx, 0, n);
+		else
+			Arrays.fill(cmxx, init);
 				
 		//scan once and compute prefix min/max
-		for( int i=0, aix=0; i<m; i++, aix+=n ) {
+		for( int i=rl, aix=rl*n; i<ru; i++, aix+=n ) {
 			builtinAgg( a, cmxx, aix, n, builtin );
-			System.arraycopy(cmxx, 0, c, aix, n);
+			if( c != null )
+				System.arraycopy(cmxx, 0, c, aix, n);
 		}
+		
+		return cmxx;
 	}
 	/**
 	 * TRACE, opcode: uaktrace 
@@ -1594,20 +1812,25 @@ public class LibMatrixAgg
 	 * CUMSUM, opcode: ucumk+, sparse input.
 	 * 
 	 * @param a
+	 * @param agg
 	 * @param c
 	 * @param m
 	 * @param n
 	 * @param kbuff
 	 * @param kplus
+	 * @param rl
+	 * @param ru
+	 * @return
 	 */
-	private static void s_ucumkp( SparseRow[] a, double[] c, int m, int n, KahanObject kbuff, KahanPlus kplus )
+	private static double[] s_ucumkp( SparseRow[] a, double[] agg, double[] c, int m, int n, KahanObject kbuff, KahanPlus kplus, int rl, int ru )
 	{
-		//init current row sum/correction arrays w/ neutral 0
+		//init current row sum/correction arrays w/ neutral 0 or offsets
 		double[] csums = new double[ 2*n ]; 
-		Arrays.fill(csums, 0);
+		if( agg != null )
+			System.arraycopy(agg, 0, csums, 0, 2*n);
 		
 		//scan once and compute prefix sums
-		for( int i=0, ix=0; i<m; i++, ix+=n )
+		for( int i=rl, ix=rl*n; i<ru; i++, ix+=n )
 		{
 			SparseRow arow = a[i];
 			if( arow!=null && !arow.isEmpty() )
@@ -1618,30 +1841,40 @@ public class LibMatrixAgg
 				sumAgg( avals, csums, aix, alen, n, kbuff, kplus );
 			}
 			//always copy current sum (not sparse-safe)
-			System.arraycopy(csums, 0, c, ix, n);
+			if( c != null )
+				System.arraycopy(csums, 0, c, ix, n);
 		}
+		
+		return csums;
 	}
 	
 	/**
 	 * CUMPROD, opcode: ucum*, sparse input.
 	 * 
 	 * @param a
+	 * @param agg
 	 * @param c
 	 * @param m
 	 * @param n
+	 * @param rl
+	 * @param ru
+	 * @return
 	 */
-	private static void s_ucumm( SparseRow[] a, double[] c, int m, int n )
+	private static double[] s_ucumm( SparseRow[] a, double[] agg, double[] c, int m, int n, int rl, int ru )
 	{
-		//init current row prod arrays w/ neutral 1
+		//init current row prod arrays w/ neutral 1 or offsets
 		double[] cprod = new double[ n ]; 
-		Arrays.fill(cprod, 1);
+		if( agg != null )
+			System.arraycopy(agg, 0, cprod, 0, n);
+		else
+			Arrays.fill(cprod, 1);
 		
 		//init count arrays (helper, see correction)
 		int[] cnt = new int[ n ]; 
 		Arrays.fill(cnt, 0); //init count array
 				
 		//scan once and compute prefix products
-		for( int i=0, ix=0; i<m; i++, ix+=n )
+		for( int i=rl, ix=rl*n; i<ru; i++, ix+=n )
 		{
 			SparseRow arow = a[i];
 			
@@ -1657,36 +1890,46 @@ public class LibMatrixAgg
 			//correction (not sparse-safe and cumulative)
 			//note: we need to determine if there are only nnz in a column
 			for( int j=0; j<n; j++ )
-				if( cnt[j] < i+1 ) //no dense column
+				if( cnt[j] < i-rl+1 ) //no dense column
 					cprod[j] *= 0;
 			
 			//always copy current sum (not sparse-safe)
-			System.arraycopy(cprod, 0, c, ix, n);
-		}	
+			if( c != null )
+				System.arraycopy(cprod, 0, c, ix, n);
+		}
+		
+		return cprod;
 	}
 	
 	/**
 	 * CUMMIN/CUMMAX, opcode: ucummin/ucummax, sparse input.
 	 * 
 	 * @param a
+	 * @param agg
 	 * @param c
 	 * @param m
 	 * @param n
 	 * @param init
 	 * @param builtin
+	 * @param rl
+	 * @param ru
+	 * @return
 	 */
-	private static void s_ucummxx( SparseRow[] a, double[] c, int m, int n, double init, Builtin builtin ) 
+	private static double[] s_ucummxx( SparseRow[] a, double[] agg, double[] c, int m, int n, double init, Builtin builtin, int rl, int ru ) 
 	{
-		//init current row min/max array w/ extreme value 
+		//init current row min/max array w/ extreme value or offsets
 		double[] cmxx = new double[ n ]; 
-		Arrays.fill(cmxx, init);
+		if( agg != null )
+			System.arraycopy(agg, 0, cmxx, 0, n);
+		else
+			Arrays.fill(cmxx, init);
 				
 		//init count arrays (helper, see correction)
 		int[] cnt = new int[ n ]; 
 		Arrays.fill(cnt, 0); //init count array
 		
 		//compute column aggregates min/max
-		for( int i=0, ix=0; i<m; i++, ix+=n )
+		for( int i=rl, ix=rl*n; i<ru; i++, ix+=n )
 		{
 			SparseRow arow = a[i];
 			if( arow!=null && !arow.isEmpty() )
@@ -1701,12 +1944,15 @@ public class LibMatrixAgg
 			//correction (not sparse-safe and cumulative)
 			//note: we need to determine if there are only nnz in a column
 			for( int j=0; j<n; j++ )
-				if( cnt[j] < i+1 ) //no dense column
+				if( cnt[j] < i-rl+1 ) //no dense column
 					cmxx[j] = builtin.execute2(cmxx[j], 0);
 			
 			//always copy current sum (not sparse-safe)
-			System.arraycopy(cmxx, 0, c, ix, n);
+			if( c != null )
+				System.arraycopy(cmxx, 0, c, ix, n);
 		}
+		
+		return cmxx;
 	}
 	
 	/**
@@ -2509,6 +2755,39 @@ public class LibMatrixAgg
 		}
 	}
 	
+	/**
+	 * 
+	 * 
+	 */
+	private static class CumAggTask implements Callable<double[]> 
+	{
+		private MatrixBlock _in  = null;
+		private double[] _agg = null;
+		private double[] _c = null;
+		private AggType _aggtype = null;
+		private ValueFunction _vFn = null;		
+		private int _rl = -1;
+		private int _ru = -1;
+
+		protected CumAggTask( MatrixBlock in, double[] agg, double[] c, AggType aggtype, ValueFunction vFn, int rl, int ru ) 
+		{
+			_in = in;
+			_agg = agg;
+			_c = c;
+			_aggtype = aggtype;
+			_vFn = vFn;
+			_rl = rl;
+			_ru = ru;
+		}
+		
+		@Override
+		public double[] call() throws DMLRuntimeException
+		{
+			//compute partial cumulative aggregate (or column aggregates only)
+			return cumaggregateUnaryMatrix(_in, _agg, _c, _aggtype, _vFn, _rl, _ru);
+		}
+	}
+	
 	/**
 	 * 
 	 */
@@ -17,7 +17,12 @@
 
 package com.ibm.bi.dml.runtime.matrix.data;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import com.ibm.bi.dml.runtime.DMLRuntimeException;
 import com.ibm.bi.dml.runtime.functionobjects.Divide;
@@ -28,6 +33,7 @@ import com.ibm.bi.dml.runtime.functionobjects.Or;
 import com.ibm.bi.dml.runtime.functionobjects.Plus;
 import com.ibm.bi.dml.runtime.matrix.operators.BinaryOperator;
 import com.ibm.bi.dml.runtime.matrix.operators.ScalarOperator;
+import com.ibm.bi.dml.runtime.util.CommonThreadPool;
 
 /**
  * MB:
@@ -43,6 +49,8 @@ import com.ibm.bi.dml.runtime.matrix.operators.ScalarOperator;
  */
 public class LibMatrixBincell 
 {
+	//internal configuration parameters
+	private static final long PAR_NUMCELL_THRESHOLD = 1024*1024;   //Min 1M elements
 
 	public enum BinaryAccessType {
 		MATRIX_MATRIX,
@@ -135,6 +143,144 @@ public class LibMatrixBincell
 			m1ret.examSparsity();
 	}
 	
+	/**
+	 * Performs a multi-threaded matrix-scalar, scalar-matrix binary operation. The parameter k (k>=1) 
+	 * determines the max parallelism k' with k'=min(k, vcores, m1.rlen). Small or empty inputs are 
+	 * redirected to the sequential operation.
+	 * 
+	 * @param m1
+	 * @param ret
+	 * @param op
+	 * @param k
+	 * @throws DMLRuntimeException
+	 */
+	public static void bincellOp(MatrixBlock m1, MatrixBlock ret, ScalarOperator op, int k) 
+		throws DMLRuntimeException
+	{
+		//fall back to sequential version if necessary
+		if(    k <= 1 || m1.rlen <= k || (long)m1.rlen*m1.clen < PAR_NUMCELL_THRESHOLD 
+			|| m1.isEmptyBlock(false) ) {
+			bincellOp(m1, ret, op);
+			return;
+		}
+		
+		//check internal assumptions 
+		if(   (op.sparseSafe && m1.isInSparseFormat()!=ret.isInSparseFormat())
+			||(!op.sparseSafe && ret.isInSparseFormat()) ) {
+			throw new DMLRuntimeException("Wrong output representation for safe="+op.sparseSafe+": "+m1.isInSparseFormat()+", "+ret.isInSparseFormat());
+		}
+		
+		//pre-processing: output allocation (in contrast to single-threaded,
+		//we need to allocate sparse as well in order to prevent synchronization)
+		if( ret.sparse )
+			ret.allocateSparseRowsBlock();
+		else
+			ret.allocateDenseBlock();
+		
+		//core multi-threaded scalar operation
+		//(currently: always parallelization over number of rows)
+		try {
+			ExecutorService pool = CommonThreadPool.get( k );
+			ArrayList<BincellScalarTask> tasks = new ArrayList<BincellScalarTask>();
+			int blklen = (int)(Math.ceil((double)m1.rlen/k));
+			for( int i=0; i<k & i*blklen<m1.rlen; i++ )
+				tasks.add(new BincellScalarTask(m1, ret, op, i*blklen, Math.min((i+1)*blklen, m1.rlen)));
+			List<Future<Long>> rtasks = pool.invokeAll(tasks);	
+			pool.shutdown();
+			//aggregate partial nnz (and check for task errors)
+			ret.nonZeros = 0; 
+			for( Future<Long> task : rtasks )
+				ret.nonZeros += task.get();
+		}
+		catch(Exception ex) {
+			throw new DMLRuntimeException(ex);
+		}
+		
+		//ensure empty results sparse representation 
+		//(no additional memory requirements)
+		if( ret.isEmptyBlock(false) )
+			ret.examSparsity();
+	}
+	
+	/**
+	 * Performs a multi-threaded matrix-matrix binary operation, MM, MV. The parameter k (k>=1) 
+	 * determines the max parallelism k' with k'=min(k, vcores, m1.rlen). Small or empty inputs,
+	 * outer vector operations, sparse vectors, and sparse outputs of sparse-unsafe operations are 
+	 * redirected to the sequential operation.
+	 * 
+	 * @param m1
+	 * @param m2
+	 * @param ret
+	 * @param op
+	 * @param k
+	 * @throws DMLRuntimeException
+	 */
+	public static void bincellOp(MatrixBlock m1, MatrixBlock m2, MatrixBlock ret, BinaryOperator op, int k) 
+		throws DMLRuntimeException
+	{
+		BinaryAccessType atype = getBinaryAccessType(m1, m2);
+		boolean safe = (op.sparseSafe || isSparseSafeDivide(op, m2));
+		
+		//fall back to sequential version if necessary
+		if(    k <= 1 || m1.rlen <= k || (long)m1.rlen*m1.clen < PAR_NUMCELL_THRESHOLD
+			|| !isParallelizableBinary(m1, m2, atype) || (ret.sparse && !safe) ) {
+			bincellOp(m1, m2, ret, op);
+			return;
+		}
+		
+		//pre-processing: output allocation (in contrast to single-threaded,
+		//we need to allocate sparse as well in order to prevent synchronization)
+		if( ret.sparse )
+			ret.allocateSparseRowsBlock();
+		else
+			ret.allocateDenseBlock();
+		
+		//core multi-threaded binary operation
+		//(currently: always parallelization over number of rows)
+		executeParallelBinary(m1, m2, ret, op, atype, k);
+		
+		//ensure empty results sparse representation 
+		//(no additional memory requirements)
+		if( ret.isEmptyBlock(false) )
+			ret.examSparsity();
+	}
+	
+	/**
+	 * Performs a multi-threaded in-place matrix-matrix binary operation, MM, MV. The parameter k 
+	 * (k>=1) determines the max parallelism k' with k'=min(k, vcores, m1ret.rlen). Sparse or empty 
+	 * left-hand-side inputs are redirected to the sequential operation.
+	 * 
+	 * NOTE: operations in place always require m1 and m2 to be of equal dimensions
+	 * 
+	 * @param m1ret
+	 * @param m2
+	 * @param op
+	 * @param k
+	 * @throws DMLRuntimeException
+	 */
+	public static void bincellOpInPlace(MatrixBlock m1ret, MatrixBlock m2, BinaryOperator op, int k) 
+		throws DMLRuntimeException
+	{
+		BinaryAccessType atype = getBinaryAccessType(m1ret, m2);
+		
+		//fall back to sequential version if necessary
+		//(in-place updates of sparse rows would require row reallocations)
+		if(    k <= 1 || m1ret.rlen <= k || (long)m1ret.rlen*m1ret.clen < PAR_NUMCELL_THRESHOLD
+			|| m1ret.sparse || !isParallelizableBinary(m1ret, m2, atype) ) {
+			bincellOpInPlace(m1ret, m2, op);
+			return;
+		}
+		
+		//core multi-threaded binary operation, where the dense output
+		//is the left input (every cell is read before it is written)
+		executeParallelBinary(m1ret, m2, m1ret, op, atype, k);
+		
+		//ensure empty results sparse representation 
+		//(no additional memory requirements)
+		if( m1ret.isEmptyBlock(false) )
+			m1ret.examSparsity();
+	}
+	
 	/**
 	 * 
 	 * @param m1
@@ -1223,5 +1369,444 @@ public class LibMatrixBincell
 		}
 	}
 	
+	
+	//////////////////////////////////////////////////////
+	// private multi-threaded implementations
+	///////////////////////////////////
+	
+	/**
+	 * Checks if a binary operation is supported by the multi-threaded row-partitioned 
+	 * kernels, i.e., non-empty inputs of type MM or MV with dense right-hand-side vectors. 
+	 * 
+	 * @param m1
+	 * @param m2
+	 * @param atype
+	 * @return
+	 */
+	private static boolean isParallelizableBinary(MatrixBlock m1, MatrixBlock m2, BinaryAccessType atype)
+	{
+		//note: empty blocks are handled by the sequential early-abort paths
+		return (   !m1.isEmptyBlock(false) && !m2.isEmptyBlock(false)
+				&& (   atype == BinaryAccessType.MATRIX_MATRIX
+				   || ((atype == BinaryAccessType.MATRIX_COL_VECTOR 
+				      || atype == BinaryAccessType.MATRIX_ROW_VECTOR) && !m2.sparse)) );
+	}
+	
+	/**
+	 * 
+	 * @param m1
+	 * @param m2
+	 * @param ret
+	 * @param op
+	 * @param atype
+	 * @param k
+	 * @throws DMLRuntimeException
+	 */
+	private static void executeParallelBinary(MatrixBlock m1, MatrixBlock m2, MatrixBlock ret, BinaryOperator op, BinaryAccessType atype, int k) 
+		throws DMLRuntimeException
+	{
+		try {
+			ExecutorService pool = CommonThreadPool.get( k );
+			ArrayList<BincellTask> tasks = new ArrayList<BincellTask>();
+			int blklen = (int)(Math.ceil((double)m1.rlen/k));
+			for( int i=0; i<k & i*blklen<m1.rlen; i++ )
+				tasks.add(new BincellTask(m1, m2, ret, op, atype, i*blklen, Math.min((i+1)*blklen, m1.rlen)));
+			List<Future<Long>> rtasks = pool.invokeAll(tasks);	
+			pool.shutdown();
+			//aggregate partial nnz (and check for task errors)
+			long nnz = 0;
+			for( Future<Long> task : rtasks )
+				nnz += task.get();
+			ret.nonZeros = nnz;
+		}
+		catch(Exception ex) {
+			throw new DMLRuntimeException(ex);
+		}
+	}
+	
+	/**
+	 * Row range kernel for matrix-scalar operations. Sparse outputs are only passed 
+	 * for sparse-safe operations over sparse inputs.
+	 * 
+	 * @param m1
+	 * @param ret
+	 * @param op
+	 * @param rl
+	 * @param ru
+	 * @return number of non-zeros in the given row range of the output
+	 * @throws DMLRuntimeException
+	 */
+	private static long bincellOpScalar(MatrixBlock m1, MatrixBlock ret, ScalarOperator op, int rl, int ru) 
+		throws DMLRuntimeException
+	{
+		final int n = m1.clen;
+		long lnnz = 0;
+		
+		if( m1.sparse && ret.sparse ) //SPARSE <- SPARSE (safe)
+		{
+			SparseRow[] a = m1.sparseRows;
+			SparseRow[] c = ret.sparseRows;
+			
+			for( int i=rl; i<Math.min(ru, a.length); i++ ) {
+				SparseRow arow = a[i];
+				if( arow==null || arow.isEmpty() )
+					continue;
+				
+				int alen = arow.size();
+				int[] aix = arow.getIndexContainer();
+				double[] avals = arow.getValueContainer();
+				
+				//create sparse row without repeated resizing
+				SparseRow crow = new SparseRow(alen);
+				for( int j=0; j<alen; j++ )
+					crow.append(aix[j], op.executeScalar(avals[j]));
+				if( !crow.isEmpty() ) {
+					c[i] = crow;
+					lnnz += crow.size();
+				}
+			}
+		}
+		else if( m1.sparse ) //DENSE <- SPARSE (unsafe)
+		{
+			SparseRow[] a = m1.sparseRows;
+			double[] c = ret.denseBlock;
+			
+			//init dense result with unsafe 0-value, and compute non-zero input values
+			double cval0 = op.executeScalar(0);
+			for( int i=rl, cix=rl*n; i<ru; i++, cix+=n ) {
+				Arrays.fill(c, cix, cix+n, cval0);
+				SparseRow arow = (a.length>i) ? a[i] : null;
+				if( arow!=null && !arow.isEmpty() ) {
+					int alen = arow.size();
+					int[] aix = arow.getIndexContainer();
+					double[] avals = arow.getValueContainer();
+					for( int j=0; j<alen; j++ )
+						c[ cix+aix[j] ] = op.executeScalar(avals[j]);
+				}
+			}
+			
+			//recompute non zeros (upper bounds inclusive)
+			lnnz = ret.recomputeNonZeros(rl, ru-1, 0, n-1);
+		}
+		else //DENSE <- DENSE (safe/unsafe)
+		{
+			double[] a = m1.denseBlock;
+			double[] c = ret.denseBlock;
+			
+			for( int i=rl*n; i<ru*n; i++ ) {
+				c[i] = op.executeScalar( a[i] );
+				if( c[i] != 0 )
+					lnnz++;
+			}
+		}
+		
+		return lnnz;
+	}
+	
+	/**
+	 * Row range kernel for matrix-matrix and matrix-vector operations with dense output. 
+	 * Sparse inputs are scattered into temporary dense rows, which makes this kernel 
+	 * applicable for both sparse-safe and sparse-unsafe operations. Since every output 
+	 * cell is read from its input before it is written, this kernel also supports in-place 
+	 * operations with ret==m1 over dense inputs.
+	 * 
+	 * @param m1
+	 * @param m2
+	 * @param ret
+	 * @param op
+	 * @param atype
+	 * @param rl
+	 * @param ru
+	 * @return number of non-zeros in the given row range of the output
+	 * @throws DMLRuntimeException
+	 */
+	private static long bincellOpDense(MatrixBlock m1, MatrixBlock m2, MatrixBlock ret, BinaryOperator op, BinaryAccessType atype, int rl, int ru) 
+		throws DMLRuntimeException
+	{
+		final int n = ret.clen;
+		double[] c = ret.denseBlock;
+		
+		//temporary row buffers for sparse inputs (note: vectors always dense)
+		double[] abuf = m1.sparse ? new double[n] : null;
+		double[] bbuf = m2.sparse ? new double[n] : null;
+		long lnnz = 0;
+		
+		for( int i=rl, cix=rl*n; i<ru; i++, cix+=n )
+		{
+			//prepare left input row
+			double[] a = m1.denseBlock;
+			int aix = cix;
+			if( m1.sparse ) {
+				scatterSparseRow(m1.sparseRows, i, abuf);
+				a = abuf; 
+				aix = 0;
+			}
+			
+			if( atype == BinaryAccessType.MATRIX_COL_VECTOR )
+			{
+				//replicate vector value
+				double v2 = m2.denseBlock[i];
+				for( int j=0; j<n; j++ )
+					c[cix+j] = op.fn.execute( a[aix+j], v2 );
+			}
+			else //MATRIX_MATRIX, MATRIX_ROW_VECTOR
+			{
+				//prepare right input row
+				double[] b = m2.denseBlock;
+				int bix = (atype == BinaryAccessType.MATRIX_ROW_VECTOR) ? 0 : cix;
+				if( m2.sparse ) {
+					scatterSparseRow(m2.sparseRows, i, bbuf);
+					b = bbuf; 
+					bix = 0;
+				}
+				
+				for( int j=0; j<n; j++ )
+					c[cix+j] = op.fn.execute( a[aix+j], b[bix+j] );
+			}
+			
+			//maintain nnz of output row
+			for( int j=0; j<n; j++ )
+				if( c[cix+j] != 0 )
+					lnnz++;
+		}
+		
+		return lnnz;
+	}
+	
+	/**
+	 * Row range kernel for sparse-safe matrix-matrix and matrix-vector operations with 
+	 * sparse output. For multiply, we only iterate over the non-zeros of the sparse input(s); 
+	 * for all other operations over the union of non-zeros or all columns, respectively.
+	 * 
+	 * @param m1
+	 * @param m2
+	 * @param ret
+	 * @param op
+	 * @param atype
+	 * @param rl
+	 * @param ru
+	 * @return number of non-zeros in the given row range of the output
+	 * @throws DMLRuntimeException
+	 */
+	private static long bincellOpSparse(MatrixBlock m1, MatrixBlock m2, MatrixBlock ret, BinaryOperator op, BinaryAccessType atype, int rl, int ru) 
+		throws DMLRuntimeException
+	{
+		final int n = ret.clen;
+		final boolean isMultiply = (op.fn instanceof Multiply);
+		double[] a = m1.denseBlock;
+		double[] b = m2.denseBlock;
+		SparseRow[] c = ret.sparseRows;
+		long lnnz = 0;
+		
+		for( int i=rl, ix=rl*n; i<ru; i++, ix+=n )
+		{
+			SparseRow arow = m1.sparse ? getSparseRow(m1.sparseRows, i) : null;
+			SparseRow brow = m2.sparse ? getSparseRow(m2.sparseRows, i) : null;
+			SparseRow crow = null;
+			
+			if( m1.sparse && m2.sparse ) //SPARSE-SPARSE (MM only)
+			{
+				if( arow==null && brow==null )
+					continue;
+				int alen = (arow!=null) ? arow.size() : 0;
+				int blen = (brow!=null) ? brow.size() : 0;
+				crow = new SparseRow(Math.min(alen+blen, n), n);
+				mergeSparseRows(op, arow, brow, crow);
+			}
+			else if( isMultiply && m1.sparse ) //SPARSE * DENSE (all types)
+			{
+				if( arow==null )
+					continue;
+				int alen = arow.size();
+				int[] aix = arow.getIndexContainer();
+				double[] avals = arow.getValueContainer();
+				crow = new SparseRow(alen, n);
+				for( int j=0; j<alen; j++ ) {
+					double v2 = (atype == BinaryAccessType.MATRIX_COL_VECTOR) ? b[i] :
+						        (atype == BinaryAccessType.MATRIX_ROW_VECTOR) ? b[aix[j]] : b[ix+aix[j]];
+					crow.append(aix[j], op.fn.execute(avals[j], v2));
+				}
+			}
+			else if( isMultiply && m2.sparse ) //DENSE * SPARSE (MM only)
+			{
+				if( brow==null )
+					continue;
+				int blen = brow.size();
+				int[] bix = brow.getIndexContainer();
+				double[] bvals = brow.getValueContainer();
+				crow = new SparseRow(blen, n);
+				for( int j=0; j<blen; j++ )
+					crow.append(bix[j], op.fn.execute(a[ix+bix[j]], bvals[j]));
+			}
+			else //GENERAL CASE (iterate over all columns)
+			{
+				int apos = 0, bpos = 0;
+				crow = new SparseRow(SparseRow.initialCapacity, n);
+				for( int j=0; j<n; j++ ) 
+				{
+					//get left input value
+					double v1 = 0;
+					if( !m1.sparse )
+						v1 = a[ix+j];
+					else if( arow!=null && apos<arow.size() && arow.getIndexContainer()[apos]==j )
+						v1 = arow.getValueContainer()[apos++];
+					
+					//get right input value
+					double v2 = 0;
+					if( atype == BinaryAccessType.MATRIX_COL_VECTOR )
+						v2 = b[i];
+					else if( atype == BinaryAccessType.MATRIX_ROW_VECTOR )
+						v2 = b[j];
+					else if( !m2.sparse )
+						v2 = b[ix+j];
+					else if( brow!=null && bpos<brow.size() && brow.getIndexContainer()[bpos]==j )
+						v2 = brow.getValueContainer()[bpos++];
+					
+					crow.append(j, op.fn.execute(v1, v2));
+				}
+			}
+			
+			//set output row and maintain nnz
+			if( crow!=null && !crow.isEmpty() ) {
+				c[i] = crow;
+				lnnz += crow.size();
+			}
+		}
+		
+		return lnnz;
+	}
+	
+	/**
+	 * Like mergeForSparseBinary, but appends directly into a task-local sparse 
+	 * row instead of the (shared) output matrix block.
+	 * 
+	 * @param op
+	 * @param arow
+	 * @param brow
+	 * @param crow
+	 * @throws DMLRuntimeException
+	 */
+	private static void mergeSparseRows(BinaryOperator op, SparseRow arow, SparseRow brow, SparseRow crow) 
+		throws DMLRuntimeException
+	{
+		int alen = (arow!=null) ? arow.size() : 0;
+		int blen = (brow!=null) ? brow.size() : 0;
+		int[] aix = (arow!=null) ? arow.getIndexContainer() : null;
+		int[] bix = (brow!=null) ? brow.getIndexContainer() : null;
+		double[] avals = (arow!=null) ? arow.getValueContainer() : null;
+		double[] bvals = (brow!=null) ? brow.getValueContainer() : null;
+		
+		int p1=0, p2=0;
+		while( p1<alen && p2<blen ) {
+			if( aix[p1] < bix[p2] ) {
+				crow.append(aix[p1], op.fn.execute(avals[p1], 0));
+				p1++;
+			}
+			else if( aix[p1] == bix[p2] ) {
+				crow.append(aix[p1], op.fn.execute(avals[p1], bvals[p2]));
+				p1++; p2++;
+			}
+			else {
+				crow.append(bix[p2], op.fn.execute(0, bvals[p2]));
+				p2++;
+			}
+		}
+		
+		//add left over
+		for( ; p1<alen; p1++ )
+			crow.append(aix[p1], op.fn.execute(avals[p1], 0));
+		for( ; p2<blen; p2++ )
+			crow.append(bix[p2], op.fn.execute(0, bvals[p2]));
+	}
+	
+	/**
+	 * 
+	 * @param rows
+	 * @param i
+	 * @return non-empty sparse row or null
+	 */
+	private static SparseRow getSparseRow(SparseRow[] rows, int i)
+	{
+		SparseRow row = (rows!=null && rows.length>i) ? rows[i] : null;
+		return (row!=null && !row.isEmpty()) ? row : null;
+	}
+	
+	/**
+	 * 
+	 * @param rows
+	 * @param i
+	 * @param buff
+	 */
+	private static void scatterSparseRow(SparseRow[] rows, int i, double[] buff)
+	{
+		Arrays.fill(buff, 0);
+		SparseRow row = getSparseRow(rows, i);
+		if( row != null ) {
+			int alen = row.size();
+			int[] aix = row.getIndexContainer();
+			double[] avals = row.getValueContainer();
+			for( int j=0; j<alen; j++ )
+				buff[aix[j]] = avals[j];
+		}
+	}
+	
+	/**
+	 * 
+	 */
+	private static class BincellScalarTask implements Callable<Long> 
+	{
+		private MatrixBlock _m1  = null;
+		private MatrixBlock _ret = null;
+		private ScalarOperator _op = null;
+		private int _rl = -1;
+		private int _ru = -1;
+
+		protected BincellScalarTask( MatrixBlock m1, MatrixBlock ret, ScalarOperator op, int rl, int ru ) {
+			_m1 = m1;
+			_ret = ret;
+			_op = op;
+			_rl = rl;
+			_ru = ru;
+		}
+		
+		@Override
+		public Long call() throws DMLRuntimeException {
+			//compute partial result and return partial nnz
+			return bincellOpScalar(_m1, _ret, _op, _rl, _ru);
+		}
+	}
+	
+	/**
+	 * 
+	 */
+	private static class BincellTask implements Callable<Long> 
+	{
+		private MatrixBlock _m1  = null;
+		private MatrixBlock _m2  = null;
+		private MatrixBlock _ret = null;
+		private BinaryOperator _op = null;
+		private BinaryAccessType _atype = null;
+		private int _rl = -1;
+		private int _ru = -1;
+
+		protected BincellTask( MatrixBlock m1, MatrixBlock m2, MatrixBlock ret, BinaryOperator op, BinaryAccessType atype, int rl, int ru ) {
+			_m1 = m1;
+			_m2 = m2;
+			_ret = ret;
+			_op = op;
+			_atype = atype;
+			_rl = rl;
+			_ru = ru;
+		}
+		
+		@Override
+		public Long call() throws DMLRuntimeException {
+			//compute partial result and return partial nnz
+			if( _ret.sparse )
+				return bincellOpSparse(_m1, _m2, _ret, _op, _atype, _rl, _ru);
+			else
+				return bincellOpDense(_m1, _m2, _ret, _op, _atype, _rl, _ru);
+		}
+	}
 }
 
@@ -0,0 +1,221 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.ibm.bi.dml.runtime.matrix.data;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import com.ibm.bi.dml.runtime.DMLRuntimeException;
+import com.ibm.bi.dml.runtime.functionobjects.CTable;
+import com.ibm.bi.dml.runtime.util.CommonThreadPool;
+
+/**
+ * Library for ctable (contingency table) computation, i.e., ctable(A,B,W), ctable(A,B,w), 
+ * ctable(A,v,w), and ctable(A,v,W) with a ctable map or a pre-allocated dense block as output. 
+ * The multi-threaded version (ctable map only) computes thread-local ctable maps over disjoint 
+ * row ranges of the inputs, which are merged at the end (no synchronization during the hash 
+ * group-by).
+ *
+ */
+public class LibMatrixCTable
+{
+	//internal configuration parameters
+	private static final long PAR_NUMCELL_THRESHOLD = 1024*1024;   //Min 1M elements
+
+	private LibMatrixCTable() {
+		//prevent instantiation via private constructor
+	}
+
+	/**
+	 * Computes the ctable over the given inputs, where in2 and in3 are optional (null)
+	 * in which case the scalars s2 and s3 are used instead. The output is the given
+	 * result block if not null, otherwise the given ctable map.
+	 *
+	 * @param in1
+	 * @param in2
+	 * @param s2
+	 * @param in3
+	 * @param s3
+	 * @param ignoreZeros
+	 * @param resultMap
+	 * @param resultBlock
+	 * @throws DMLRuntimeException
+	 */
+	public static void ctable(MatrixBlock in1, MatrixBlock in2, double s2, MatrixBlock in3, double s3, boolean ignoreZeros, CTableMap resultMap, MatrixBlock resultBlock)
+		throws DMLRuntimeException
+	{
+		ctable(in1, in2, s2, in3, s3, ignoreZeros, resultMap, resultBlock, 0, in1.rlen);
+		
+		//maintain nnz (if necessary)
+		if( resultBlock != null )
+			resultBlock.recomputeNonZeros();
+	}
+
+	/**
+	 * Performs a multi-threaded ctable computation. The parameter k (k>=1) determines the
+	 * max parallelism k' with k'=min(k, vcores, in1.rlen). Small inputs are redirected to the
+	 * sequential operation.
+	 *
+	 * @param in1
+	 * @param in2
+	 * @param s2
+	 * @param in3
+	 * @param s3
+	 * @param ignoreZeros
+	 * @param resultMap
+	 * @param k
+	 * @throws DMLRuntimeException
+	 */
+	public static void ctable(MatrixBlock in1, MatrixBlock in2, double s2, MatrixBlock in3, double s3, boolean ignoreZeros, CTableMap resultMap, int k)
+		throws DMLRuntimeException
+	{
+		//fall back to sequential version if necessary
+		if( k <= 1 || in1.rlen <= k || (long)in1.rlen*in1.clen < PAR_NUMCELL_THRESHOLD ) {
+			ctable(in1, in2, s2, in3, s3, ignoreZeros, resultMap, null);
+			return;
+		}
+
+		//core multi-threaded ctable computation
+		//(currently: always parallelization over number of rows)
+		try {
+			ExecutorService pool = CommonThreadPool.get( k );
+			ArrayList<CTableTask> tasks = new ArrayList<CTableTask>();
+			int blklen = (int)(Math.ceil((double)in1.rlen/k));
+			for( int i=0; i<k & i*blklen<in1.rlen; i++ )
+				tasks.add(new CTableTask(in1, in2, s2, in3, s3, ignoreZeros, i*blklen, Math.min((i+1)*blklen, in1.rlen)));
+			List<Future<CTableMap>> rtasks = pool.invokeAll(tasks);
+			pool.shutdown();
+
+			//merge thread-local ctable maps (and check for task errors)
+			for( Future<CTableMap> task : rtasks )
+				resultMap.aggregate(task.get());
+		}
+		catch(Exception ex) {
+			throw new DMLRuntimeException(ex);
+		}
+	}
+
+	/**
+	 *
+	 * @param in1
+	 * @param in2
+	 * @param s2
+	 * @param in3
+	 * @param s3
+	 * @param ignoreZeros
+	 * @param resultMap
+	 * @param resultBlock
+	 * @param rl
+	 * @param ru
+	 * @throws DMLRuntimeException
+	 */
+	private static void ctable(MatrixBlock in1, MatrixBlock in2, double s2, MatrixBlock in3, double s3, boolean ignoreZeros, CTableMap resultMap, MatrixBlock resultBlock, int rl, int ru)
+		throws DMLRuntimeException
+	{
+		CTable ctable = CTable.getCTableFnObject();
+		int clen = in1.clen;
+
+		if( ignoreZeros && in3 == null //SPARSE-SAFE & SPARSE INPUTS
+			&& in2 != null && in1.sparse && in2.sparse )
+		{
+			//note: only used if both inputs have aligned zeros, which
+			//allows us to infer that the nnz both inputs are equivalent
+
+			//early abort on empty blocks possible
+			if( in1.isEmptyBlock(false) && in2.isEmptyBlock(false) )
+				return;
+
+			SparseRow[] a = in1.sparseRows;
+			SparseRow[] b = in2.sparseRows;
+			for( int i=rl; i<ru; i++ )
+			{
+				SparseRow arow = a[i];
+				if( arow != null && !arow.isEmpty() )
+				{
+					int alen = arow.size();
+					double[] avals = arow.getValueContainer();
+					double[] bvals = b[i].getValueContainer();
+					if( resultBlock == null ) {
+						for( int j=0; j<alen; j++ )
+							ctable.execute(avals[j], bvals[j], s3, ignoreZeros, resultMap);
+					}
+					else {
+						for( int j=0; j<alen; j++ )
+							ctable.execute(avals[j], bvals[j], s3, ignoreZeros, resultBlock);
+					}
+				}
+			}
+		}
+		else //SPARSE-UNSAFE | GENERIC INPUTS
+		{
+			//sparse-unsafe ctable execution
+			//(because input values of 0 are invalid and have to result in errors)
+			for( int i=rl; i<ru; i++ )
+				for( int j=0; j<clen; j++ )
+				{
+					double v1 = in1.quickGetValue(i, j);
+					double v2 = (in2 != null) ? in2.quickGetValue(i, j) : s2;
+					double w = (in3 != null) ? in3.quickGetValue(i, j) : s3;
+					if( resultBlock == null )
+						ctable.execute(v1, v2, w, ignoreZeros, resultMap);
+					else
+						ctable.execute(v1, v2, w, ignoreZeros, resultBlock);
+				}
+		}
+	}
+
+	/**
+	 *
+	 *
+	 */
+	private static class CTableTask implements Callable<CTableMap>
+	{
+		private MatrixBlock _in1 = null;
+		private MatrixBlock _in2 = null;
+		private double _s2 = -1;
+		private MatrixBlock _in3 = null;
+		private double _s3 = -1;
+		private boolean _ignoreZeros = false;
+		private int _rl = -1;
+		private int _ru = -1;
+
+		protected CTableTask( MatrixBlock in1, MatrixBlock in2, double s2, MatrixBlock in3, double s3, boolean ignoreZeros, int rl, int ru )
+		{
+			_in1 = in1;
+			_in2 = in2;
+			_s2 = s2;
+			_in3 = in3;
+			_s3 = s3;
+			_ignoreZeros = ignoreZeros;
+			_rl = rl;
+			_ru = ru;
+		}
+
+		@Override
+		public CTableMap call() throws DMLRuntimeException
+		{
+			//compute thread-local ctable map over row range
+			CTableMap map = new CTableMap();
+			ctable(_in1, _in2, _s2, _in3, _s3, _ignoreZeros, map, null, _rl, _ru);
+			return map;
+		}
+	}
+}
@@ -24,15 +24,22 @@ import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map.Entry;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import com.ibm.bi.dml.runtime.DMLRuntimeException;
 import com.ibm.bi.dml.runtime.DMLUnsupportedOperationException;
+import com.ibm.bi.dml.runtime.controlprogram.caching.CacheableData;
+import com.ibm.bi.dml.runtime.controlprogram.caching.PageCache;
 import com.ibm.bi.dml.runtime.functionobjects.DiagIndex;
 import com.ibm.bi.dml.runtime.functionobjects.SortIndex;
 import com.ibm.bi.dml.runtime.functionobjects.SwapIndex;
 import com.ibm.bi.dml.runtime.matrix.mapred.IndexedMatrixValue;
 import com.ibm.bi.dml.runtime.matrix.operators.ReorgOperator;
+import com.ibm.bi.dml.runtime.util.CommonThreadPool;
 import com.ibm.bi.dml.runtime.util.DataConverter;
 import com.ibm.bi.dml.runtime.util.SortUtils;
 import com.ibm.bi.dml.runtime.util.UtilFunctions;
@@ -57,6 +64,9 @@ public class LibMatrixReorg
 	public static final boolean SHALLOW_DENSE_ROWWISE_RESHAPE = true;
 	public static final boolean ALLOW_BLOCK_REUSE = false;
 	
+	private static final long PAR_NUMCELL_THRESHOLD = 1024*1024; //Min 1M elements
+	private static final int RADIX_SORT_THRESHOLD = 64*1024; //Min 64K elements
+	
 	private enum ReorgType {
 		TRANSPOSE,
 		DIAG,
@@ -110,6 +120,34 @@ public class LibMatrixReorg
 		}
 	}
 	
+	/**
+	 * 
+	 * @param in
+	 * @param out
+	 * @param op
+	 * @param k
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	public static MatrixBlock reorg( MatrixBlock in, MatrixBlock out, ReorgOperator op, int k ) 
+		throws DMLRuntimeException
+	{
+		ReorgType type = getReorgType(op);
+		
+		//multi-threaded transpose and sort, all other reorg 
+		//operations are redirected to the sequential implementations
+		switch( type )
+		{
+			case TRANSPOSE: 
+				return transpose(in, out, k);
+			case SORT:      
+				SortIndex ix = (SortIndex) op.fn;
+				return sort(in, out, ix.getCol(), ix.getDecreasing(), ix.getIndexReturn(), k);
+			default:        
+				return reorg(in, out, op);
+		}
+	}
+	
 	/**
 	 * 
 	 * @param in
@@ -126,20 +164,81 @@ public class LibMatrixReorg
 		if( in.isEmptyBlock(false) )
 			return out;
 		
-		if( !in.sparse && !out.sparse )
-			transposeDenseToDense( in, out );
-		else if( in.sparse && out.sparse )
-			transposeSparseToSparse( in, out );
-		else if( in.sparse )
-			transposeSparseToDense( in, out );
-		else
-			transposeDenseToSparse( in, out );
+		//shallow dense vector transpose (w/o result allocation)
+		if( SHALLOW_DENSE_VECTOR_TRANSPOSE && !CacheableData.CACHING_ARRAY_POOL 
+			&& !in.sparse && !out.sparse && (in.rlen==1 || in.clen==1) ) {
+			//since the physical representation of dense vectors is always the same,
+			//we don't need to create a copy, given our copy on write semantics.
+			//however, note that with update in-place this would be an invalid optimization
+			//(similarly, with array pooling the shared array might be recycled)
+			out.sparse = false;
+			out.denseBlock = in.denseBlock;
+			out.nonZeros = in.nonZeros;
+			return out;
+		}
+		
+		//allocate output arrays (if required)
+		allocateTransposeOutput(in, out);
+		
+		//core transpose over all input columns
+		transposeRange(in, out, 0, in.clen);
+		out.nonZeros = in.nonZeros;
 		
 		//System.out.println("r' ("+in.rlen+", "+in.clen+", "+in.sparse+", "+out.sparse+") in "+time.stop()+" ms.");
 		
 		return out;
 	}
 
+	/**
+	 * Performs a multi-threaded transpose. The parameter k (k>=1) determines the max 
+	 * parallelism k' with k'=min(k, vcores, in.clen). Each task computes a disjoint range 
+	 * of output rows (i.e., input columns), which allows synchronization-free writes for 
+	 * both dense and sparse outputs. Small, empty or vector inputs are redirected to the 
+	 * sequential operation.
+	 * 
+	 * @param in
+	 * @param out
+	 * @param k
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	public static MatrixBlock transpose( MatrixBlock in, MatrixBlock out, int k ) 
+		throws DMLRuntimeException
+	{
+		//redirect small, empty, or vector inputs to sequential execution
+		long size = in.sparse ? in.nonZeros : (long)in.rlen*in.clen;
+		if(    k <= 1 || in.rlen <= 1 || in.clen <= k || size < PAR_NUMCELL_THRESHOLD 
+			|| in.isEmptyBlock(false) ) {
+			return transpose(in, out);
+		}
+		
+		//pre-processing: output allocation (in contrast to single-threaded,
+		//we allocate the sparse rows array upfront in order to prevent synchronization)
+		allocateTransposeOutput(in, out);
+		
+		//core multi-threaded transpose
+		//(currently: always parallelization over number of input columns)
+		try {
+			ExecutorService pool = CommonThreadPool.get( k );
+			ArrayList<TransposeTask> tasks = new ArrayList<TransposeTask>();
+			int blklen = (int)(Math.ceil((double)in.clen/k));
+			for( int i=0; i<k && i*blklen<in.clen; i++ )
+				tasks.add(new TransposeTask(in, out, i*blklen, Math.min((i+1)*blklen, in.clen)));
+			List<Future<Object>> rtasks = pool.invokeAll(tasks);	
+			pool.shutdown();
+			//check for task errors
+			for( Future<Object> task : rtasks )
+				task.get();
+		}
+		catch(Exception ex) {
+			throw new DMLRuntimeException(ex);
+		}
+		
+		out.nonZeros = in.nonZeros;
+		
+		return out;
+	}
+
 	/**
 	 * 
 	 * @param in
@@ -186,6 +285,27 @@ public class LibMatrixReorg
 	 */
 	public static MatrixBlock sort(MatrixBlock in, MatrixBlock out, int by, boolean desc, boolean ixret) 
 		throws DMLRuntimeException
+	{
+		return sort(in, out, by, desc, ixret, 1);
+	}
+	
+	/**
+	 * Sort (order) with a max degree of parallelism k. For large inputs and k>1, partitions
+	 * are sorted by independent tasks and subsequently merged; large index-return sorts use 
+	 * a stable radix sort. For sparse inputs, only the non-zeros of the orderby column are 
+	 * sorted and the run of zeros is placed analytically.
+	 * 
+	 * @param in
+	 * @param out
+	 * @param by
+	 * @param desc
+	 * @param ixret
+	 * @param k
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	public static MatrixBlock sort(MatrixBlock in, MatrixBlock out, int by, boolean desc, boolean ixret, int k) 
+		throws DMLRuntimeException
 	{
 		//meta data gathering and preparation
 		boolean sparse = in.isInSparseFormat();
@@ -207,7 +327,10 @@ public class LibMatrixReorg
 			if( !sparse && clen == 1 ) { //DENSE COLUMN VECTOR
 				//in-place quicksort, unstable (no indexes needed)
 				out.copy( in ); //dense
-				Arrays.sort(out.denseBlock);
+				if( k > 1 && rlen >= PAR_NUMCELL_THRESHOLD )
+					sortParallel(out.denseBlock, null, false, k);
+				else
+					Arrays.sort(out.denseBlock);
 				if( desc )
 					sortReverseDense(out);
 				return out;
@@ -224,38 +347,9 @@ public class LibMatrixReorg
 		}
 		
 		//step 3: index vector sorting
-		
-		//create index vector and extract values
-		int[] vix = new int[rlen];
-		double[] values = new double[rlen];
-		for( int i=0; i<rlen; i++ ) {
-			vix[i] = i;
-			values[i] = in.quickGetValue(i, by-1);
-		}
-		
-		//sort index vector on extracted data (unstable)
-		SortUtils.sortByValue(0, rlen, values, vix);
-
-		//flip order if descending requested (note that this needs to happen
-		//before we ensure stable outputs, hence we also flip values)
-		if(desc) {
-			sortReverseDense(vix);
-			sortReverseDense(values);
-		}
-		
-		//final pass to ensure stable output
-		for( int i=0; i<rlen-1; i++ ) {
-			double tmp = values[i];
-			//determine run of equal values
-			int len = 0;
-			while( i+len+1<rlen && tmp==values[i+len+1] )
-				len++;
-			//unstable sort of run indexes (equal value guaranteed)
-			if( len>0 ) {
-				Arrays.sort(vix, i, i+len+1);
-				i += len; //skip processed run
-			}
-		}
+		int[] vix = sparse ? 
+			sortIndexesSparse(in, by-1, desc, ixret, k) :
+			sortIndexesDense(in, by-1, desc, ixret, k);
 
 		//step 4: create output matrix (guaranteed non-empty, see step 2)
 		if( !ixret )
@@ -287,6 +381,9 @@ public class LibMatrixReorg
 				out.setValueDenseUnsafe(i, 0, vix[i]+1);
 		}
 		
+		//release temporary index vector
+		PageCache.putIntArray(vix);
+		
 		return out;
 	}
 	
@@ -629,38 +726,70 @@ public class LibMatrixReorg
 	 * 
 	 * @param in
 	 * @param out
-	 * @throws DMLRuntimeException 
 	 */
-	private static void transposeDenseToDense(MatrixBlock in, MatrixBlock out) 
-		throws DMLRuntimeException
+	private static void allocateTransposeOutput(MatrixBlock in, MatrixBlock out)
 	{
-		final int m = in.rlen;
-		final int n = in.clen;
 		final int m2 = out.rlen;
 		final int n2 = out.clen;
 		
-		//set basic meta data
-		out.sparse = false;
-		out.nonZeros = in.nonZeros;
-		
-		//shallow dense vector transpose (w/o result allocation)
-		if( SHALLOW_DENSE_VECTOR_TRANSPOSE && (m==1 || n==1) ) {
-			//since the physical representation of dense vectors is always the same,
-			//we don't need to create a copy, given our copy on write semantics.
-			//however, note that with update in-place this would be an invalid optimization
-			out.denseBlock = in.denseBlock;
-			return;
+		if( !in.sparse && !out.sparse ) {
+			out.sparse = false;
+			out.allocateDenseBlock(false);
 		}
-		
-		//allocate output arrays (if required)
-		out.allocateDenseBlock(false);
+		else if( out.sparse ) {
+			out.reset(m2, n2, true); //always sparse
+			out.allocateSparseRowsBlock();
+		}
+		else {
+			out.reset(m2, n2, false); //always dense
+			out.allocateDenseBlock();
+		}
+	}
+	
+	/**
+	 * Transposes the input columns [cl,cu), i.e., computes the output rows [cl,cu).
+	 * The output is expected to be allocated (see allocateTransposeOutput).
+	 * 
+	 * @param in
+	 * @param out
+	 * @param cl
+	 * @param cu
+	 */
+	private static void transposeRange(MatrixBlock in, MatrixBlock out, int cl, int cu)
+	{
+		if( !in.sparse && !out.sparse )
+			transposeDenseToDense( in, out, cl, cu );
+		else if( in.sparse && out.sparse )
+			transposeSparseToSparse( in, out, cl, cu );
+		else if( in.sparse )
+			transposeSparseToDense( in, out, cl, cu );
+		else
+			transposeDenseToSparse( in, out, cl, cu );
+	}
+	
+	/**
+	 * 
+	 * @param in
+	 * @param out
+	 * @param cl
+	 * @param cu
+	 */
+	private static void transposeDenseToDense(MatrixBlock in, MatrixBlock out, int cl, int cu) 
+	{
+		final int m = in.rlen;
+		final int n = in.clen;
+		final int n2 = out.clen;
 		
 		double[] a = in.getDenseArray();
 		double[] c = out.getDenseArray();
 		
-		if( m==1 || n==1 ) //VECTOR TRANSPOSE
+		if( m==1 ) //ROW VECTOR TRANSPOSE
+		{
+			System.arraycopy(a, cl, c, cl, cu-cl);
+		}
+		else if( n==1 ) //COLUMN VECTOR TRANSPOSE
 		{
-			System.arraycopy(a, 0, c, 0, m2*n2);
+			System.arraycopy(a, 0, c, 0, m);
 		}
 		else //MATRIX TRANSPOSE
 		{
@@ -668,12 +797,12 @@ public class LibMatrixReorg
 			final int blocksizeI = 128;
 			final int blocksizeJ = 128; 
 			
-			//blocked execution
+			//blocked execution over all rows and the given column range
 			for( int bi = 0; bi<m; bi+=blocksizeI )
-				for( int bj = 0; bj<n; bj+=blocksizeJ )
+				for( int bj = cl; bj<cu; bj+=blocksizeJ )
 				{
 					int bimin = Math.min(bi+blocksizeI, m);
-					int bjmin = Math.min(bj+blocksizeJ, n);
+					int bjmin = Math.min(bj+blocksizeJ, cu);
 					//core transpose operation
 					for( int i=bi; i<bimin; i++ )
 					{
@@ -689,8 +818,10 @@ public class LibMatrixReorg
 	 * 
 	 * @param in
 	 * @param out
+	 * @param cl
+	 * @param cu
 	 */
-	private static void transposeDenseToSparse(MatrixBlock in, MatrixBlock out)
+	private static void transposeDenseToSparse(MatrixBlock in, MatrixBlock out, int cl, int cu)
 	{
 		final int m = in.rlen;
 		final int n = in.clen;
@@ -698,10 +829,6 @@ public class LibMatrixReorg
 		final int n2 = out.clen;
 		final int ennz2 = (int) (in.nonZeros/m2); 
 		
-		//allocate output arrays (if required)
-		out.reset(m2, n2, true); //always sparse
-		out.allocateSparseRowsBlock();
-				
 		double[] a = in.getDenseArray();
 		SparseRow[] c = out.getSparseRows();
 		
@@ -711,10 +838,10 @@ public class LibMatrixReorg
 		
 		//blocked execution
 		for( int bi = 0; bi<m; bi+=blocksizeI )
-			for( int bj = 0; bj<n; bj+=blocksizeJ )
+			for( int bj = cl; bj<cu; bj+=blocksizeJ )
 			{
 				int bimin = Math.min(bi+blocksizeI, m);
-				int bjmin = Math.min(bj+blocksizeJ, n);
+				int bjmin = Math.min(bj+blocksizeJ, cu);
 				//core transpose operation
 				for( int i=bi; i<bimin; i++ )				
 					for( int j=bj, aix=i*n+bj; j<bjmin; j++, aix++ )
@@ -724,30 +851,46 @@ public class LibMatrixReorg
 						c[j].append(i, a[aix]);
 					}
 			}
-		
-		out.nonZeros = in.nonZeros;
 	}
 	
 	/**
+	 * Two-pass sparse transpose: the first pass counts the non-zeros per output row
+	 * in order to allocate all output rows with exact capacity, the second pass
+	 * scatters the non-zeros in row-major order (which keeps the output rows sorted).
 	 * 
 	 * @param in
 	 * @param out
+	 * @param cl
+	 * @param cu
 	 */
-	private static void transposeSparseToSparse(MatrixBlock in, MatrixBlock out)
+	private static void transposeSparseToSparse(MatrixBlock in, MatrixBlock out, int cl, int cu)
 	{
 		final int m = in.rlen;
-		final int n = in.clen;
-		final int m2 = out.rlen;
-		final int n2 = out.clen;
-		final int ennz2 = (int) (in.nonZeros/m2); 
-		
-		//allocate output arrays (if required)
-		out.reset(m2, n2, true); //always sparse
-		out.allocateSparseRowsBlock();
 		
 		SparseRow[] a = in.getSparseRows();
 		SparseRow[] c = out.getSparseRows();
 		
+		//first pass: count non-zeros per output row
+		int[] cnt = new int[cu-cl];
+		for( int i=0; i<m; i++ )
+		{
+			SparseRow arow = a[i];
+			if( arow!=null && !arow.isEmpty() )
+			{
+				int alen = arow.size();
+				int[] aix = arow.getIndexContainer();
+				for( int j=getSparseRowStartPos(arow, cl); j<alen && aix[j]<cu; j++ )
+					cnt[aix[j]-cl]++;
+			}
+		}
+		
+		//allocate output rows with exact capacity
+		for( int j=cl; j<cu; j++ )
+			if( cnt[j-cl] > 0 )
+				c[j] = new SparseRow(cnt[j-cl]);
+		
+		//second pass: scatter non-zeros into output rows
+		
 		//blocking according to typical L2 cache sizes 
 		final int blocksizeI = 128;
 		final int blocksizeJ = 128; 
@@ -758,11 +901,11 @@ public class LibMatrixReorg
 		//blocked execution
 		for( int bi = 0; bi<m; bi+=blocksizeI )
 		{
-			Arrays.fill(ix, 0);
-			for( int bj = 0; bj<n; bj+=blocksizeJ )
+			int bimin = Math.min(bi+blocksizeI, m);
+			initSparseBlockBoundaries(a, ix, bi, bimin, cl);
+			for( int bj = cl; bj<cu; bj+=blocksizeJ )
 			{
-				int bimin = Math.min(bi+blocksizeI, m);
-				int bjmin = Math.min(bj+blocksizeJ, n);
+				int bjmin = Math.min(bj+blocksizeJ, cu);
 
 				//core transpose operation
 				for( int i=bi, iix=0; i<bimin; i++, iix++ )
@@ -775,37 +918,26 @@ public class LibMatrixReorg
 						int[] aix = arow.getIndexContainer();
 						int j = ix[iix]; //last block boundary
 						for( ; j<alen && aix[j]<bjmin; j++ )
-						{
-							if( c[aix[j]] == null )
-								 c[aix[j]] = new SparseRow(ennz2,n2);
 							c[aix[j]].append(i, avals[j]);
-						}
 						ix[iix] = j; //keep block boundary
 					}
 				}
 			}
 		}
-		out.nonZeros = in.nonZeros;
 	}
 	
 	/**
 	 * 
 	 * @param in
 	 * @param out
-	 * @throws DMLRuntimeException 
+	 * @param cl
+	 * @param cu
 	 */
-	private static void transposeSparseToDense(MatrixBlock in, MatrixBlock out) 
-		throws DMLRuntimeException
+	private static void transposeSparseToDense(MatrixBlock in, MatrixBlock out, int cl, int cu) 
 	{
 		final int m = in.rlen;
-		final int n = in.clen;
-		final int m2 = out.rlen;
 		final int n2 = out.clen;
 		
-		//allocate output arrays (if required)
-		out.reset(m2, n2, false); //always dense
-		out.allocateDenseBlock();
-		
 		SparseRow[] a = in.getSparseRows();
 		double[] c = out.getDenseArray();
 		
@@ -815,7 +947,7 @@ public class LibMatrixReorg
 			int alen = arow.size();
 			int[] aix = arow.getIndexContainer();
 			double[] avals = arow.getValueContainer();
-			for( int j=0; j<alen; j++ )
+			for( int j=getSparseRowStartPos(arow, cl); j<alen && aix[j]<cu; j++ )
 				c[ aix[j] ] = avals[j];
 		}
 		else //MATRIX TRANSPOSE
@@ -830,11 +962,11 @@ public class LibMatrixReorg
 			//blocked execution
 			for( int bi = 0; bi<m; bi+=blocksizeI )
 			{
-				Arrays.fill(ix, 0);
-				for( int bj = 0; bj<n; bj+=blocksizeJ )
+				int bimin = Math.min(bi+blocksizeI, m);
+				initSparseBlockBoundaries(a, ix, bi, bimin, cl);
+				for( int bj = cl; bj<cu; bj+=blocksizeJ )
 				{
-					int bimin = Math.min(bi+blocksizeI, m);
-					int bjmin = Math.min(bj+blocksizeJ, n);
+					int bjmin = Math.min(bj+blocksizeJ, cu);
 	
 					//core transpose operation
 					for( int i=bi, iix=0; i<bimin; i++, iix++ )
@@ -854,7 +986,37 @@ public class LibMatrixReorg
 				}
 			}
 		}
-		out.nonZeros = in.nonZeros;
+	}
+	
+	/**
+	 * 
+	 * @param a
+	 * @param ix
+	 * @param bi
+	 * @param bimin
+	 * @param cl
+	 */
+	private static void initSparseBlockBoundaries( SparseRow[] a, int[] ix, int bi, int bimin, int cl )
+	{
+		for( int i=bi, iix=0; i<bimin; i++, iix++ )
+			ix[iix] = (a[i]!=null && !a[i].isEmpty()) ? 
+					getSparseRowStartPos(a[i], cl) : 0;
+	}
+	
+	/**
+	 * Returns the position of the first non-zero with column index >= cl 
+	 * (or the row size if no such entry exists).
+	 * 
+	 * @param arow
+	 * @param cl
+	 * @return
+	 */
+	private static int getSparseRowStartPos( SparseRow arow, int cl )
+	{
+		if( cl == 0 )
+			return 0;
+		int pos = arow.searchIndexesFirstGTE(cl);
+		return (pos >= 0) ? pos : arow.size();
 	}
 	
 	/**
@@ -950,10 +1112,11 @@ public class LibMatrixReorg
 			return;
 		
 		//shallow dense by-row reshape (w/o result allocation)
-		if( SHALLOW_DENSE_ROWWISE_RESHAPE && rowwise ) {
+		if( SHALLOW_DENSE_ROWWISE_RESHAPE && !CacheableData.CACHING_ARRAY_POOL && rowwise ) {
 			//since the physical representation of dense matrices is always the same,
 			//we don't need to create a copy, given our copy on write semantics.
 			//however, note that with update in-place this would be an invalid optimization
+			//(similarly, with array pooling the shared array might be recycled)
 			out.denseBlock = in.denseBlock;
 			return;
 		}
@@ -1986,34 +2149,223 @@ public class LibMatrixReorg
 	
 	/**
 	 * 
-	 * @param m1
+	 * @param in
+	 * @param col
+	 * @param desc
+	 * @param ixret
+	 * @param k
+	 * @return
+	 * @throws DMLRuntimeException
 	 */
-	private static void sortReverseDense( int[] a )
+	private static int[] sortIndexesDense( MatrixBlock in, int col, boolean desc, boolean ixret, int k ) 
+		throws DMLRuntimeException
 	{
-		int rlen = a.length;
+		final int rlen = in.rlen;
 		
-		for( int i=0; i<rlen/2; i++ ) {
-			int tmp = a[i];
-			a[i] = a[rlen - i -1];
-			a[rlen - i - 1] = tmp;
+		//create index vector and extract values (w/ pooled temporary buffers)
+		int[] vix = PageCache.getIntArray(rlen);
+		double[] values = PageCache.getDoubleArray(rlen);
+		if( vix == null )
+			vix = new int[rlen];
+		if( values == null )
+			values = new double[rlen];
+		for( int i=0; i<rlen; i++ ) {
+			vix[i] = i;
+			values[i] = in.quickGetValue(i, col);
+		}
+		
+		//stable sort of index vector on extracted data
+		sortIndexes(values, vix, desc, ixret, k);
+		PageCache.putDoubleArray(values);
+		
+		return vix;
+	}
+	
+	/**
+	 * Sorts only the non-zeros of the orderby column and places the run of zeros
+	 * (in ascending row order) analytically between the non-zeros that sort before 
+	 * and after zero, respectively.
+	 * 
+	 * @param in
+	 * @param col
+	 * @param desc
+	 * @param ixret
+	 * @param k
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	private static int[] sortIndexesSparse( MatrixBlock in, int col, boolean desc, boolean ixret, int k ) 
+		throws DMLRuntimeException
+	{
+		final int rlen = in.rlen;
+		SparseRow[] a = in.sparseRows;
+		
+		//determine number of non-zeros in orderby column
+		int nnz = 0;
+		for( int i=0; i<rlen; i++ )
+			if( a[i]!=null && !a[i].isEmpty() && a[i].get(col)!=0 )
+				nnz++;
+		
+		//create index vector and extract non-zero values (in row order)
+		int[] nzrows = new int[nnz];
+		int[] nzix = new int[nnz];
+		double[] nzvals = new double[nnz];
+		int nbefore = 0; //num non-zeros sorted before zero
+		for( int i=0, pos=0; i<rlen; i++ )
+			if( a[i]!=null && !a[i].isEmpty() ) {
+				double val = a[i].get(col);
+				if( val != 0 ) {
+					nzrows[pos] = i;
+					nzix[pos] = i;
+					nzvals[pos++] = val;
+					nbefore += (desc ? val>0 : val<0) ? 1 : 0;
+				}
+			}
+		
+		//stable sort of non-zero index vector on extracted data
+		sortIndexes(nzvals, nzix, desc, ixret, k);
+		
+		//assemble index vector: non-zeros before zero, zeros, non-zeros after zero
+		int[] vix = new int[rlen];
+		System.arraycopy(nzix, 0, vix, 0, nbefore);
+		int pos = nbefore;
+		for( int i=0, nzpos=0; i<rlen; i++ ) {
+			if( nzpos<nnz && nzrows[nzpos]==i )
+				nzpos++;
+			else
+				vix[pos++] = i;
 		}
+		System.arraycopy(nzix, nbefore, vix, pos, nnz-nbefore);
+		
+		return vix;
 	}
 	
 	/**
+	 * Stable sort of the index vector by the given values, where indexes of equal values
+	 * are kept in ascending order. Note that the values are left in undefined order.
 	 * 
-	 * @param a
+	 * @param values
+	 * @param vix
+	 * @param desc
+	 * @param ixret
+	 * @param k
+	 * @throws DMLRuntimeException
 	 */
-	private static void sortReverseDense( double[] a )
+	private static void sortIndexes( double[] values, int[] vix, boolean desc, boolean ixret, int k ) 
+		throws DMLRuntimeException
 	{
-		int rlen = a.length;
+		final int len = vix.length;
 		
-		for( int i=0; i<rlen/2; i++ ) {
-			double tmp = a[i];
-			a[i] = a[rlen - i -1];
-			a[rlen - i - 1] = tmp;
+		if( ixret && len >= RADIX_SORT_THRESHOLD ) {
+			//stable radix sort (no pass for stable output required)
+			SortUtils.sortIndexesByValueRadix(values, vix, desc);
+		}
+		else if( k > 1 && len >= PAR_NUMCELL_THRESHOLD ) {
+			//parallel sort of partitions and merge
+			sortParallel(values, vix, desc, k);
+		}
+		else {
+			//quicksort and final pass to ensure stable output
+			SortUtils.sortByValueStable(0, len, values, vix, desc);
 		}
 	}
 	
+	/**
+	 * Multi-threaded stable sort: contiguous partitions are sorted by independent 
+	 * tasks and subsequently merged pairwise in log2(k) rounds of parallel merge tasks. 
+	 * Since partitions cover ascending row ranges and merges prefer the left run on 
+	 * equal values, indexes of equal values remain in ascending order. 
+	 * 
+	 * @param values
+	 * @param vix  index vector, or null if only the values should be sorted
+	 * @param desc
+	 * @param k
+	 * @throws DMLRuntimeException
+	 */
+	private static void sortParallel( double[] values, int[] vix, boolean desc, int k ) 
+		throws DMLRuntimeException
+	{
+		final int len = values.length;
+		
+		try {
+			ExecutorService pool = CommonThreadPool.get( k );
+			
+			//sort independent partitions
+			ArrayList<SortTask> tasks = new ArrayList<SortTask>();
+			int blklen = (int)(Math.ceil((double)len/k));
+			for( int i=0; i<k & i*blklen<len; i++ )
+				tasks.add(new SortTask(values, vix, i*blklen, Math.min((i+1)*blklen, len), desc));
+			for( Future<Object> task : pool.invokeAll(tasks) )
+				task.get(); //check for errors
+			
+			//pairwise merge of sorted runs (double buffering, w/ pooled temporary buffers)
+			double[] a = values, c = PageCache.getDoubleArray(len);
+			int[] aix = vix, cix = (vix!=null) ? PageCache.getIntArray(len) : null;
+			if( c == null )
+				c = new double[len];
+			if( vix != null && cix == null )
+				cix = new int[len];
+			for( int w=blklen; w<len; w*=2 ) {
+				ArrayList<MergeTask> mtasks = new ArrayList<MergeTask>();
+				for( int rl=0; rl<len; rl+=2*w )
+					mtasks.add(new MergeTask(a, aix, c, cix, rl, Math.min(rl+w, len), Math.min(rl+2*w, len), desc));
+				for( Future<Object> task : pool.invokeAll(mtasks) )
+					task.get(); //check for errors
+				double[] tmp = a; a = c; c = tmp;
+				int[] tmpix = aix; aix = cix; cix = tmpix;
+			}
+			pool.shutdown();
+			
+			//copy result if necessary
+			if( a != values ) {
+				System.arraycopy(a, 0, values, 0, len);
+				if( vix != null )
+					System.arraycopy(aix, 0, vix, 0, len);
+			}
+			
+			//release temporary buffers
+			PageCache.putDoubleArray((a != values) ? a : c);
+			PageCache.putIntArray((aix != vix) ? aix : cix);
+		}
+		catch(Exception ex) {
+			throw new DMLRuntimeException(ex);
+		}
+	}
+	
+	/**
+	 * Merges the sorted runs [rl,mid) and [mid,ru) of a (and aix) into c (and cix).
+	 * 
+	 * @param a
+	 * @param aix
+	 * @param c
+	 * @param cix
+	 * @param rl
+	 * @param mid
+	 * @param ru
+	 * @param desc
+	 */
+	private static void mergeSortedRuns( double[] a, int[] aix, double[] c, int[] cix, int rl, int mid, int ru, boolean desc )
+	{
+		int i = rl, j = mid, pos = rl;
+		
+		//merge overlapping part (left run on equal values for stability)
+		while( i<mid && j<ru ) {
+			boolean right = desc ? a[j]>a[i] : a[j]<a[i];
+			int ix = right ? j++ : i++;
+			c[pos] = a[ix];
+			if( aix != null )
+				cix[pos] = aix[ix];
+			pos++;
+		}
+		
+		//copy remaining parts of left or right run
+		int ix = (i<mid) ? i : j;
+		int rlen = (i<mid) ? mid-i : ru-j;
+		System.arraycopy(a, ix, c, pos, rlen);
+		if( aix != null )
+			System.arraycopy(aix, ix, cix, pos, rlen);
+	}
+	
 	/**
 	 *
 	 */
@@ -2061,4 +2413,106 @@ public class LibMatrixReorg
 			return (val0 > val1 ? -1 : (val0 == val1 ? 0 : 1));
 		}		
 	}
+	
+	/**
+	 * 
+	 * 
+	 */
+	private static class TransposeTask implements Callable<Object> 
+	{
+		private MatrixBlock _in = null;
+		private MatrixBlock _out = null;
+		private int _cl = -1;
+		private int _cu = -1;
+		
+		protected TransposeTask( MatrixBlock in, MatrixBlock out, int cl, int cu )
+		{
+			_in = in;
+			_out = out;
+			_cl = cl;
+			_cu = cu;
+		}
+		
+		@Override
+		public Object call()
+		{
+			transposeRange(_in, _out, _cl, _cu);
+			return null;
+		}
+	}
+	
+	/**
+	 * 
+	 * 
+	 */
+	private static class SortTask implements Callable<Object> 
+	{
+		private double[] _values = null;
+		private int[] _vix = null;
+		private int _rl = -1;
+		private int _ru = -1;
+		private boolean _desc = false;
+		
+		protected SortTask( double[] values, int[] vix, int rl, int ru, boolean desc )
+		{
+			_values = values;
+			_vix = vix;
+			_rl = rl;
+			_ru = ru;
+			_desc = desc;
+		}
+		
+		@Override
+		public Object call()
+		{
+			if( _vix != null ) {
+				SortUtils.sortByValueStable(_rl, _ru, _values, _vix, _desc);
+			}
+			else {
+				Arrays.sort(_values, _rl, _ru);
+				if( _desc ) //reverse partition
+					for( int i=_rl, j=_ru-1; i<j; i++, j-- ) {
+						double tmp = _values[i];
+						_values[i] = _values[j];
+						_values[j] = tmp;
+					}
+			}
+			return null;
+		}
+	}
+	
+	/**
+	 * 
+	 * 
+	 */
+	private static class MergeTask implements Callable<Object> 
+	{
+		private double[] _a = null;
+		private int[] _aix = null;
+		private double[] _c = null;
+		private int[] _cix = null;
+		private int _rl = -1;
+		private int _mid = -1;
+		private int _ru = -1;
+		private boolean _desc = false;
+		
+		protected MergeTask( double[] a, int[] aix, double[] c, int[] cix, int rl, int mid, int ru, boolean desc )
+		{
+			_a = a;
+			_aix = aix;
+			_c = c;
+			_cix = cix;
+			_rl = rl;
+			_mid = mid;
+			_ru = ru;
+			_desc = desc;
+		}
+		
+		@Override
+		public Object call()
+		{
+			mergeSortedRuns(_a, _aix, _c, _cix, _rl, _mid, _ru, _desc);
+			return null;
+		}
+	}
 }
@@ -0,0 +1,323 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.ibm.bi.dml.runtime.matrix.data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import com.ibm.bi.dml.runtime.DMLRuntimeException;
+import com.ibm.bi.dml.runtime.matrix.operators.UnaryOperator;
+import com.ibm.bi.dml.runtime.util.CommonThreadPool;
+
+/**
+ * Library for multi-threaded cell-wise unary operations (e.g., exp, log, sqrt, abs, round,
+ * sigmoid). All operations are parallelized over row ranges, where each task maintains
+ * the number of non-zeros of its row range. Sparse-safe operations over sparse inputs
+ * produce sparse outputs (with pre-allocated sparse rows block to prevent synchronization),
+ * while all other operations produce dense outputs. The sequential operations remain in
+ * MatrixBlock.
+ *
+ */
+public class LibMatrixUnary
+{
+	//internal configuration parameters
+	private static final long PAR_NUMCELL_THRESHOLD = 1024*1024;   //Min 1M elements
+
+	private LibMatrixUnary() {
+		//prevent instantiation via private constructor
+	}
+
+	/**
+	 * Indicates if the given unary operation should be executed multi-threaded,
+	 * i.e., if k>1 and the input is non-empty and sufficiently large.
+	 *
+	 * @param in
+	 * @param op
+	 * @param inplace
+	 * @return
+	 */
+	public static boolean isParallelizable(MatrixBlock in, UnaryOperator op, boolean inplace)
+	{
+		int k = op.getNumThreads();
+		return k > 1 && in.rlen > k && (long)in.rlen*in.clen >= PAR_NUMCELL_THRESHOLD
+			&& !in.isEmptyBlock(false)
+			&& !(inplace && in.sparse && !op.sparseSafe); //structural changes of sparse in-place
+	}
+
+	/**
+	 * Performs a multi-threaded unary operation. The output block is expected to be
+	 * sparse iff the operation is sparse-safe and the input is sparse.
+	 *
+	 * @param in
+	 * @param ret
+	 * @param op
+	 * @throws DMLRuntimeException
+	 */
+	public static void unaryOp(MatrixBlock in, MatrixBlock ret, UnaryOperator op)
+		throws DMLRuntimeException
+	{
+		//pre-processing: output allocation (in contrast to single-threaded,
+		//we need to allocate sparse as well in order to prevent synchronization)
+		if( ret.sparse )
+			ret.allocateSparseRowsBlock();
+		else
+			ret.allocateDenseBlock();
+
+		//sparse-unsafe operations on sparse inputs require the 0-value
+		double val0 = (!op.sparseSafe && in.sparse) ? op.fn.execute(0) : 0;
+
+		executeParallelUnary(in, ret, op, val0, false);
+	}
+
+	/**
+	 * Performs a multi-threaded unary operation in-place. Sparse-unsafe operations
+	 * over sparse inputs are not supported (see isParallelizable).
+	 *
+	 * @param in
+	 * @param op
+	 * @throws DMLRuntimeException
+	 */
+	public static void unaryOpInPlace(MatrixBlock in, UnaryOperator op)
+		throws DMLRuntimeException
+	{
+		//check internal assumptions
+		if( in.sparse && !op.sparseSafe )
+			throw new DMLRuntimeException("Unsupported in-place sparse-unsafe unary operation over sparse input.");
+
+		//early abort not possible for dense because not sparsesafe
+		if( !in.sparse && in.denseBlock == null )
+			in.allocateDenseBlock();
+
+		executeParallelUnary(in, in, op, 0, true);
+	}
+
+	/**
+	 *
+	 * @param in
+	 * @param ret
+	 * @param op
+	 * @param val0
+	 * @param inplace
+	 * @throws DMLRuntimeException
+	 */
+	private static void executeParallelUnary(MatrixBlock in, MatrixBlock ret, UnaryOperator op, double val0, boolean inplace)
+		throws DMLRuntimeException
+	{
+		int k = op.getNumThreads();
+
+		//core multi-threaded unary operation
+		//(currently: always parallelization over number of rows)
+		try {
+			ExecutorService pool = CommonThreadPool.get( k );
+			ArrayList<UnaryTask> tasks = new ArrayList<UnaryTask>();
+			int blklen = (int)(Math.ceil((double)in.rlen/k));
+			for( int i=0; i<k && i*blklen<in.rlen; i++ )
+				tasks.add(new UnaryTask(in, ret, op, val0, inplace, i*blklen, Math.min((i+1)*blklen, in.rlen)));
+			List<Future<Long>> rtasks = pool.invokeAll(tasks);
+			pool.shutdown();
+			//aggregate partial nnz (and check for task errors)
+			long nnz = 0;
+			for( Future<Long> task : rtasks )
+				nnz += task.get();
+			ret.nonZeros = nnz;
+		}
+		catch(Exception ex) {
+			throw new DMLRuntimeException(ex);
+		}
+	}
+
+	/**
+	 * Row range kernel for unary operations (out-of-place).
+	 *
+	 * @param in
+	 * @param ret
+	 * @param op
+	 * @param val0
+	 * @param rl
+	 * @param ru
+	 * @return number of non-zeros in the given row range of the output
+	 * @throws DMLRuntimeException
+	 */
+	private static long unaryOp(MatrixBlock in, MatrixBlock ret, UnaryOperator op, double val0, int rl, int ru)
+		throws DMLRuntimeException
+	{
+		final int n = in.clen;
+		long lnnz = 0;
+
+		if( in.sparse && ret.sparse ) //SPARSE <- SPARSE (sparse-safe)
+		{
+			SparseRow[] a = in.sparseRows;
+			SparseRow[] c = ret.sparseRows;
+
+			for( int i=rl; i<Math.min(ru, a.length); i++ ) {
+				if( a[i]==null || a[i].isEmpty() )
+					continue;
+				int alen = a[i].size();
+				int[] aix = a[i].getIndexContainer();
+				double[] avals = a[i].getValueContainer();
+				SparseRow crow = new SparseRow(alen);
+				for( int j=0; j<alen; j++ ) {
+					double val = op.fn.execute(avals[j]);
+					if( val != 0 )
+						crow.append(aix[j], val);
+				}
+				if( !crow.isEmpty() ) {
+					c[i] = crow;
+					lnnz += crow.size();
+				}
+			}
+		}
+		else if( in.sparse ) //DENSE <- SPARSE (sparse-unsafe)
+		{
+			SparseRow[] a = in.sparseRows;
+			double[] c = ret.denseBlock;
+
+			//init output w/ 0-value (if required)
+			if( val0 != 0 )
+				Arrays.fill(c, rl*n, ru*n, val0);
+
+			for( int i=rl, cix=rl*n; i<ru; i++, cix+=n ) {
+				if( i<a.length && a[i]!=null && !a[i].isEmpty() ) {
+					int alen = a[i].size();
+					int[] aix = a[i].getIndexContainer();
+					double[] avals = a[i].getValueContainer();
+					for( int j=0; j<alen; j++ )
+						c[cix+aix[j]] = op.fn.execute(avals[j]);
+				}
+				lnnz += countNonZeros(c, cix, n);
+			}
+		}
+		else //DENSE <- DENSE
+		{
+			double[] a = in.denseBlock;
+			double[] c = ret.denseBlock;
+
+			//unary op, incl nnz maintenance
+			for( int ix=rl*n; ix<ru*n; ix++ ) {
+				c[ix] = op.fn.execute(a[ix]);
+				lnnz += (c[ix] != 0) ? 1 : 0;
+			}
+		}
+
+		return lnnz;
+	}
+
+	/**
+	 * Row range kernel for unary operations (in-place).
+	 *
+	 * @param in
+	 * @param op
+	 * @param rl
+	 * @param ru
+	 * @return number of non-zeros in the given row range
+	 * @throws DMLRuntimeException
+	 */
+	private static long unaryOpInPlace(MatrixBlock in, UnaryOperator op, int rl, int ru)
+		throws DMLRuntimeException
+	{
+		long lnnz = 0;
+
+		if( in.sparse ) //SPARSE (sparse-safe)
+		{
+			SparseRow[] a = in.sparseRows;
+
+			for( int r=rl; r<Math.min(ru, a.length); r++ ) {
+				if( a[r]==null )
+					continue;
+				double[] avals = a[r].getValueContainer();
+				int[] aix = a[r].getIndexContainer();
+				int alen = a[r].size();
+				int pos = 0;
+				for( int j=0; j<alen; j++ ) {
+					double v = op.fn.execute(avals[j]);
+					if( v != 0 ) {
+						avals[pos] = v;
+						aix[pos] = aix[j];
+						pos++;
+					}
+				}
+				a[r].truncate(pos);
+				lnnz += pos;
+			}
+		}
+		else //DENSE
+		{
+			final int n = in.clen;
+			double[] a = in.denseBlock;
+
+			//compute values in-place and update nnz
+			for( int ix=rl*n; ix<ru*n; ix++ ) {
+				a[ix] = op.fn.execute(a[ix]);
+				lnnz += (a[ix] != 0) ? 1 : 0;
+			}
+		}
+
+		return lnnz;
+	}
+
+	/**
+	 *
+	 * @param a
+	 * @param ai
+	 * @param len
+	 * @return
+	 */
+	private static int countNonZeros(double[] a, int ai, final int len)
+	{
+		int lnnz = 0;
+		for( int i=ai; i<ai+len; i++ )
+			lnnz += (a[i] != 0) ? 1 : 0;
+		return lnnz;
+	}
+
+	/**
+	 *
+	 */
+	private static class UnaryTask implements Callable<Long>
+	{
+		private MatrixBlock _in  = null;
+		private MatrixBlock _ret = null;
+		private UnaryOperator _op = null;
+		private double _val0 = 0;
+		private boolean _inplace = false;
+		private int _rl = -1;
+		private int _ru = -1;
+
+		protected UnaryTask( MatrixBlock in, MatrixBlock ret, UnaryOperator op, double val0, boolean inplace, int rl, int ru ) {
+			_in = in;
+			_ret = ret;
+			_op = op;
+			_val0 = val0;
+			_inplace = inplace;
+			_rl = rl;
+			_ru = ru;
+		}
+
+		@Override
+		public Long call() throws DMLRuntimeException {
+			//compute partial result and return partial nnz
+			return _inplace ?
+				unaryOpInPlace(_in, _op, _rl, _ru) :
+				unaryOp(_in, _ret, _op, _val0, _rl, _ru);
+		}
+	}
+}
@@ -44,6 +44,7 @@ import com.ibm.bi.dml.lops.PartialAggregate.CorrectionLocationType;
 import com.ibm.bi.dml.parser.DMLTranslator;
 import com.ibm.bi.dml.runtime.DMLRuntimeException;
 import com.ibm.bi.dml.runtime.DMLUnsupportedOperationException;
+import com.ibm.bi.dml.runtime.controlprogram.caching.PageCache;
 import com.ibm.bi.dml.runtime.functionobjects.Builtin;
 import com.ibm.bi.dml.runtime.functionobjects.CM;
 import com.ibm.bi.dml.runtime.functionobjects.CTable;
@@ -409,8 +410,13 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 		}
 		
 		//allocate block if non-existing or too small (guaranteed to be 0-initialized),
+		//where pooled arrays of equal size are reused if available
 		if(denseBlock == null || denseBlock.length < limit ) {
-			denseBlock = new double[(int)limit];
+			denseBlock = PageCache.getDoubleArray((int)limit);
+			if( denseBlock != null )
+				Arrays.fill(denseBlock, 0);
+			else
+				denseBlock = new double[(int)limit];
 		}
 		
 		//clear nnz if necessary
@@ -477,12 +483,15 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 	 * This is for example required in reading a matrix with many empty blocks 
 	 * via distributed cache into in-memory list of blocks - not cleaning blocks 
 	 * from non-empty blocks would significantly increase the total memory consumption.
+	 * Released dense blocks are returned to the array pool (if enabled).
 	 * 
 	 */
 	public void cleanupBlock( boolean dense, boolean sparse )
 	{
-		if(dense)
+		if(dense) {
+			PageCache.putDoubleArray(denseBlock);
 			denseBlock = null;
+		}
 		if(sparse)
 			sparseRows = null;
 	}
@@ -1318,7 +1327,7 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 				}
 				
 		//cleanup dense block
-		denseBlock = null;
+		cleanupBlock(true, false);
 	}
 	
 	/**
@@ -2958,7 +2967,10 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 			ret.reset(rlen, clen, sp, this.nonZeros);
 		
 		//core scalar operations
-		LibMatrixBincell.bincellOp(this, ret, op);
+		if( op.getNumThreads() > 1 )
+			LibMatrixBincell.bincellOp(this, ret, op, op.getNumThreads());
+		else
+			LibMatrixBincell.bincellOp(this, ret, op);
 		
 		return ret;
 	}
@@ -2987,7 +2999,15 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 		if( LibMatrixAgg.isSupportedUnaryOperator(op) ) 
 		{
 			//e.g., cumsum/cumprod/cummin/cumax
-			LibMatrixAgg.aggregateUnaryMatrix(this, ret, op);
+			if( op.getNumThreads() > 1 )
+				LibMatrixAgg.aggregateUnaryMatrix(this, ret, op, op.getNumThreads());
+			else
+				LibMatrixAgg.aggregateUnaryMatrix(this, ret, op);
+		}
+		else if( LibMatrixUnary.isParallelizable(this, op, false) )
+		{
+			//multi-threaded unary operations
+			LibMatrixUnary.unaryOp(this, ret, op);
 		}
 		else
 		{
@@ -3099,7 +3119,9 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 	public void unaryOperationsInPlace(UnaryOperator op) 
 		throws DMLUnsupportedOperationException, DMLRuntimeException
 	{
-		if(op.sparseSafe)
+		if( LibMatrixUnary.isParallelizable(this, op, true) )
+			LibMatrixUnary.unaryOpInPlace(this, op);
+		else if(op.sparseSafe)
 			sparseUnaryOperationsInPlace(op);
 		else
 			denseUnaryOperationsInPlace(op);
@@ -3224,7 +3246,10 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 			ret.reset(rows, cols, resultSparse.sparse, resultSparse.estimatedNonZeros);
 		
 		//core binary cell operation
-		LibMatrixBincell.bincellOp( this, that, ret, op );
+		if( op.getNumThreads() > 1 )
+			LibMatrixBincell.bincellOp( this, that, ret, op, op.getNumThreads() );
+		else
+			LibMatrixBincell.bincellOp( this, that, ret, op );
 		
 		return ret;
 	}
@@ -3249,7 +3274,10 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 			sparseToDense();
 				
 		//core binary cell operation
-		LibMatrixBincell.bincellOpInPlace(this, that, op);
+		if( op.getNumThreads() > 1 )
+			LibMatrixBincell.bincellOpInPlace(this, that, op, op.getNumThreads());
+		else
+			LibMatrixBincell.bincellOpInPlace(this, that, op);
 	}
 
 
@@ -3584,7 +3612,10 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 			//SPECIAL case (operators with special performance requirements, 
 			//or size-dependent special behavior)
 			//currently supported opcodes: r', rdiag, rsort
-			LibMatrixReorg.reorg(this, result, op);
+			if( op.getNumThreads() > 1 )
+				LibMatrixReorg.reorg(this, result, op, op.getNumThreads());
+			else
+				LibMatrixReorg.reorg(this, result, op);
 		}
 		else 
 		{
@@ -5546,30 +5577,10 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 		throws DMLUnsupportedOperationException, DMLRuntimeException 
 	{
 		MatrixBlock that2 = checkType(that2Val);
-		CTable ctable = CTable.getCTableFnObject();
-		double v2 = scalarThat;
 		
 		//sparse-unsafe ctable execution
 		//(because input values of 0 are invalid and have to result in errors) 
-		if ( resultBlock == null ) {
-			for( int i=0; i<rlen; i++ )
-				for( int j=0; j<clen; j++ )
-				{
-					double v1 = this.quickGetValue(i, j);
-					double w = that2.quickGetValue(i, j);
-					ctable.execute(v1, v2, w, false, resultMap);
-				}
-		}
-		else {
-			for( int i=0; i<rlen; i++ )
-				for( int j=0; j<clen; j++ )
-				{
-					double v1 = this.quickGetValue(i, j);
-					double w = that2.quickGetValue(i, j);
-					ctable.execute(v1, v2, w, false, resultBlock);
-				}
-			resultBlock.recomputeNonZeros();
-		}
+		LibMatrixCTable.ctable(this, null, scalarThat, that2, 0, false, resultMap, resultBlock);
 	}
 
 	/**
@@ -5585,29 +5596,9 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 			double scalarThat2, CTableMap resultMap, MatrixBlock resultBlock)
 			throws DMLUnsupportedOperationException, DMLRuntimeException 
 	{
-		CTable ctable = CTable.getCTableFnObject();
-		double v2 = scalarThat;
-		double w = scalarThat2;
-		
 		//sparse-unsafe ctable execution
 		//(because input values of 0 are invalid and have to result in errors) 
-		if ( resultBlock == null ) { 
-			for( int i=0; i<rlen; i++ )
-				for( int j=0; j<clen; j++ )
-				{
-					double v1 = this.quickGetValue(i, j);
-					ctable.execute(v1, v2, w, false, resultMap);
-				}
-		}
-		else {
-			for( int i=0; i<rlen; i++ )
-				for( int j=0; j<clen; j++ )
-				{
-					double v1 = this.quickGetValue(i, j);
-					ctable.execute(v1, v2, w, false, resultBlock);
-				}	
-			resultBlock.recomputeNonZeros();
-		}		
+		LibMatrixCTable.ctable(this, null, scalarThat, null, scalarThat2, false, resultMap, resultBlock);
 	}
 	
 	/**
@@ -5667,64 +5658,12 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 	public void ternaryOperations(Operator op, MatrixValue thatVal, double scalarThat2, boolean ignoreZeros,
 			     CTableMap resultMap, MatrixBlock resultBlock)
 			throws DMLUnsupportedOperationException, DMLRuntimeException 
-	{	
-		//setup ctable computation
+	{
 		MatrixBlock that = checkType(thatVal);
-		CTable ctable = CTable.getCTableFnObject();
-		double w = scalarThat2;
 		
-		if( ignoreZeros //SPARSE-SAFE & SPARSE INPUTS
-			&& this.sparse && that.sparse )
-		{
-			//note: only used if both inputs have aligned zeros, which
-			//allows us to infer that the nnz both inputs are equivalent
-			
-			//early abort on empty blocks possible
-			if( this.isEmptyBlock(false) && that.isEmptyBlock(false) )
-				return;
-			
-			SparseRow[] a = this.sparseRows;
-			SparseRow[] b = that.sparseRows;
-			for( int i=0; i<rlen; i++ )
-			{
-				SparseRow arow = a[i];
-				SparseRow brow = b[i];
-				if( arow != null && !arow.isEmpty() )
-				{
-					int alen = arow.size();
-					double[] avals = arow.getValueContainer();
-					double[] bvals = brow.getValueContainer();
-					
-					if( resultBlock == null ) {
-						for( int j=0; j<alen; j++ )
-							ctable.execute(avals[j], bvals[j], w, ignoreZeros, resultMap);		
-					}
-					else {
-						for( int j=0; j<alen; j++ )
-							ctable.execute(avals[j], bvals[j], w, ignoreZeros, resultBlock);			
-					}
-				}
-			}	
-		}
-		else //SPARSE-UNSAFE | GENERIC INPUTS
-		{
-			//sparse-unsafe ctable execution
-			//(because input values of 0 are invalid and have to result in errors) 
-			for( int i=0; i<rlen; i++ )
-				for( int j=0; j<clen; j++ )
-				{
-					double v1 = this.quickGetValue(i, j);
-					double v2 = that.quickGetValue(i, j);
-					if( resultBlock == null )
-						ctable.execute(v1, v2, w, ignoreZeros, resultMap);
-					else
-						ctable.execute(v1, v2, w, ignoreZeros, resultBlock);
-				}
-		}
-		
-		//maintain nnz (if necessary)
-		if( resultBlock!=null )
-			resultBlock.recomputeNonZeros();
+		//sparse-safe ctable execution for ignoreZeros and sparse inputs,
+		//otherwise sparse-unsafe ctable execution
+		LibMatrixCTable.ctable(this, that, 0, null, scalarThat2, ignoreZeros, resultMap, resultBlock);
 	}
 	
 	/**
@@ -5774,36 +5713,13 @@ public class MatrixBlock extends MatrixValue implements Externalizable
 	@Override
 	public void ternaryOperations(Operator op, MatrixValue thatVal, MatrixValue that2Val, CTableMap resultMap, MatrixBlock resultBlock)
 		throws DMLUnsupportedOperationException, DMLRuntimeException
-	{	
+	{
 		MatrixBlock that = checkType(thatVal);
 		MatrixBlock that2 = checkType(that2Val);
-		CTable ctable = CTable.getCTableFnObject();
 		
 		//sparse-unsafe ctable execution
 		//(because input values of 0 are invalid and have to result in errors) 
-		if(resultBlock == null) 
-		{
-			for( int i=0; i<rlen; i++ )
-				for( int j=0; j<clen; j++ )
-				{
-					double v1 = this.quickGetValue(i, j);
-					double v2 = that.quickGetValue(i, j);
-					double w = that2.quickGetValue(i, j);
-					ctable.execute(v1, v2, w, false, resultMap);
-				}		
-		}
-		else 
-		{
-			for( int i=0; i<rlen; i++ )
-				for( int j=0; j<clen; j++ )
-				{
-					double v1 = this.quickGetValue(i, j);
-					double v2 = that.quickGetValue(i, j);
-					double w = that2.quickGetValue(i, j);
-					ctable.execute(v1, v2, w, false, resultBlock);
-				}
-			resultBlock.recomputeNonZeros();
-		}
+		LibMatrixCTable.ctable(this, that, 0, that2, 0, false, resultMap, resultBlock);
 	}
 	
 	@Override
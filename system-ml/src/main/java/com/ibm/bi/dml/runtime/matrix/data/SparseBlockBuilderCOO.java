@@ -0,0 +1,183 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package com.ibm.bi.dml.runtime.matrix.data;
+
+import java.util.Arrays;
+
+/**
+ * Bulk builder for sparse blocks from unordered (row, col, value) cells, e.g.,
+ * for text and binary cell readers. Cells are collected in primitive coordinate
+ * (COO) arrays and written into the sparse rows of the target block via one
+ * counting sort by row, where all touched rows are allocated with exact capacity
+ * (instead of repeatedly growing the rows via cell-wise appends). Only rows whose
+ * cells were not appended in column order are sorted afterwards. Buffered cells
+ * are flushed into the target block if the buffer capacity is exceeded and on
+ * close.
+ *
+ * NOTE: Similar to appendValue, this builder does not check for existing cells
+ * (i.e., it should be used for initially empty sparse blocks).
+ */
+public class SparseBlockBuilderCOO
+{
+
+	private static final int INIT_CAPACITY = 1024;
+	private static final int MAX_CAPACITY = 8*1024*1024; //8M cells (128MB)
+
+	private MatrixBlock _dest = null;
+	private int[] _rix = null;
+	private int[] _cix = null;
+	private double[] _vals = null;
+	private int _size = 0;
+
+	/**
+	 *
+	 * @param dest
+	 */
+	public SparseBlockBuilderCOO( MatrixBlock dest )
+	{
+		this( dest, INIT_CAPACITY );
+	}
+
+	/**
+	 *
+	 * @param dest
+	 * @param estnnz
+	 */
+	public SparseBlockBuilderCOO( MatrixBlock dest, long estnnz )
+	{
+		int capacity = (int) Math.max(Math.min(estnnz, MAX_CAPACITY), INIT_CAPACITY);
+		_dest = dest;
+		_rix = new int[capacity];
+		_cix = new int[capacity];
+		_vals = new double[capacity];
+	}
+
+	/**
+	 * Appends the given cell (zero values are ignored).
+	 *
+	 * @param r
+	 * @param c
+	 * @param v
+	 */
+	public void append( int r, int c, double v )
+	{
+		//early abort on zero
+		if( v == 0 )
+			return;
+
+		//row bounds check (for meaningful errors of readers; 
+		//otherwise an invalid row would only fail on flush)
+		if( r < 0 || r >= _dest.rlen )
+			throw new IndexOutOfBoundsException("Cell ("+r+", "+c+") out of " +
+					"block row range [0:"+_dest.rlen+").");
+
+		//flush or grow buffer if required
+		if( _size == _rix.length ) {
+			if( _size >= MAX_CAPACITY )
+				flush();
+			else
+				resize( Math.min(2*_size, MAX_CAPACITY) );
+		}
+
+		_rix[_size] = r;
+		_cix[_size] = c;
+		_vals[_size] = v;
+		_size++;
+	}
+
+	/**
+	 * Get the number of buffered cells.
+	 *
+	 * @return
+	 */
+	public int size()
+	{
+		return _size;
+	}
+
+	/**
+	 * Writes all buffered cells into the target block (incl sorted rows
+	 * and maintained number of non-zeros) and resets the buffer.
+	 */
+	public void flush()
+	{
+		if( _size == 0 )
+			return;
+
+		final int rlen = _dest.rlen;
+		_dest.sparse = true;
+		_dest.allocateSparseRowsBlock(false);
+		SparseRow[] rows = _dest.sparseRows;
+
+		//count non-zeros per row
+		int[] cnt = new int[rlen];
+		for( int i=0; i<_size; i++ )
+			cnt[_rix[i]]++;
+
+		//allocate rows with exact capacity
+		for( int r=0; r<rlen; r++ )
+			if( cnt[r] > 0 ) {
+				if( rows[r] == null )
+					rows[r] = new SparseRow(cnt[r]);
+				else
+					rows[r].recap(rows[r].size() + cnt[r]);
+			}
+
+		//scatter cells into rows (no reallocations, order-preserving),
+		//where we mark rows with out-of-order appends via negative counts
+		for( int i=0; i<_size; i++ ) {
+			int r = _rix[i];
+			SparseRow row = rows[r];
+			int len = row.size();
+			if( len > 0 && row.getIndexContainer()[len-1] > _cix[i] )
+				cnt[r] = -1;
+			row.append(_cix[i], _vals[i]);
+		}
+
+		//sort touched rows by column index (only if appends were out of order)
+		for( int r=0; r<rlen; r++ )
+			if( cnt[r] < 0 )
+				rows[r].sort();
+
+		_dest.nonZeros += _size;
+		_size = 0;
+	}
+
+	/**
+	 * Flushes all buffered cells and releases the buffer.
+	 */
+	public void close()
+	{
+		flush();
+		_rix = null;
+		_cix = null;
+		_vals = null;
+	}
+
+	/**
+	 *
+	 * @param capacity
+	 */
+	private void resize( int capacity )
+	{
+		_rix = Arrays.copyOf(_rix, capacity);
+		_cix = Arrays.copyOf(_cix, capacity);
+		_vals = Arrays.copyOf(_vals, capacity);
+	}
+}
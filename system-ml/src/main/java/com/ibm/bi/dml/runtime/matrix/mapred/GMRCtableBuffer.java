@@ -20,6 +20,7 @@ package com.ibm.bi.dml.runtime.matrix.mapred;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map.Entry;
 
 import org.apache.hadoop.mapred.Reporter;
@@ -27,6 +28,7 @@ import org.apache.hadoop.mapred.Reporter;
 import com.ibm.bi.dml.runtime.DMLRuntimeException;
 import com.ibm.bi.dml.runtime.io.MatrixWriter;
 import com.ibm.bi.dml.runtime.matrix.data.CTableMap;
+import com.ibm.bi.dml.runtime.matrix.data.IJV;
 import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
 import com.ibm.bi.dml.runtime.matrix.data.MatrixCell;
 import com.ibm.bi.dml.runtime.matrix.data.MatrixIndexes;
@@ -130,7 +132,7 @@ public class GMRCtableBuffer
 		try
 		{
 			if ( _mapBuffer != null ) {
-				MatrixIndexes key=null;//new MatrixIndexes();
+				MatrixIndexes key=new MatrixIndexes();
 				MatrixCell value=new MatrixCell();
 				for(Entry<Byte, CTableMap> ctable: _mapBuffer.entrySet())
 				{
@@ -147,9 +149,11 @@ public class GMRCtableBuffer
 					}
 					
 					//output result data 
-					for(Entry<MatrixIndexes, Double> e: resultMap.entrySet()) {
-						key = e.getKey();
-						value.setValue(e.getValue());
+					Iterator<IJV> iter = resultMap.getIterator();
+					while( iter.hasNext() ) {
+						IJV e = iter.next();
+						key.setIndexes(e.i, e.j);
+						value.setValue(e.v);
 						for(Integer i: resultIDs) {
 							_collector.collectOutput(key, value, i, reporter);
 						}
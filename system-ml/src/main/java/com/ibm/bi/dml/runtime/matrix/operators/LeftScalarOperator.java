@@ -45,6 +45,15 @@ public class LeftScalarOperator extends ScalarOperator
 		return fn.execute(_constant, in);
 	}
 	
+	@Override
+	public ScalarOperator copyWithConstant(double cst)
+	{
+		ScalarOperator ret = new LeftScalarOperator(fn, _constant);
+		ret.setConstant(cst);
+		ret.setNumThreads(getNumThreads());
+		return ret;
+	}
+	
 	@Override
 	public void setConstant(double cst) 
 	{
@@ -41,6 +41,15 @@ public class RightScalarOperator extends ScalarOperator
 	}
 	
 
+	@Override
+	public ScalarOperator copyWithConstant(double cst)
+	{
+		ScalarOperator ret = new RightScalarOperator(fn, _constant);
+		ret.setConstant(cst);
+		ret.setNumThreads(getNumThreads());
+		return ret;
+	}
+	
 	@Override
 	public void setConstant(double cst) 
 	{
@@ -42,6 +42,7 @@ public class ScalarOperator  extends Operator
 	
 	public ValueFunction fn;
 	protected double _constant;
+	private int k = 1; //num threads
 	
 	public ScalarOperator(ValueFunction p, double cst)
 	{
@@ -93,6 +94,30 @@ public class ScalarOperator  extends Operator
 		}
 	}
 	
+	/**
+	 * Creates a copy of this operator with the given constant. Instructions use this
+	 * instead of setConstant in order to keep their (shared) operators unmodified, 
+	 * which is required for the concurrent execution of compiled programs.
+	 * 
+	 * @param cst
+	 * @return
+	 */
+	public ScalarOperator copyWithConstant(double cst)
+	{
+		ScalarOperator ret = new ScalarOperator(fn, _constant);
+		ret.setConstant(cst);
+		ret.setNumThreads(k);
+		return ret;
+	}
+	
+	public void setNumThreads(int numThreads) {
+		k = numThreads;
+	}
+	
+	public int getNumThreads(){
+		return k;
+	}
+	
 	public double executeScalar(double in) throws DMLRuntimeException {
 		throw new DMLRuntimeException("executeScalar(): can not be invoked from base class.");
 	}
@@ -0,0 +1,333 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.ibm.bi.dml.runtime.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.ibm.bi.dml.api.DMLScript;
+import com.ibm.bi.dml.runtime.controlprogram.parfor.stat.InfrastructureAnalyzer;
+import com.ibm.bi.dml.utils.Statistics;
+
+/**
+ * Process-wide, persistent thread pool for all multi-threaded CP operations (matrix
+ * kernels and parallel IO), which avoids the creation and teardown of threads per
+ * operation. The shared pool has as many (daemon) worker threads as local virtual
+ * cores, i.e., concurrent parfor workers and concurrent operations share these workers
+ * and cannot oversubscribe the local cores. Operations obtain a lightweight executor
+ * view via get(k), which runs at most k tasks concurrently in the shared pool (further
+ * tasks are queued in the view) and tracks its in-flight tasks for termination; shutting
+ * down this view does not affect the shared pool.
+ *
+ * If statistics are enabled, the task execution and queue wait times are collected 
+ * globally and per calling instruction (see Statistics.setCurrentCPInstruction).
+ *
+ * Nested parallelism: tasks submitted from a worker thread of the shared pool (e.g., a
+ * multi-threaded kernel called from within a parallel IO task) and single-threaded
+ * requests (k&lt;=1) are executed inline by the calling thread, which prevents deadlocks
+ * due to pool threads waiting for queued tasks.
+ *
+ */
+public class CommonThreadPool extends AbstractExecutorService
+{
+
+	private static final long KEEP_ALIVE_SECONDS = 60;
+
+	//shared pool (lazily created on first parallel operation)
+	private static ThreadPoolExecutor _pool = null;
+
+	private final boolean _inline;
+	private final int _k; //max concurrently running tasks of this view
+	private final String _opcode; //calling instruction (for statistics)
+	private volatile boolean _shutdown = false;
+	
+	//queued tasks and number of running and in-flight (queued or running)
+	//tasks of this view (guarded by view lock)
+	private final LinkedList<Runnable> _queue = new LinkedList<Runnable>();
+	private int _running = 0;
+	private int _inflight = 0;
+
+	private CommonThreadPool( boolean inline, int k, String opcode )
+	{
+		_inline = inline;
+		_k = k;
+		_opcode = opcode;
+	}
+
+	/**
+	 * Obtains an executor for a multi-threaded operation with (max) degree of parallelism k,
+	 * backed by the shared CP thread pool.
+	 *
+	 * @param k
+	 * @return
+	 */
+	public static ExecutorService get( int k )
+	{
+		boolean inline = (k <= 1 || isPoolThread());
+		if( !inline )
+			getSharedPool();
+
+		return new CommonThreadPool( inline, k,
+			DMLScript.STATISTICS ? Statistics.getCurrentCPInstruction() : null );
+	}
+
+	/**
+	 * Indicates if the current thread is a worker thread of the shared pool.
+	 *
+	 * @return
+	 */
+	public static boolean isPoolThread()
+	{
+		return (Thread.currentThread() instanceof CommonThread);
+	}
+
+	/**
+	 * Gets the size of the shared pool, i.e., the max number of concurrently
+	 * executed tasks over all CP operations.
+	 *
+	 * @return
+	 */
+	public static int getPoolSize()
+	{
+		return getSharedPool().getMaximumPoolSize();
+	}
+
+	/**
+	 *
+	 * @return
+	 */
+	private static synchronized ThreadPoolExecutor getSharedPool()
+	{
+		if( _pool == null ) {
+			int par = Math.max(InfrastructureAnalyzer.getLocalParallelism(), 1);
+			_pool = new ThreadPoolExecutor(par, par, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+					new LinkedBlockingQueue<Runnable>(), new CommonThreadFactory());
+			_pool.allowCoreThreadTimeOut(true); //release idle threads
+		}
+
+		return _pool;
+	}
+
+	@Override
+	public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks)
+		throws InterruptedException
+	{
+		if( DMLScript.STATISTICS )
+			Statistics.incrementCPPoolOps();
+		return super.invokeAll(tasks);
+	}
+
+	@Override
+	public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit)
+		throws InterruptedException
+	{
+		if( DMLScript.STATISTICS )
+			Statistics.incrementCPPoolOps();
+		return super.invokeAll(tasks, timeout, unit);
+	}
+
+	@Override
+	public void execute( Runnable command )
+	{
+		if( _shutdown )
+			throw new RejectedExecutionException("Executor view already shut down.");
+		
+		//collect task times only if statistics are enabled
+		Runnable task = DMLScript.STATISTICS ? 
+			new TimedTask(command, _opcode) : command;
+		if( _inline ) {
+			task.run();
+			return;
+		}
+		
+		//run task in shared pool if less than k running tasks, otherwise queue
+		//task in view until the completion of a running task of this view
+		task = new ViewTask(task);
+		synchronized( this ) {
+			_inflight++;
+			if( _running >= _k ) {
+				_queue.add(task);
+				return;
+			}
+			_running++;
+		}
+		_pool.execute(task);
+	}
+
+	@Override
+	public void shutdown()
+	{
+		//no shutdown of the shared pool
+		_shutdown = true;
+	}
+
+	@Override
+	public List<Runnable> shutdownNow()
+	{
+		//remove queued tasks of this view, running tasks are not interrupted
+		synchronized( this ) {
+			_shutdown = true;
+			List<Runnable> ret = new ArrayList<Runnable>(_queue);
+			_inflight -= _queue.size();
+			_queue.clear();
+			if( _inflight == 0 )
+				notifyAll();
+			return ret;
+		}
+	}
+
+	@Override
+	public boolean isShutdown()
+	{
+		return _shutdown;
+	}
+
+	@Override
+	public synchronized boolean isTerminated()
+	{
+		return _shutdown && _inflight == 0;
+	}
+
+	@Override
+	public synchronized boolean awaitTermination(long timeout, TimeUnit unit)
+		throws InterruptedException
+	{
+		long t1 = System.nanoTime() + unit.toNanos(timeout);
+		while( !isTerminated() ) {
+			long remaining = t1 - System.nanoTime();
+			if( remaining <= 0 )
+				return false;
+			TimeUnit.NANOSECONDS.timedWait(this, remaining);
+		}
+		return true;
+	}
+	
+	/**
+	 * Called on completion of a task of this view, which runs the next
+	 * queued task (if any) in the shared pool.
+	 */
+	private void onTaskCompletion()
+	{
+		Runnable next = null;
+		synchronized( this ) {
+			_inflight--;
+			next = _queue.poll();
+			if( next == null )
+				_running--;
+			if( _inflight == 0 )
+				notifyAll();
+		}
+		if( next != null )
+			_pool.execute(next);
+	}
+	
+	/**
+	 * Wrapper for maintaining the running and in-flight tasks of a view.
+	 * 
+	 */
+	private class ViewTask implements Runnable
+	{
+		private final Runnable _task;
+		
+		public ViewTask( Runnable task )
+		{
+			_task = task;
+		}
+		
+		@Override
+		public void run()
+		{
+			try {
+				_task.run();
+			}
+			finally {
+				onTaskCompletion();
+			}
+		}
+	}
+
+	/**
+	 * Wrapper for collecting task execution and queue wait times,
+	 * attributed to the calling instruction (if known).
+	 *
+	 */
+	private static class TimedTask implements Runnable
+	{
+		private final Runnable _task;
+		private final String _opcode;
+		private final long _t0;
+
+		public TimedTask( Runnable task, String opcode )
+		{
+			_task = task;
+			_opcode = opcode;
+			_t0 = System.nanoTime();
+		}
+
+		@Override
+		public void run()
+		{
+			long t1 = System.nanoTime();
+			try {
+				_task.run();
+			}
+			finally {
+				Statistics.incrementCPPoolTask(_opcode, System.nanoTime()-t1, t1-_t0);
+			}
+		}
+	}
+
+	/**
+	 *
+	 */
+	private static class CommonThreadFactory implements ThreadFactory
+	{
+		private final AtomicInteger _seq = new AtomicInteger(1);
+
+		@Override
+		public Thread newThread(Runnable r)
+		{
+			Thread t = new CommonThread(r, "SystemML-CP-Worker-"+_seq.getAndIncrement());
+			t.setDaemon(true); //no blocking of JVM shutdown
+			return t;
+		}
+	}
+
+	/**
+	 *
+	 */
+	private static class CommonThread extends Thread
+	{
+		public CommonThread( Runnable r, String name )
+		{
+			super(r, name);
+		}
+	}
+}
@@ -22,6 +22,10 @@ import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.HashMap;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
 
 import com.ibm.bi.dml.api.DMLScript;
 import com.ibm.bi.dml.conf.ConfigurationManager;
@@ -119,6 +123,66 @@ public class LocalFileUtils
 	}
 	
 	
+	/**
+	 * Reads a matrix block from a deflate-compressed local file 
+	 * (see writeCompressedMatrixBlockToLocal).
+	 * 
+	 * @param filePathAndName
+	 * @return
+	 * @throws IOException
+	 */
+	public static MatrixBlock readCompressedMatrixBlockFromLocal(String filePathAndName)
+		throws IOException
+	{
+		MatrixBlock ret = new MatrixBlock();
+		Inflater inflater = new Inflater();
+		FileInputStream fis = new FileInputStream( filePathAndName );
+		InflaterInputStream iis = new InflaterInputStream(fis, inflater, BUFFER_SIZE);
+		FastBufferedDataInputStream in = new FastBufferedDataInputStream(iis, BUFFER_SIZE);
+		
+		try
+		{
+			ret.readFields(in);
+		}
+		finally
+		{
+			if( in != null )
+				in.close();
+			inflater.end(); //release native resources
+		}
+			
+		return ret;
+	}
+	
+	/**
+	 * Writes a matrix block to a deflate-compressed local file with the given 
+	 * compression level.
+	 * 
+	 * @param filePathAndName
+	 * @param mb
+	 * @param level
+	 * @throws IOException
+	 */
+	public static void writeCompressedMatrixBlockToLocal(String filePathAndName, MatrixBlock mb, int level)
+		throws IOException
+	{	
+		Deflater deflater = new Deflater(level);
+		FileOutputStream fos = new FileOutputStream( filePathAndName );
+		DeflaterOutputStream dos = new DeflaterOutputStream(fos, deflater, BUFFER_SIZE);
+		FastBufferedDataOutputStream out = new FastBufferedDataOutputStream(dos, BUFFER_SIZE);
+		
+		try 
+		{
+			mb.write(out);
+		}
+		finally
+		{
+			if( out != null )
+				out.close();
+			deflater.end(); //release native resources
+		}	
+	}
+	
 	/**
 	 * 
 	 * @param filePathAndName
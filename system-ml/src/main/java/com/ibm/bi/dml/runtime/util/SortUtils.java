@@ -28,6 +28,9 @@ import com.ibm.bi.dml.runtime.controlprogram.parfor.stat.Timing;
  */
 public class SortUtils 
 {
+	
+	private static final int RADIX_SORT_BUCKETS = 1<<16; //16bit digits
+	
 	/**
 	 * 
 	 * @param start
@@ -274,15 +277,42 @@ public class SortUtils
      */
     public static void sortByValueStable(int start, int end, double[] values, int[] indexes) 
     {    
-
+    	sortByValueStable(start, end, values, indexes, false);
+    }
+    
+    /**
+     * In-place stable sort of two arrays by values (ascending or descending), where
+     * indexes of equal values are kept in ascending order.
+     * 
+     * @param start
+     * @param end
+     * @param values
+     * @param indexes
+     * @param desc
+     */
+    public static void sortByValueStable(int start, int end, double[] values, int[] indexes, boolean desc) 
+    {    
     	sortByValue(start, end, values, indexes);
     	
+    	//flip order if descending requested (note that this needs to happen
+    	//before we ensure stable outputs, hence we also flip values)
+    	if( desc ) {
+    		for( int i=start, j=end-1; i<j; i++, j-- ) {
+    			double tmpVal = values[i];
+    			values[i] = values[j];
+    			values[j] = tmpVal;
+    			int tmpIx = indexes[i];
+    			indexes[i] = indexes[j];
+    			indexes[j] = tmpIx;
+    		}
+    	}
+    	
     	// Maintain the stability of the index order.
-		for( int i=0; i<values.length-1; i++ ) {
+		for( int i=start; i<end-1; i++ ) {
 			double tmp = values[i];
 			//determine run of equal values
 			int len = 0;
-			while( i+len+1<values.length && tmp==values[i+len+1] )
+			while( i+len+1<end && tmp==values[i+len+1] )
 				len++;
 			//unstable sort of run indexes (equal value guaranteed)
 			if( len>0 ) {
@@ -291,8 +321,65 @@ public class SortUtils
 			}
 		}
     }
-
-      
+    
+    /**
+     * Stable LSD radix sort (16bit digits) of the given indexes by the associated values. 
+     * Values are mapped to order-preserving long keys of their double bit patterns. Since 
+     * equal keys retain their input order, indexes of equal values remain in ascending
+     * order (if given in ascending order) without an additional pass. Note that only the 
+     * indexes are reordered, while the values are left unchanged.
+     * 
+     * @param values
+     * @param indexes
+     * @param desc
+     */
+    public static void sortIndexesByValueRadix(double[] values, int[] indexes, boolean desc) 
+    {
+    	final int len = indexes.length;
+    	if( len < 2 )
+    		return;
+    	
+    	//create order-preserving keys (flip sign bit for positive, all bits for negative values) 
+    	long[] keys = new long[len];
+    	for( int i=0; i<len; i++ ) {
+    		long bits = (values[i]==0) ? 0 : Double.doubleToLongBits(values[i]); //-0 == 0
+    		long key = bits ^ ((bits >> 63) | Long.MIN_VALUE);
+    		keys[i] = desc ? ~key : key;
+    	}
+    	
+    	//LSD radix sort over four 16bit digits
+    	long[] ckeys = keys, tkeys = new long[len];
+    	int[] cix = indexes, tix = new int[len];
+    	int[] cnt = new int[RADIX_SORT_BUCKETS+1];
+    	for( int shift=0; shift<64; shift+=16 )
+    	{
+    		//histogram of digits
+    		Arrays.fill(cnt, 0);
+    		for( int i=0; i<len; i++ )
+    			cnt[(int)((ckeys[i]>>>shift) & 0xFFFF)+1]++;
+    		
+    		//skip pass if all keys share the same digit (e.g., high order bits)
+    		if( cnt[(int)((ckeys[0]>>>shift) & 0xFFFF)+1] == len )
+    			continue;
+    		
+    		//prefix sums (start positions per digit) and stable scatter
+    		for( int j=0; j<RADIX_SORT_BUCKETS; j++ )
+    			cnt[j+1] += cnt[j];
+    		for( int i=0; i<len; i++ ) {
+    			int pos = cnt[(int)((ckeys[i]>>>shift) & 0xFFFF)]++;
+    			tkeys[pos] = ckeys[i];
+    			tix[pos] = cix[i];
+    		}
+    		
+    		//swap current and temporary arrays
+    		long[] tmpKeys = ckeys; ckeys = tkeys; tkeys = tmpKeys;
+    		int[] tmpIx = cix; cix = tix; tix = tmpIx;
+    	}
+    	
+    	//copy result if necessary
+    	if( cix != indexes )
+    		System.arraycopy(cix, 0, indexes, 0, len);
+    }
     
     /**
      * 
@@ -23,6 +23,7 @@ import java.lang.management.ManagementFactory;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map.Entry;
 import java.util.Set;
@@ -31,6 +32,7 @@ import java.util.concurrent.atomic.AtomicLong;
 import com.ibm.bi.dml.api.DMLScript;
 import com.ibm.bi.dml.hops.OptimizerUtils;
 import com.ibm.bi.dml.runtime.controlprogram.caching.CacheStatistics;
+import com.ibm.bi.dml.runtime.controlprogram.caching.CacheableData;
 import com.ibm.bi.dml.runtime.controlprogram.context.SparkExecutionContext;
 import com.ibm.bi.dml.runtime.instructions.Instruction;
 import com.ibm.bi.dml.runtime.instructions.InstructionUtils;
@@ -78,6 +80,17 @@ public class Statistics
 	private static long parforInitTime = 0; //in milli sec
 	private static long parforMergeTime = 0; //in milli sec
 	
+	//CP thread pool statistics (multi-threaded operations)
+	private static AtomicLong cpPoolOps = new AtomicLong(0);      //count
+	private static AtomicLong cpPoolTasks = new AtomicLong(0);    //count
+	private static AtomicLong cpPoolTaskTime = new AtomicLong(0); //in nano sec
+	private static AtomicLong cpPoolWaitTime = new AtomicLong(0); //in nano sec
+	
+	//CP thread pool task counts and times per calling instruction 
+	private static HashMap<String,Long> _cpPoolInstTime  = new HashMap<String, Long>();
+	private static HashMap<String,Long> _cpPoolInstTasks = new HashMap<String, Long>();
+	private static ThreadLocal<String> _cpCurrentInst = new ThreadLocal<String>();
+	
 	//heavy hitter counts and times 
 	private static HashMap<String,Long> _cpInstTime   =  new HashMap<String, Long>();
 	private static HashMap<String,Long> _cpInstCounts =  new HashMap<String, Long>();
@@ -226,6 +239,34 @@ public class Statistics
 	public static synchronized void incrementParForMergeTime( long time ) {
 		parforMergeTime += time;
 	}
+	
+	public static void incrementCPPoolOps() {
+		//note: not synchronized due to use of atomics
+		cpPoolOps.incrementAndGet();
+	}
+	
+	public static void incrementCPPoolTask( String opcode, long execTime, long waitTime ) {
+		//note: not synchronized due to use of atomics
+		cpPoolTasks.incrementAndGet();
+		cpPoolTaskTime.addAndGet(execTime);
+		cpPoolWaitTime.addAndGet(waitTime);
+		if( opcode != null )
+			maintainCPPoolHeavyHitters(opcode, execTime);
+	}
+	
+	/**
+	 * Sets the currently executed CP instruction of the calling thread, in order
+	 * to attribute the tasks of multi-threaded operations to this instruction.
+	 * 
+	 * @param opcode
+	 */
+	public static void setCurrentCPInstruction( String opcode ) {
+		_cpCurrentInst.set(opcode);
+	}
+	
+	public static String getCurrentCPInstruction() {
+		return _cpCurrentInst.get();
+	}
 
 	public static void startCompileTimer() {
 		if( DMLScript.STATISTICS )
@@ -277,6 +318,12 @@ public class Statistics
 		parforInitTime = 0;
 		parforMergeTime = 0;
 		
+		cpPoolOps.set(0);
+		cpPoolTasks.set(0);
+		cpPoolTaskTime.set(0);
+		cpPoolWaitTime.set(0);
+		resetCPPoolHeavyHitters();
+		
 		resetJITCompileTime();
 		resetJVMgcTime();
 		resetJVMgcCount();
@@ -306,6 +353,14 @@ public class Statistics
 		_cpInstCounts.clear();
 	}
 	
+	/**
+	 * 
+	 */
+	public synchronized static void resetCPPoolHeavyHitters(){
+		_cpPoolInstTime.clear();
+		_cpPoolInstTasks.clear();
+	}
+	
 	/**
 	 * 
 	 * @param ns
@@ -361,20 +416,67 @@ public class Statistics
 		return _cpInstTime.keySet();
 	}
 	
+	/**
+	 * Maintains the task execution time of multi-threaded operations 
+	 * per calling instruction.
+	 * 
+	 * @param key
+	 * @param timeNanos
+	 */
+	private synchronized static void maintainCPPoolHeavyHitters( String key, long timeNanos )
+	{
+		Long oldVal = _cpPoolInstTime.get(key);
+		Long newVal = timeNanos + ((oldVal!=null) ? oldVal : 0);
+		_cpPoolInstTime.put(key, newVal);
+
+		Long oldCnt = _cpPoolInstTasks.get(key);
+		Long newCnt = 1 + ((oldCnt!=null) ? oldCnt : 0);
+		_cpPoolInstTasks.put(key, newCnt);
+	}
+	
+	public synchronized static Set<String> getCPPoolHeavyHitterOpCodes()
+	{
+		return new HashSet<String>(_cpPoolInstTime.keySet());
+	}
+	
 	/**
 	 * 
 	 * @param num
 	 * @return
 	 */
-	@SuppressWarnings("unchecked")
 	public static String getHeavyHitters( int num )
 	{
-		int len = _cpInstTime.size();
+		return getHeavyHitters(_cpInstTime, _cpInstCounts, num);
+	}
+	
+	/**
+	 * Gets the instructions with the largest task execution times
+	 * of multi-threaded operations.
+	 * 
+	 * @param num
+	 * @return
+	 */
+	public synchronized static String getCPPoolHeavyHitters( int num )
+	{
+		return getHeavyHitters(_cpPoolInstTime, _cpPoolInstTasks, num);
+	}
+	
+	/**
+	 * 
+	 * @param times
+	 * @param counts
+	 * @param num
+	 * @return
+	 */
+	@SuppressWarnings("unchecked")
+	private static String getHeavyHitters( HashMap<String,Long> times, HashMap<String,Long> counts, int num )
+	{
+		int len = times.size();
 		if( num <= 0 || len <= 0 )
 			return "-";
 		
 		//get top k via sort
-		Entry<String,Long>[] tmp = _cpInstTime.entrySet().toArray(new Entry[len]);
+		Entry<String,Long>[] tmp = times.entrySet().toArray(new Entry[len]);
 		Arrays.sort(tmp, new Comparator<Entry<String, Long>>() {
 		    public int compare(Entry<String, Long> e1, Entry<String, Long> e2) {
 		        return e1.getValue().compareTo(e2.getValue());
@@ -390,7 +492,7 @@ public class Statistics
 			sb.append(" \t");
 			sb.append(String.format("%.3f", ((double)tmp[len-1-i].getValue())/1000000000));
 			sb.append(" sec \t");
-			sb.append(_cpInstCounts.get(key));
+			sb.append(counts.get(key));
 			sb.append("\n");
 		}
 		
@@ -466,6 +568,22 @@ public class Statistics
 	public static long getParforMergeTime(){
 		return parforMergeTime;
 	}
+	
+	public static long getCPPoolOps(){
+		return cpPoolOps.get();
+	}
+	
+	public static long getCPPoolTasks(){
+		return cpPoolTasks.get();
+	}
+	
+	public static long getCPPoolTaskTime(){
+		return cpPoolTaskTime.get();
+	}
+	
+	public static long getCPPoolWaitTime(){
+		return cpPoolWaitTime.get();
+	}
 
 	/**
 	 * Prints statistics.
@@ -495,8 +613,17 @@ public class Statistics
 		if( DMLScript.STATISTICS ) 
 		{
 			sb.append("Cache hits (Mem, WB, FS, HDFS):\t" + CacheStatistics.displayHits() + ".\n");
+			sb.append("Cache WB policy (hits/misses):\t" + CacheStatistics.displayPolicyHits() + ".\n");
 			sb.append("Cache writes (WB, FS, HDFS):\t" + CacheStatistics.displayWrites() + ".\n");
 			sb.append("Cache times (ACQr/m, RLS, EXP):\t" + CacheStatistics.displayTime() + " sec.\n");
+			if( CacheableData.CACHING_ASYNC_IO )
+				sb.append("Cache async (FS writes, prefetch):\t" + CacheStatistics.displayAsyncIO() + ".\n");
+			if( CacheableData.CACHING_BUFFER_COMPRESS )
+				sb.append("Cache compress (ratio, C/D):\t" + CacheStatistics.displayCompression() + " sec.\n");
+			if( CacheableData.CACHING_ARRAY_POOL )
+				sb.append("Cache array pool (hits/misses):\t" + CacheStatistics.displayArrayPool() + ".\n");
+			if( CacheableData.CACHING_REUSE )
+				sb.append("Cache reuse (hits/misses):\t" + CacheStatistics.displayReuse() + ".\n");
 			sb.append("HOP DAGs recompiled (PRED, SB):\t" + getHopRecompiledPredDAGs() + "/" + getHopRecompiledSBDAGs() + ".\n");
 			sb.append("HOP DAGs recompile time:\t" + String.format("%.3f", ((double)getHopRecompileTime())/1000000000) + " sec.\n");
 			if( OptimizerUtils.isSparkExecutionMode() ){
@@ -510,6 +637,12 @@ public class Statistics
 				sb.append("ParFor initialize time:\t\t" + String.format("%.3f", ((double)getParforInitTime())/1000) + " sec.\n");	
 				sb.append("ParFor result merge time:\t" + String.format("%.3f", ((double)getParforMergeTime())/1000) + " sec.\n");	
 			}
+			if( getCPPoolOps()>0 ){
+				sb.append("CP par ops (ops, tasks):\t" + getCPPoolOps() + "/" + getCPPoolTasks() + ".\n");
+				sb.append("CP par task time (exec, wait):\t" + String.format("%.3f", ((double)getCPPoolTaskTime())/1000000000) + "/" 
+						+ String.format("%.3f", ((double)getCPPoolWaitTime())/1000000000) + " sec.\n");
+				sb.append("CP par heavy hitters (name, exec time, tasks):\n" + getCPPoolHeavyHitters(10));
+			}
 			sb.append("Total JIT compile time:\t\t" + ((double)getJITCompileTime())/1000 + " sec.\n");
 			sb.append("Total JVM GC count:\t\t" + getJVMgcCount() + ".\n");
 			sb.append("Total JVM GC time:\t\t" + ((double)getJVMgcTime())/1000 + " sec.\n");
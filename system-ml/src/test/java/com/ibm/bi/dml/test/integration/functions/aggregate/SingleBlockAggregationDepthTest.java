@@ -0,0 +1,160 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+
+package com.ibm.bi.dml.test.integration.functions.aggregate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.spark.SparkConf;
+import org.apache.spark.api.java.JavaPairRDD;
+import org.apache.spark.api.java.JavaSparkContext;
+import org.junit.Assert;
+import org.junit.Test;
+
+import scala.Tuple2;
+
+import com.ibm.bi.dml.hops.OptimizerUtils;
+import com.ibm.bi.dml.runtime.instructions.InstructionUtils;
+import com.ibm.bi.dml.runtime.instructions.spark.utils.RDDAggregateUtils;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixIndexes;
+import com.ibm.bi.dml.runtime.util.DataConverter;
+import com.ibm.bi.dml.test.integration.AutomatedTestBase;
+import com.ibm.bi.dml.test.utils.TestUtils;
+
+/**
+ * Tests the single-block aggregation of spark rdds (per-partition aggregation and 
+ * subsequent flat or tree reduce) for different aggregation depths, which all need 
+ * to produce the same results as a local aggregation of all blocks.
+ * 
+ */
+public class SingleBlockAggregationDepthTest extends AutomatedTestBase 
+{
+	private final static int rows = 100;
+	private final static int cols = 100;
+	private final static int numBlocks = 200;
+	private final static int numPartitions = 64;
+	private final static double eps = 1e-10;
+	
+	private enum AggType {
+		SUM,
+		MAX,
+		MIN
+	}
+	
+	@Override
+	public void setUp() 
+	{
+		TestUtils.clearAssertionInformation();
+	}
+	
+	@Test
+	public void testSumStableDenseDepths() {
+		runAggregationDepthTest( AggType.SUM, 1.0 );
+	}
+	
+	@Test
+	public void testSumStableSparseDepths() {
+		runAggregationDepthTest( AggType.SUM, 0.05 );
+	}
+	
+	@Test
+	public void testAggStableMaxDenseDepths() {
+		runAggregationDepthTest( AggType.MAX, 1.0 );
+	}
+	
+	@Test
+	public void testAggStableMinSparseDepths() {
+		runAggregationDepthTest( AggType.MIN, 0.05 );
+	}
+	
+	/**
+	 * 
+	 * @param type
+	 * @param sparsity
+	 */
+	private void runAggregationDepthTest( AggType type, double sparsity ) 
+	{
+		SparkConf conf = new SparkConf().setMaster("local[*]").setAppName("SingleBlockAggregationDepthTest");
+		conf.set("spark.ui.enabled", "false");
+		JavaSparkContext sc = new JavaSparkContext(conf);
+		int depthOld = OptimizerUtils.SPARK_AGGREGATION_DEPTH;
+		
+		try
+		{	
+			//create distributed input and local aggregate
+			List<Tuple2<MatrixIndexes,MatrixBlock>> list = new ArrayList<Tuple2<MatrixIndexes,MatrixBlock>>();
+			double[][] expected = new double[rows][cols];
+			for( int i=0; i<numBlocks; i++ ) {
+				double[][] X = getRandomMatrix(rows, cols, -1, 1, sparsity, i+7);
+				list.add(new Tuple2<MatrixIndexes,MatrixBlock>(
+					new MatrixIndexes(i+1, 1), DataConverter.convertToMatrixBlock(X)));
+				for( int j=0; j<rows; j++ )
+					for( int k=0; k<cols; k++ )
+						expected[j][k] = (i==0) ? X[j][k] : aggregate(type, expected[j][k], X[j][k]);
+			}
+			JavaPairRDD<MatrixIndexes,MatrixBlock> in = sc.parallelizePairs(list, numPartitions);
+			
+			//flat reduce (depth 1) vs tree reduce (depth 2 and 3)
+			double[][] ret1 = null;
+			for( int depth=1; depth<=3; depth++ ) {
+				OptimizerUtils.SPARK_AGGREGATION_DEPTH = depth;
+				MatrixBlock out = (type == AggType.SUM) ? 
+					RDDAggregateUtils.sumStable(in) :
+					RDDAggregateUtils.aggStable(in, InstructionUtils.parseAggregateOperator(
+						(type == AggType.MAX) ? "amax" : "amin", null, null));
+				
+				Assert.assertEquals(rows, out.getNumRows());
+				Assert.assertEquals(cols, out.getNumColumns());
+				double[][] ret = DataConverter.convertToDoubleMatrix(out);
+				TestUtils.compareMatrices(expected, ret, rows, cols, eps);
+				if( depth == 1 )
+					ret1 = ret;
+				else
+					TestUtils.compareMatrices(ret1, ret, rows, cols, eps);
+			}
+		}
+		catch(Exception ex)
+		{
+			ex.printStackTrace();
+			throw new RuntimeException(ex);
+		}
+		finally
+		{
+			OptimizerUtils.SPARK_AGGREGATION_DEPTH = depthOld;
+			sc.stop();
+		}
+	}
+	
+	/**
+	 * 
+	 * @param type
+	 * @param a
+	 * @param b
+	 * @return
+	 */
+	private static double aggregate( AggType type, double a, double b )
+	{
+		switch( type ) {
+			case SUM: return a + b;
+			case MAX: return Math.max(a, b);
+			case MIN: return Math.min(a, b);
+			default: throw new RuntimeException("Unsupported aggregation type: "+type);
+		}
+	}
+}
@@ -0,0 +1,141 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+
+package com.ibm.bi.dml.test.integration.functions.binary.matrix;
+
+import java.util.HashSet;
+
+import org.apache.spark.SparkConf;
+import org.apache.spark.api.java.JavaSparkContext;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.ibm.bi.dml.runtime.controlprogram.context.SparkExecutionContext;
+import com.ibm.bi.dml.runtime.instructions.spark.data.PartitionedBroadcastMatrix;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
+import com.ibm.bi.dml.runtime.util.DataConverter;
+import com.ibm.bi.dml.test.integration.AutomatedTestBase;
+import com.ibm.bi.dml.test.utils.TestUtils;
+
+/**
+ * Tests for chunked broadcasts (as used by mapmm), which check that all blocks 
+ * and slices are correctly resolved over row-major and column-major chunks, and 
+ * that row and column stripes are covered by the minimal number of chunks.
+ * 
+ */
+public class MapMultBroadcastChunkingTest extends AutomatedTestBase 
+{
+	private final static int rows = 2345;
+	private final static int cols = 1789;
+	private final static int blen = 500; //5x4 blocks
+	private final static double eps = 1e-14;
+	
+	@Override
+	public void setUp() 
+	{
+		TestUtils.clearAssertionInformation();
+	}
+	
+	@Test
+	public void testRowMajorChunksDense() 
+	{ 
+		runBroadcastChunkingTest( 1.0, false ); 
+	}
+	
+	@Test
+	public void testRowMajorChunksSparse() 
+	{ 
+		runBroadcastChunkingTest( 0.05, false ); 
+	}
+	
+	@Test
+	public void testColMajorChunksDense() 
+	{ 
+		runBroadcastChunkingTest( 1.0, true ); 
+	}
+	
+	@Test
+	public void testColMajorChunksSparse() 
+	{ 
+		runBroadcastChunkingTest( 0.05, true ); 
+	}
+
+	/**
+	 * 
+	 * @param sparsity
+	 * @param colMajor
+	 */
+	private void runBroadcastChunkingTest( double sparsity, boolean colMajor ) 
+	{
+		SparkConf conf = new SparkConf().setMaster("local[*]").setAppName("MapMultBroadcastChunkingTest");
+		conf.set("spark.ui.enabled", "false");
+		JavaSparkContext sc = new JavaSparkContext(conf);
+		
+		try
+		{	
+			double[][] X = getRandomMatrix(rows, cols, -1.0, 1.0, sparsity, 7); 
+			MatrixBlock mb = DataConverter.convertToMatrixBlock(X);
+			int nrblks = (int)Math.ceil((double)rows/blen);
+			int ncblks = (int)Math.ceil((double)cols/blen);
+			
+			//chunks of a single row (column) stripe of blocks
+			int chunkLen = colMajor ? nrblks : ncblks;
+			PartitionedBroadcastMatrix pbm = SparkExecutionContext
+					.createPartitionedBroadcast(sc, mb, blen, blen, chunkLen, colMajor);
+			Assert.assertEquals(colMajor ? ncblks : nrblks, pbm.getNumChunks());
+			
+			//check all blocks against slices of the input
+			for( int i=1; i<=nrblks; i++ )
+				for( int j=1; j<=ncblks; j++ ) {
+					MatrixBlock tmp = mb.sliceOperations((i-1)*blen, Math.min(i*blen, rows)-1, 
+							(j-1)*blen, Math.min(j*blen, cols)-1, new MatrixBlock());
+					TestUtils.compareMatrices(DataConverter.convertToDoubleMatrix(tmp), 
+							DataConverter.convertToDoubleMatrix(pbm.getMatrixBlock(i, j)), 
+							tmp.getNumRows(), tmp.getNumColumns(), eps);
+				}
+			
+			//check slice over multiple blocks and chunks
+			MatrixBlock tmp1 = mb.sliceOperations(123, 1678, 234, 1567, new MatrixBlock());
+			MatrixBlock tmp2 = pbm.sliceOperations(124, 1679, 235, 1568, new MatrixBlock());
+			TestUtils.compareMatrices(DataConverter.convertToDoubleMatrix(tmp1), 
+					DataConverter.convertToDoubleMatrix(tmp2), tmp1.getNumRows(), tmp1.getNumColumns(), eps);
+			
+			//check number of chunks per column stripe (left mapmm) and row stripe (right mapmm)
+			for( int j=1; j<=ncblks; j++ ) {
+				HashSet<Integer> chunks = new HashSet<Integer>();
+				for( int i=1; i<=nrblks; i++ )
+					chunks.add(pbm.getChunkIndex(i, j));
+				Assert.assertEquals(colMajor ? 1 : nrblks, chunks.size());
+			}
+			for( int i=1; i<=nrblks; i++ ) {
+				HashSet<Integer> chunks = new HashSet<Integer>();
+				for( int j=1; j<=ncblks; j++ )
+					chunks.add(pbm.getChunkIndex(i, j));
+				Assert.assertEquals(colMajor ? ncblks : 1, chunks.size());
+			}
+		}
+		catch(Exception ex)
+		{
+			ex.printStackTrace();
+			throw new RuntimeException(ex);
+		}
+		finally
+		{
+			sc.stop();
+		}
+	}
+}
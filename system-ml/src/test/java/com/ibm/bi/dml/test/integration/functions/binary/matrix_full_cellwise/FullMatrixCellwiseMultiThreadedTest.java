@@ -0,0 +1,159 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.ibm.bi.dml.test.integration.functions.binary.matrix_full_cellwise;
+
+import java.util.HashMap;
+
+import org.junit.Test;
+
+import com.ibm.bi.dml.api.DMLScript.RUNTIME_PLATFORM;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixValue.CellIndex;
+import com.ibm.bi.dml.test.integration.AutomatedTestBase;
+import com.ibm.bi.dml.test.integration.TestConfiguration;
+import com.ibm.bi.dml.test.utils.TestUtils;
+
+/**
+ * Tests for the multi-threaded CP cellwise kernels, which are only applied for
+ * inputs larger than 1M cells (hence, the larger dimensions than in the other tests).
+ */
+public class FullMatrixCellwiseMultiThreadedTest extends AutomatedTestBase
+{
+
+	private final static String TEST_NAME1 = "FullMatrixCellwiseOperation_Addition";
+	private final static String TEST_NAME2 = "FullMatrixCellwiseOperation_Multiplication";
+	private final static String TEST_NAME3 = "FullMatrixVectorColCellwiseOperation_Multiplication";
+
+	private final static String TEST_DIR = "functions/binary/matrix_full_cellwise/";
+	private final static double eps = 1e-10;
+
+	private final static int rows = 1500;
+	private final static int cols = 1100;
+	private final static double sparsity1 = 0.7;
+	private final static double sparsity2 = 0.1;
+
+	@Override
+	public void setUp()
+	{
+		addTestConfiguration(TEST_NAME1,new TestConfiguration(TEST_DIR, TEST_NAME1,new String[]{"C"}));
+		addTestConfiguration(TEST_NAME2,new TestConfiguration(TEST_DIR, TEST_NAME2,new String[]{"C"}));
+		addTestConfiguration(TEST_NAME3,new TestConfiguration(TEST_DIR, TEST_NAME3,new String[]{"C"}));
+	}
+
+	@Test
+	public void testAdditionDenseDenseCP()
+	{
+		runMultiThreadedCellwiseTest(TEST_NAME1, false, false);
+	}
+
+	@Test
+	public void testAdditionSparseDenseCP()
+	{
+		runMultiThreadedCellwiseTest(TEST_NAME1, true, false);
+	}
+
+	@Test
+	public void testAdditionSparseSparseCP()
+	{
+		runMultiThreadedCellwiseTest(TEST_NAME1, true, true);
+	}
+
+	@Test
+	public void testMultiplicationDenseDenseCP()
+	{
+		runMultiThreadedCellwiseTest(TEST_NAME2, false, false);
+	}
+
+	@Test
+	public void testMultiplicationSparseDenseCP()
+	{
+		runMultiThreadedCellwiseTest(TEST_NAME2, true, false);
+	}
+
+	@Test
+	public void testMultiplicationSparseSparseCP()
+	{
+		runMultiThreadedCellwiseTest(TEST_NAME2, true, true);
+	}
+
+	@Test
+	public void testMultiplicationMVDenseCP()
+	{
+		runMultiThreadedCellwiseTest(TEST_NAME3, false, false);
+	}
+
+	@Test
+	public void testMultiplicationMVSparseCP()
+	{
+		runMultiThreadedCellwiseTest(TEST_NAME3, true, false);
+	}
+
+	/**
+	 *
+	 * @param testname
+	 * @param sparseM1
+	 * @param sparseM2
+	 */
+	private void runMultiThreadedCellwiseTest( String testname, boolean sparseM1, boolean sparseM2 )
+	{
+		RUNTIME_PLATFORM platformOld = rtplatform;
+		rtplatform = RUNTIME_PLATFORM.SINGLE_NODE;
+
+		try
+		{
+			boolean vector = testname.equals(TEST_NAME3);
+			TestConfiguration config = getTestConfiguration(testname);
+
+			String HOME = SCRIPT_DIR + TEST_DIR;
+			fullDMLScriptName = HOME + testname + ".dml";
+			programArgs = vector ?
+				new String[]{"-args", HOME + INPUT_DIR + "A",
+				                      HOME + INPUT_DIR + "B",
+				                      HOME + OUTPUT_DIR + "C" } :
+				new String[]{"-args", HOME + INPUT_DIR + "A",
+					                  Integer.toString(rows),
+					                  Integer.toString(cols),
+					                  HOME + INPUT_DIR + "B",
+					                  Integer.toString(rows),
+					                  Integer.toString(cols),
+					                  HOME + OUTPUT_DIR + "C" };
+			fullRScriptName = HOME + testname + ".R";
+			rCmd = "Rscript" + " " + fullRScriptName + " " +
+			       HOME + INPUT_DIR + " " + HOME + EXPECTED_DIR;
+
+			loadTestConfiguration(config);
+
+			//generate actual dataset
+			double[][] A = getRandomMatrix(rows, cols, 0, 1, sparseM1?sparsity2:sparsity1, 7);
+			writeInputMatrix("A", A, true);
+			double[][] B = getRandomMatrix(rows, vector?1:cols, 0, 1, sparseM2?sparsity2:sparsity1, 3);
+			writeInputMatrix("B", B, true);
+
+			runTest(true, false, null, -1);
+			runRScript(true);
+
+			//compare matrices
+			HashMap<CellIndex, Double> dmlfile = readDMLMatrixFromHDFS("C");
+			HashMap<CellIndex, Double> rfile  = readRMatrixFromFS("C");
+			TestUtils.compareMatrices(dmlfile, rfile, eps, "Stat-DML", "Stat-R");
+		}
+		finally
+		{
+			rtplatform = platformOld;
+		}
+	}
+}
@@ -0,0 +1,249 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+
+package com.ibm.bi.dml.test.integration.functions.caching;
+
+import java.io.File;
+import java.util.HashMap;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.ibm.bi.dml.api.DMLScript;
+import com.ibm.bi.dml.api.DMLScript.RUNTIME_PLATFORM;
+import com.ibm.bi.dml.runtime.DMLRuntimeException;
+import com.ibm.bi.dml.runtime.controlprogram.caching.CacheStatistics;
+import com.ibm.bi.dml.runtime.controlprogram.caching.CacheableData;
+import com.ibm.bi.dml.runtime.controlprogram.caching.PageCache;
+import com.ibm.bi.dml.runtime.matrix.data.LibMatrixReorg;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixValue.CellIndex;
+import com.ibm.bi.dml.runtime.util.DataConverter;
+import com.ibm.bi.dml.test.integration.AutomatedTestBase;
+import com.ibm.bi.dml.test.integration.TestConfiguration;
+import com.ibm.bi.dml.test.utils.TestUtils;
+
+/**
+ * Tests for the pooling of dense arrays, i.e., the recycling of dense blocks 
+ * of removed variables (rmvar), the statistics of pool hits and misses, and the
+ * disabled shallow vector transpose and rowwise reshape if pooling is enabled.
+ *
+ */
+public class ArrayPoolTest extends AutomatedTestBase 
+{
+	private final static String TEST_NAME = "arraypool_recycle";
+	private final static String TEST_DIR = "functions/caching/";
+	private final static double eps = 1e-8;
+
+	private final static int rows = 400;
+	private final static int cols = 300; //>64K cells
+	private final static int iters = 10;
+	
+	@Override
+	public void setUp() 
+	{
+		addTestConfiguration(TEST_NAME, new TestConfiguration(TEST_DIR, TEST_NAME, new String[] { "R" }) ); 
+	}
+	
+	@Test
+	public void testArrayPoolRecycle() 
+	{
+		runArrayPoolTest( true );
+	}
+	
+	@Test
+	public void testArrayPoolDisabled() 
+	{
+		runArrayPoolTest( false );
+	}
+	
+	@Test
+	public void testArrayPoolStatistics() 
+	{
+		boolean statsOld = DMLScript.STATISTICS;
+		PageCache.initArrayPool();
+		
+		try
+		{
+			double[] a = new double[PageCache.ARRAY_MIN_SIZE];
+			
+			//no statistics maintenance if disabled
+			DMLScript.STATISTICS = false;
+			CacheStatistics.reset();
+			PageCache.putDoubleArray(a);
+			Assert.assertTrue(a == PageCache.getDoubleArray(a.length));
+			Assert.assertNull(PageCache.getDoubleArray(a.length));
+			Assert.assertEquals(0, CacheStatistics.getArrayPoolHits());
+			Assert.assertEquals(0, CacheStatistics.getArrayPoolMisses());
+			
+			//statistics maintenance if enabled
+			DMLScript.STATISTICS = true;
+			PageCache.putDoubleArray(a);
+			Assert.assertTrue(a == PageCache.getDoubleArray(a.length));
+			Assert.assertNull(PageCache.getDoubleArray(a.length));
+			Assert.assertEquals(1, CacheStatistics.getArrayPoolHits());
+			Assert.assertEquals(1, CacheStatistics.getArrayPoolMisses());
+			
+			//no pooling of small arrays
+			PageCache.putDoubleArray(new double[PageCache.ARRAY_MIN_SIZE-1]);
+			Assert.assertNull(PageCache.getDoubleArray(PageCache.ARRAY_MIN_SIZE-1));
+		}
+		finally
+		{
+			DMLScript.STATISTICS = statsOld;
+			PageCache.clearArrayPool();
+		}
+	}
+	
+	@Test
+	public void testVectorTransposeWithArrayPool() 
+		throws DMLRuntimeException 
+	{
+		runShallowReorgTest( true, true );
+	}
+	
+	@Test
+	public void testVectorTransposeWithoutArrayPool() 
+		throws DMLRuntimeException 
+	{
+		runShallowReorgTest( true, false );
+	}
+	
+	@Test
+	public void testRowwiseReshapeWithArrayPool() 
+		throws DMLRuntimeException 
+	{
+		runShallowReorgTest( false, true );
+	}
+	
+	@Test
+	public void testRowwiseReshapeWithoutArrayPool() 
+		throws DMLRuntimeException 
+	{
+		runShallowReorgTest( false, false );
+	}
+
+	/**
+	 * 
+	 * @param pool
+	 */
+	private void runArrayPoolTest( boolean pool )
+	{
+		RUNTIME_PLATFORM platformOld = rtplatform;
+		
+		TestConfiguration config = getTestConfiguration(TEST_NAME);
+		config.addVariable("rows", rows);
+		config.addVariable("cols", cols);
+		
+		try
+		{
+			rtplatform = RUNTIME_PLATFORM.SINGLE_NODE;
+			
+			String HOME = SCRIPT_DIR + TEST_DIR;
+			fullDMLScriptName = HOME + TEST_NAME + ".dml";
+			programArgs = new String[]{"-stats", "-args", HOME + INPUT_DIR + "X", 
+					Integer.toString(iters), HOME + OUTPUT_DIR + "R" };
+			fullRScriptName = HOME + TEST_NAME + ".R";
+			rCmd = "Rscript" + " " + fullRScriptName + " " + 
+			       HOME + INPUT_DIR + " " + Integer.toString(iters) + " " + HOME + EXPECTED_DIR;
+			
+			loadTestConfiguration(config);
+			
+			//enable pooling of dense arrays
+			if( pool ) {
+				File conf = getCurConfigFile();
+				String confContents = FileUtils.readFileToString(conf, "UTF-8");
+				FileUtils.write(conf, confContents.replace(
+					"<cp.caching.arraypool>false</cp.caching.arraypool>", 
+					"<cp.caching.arraypool>true</cp.caching.arraypool>"), "UTF-8");
+			}
+			
+			double[][] X = getRandomMatrix(rows, cols, 0, 1, 1.0, 7);
+			writeInputMatrix("X", X, true);
+			
+			CacheStatistics.reset();
+			runTest(true, false, null, -1); 
+			runRScript(true); 
+			
+			//compare matrices (no recycling of referenced arrays)
+			HashMap<CellIndex, Double> dmlfile = readDMLMatrixFromHDFS("R");
+			HashMap<CellIndex, Double> rfile  = readRMatrixFromFS("R");
+			TestUtils.compareMatrices(dmlfile, rfile, eps, "DML", "R");
+			
+			//check for recycled dense blocks of removed variables
+			if( pool )
+				Assert.assertTrue("No recycled dense arrays.", 
+						CacheStatistics.getArrayPoolHits() > 0);
+			else
+				Assert.assertEquals(0, CacheStatistics.getArrayPoolHits()
+						+ CacheStatistics.getArrayPoolMisses());
+		}
+		catch(Exception ex)
+		{
+			throw new RuntimeException(ex);
+		}
+		finally
+		{
+			rtplatform = platformOld;
+			CacheableData.CACHING_ARRAY_POOL = false;
+			PageCache.clearArrayPool();
+		}
+	}
+	
+	/**
+	 * 
+	 * @param transpose
+	 * @param pool
+	 * @throws DMLRuntimeException
+	 */
+	private void runShallowReorgTest( boolean transpose, boolean pool ) 
+		throws DMLRuntimeException
+	{
+		boolean poolOld = CacheableData.CACHING_ARRAY_POOL;
+		CacheableData.CACHING_ARRAY_POOL = pool;
+		
+		try
+		{
+			//dense column vector or matrix
+			double[][] A = getRandomMatrix(transpose ? rows*cols : rows, 
+					transpose ? 1 : cols, 0, 1, 1.0, 7);
+			MatrixBlock in = DataConverter.convertToMatrixBlock(A);
+			MatrixBlock out = transpose ?
+				new MatrixBlock(in.getNumColumns(), in.getNumRows(), false) :
+				new MatrixBlock(cols, rows, false);
+			if( transpose )
+				LibMatrixReorg.transpose(in, out);
+			else
+				LibMatrixReorg.reshape(in, out, cols, rows, true);
+			
+			//shared dense array only w/o pooling (otherwise it might be recycled)
+			Assert.assertEquals(!pool, in.getDenseArray() == out.getDenseArray());
+			Assert.assertEquals(in.getNonZeros(), out.getNonZeros());
+			
+			//equal linearized content
+			double[] a = in.getDenseArray();
+			double[] c = out.getDenseArray();
+			for( int i=0; i<a.length; i++ )
+				Assert.assertEquals(a[i], c[i], 0);
+		}
+		finally
+		{
+			CacheableData.CACHING_ARRAY_POOL = poolOld;
+		}
+	}
+}
@@ -0,0 +1,549 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.ibm.bi.dml.test.integration.functions.caching;
+
+import java.io.DataOutput;
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.ibm.bi.dml.api.DMLScript;
+import com.ibm.bi.dml.parser.Expression.ValueType;
+import com.ibm.bi.dml.runtime.controlprogram.caching.ByteBuffer;
+import com.ibm.bi.dml.runtime.controlprogram.caching.CacheStatistics;
+import com.ibm.bi.dml.runtime.controlprogram.caching.CacheableData;
+import com.ibm.bi.dml.runtime.controlprogram.caching.LazyWriteBuffer;
+import com.ibm.bi.dml.runtime.controlprogram.caching.LazyWriteBuffer.RPolicy;
+import com.ibm.bi.dml.runtime.controlprogram.caching.MatrixObject;
+import com.ibm.bi.dml.runtime.matrix.MatrixCharacteristics;
+import com.ibm.bi.dml.runtime.matrix.MatrixFormatMetaData;
+import com.ibm.bi.dml.runtime.matrix.data.InputInfo;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
+import com.ibm.bi.dml.runtime.matrix.data.OutputInfo;
+import com.ibm.bi.dml.runtime.util.DataConverter;
+import com.ibm.bi.dml.runtime.util.LocalFileUtils;
+import com.ibm.bi.dml.test.integration.AutomatedTestBase;
+import com.ibm.bi.dml.test.utils.TestUtils;
+
+/**
+ * Tests the write buffer with a small buffer size, i.e., the victim order of the
+ * eviction policies within a stripe (incl dead before live entries for cost-based 
+ * eviction), the per-policy statistics of buffer and local FS hits, asynchronous cache 
+ * IO (reads, deletes, and rewrites of pending evictions, failed evictions, and prefetch 
+ * hits), as well as compressed buffer entries and eviction files (incl config changes 
+ * before restore).
+ *
+ */
+public class LazyWriteBufferTest extends AutomatedTestBase
+{
+	private final static String TEST_DIR = "functions/caching/";
+	private final static double eps = 1e-10;
+
+	private final static int rows = 100;
+	private final static int cols = 100;
+	private final static double sparsity = 0.7;
+	private final static long timeout = 60; //in seconds
+
+	private String _dir = null;
+	private MatrixBlock _mb = null;
+	private HashMap<String, String> _fnames = null;
+	private RPolicy _policyOld = null;
+	private boolean _statsOld = false;
+	private boolean _asyncOld = false;
+	private boolean _compressOld = false;
+
+	@Override
+	public void setUp()
+	{
+		TestUtils.clearAssertionInformation();
+
+		//clean test directory for evicted matrices
+		_dir = SCRIPT_DIR + TEST_DIR + OUTPUT_DIR + "buffer/";
+		LocalFileUtils.deleteFileIfExists(_dir);
+		new File(_dir).mkdirs();
+		_fnames = new HashMap<String, String>();
+
+		_mb = DataConverter.convertToMatrixBlock(
+				getRandomMatrix(rows, cols, -1, 1, sparsity, 7));
+		_policyOld = CacheableData.CACHING_BUFFER_POLICY;
+		_statsOld = DMLScript.STATISTICS;
+		_asyncOld = CacheableData.CACHING_ASYNC_IO;
+		_compressOld = CacheableData.CACHING_BUFFER_COMPRESS;
+		DMLScript.STATISTICS = true;
+		CacheStatistics.reset();
+	}
+
+	@After
+	@Override
+	public void tearDown()
+	{
+		LazyWriteBuffer.cleanup();
+		LazyWriteBuffer.setWriteBufferLimit(LazyWriteBuffer.getWriteBufferSize());
+		CacheableData.CACHING_BUFFER_POLICY = _policyOld;
+		CacheableData.CACHING_ASYNC_IO = _asyncOld;
+		CacheableData.CACHING_BUFFER_COMPRESS = _compressOld;
+		DMLScript.STATISTICS = _statsOld;
+		super.tearDown();
+	}
+
+	@Test
+	public void testCostEvictionDeadBeforeLive()
+		throws IOException
+	{
+		initWriteBuffer(RPolicy.COST, 3.5);
+		write("A", true);
+		write("B", false);
+		write("C", true);
+		assertEvicted();
+
+		//dead entry evicted before older live entries
+		write("D", false);
+		assertEvicted("B");
+		write("E", true);
+		assertEvicted("B", "D");
+
+		//oldest entry evicted if all entries are live
+		write("F", true);
+		assertEvicted("A", "B", "D");
+
+		//per-policy statistics of buffer and FS hits
+		read("A");
+		read("C");
+		Assert.assertEquals(1, CacheStatistics.getPolicyHits(RPolicy.COST));
+		Assert.assertEquals(1, CacheStatistics.getPolicyMisses(RPolicy.COST));
+		Assert.assertEquals(0, CacheStatistics.getPolicyHits(RPolicy.FIFO));
+	}
+
+	@Test
+	public void testCostEvictionResetLiveHint()
+		throws IOException
+	{
+		initWriteBuffer(RPolicy.COST, 3.5);
+		write("A", true);
+		write("B", true);
+		write("C", true);
+
+		//reset hint of buffered entry (e.g., no longer live-out)
+		LazyWriteBuffer.setLiveHint(fname("C"), false);
+		write("D", true);
+		assertEvicted("C");
+	}
+
+	@Test
+	public void testFifoEvictionIgnoresLiveness()
+		throws IOException
+	{
+		initWriteBuffer(RPolicy.FIFO, 3.5);
+		write("A", true);
+		write("B", false);
+		write("C", true);
+
+		//oldest entry evicted, independent of liveness
+		write("D", false);
+		assertEvicted("A");
+
+		read("A");
+		read("D");
+		Assert.assertEquals(1, CacheStatistics.getPolicyHits(RPolicy.FIFO));
+		Assert.assertEquals(1, CacheStatistics.getPolicyMisses(RPolicy.FIFO));
+		Assert.assertEquals(0, CacheStatistics.getPolicyHits(RPolicy.COST));
+	}
+
+	@Test
+	public void testAsyncEvictionPending()
+		throws Exception
+	{
+		CacheableData.CACHING_ASYNC_IO = true;
+		initWriteBuffer(RPolicy.FIFO, 6.5); //max pending: 3.25 entries
+		ExecutorService pool = Executors.newSingleThreadExecutor();
+		
+		//first victim blocks the background writer until released
+		BlockingMatrixBlock mbA = new BlockingMatrixBlock(_mb);
+		final MatrixBlock mbC = DataConverter.convertToMatrixBlock(
+				getRandomMatrix(rows, cols, -1, 1, sparsity, 8));
+		
+		try
+		{
+			LazyWriteBuffer.writeMatrix(fname("A"), mbA, false);
+			for( String name : new String[]{"B","C","D","E","F"} )
+				write(name, false);
+			
+			//async eviction of A (running), read-back from memory while pending
+			write("G", false);
+			read("A");
+			Assert.assertEquals(1, CacheStatistics.getFSBuffHits());
+			Assert.assertEquals(0, CacheStatistics.getFSHits());
+			
+			//async evictions of B and C (queued), delete B while pending
+			write("H", false);
+			write("I", false);
+			LazyWriteBuffer.deleteMatrix(fname("B"));
+			
+			//rewrite C while pending, which blocks on the eviction of D
+			//because the max size of pending evictions is exceeded
+			Future<Void> rt = pool.submit(new Callable<Void>() {
+				@Override
+				public Void call() throws Exception {
+					LazyWriteBuffer.writeMatrix(fname("C"), mbC, false);
+					return null;
+				}
+			});
+			try {
+				rt.get(100, TimeUnit.MILLISECONDS);
+				Assert.fail("Rewrite not blocked by pending evictions.");
+			}
+			catch(TimeoutException ex) {
+				//expected back pressure
+			}
+			
+			//release background writer and wait for all pending evictions
+			mbA.release();
+			rt.get(timeout, TimeUnit.SECONDS);
+			waitForPendingEvictions();
+			
+			//cancelled evictions of deleted and rewritten entries not written
+			assertEvicted("A", "D");
+			Assert.assertEquals(2, CacheStatistics.getAsyncWrites());
+			read("A");
+			MatrixBlock ret = LazyWriteBuffer.readMatrix(fname("C"));
+			TestUtils.compareMatrices(DataConverter.convertToDoubleMatrix(mbC),
+				DataConverter.convertToDoubleMatrix(ret), rows, cols, eps);
+			Assert.assertEquals(1, CacheStatistics.getFSHits());
+		}
+		finally
+		{
+			mbA.release();
+			pool.shutdownNow();
+		}
+	}
+	
+	@Test
+	public void testAsyncEvictionFailure()
+		throws Exception
+	{
+		CacheableData.CACHING_ASYNC_IO = true;
+		initWriteBuffer(RPolicy.FIFO, 3.5);
+		
+		//first victim fails on its first write
+		FailingMatrixBlock mbA = new FailingMatrixBlock(_mb);
+		LazyWriteBuffer.writeMatrix(fname("A"), mbA, false);
+		write("B", false);
+		write("C", false);
+		
+		//failed async eviction of A, requeued and readable from memory
+		write("D", false);
+		waitForPendingEvictions();
+		Assert.assertTrue(mbA.hasFailed());
+		assertEvicted();
+		read("A");
+		Assert.assertEquals(1, CacheStatistics.getFSBuffHits());
+		
+		//async evictions of B, C, D, and synchronous eviction of A
+		for( String name : new String[]{"E","F","G"} )
+			write(name, false);
+		waitForPendingEvictions();
+		assertEvicted("A", "B", "C", "D");
+		Assert.assertEquals(3, CacheStatistics.getAsyncWrites());
+		read("A");
+		Assert.assertEquals(1, CacheStatistics.getFSHits());
+	}
+	
+	@Test
+	public void testAsyncPrefetchHit()
+		throws Exception
+	{
+		CacheableData.CACHING_ASYNC_IO = true;
+		boolean cachingOld = CacheableData.isCachingActive();
+		String pathOld = CacheableData.cacheEvictionLocalFilePath;
+		CacheableData.enableCaching();
+		CacheableData.cacheEvictionLocalFilePath = _dir;
+		
+		try
+		{
+			initWriteBuffer(RPolicy.FIFO, 3.5);
+			
+			//evict matrix object into write buffer
+			MatrixCharacteristics mc = new MatrixCharacteristics(rows, cols, 1000, 1000);
+			MatrixFormatMetaData meta = new MatrixFormatMetaData(mc,
+					OutputInfo.BinaryBlockOutputInfo, InputInfo.BinaryBlockInputInfo);
+			MatrixObject mo = new MatrixObject(ValueType.DOUBLE, _dir+"X", meta);
+			mo.acquireModify(new MatrixBlock(_mb));
+			mo.release();
+			Assert.assertEquals(1, CacheStatistics.getFSBuffWrites());
+			Assert.assertFalse(mo.isPrefetchable());
+			
+			//async restore after garbage collection of the in-memory cache
+			mo.clearSoftReferenceCache();
+			Assert.assertTrue(mo.isPrefetchable());
+			LazyWriteBuffer.prefetchMatrix(mo);
+			long t0 = System.currentTimeMillis();
+			while( CacheStatistics.getPrefetches() < 1 ) {
+				Assert.assertTrue("Prefetch timeout.", System.currentTimeMillis()-t0 < timeout*1000);
+				Thread.sleep(10);
+			}
+			Assert.assertEquals(1, CacheStatistics.getFSBuffHits());
+			Assert.assertFalse(mo.isPrefetchable());
+			
+			//acquire read obtains the prefetched matrix from memory
+			MatrixBlock ret = mo.acquireRead();
+			mo.release();
+			TestUtils.compareMatrices(DataConverter.convertToDoubleMatrix(_mb),
+				DataConverter.convertToDoubleMatrix(ret), rows, cols, eps);
+			Assert.assertEquals(1, CacheStatistics.getMemHits());
+			Assert.assertEquals(1, CacheStatistics.getFSBuffHits());
+			Assert.assertEquals(0, CacheStatistics.getFSHits());
+		}
+		finally
+		{
+			CacheableData.cacheEvictionLocalFilePath = pathOld;
+			if( !cachingOld )
+				CacheableData.disableCaching();
+		}
+	}
+	
+	@Test
+	public void testCompressedEvictionRoundTrip()
+		throws IOException
+	{
+		CacheableData.CACHING_BUFFER_COMPRESS = true;
+		initWriteBuffer(RPolicy.FIFO, 2.5);
+		
+		//write compressed entries until the first entry is evicted
+		int n = 0;
+		while( !new File(fname("E0")).exists() ) {
+			Assert.assertTrue("No eviction of compressed entries.", n < 1000);
+			write("E"+(n++), false);
+		}
+		Assert.assertTrue(new File(fname("E0")).length() < _mb.getExactSizeOnDisk());
+		
+		//read with changed config from local FS and buffer
+		CacheableData.CACHING_BUFFER_COMPRESS = false;
+		read("E0");
+		read("E"+(n-1));
+		Assert.assertEquals(1, CacheStatistics.getFSHits());
+		Assert.assertEquals(1, CacheStatistics.getFSBuffHits());
+	}
+	
+	@Test
+	public void testCompressedDirectWriteConfigChange()
+		throws IOException
+	{
+		//buffer smaller than entries (direct writes to local FS)
+		initWriteBuffer(RPolicy.FIFO, 0.5);
+		CacheableData.CACHING_BUFFER_COMPRESS = true;
+		write("A", false);
+		CacheableData.CACHING_BUFFER_COMPRESS = false;
+		write("B", false);
+		assertEvicted("A", "B");
+		Assert.assertTrue(new File(fname("A")).length() < new File(fname("B")).length());
+		
+		//read according to the format of the file, not the current config
+		read("A");
+		read("B");
+		CacheableData.CACHING_BUFFER_COMPRESS = true;
+		read("A");
+		read("B");
+		Assert.assertEquals(4, CacheStatistics.getFSHits());
+		
+		//rewrite w/o compression replaces the compressed file
+		CacheableData.CACHING_BUFFER_COMPRESS = false;
+		write("A", false);
+		CacheableData.CACHING_BUFFER_COMPRESS = true;
+		read("A");
+	}
+	
+	@Test
+	public void testCompressedMaxSize()
+	{
+		CacheableData.CACHING_BUFFER_COMPRESS = true;
+		long maxSize = CacheableData.CACHING_BUFFER_COMPRESS_MAXSIZE;
+		Assert.assertTrue(ByteBuffer.isCompressible(maxSize));
+		Assert.assertFalse(ByteBuffer.isCompressible(maxSize+1));
+		
+		//large dense blocks buffered uncompressed (shallow serialized)
+		Assert.assertTrue(ByteBuffer.isValidCapacity(4*maxSize, _mb));
+		
+		CacheableData.CACHING_BUFFER_COMPRESS = false;
+		Assert.assertFalse(ByteBuffer.isCompressible(maxSize));
+	}
+	
+	/**
+	 * Initializes the write buffer with the given policy and a buffer
+	 * size of the given number of test matrices.
+	 *
+	 * @param policy
+	 * @param numEntries
+	 */
+	private void initWriteBuffer( RPolicy policy, double numEntries )
+	{
+		CacheableData.CACHING_BUFFER_POLICY = policy;
+		LazyWriteBuffer.init();
+		LazyWriteBuffer.setWriteBufferLimit((long)(numEntries * _mb.getExactSizeOnDisk()));
+	}
+
+	/**
+	 *
+	 * @param name
+	 * @param live
+	 * @throws IOException
+	 */
+	private void write( String name, boolean live )
+		throws IOException
+	{
+		LazyWriteBuffer.writeMatrix(fname(name), _mb, live);
+	}
+
+	/**
+	 *
+	 * @param name
+	 * @throws IOException
+	 */
+	private void read( String name )
+		throws IOException
+	{
+		MatrixBlock ret = LazyWriteBuffer.readMatrix(fname(name));
+		Assert.assertEquals(_mb.getNonZeros(), ret.getNonZeros());
+		TestUtils.compareMatrices(DataConverter.convertToDoubleMatrix(_mb),
+			DataConverter.convertToDoubleMatrix(ret), rows, cols, eps);
+	}
+
+	/**
+	 * Waits until all pending async evictions have been processed.
+	 * 
+	 * @throws InterruptedException
+	 */
+	private static void waitForPendingEvictions()
+		throws InterruptedException
+	{
+		long t0 = System.currentTimeMillis();
+		while( LazyWriteBuffer.getPendingEvictionSize() > 0 ) {
+			Assert.assertTrue("Pending evictions timeout.", System.currentTimeMillis()-t0 < timeout*1000);
+			Thread.sleep(10);
+		}
+	}
+	
+	/**
+	 * Obtains the file name of the given entry, where all entries are placed
+	 * into the same stripe of the write buffer because the eviction order is 
+	 * only maintained per stripe.
+	 * 
+	 * @param name
+	 * @return
+	 */
+	private String fname( String name )
+	{
+		String ret = _fnames.get(name);
+		if( ret == null ) {
+			int ix = LazyWriteBuffer.getStripeIndex(_dir+"A");
+			for( int i=0; ret==null; i++ )
+				if( LazyWriteBuffer.getStripeIndex(_dir+name+i) == ix )
+					ret = _dir+name+i;
+			_fnames.put(name, ret);
+		}
+		return ret;
+	}
+	
+	/**
+	 * Checks that exactly the given entries have been evicted to local FS.
+	 *
+	 * @param names
+	 */
+	private void assertEvicted( String... names )
+	{
+		String[] files = new File(_dir).list();
+		Assert.assertEquals(names.length, files.length);
+		for( String name : names )
+			Assert.assertTrue("Entry "+name+" not evicted.", new File(fname(name)).exists());
+	}
+	
+	/**
+	 * Matrix block whose serialization blocks until released, which
+	 * keeps the async eviction of this block and all subsequent evictions
+	 * pending in the background writer.
+	 */
+	private static class BlockingMatrixBlock extends MatrixBlock
+	{
+		private static final long serialVersionUID = 3408611473520982215L;
+		
+		private final transient CountDownLatch _latch = new CountDownLatch(1);
+		
+		public BlockingMatrixBlock( MatrixBlock that ) {
+			copy(that);
+		}
+		
+		public void release() {
+			_latch.countDown();
+		}
+		
+		@Override
+		public void write(DataOutput out) 
+			throws IOException 
+		{
+			try {
+				_latch.await();
+			}
+			catch(InterruptedException ex) {
+				throw new IOException(ex);
+			}
+			super.write(out);
+		}
+	}
+	
+	/**
+	 * Matrix block whose first serialization fails, e.g., to 
+	 * simulate a transient failure of an async eviction.
+	 */
+	private static class FailingMatrixBlock extends MatrixBlock
+	{
+		private static final long serialVersionUID = -2957414397375532806L;
+		
+		private transient boolean _failed = false;
+		
+		public FailingMatrixBlock( MatrixBlock that ) {
+			copy(that);
+		}
+		
+		public synchronized boolean hasFailed() {
+			return _failed;
+		}
+		
+		@Override
+		public void write(DataOutput out) 
+			throws IOException 
+		{
+			synchronized( this ) {
+				if( !_failed ) {
+					_failed = true;
+					throw new IOException("Injected write failure.");
+				}
+			}
+			super.write(out);
+		}
+	}
+}
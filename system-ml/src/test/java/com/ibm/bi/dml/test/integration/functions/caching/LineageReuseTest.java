@@ -0,0 +1,170 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+
+package com.ibm.bi.dml.test.integration.functions.caching;
+
+import java.io.File;
+import java.util.HashMap;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.ibm.bi.dml.api.DMLScript.RUNTIME_PLATFORM;
+import com.ibm.bi.dml.runtime.controlprogram.caching.CacheStatistics;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixValue.CellIndex;
+import com.ibm.bi.dml.test.integration.AutomatedTestBase;
+import com.ibm.bi.dml.test.integration.TestConfiguration;
+import com.ibm.bi.dml.test.utils.TestUtils;
+
+/**
+ * Tests for the runtime reuse of intermediates across loop iterations (lineage cache),
+ * including persistent reads of files that are overwritten within the loop and 
+ * the reuse of dense, sparse, and ultra-sparse outputs.
+ *
+ */
+public class LineageReuseTest extends AutomatedTestBase 
+{
+	private final static String TEST_NAME1 = "reuse_loop";
+	private final static String TEST_NAME2 = "reuse_readwrite";
+	private final static String TEST_NAME3 = "reuse_sparse";
+	private final static String TEST_DIR = "functions/caching/";
+	private final static double eps = 1e-8;
+
+	private final static int rows = 700;
+	private final static int cols = 50;
+	private final static int iters = 10;
+	
+	private final static double sparsity1 = 0.9;
+	private final static double sparsity2 = 0.1;
+	private final static double sparsity3 = 0.001;
+	
+	@Override
+	public void setUp() 
+	{
+		addTestConfiguration(TEST_NAME1, new TestConfiguration(TEST_DIR, TEST_NAME1, new String[] { "R" }) ); 
+		addTestConfiguration(TEST_NAME2, new TestConfiguration(TEST_DIR, TEST_NAME2, new String[] { "R" }) ); 
+		addTestConfiguration(TEST_NAME3, new TestConfiguration(TEST_DIR, TEST_NAME3, new String[] { "R" }) ); 
+	}
+	
+	@Test
+	public void testReuseLoopDense() 
+	{
+		runLineageReuseTest( TEST_NAME1, sparsity1 );
+	}
+	
+	@Test
+	public void testReuseLoopSparse() 
+	{
+		runLineageReuseTest( TEST_NAME1, sparsity2 );
+	}
+	
+	@Test
+	public void testReuseReadAfterWriteDense() 
+	{
+		runLineageReuseTest( TEST_NAME2, sparsity1 );
+	}
+	
+	@Test
+	public void testReuseReadAfterWriteSparse() 
+	{
+		runLineageReuseTest( TEST_NAME2, sparsity2 );
+	}
+	
+	@Test
+	public void testReuseOutputDense() 
+	{
+		runLineageReuseTest( TEST_NAME3, sparsity1 );
+	}
+	
+	@Test
+	public void testReuseOutputSparse() 
+	{
+		runLineageReuseTest( TEST_NAME3, sparsity2 );
+	}
+	
+	@Test
+	public void testReuseOutputUltraSparse() 
+	{
+		runLineageReuseTest( TEST_NAME3, sparsity3 );
+	}
+
+	/**
+	 * 
+	 * @param testname
+	 * @param sparsity
+	 */
+	private void runLineageReuseTest( String testname, double sparsity )
+	{
+		RUNTIME_PLATFORM platformOld = rtplatform;
+		
+		TestConfiguration config = getTestConfiguration(testname);
+		config.addVariable("rows", rows);
+		config.addVariable("cols", cols);
+		
+		try
+		{
+			rtplatform = RUNTIME_PLATFORM.SINGLE_NODE;
+			
+			String HOME = SCRIPT_DIR + TEST_DIR;
+			fullDMLScriptName = HOME + testname + ".dml";
+			if( testname.equals(TEST_NAME2) )
+				programArgs = new String[]{"-stats", "-args", HOME + INPUT_DIR + "X", 
+						Integer.toString(iters), HOME + OUTPUT_DIR + "W", HOME + OUTPUT_DIR + "R" };
+			else
+				programArgs = new String[]{"-stats", "-args", HOME + INPUT_DIR + "X", 
+						Integer.toString(iters), HOME + OUTPUT_DIR + "R" };
+			fullRScriptName = HOME + testname + ".R";
+			rCmd = "Rscript" + " " + fullRScriptName + " " + 
+			       HOME + INPUT_DIR + " " + Integer.toString(iters) + " " + HOME + EXPECTED_DIR;
+			
+			loadTestConfiguration(config);
+			
+			//enable runtime reuse of intermediates
+			File conf = getCurConfigFile();
+			String confContents = FileUtils.readFileToString(conf, "UTF-8");
+			FileUtils.write(conf, confContents.replace(
+				"<cp.caching.reuse>false</cp.caching.reuse>", 
+				"<cp.caching.reuse>true</cp.caching.reuse>"), "UTF-8");
+			
+			double[][] X = getRandomMatrix(rows, cols, 0, 1, sparsity, 7);
+			writeInputMatrix("X", X, true);
+			
+			CacheStatistics.reset();
+			runTest(true, false, null, -1); 
+			runRScript(true); 
+			
+			//compare matrices (no stale reuse)
+			HashMap<CellIndex, Double> dmlfile = readDMLMatrixFromHDFS("R");
+			HashMap<CellIndex, Double> rfile  = readRMatrixFromFS("R");
+			TestUtils.compareMatrices(dmlfile, rfile, eps, "DML", "R");
+			
+			//check for reuse of loop-invariant intermediates
+			if( !testname.equals(TEST_NAME2) )
+				Assert.assertTrue("No reuse of loop-invariant intermediates.", 
+						CacheStatistics.getReuseHits() > 0);
+		}
+		catch(Exception ex)
+		{
+			throw new RuntimeException(ex);
+		}
+		finally
+		{
+			rtplatform = platformOld;
+		}
+	}
+}
@@ -0,0 +1,291 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+
+package com.ibm.bi.dml.test.integration.functions.caching;
+
+import java.io.DataOutput;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.ibm.bi.dml.runtime.controlprogram.caching.CacheDataOutput;
+import com.ibm.bi.dml.runtime.controlprogram.caching.CacheableData;
+import com.ibm.bi.dml.runtime.controlprogram.caching.MappedSpillStore;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
+import com.ibm.bi.dml.runtime.util.DataConverter;
+import com.ibm.bi.dml.runtime.util.LocalFileUtils;
+import com.ibm.bi.dml.test.integration.AutomatedTestBase;
+import com.ibm.bi.dml.test.utils.TestUtils;
+
+/**
+ * Tests the memory-mapped spill store for evicted matrices, i.e., round trips of
+ * dense, sparse, and serialized blocks, and the release of allocated regions and 
+ * segments on delete, overwrite, failed writes, and concurrent reads.
+ * 
+ */
+public class MappedSpillStoreTest extends AutomatedTestBase 
+{
+	private final static String TEST_DIR = "functions/caching/";
+	private final static double eps = 1e-10;
+	
+	private final static int rows = 1000;
+	private final static int cols = 1000; //8MB dense
+	private final static double spSparse = 0.05;
+	private final static double spDense = 0.7;
+	
+	private String _pathOld = null;
+	
+	@Override
+	public void setUp() 
+	{
+		TestUtils.clearAssertionInformation();
+		
+		//redirect spill store to clean test directory
+		_pathOld = CacheableData.cacheEvictionLocalFilePath;
+		String dir = SCRIPT_DIR + TEST_DIR + OUTPUT_DIR + "spill/";
+		LocalFileUtils.deleteFileIfExists(dir);
+		new File(dir).mkdirs();
+		CacheableData.cacheEvictionLocalFilePath = dir;
+		MappedSpillStore.init();
+	}
+	
+	@After
+	@Override
+	public void tearDown() 
+	{
+		MappedSpillStore.cleanup();
+		CacheableData.cacheEvictionLocalFilePath = _pathOld;
+		super.tearDown();
+	}
+
+	@Test
+	public void testSpillStoreDense() throws IOException {
+		runSpillStoreRoundTripTest(false, false);
+	}
+	
+	@Test
+	public void testSpillStoreSparse() throws IOException {
+		runSpillStoreRoundTripTest(true, false);
+	}
+	
+	@Test
+	public void testSpillStoreSerializedDense() throws IOException {
+		runSpillStoreRoundTripTest(false, true);
+	}
+	
+	@Test
+	public void testSpillStoreSerializedSparse() throws IOException {
+		runSpillStoreRoundTripTest(true, true);
+	}
+	
+	@Test
+	public void testSpillStoreOverwrite() 
+		throws IOException 
+	{
+		MatrixBlock mb1 = createMatrixBlock(false, 7);
+		MatrixBlock mb2 = createMatrixBlock(true, 8);
+		MappedSpillStore.writeMatrix("X", mb1);
+		MappedSpillStore.writeMatrix("X", mb2);
+		
+		//only the latest version is allocated
+		Assert.assertEquals(mb2.getExactSizeOnDisk(), MappedSpillStore.getAllocatedSize());
+		compareMatrixBlocks(mb2, MappedSpillStore.readMatrix("X"));
+		
+		Assert.assertTrue(MappedSpillStore.deleteMatrix("X"));
+		Assert.assertEquals(0, MappedSpillStore.getAllocatedSize());
+	}
+	
+	@Test
+	public void testSpillStoreReleaseOnFailedWrite() 
+		throws IOException 
+	{
+		MatrixBlock mb = createMatrixBlock(false, 7);
+		MappedSpillStore.writeMatrix("X", mb);
+		long size = MappedSpillStore.getAllocatedSize();
+		
+		//write failure during serialization
+		MatrixBlock mbFail = new FailingMatrixBlock(createMatrixBlock(true, 8));
+		try {
+			MappedSpillStore.writeMatrix("Y", mbFail);
+			Assert.fail("Expected IOException on failed write.");
+		}
+		catch(IOException ex) {
+			//expected
+		}
+		
+		//allocation of failed write released, existing entries untouched
+		Assert.assertFalse(MappedSpillStore.contains("Y"));
+		Assert.assertEquals(size, MappedSpillStore.getAllocatedSize());
+		compareMatrixBlocks(mb, MappedSpillStore.readMatrix("X"));
+		
+		MappedSpillStore.deleteMatrix("X");
+		Assert.assertEquals(0, MappedSpillStore.getAllocatedSize());
+	}
+	
+	@Test
+	public void testSpillStoreSegmentReclaim() 
+		throws IOException 
+	{
+		//write more than a segment (256MB) of dense blocks, delete all of them
+		int num = 36; //288MB
+		MatrixBlock mb = createMatrixBlock(false, 7);
+		for( int i=0; i<num; i++ )
+			MappedSpillStore.writeMatrix("X"+i, mb);
+		Assert.assertTrue(MappedSpillStore.getNumSegments() > 1);
+		
+		for( int i=0; i<num; i++ ) {
+			compareMatrixBlocks(mb, MappedSpillStore.readMatrix("X"+i));
+			Assert.assertTrue(MappedSpillStore.deleteMatrix("X"+i));
+		}
+		
+		//all sealed segments deleted, active segment kept for reuse
+		Assert.assertEquals(0, MappedSpillStore.getAllocatedSize());
+		Assert.assertEquals(1, MappedSpillStore.getNumSegments());
+		Assert.assertEquals(1, new File(CacheableData.cacheEvictionLocalFilePath).list().length);
+		
+		//reuse of active segment
+		MappedSpillStore.writeMatrix("X", mb);
+		Assert.assertEquals(1, MappedSpillStore.getNumSegments());
+		compareMatrixBlocks(mb, MappedSpillStore.readMatrix("X"));
+	}
+	
+	@Test
+	public void testSpillStoreConcurrentReadDelete() 
+		throws Exception 
+	{
+		MatrixBlock mb1 = createMatrixBlock(false, 7);
+		MatrixBlock mb2 = createMatrixBlock(false, 8);
+		ExecutorService pool = Executors.newSingleThreadExecutor();
+		
+		try {
+			for( int i=0; i<20; i++ ) {
+				//read X concurrently to its delete and a write that would reuse its region
+				MappedSpillStore.writeMatrix("X", mb1);
+				Future<MatrixBlock> ret = pool.submit(new Callable<MatrixBlock>() {
+					@Override
+					public MatrixBlock call() throws IOException {
+						return MappedSpillStore.readMatrix("X");
+					}
+				});
+				MappedSpillStore.deleteMatrix("X");
+				MappedSpillStore.writeMatrix("Y", mb2);
+				
+				//read either failed (deleted before pinned) or returned the original data
+				try {
+					compareMatrixBlocks(mb1, ret.get());
+				}
+				catch(ExecutionException ex) {
+					Assert.assertTrue(ex.getCause() instanceof IOException);
+				}
+				compareMatrixBlocks(mb2, MappedSpillStore.readMatrix("Y"));
+				MappedSpillStore.deleteMatrix("Y");
+			}
+		}
+		finally {
+			pool.shutdown();
+		}
+		
+		//all regions released after the readers finished
+		Assert.assertEquals(0, MappedSpillStore.getAllocatedSize());
+		Assert.assertEquals(1, MappedSpillStore.getNumSegments());
+	}
+	
+	/**
+	 * 
+	 * @param sparse
+	 * @param serialized
+	 * @throws IOException
+	 */
+	private void runSpillStoreRoundTripTest( boolean sparse, boolean serialized ) 
+		throws IOException
+	{
+		MatrixBlock mb = createMatrixBlock(sparse, 7);
+		Assert.assertEquals(sparse, mb.isInSparseFormat());
+		
+		if( serialized ) {
+			byte[] data = new byte[(int)mb.getExactSizeOnDisk()];
+			mb.write(new CacheDataOutput(data));
+			MappedSpillStore.writeByteArray("X", data);
+		}
+		else
+			MappedSpillStore.writeMatrix("X", mb);
+		Assert.assertTrue(MappedSpillStore.contains("X"));
+		
+		MatrixBlock ret = MappedSpillStore.readMatrix("X");
+		compareMatrixBlocks(mb, ret);
+		
+		Assert.assertTrue(MappedSpillStore.deleteMatrix("X"));
+		Assert.assertFalse(MappedSpillStore.contains("X"));
+		Assert.assertEquals(0, MappedSpillStore.getAllocatedSize());
+	}
+	
+	/**
+	 * 
+	 * @param sparse
+	 * @param seed
+	 * @return
+	 */
+	private MatrixBlock createMatrixBlock( boolean sparse, long seed )
+	{
+		double[][] A = getRandomMatrix(rows, cols, -1, 1, sparse ? spSparse : spDense, seed);
+		MatrixBlock mb = DataConverter.convertToMatrixBlock(A);
+		mb.examSparsity();
+		return mb;
+	}
+	
+	/**
+	 * 
+	 * @param mb1
+	 * @param mb2
+	 */
+	private static void compareMatrixBlocks( MatrixBlock mb1, MatrixBlock mb2 )
+	{
+		Assert.assertEquals(mb1.getNumRows(), mb2.getNumRows());
+		Assert.assertEquals(mb1.getNumColumns(), mb2.getNumColumns());
+		Assert.assertEquals(mb1.getNonZeros(), mb2.getNonZeros());
+		TestUtils.compareMatrices(DataConverter.convertToDoubleMatrix(mb1), 
+			DataConverter.convertToDoubleMatrix(mb2), rows, cols, eps);
+	}
+	
+	/**
+	 * Sparse matrix block whose serialization fails after the allocation
+	 * of its region in the spill store.
+	 */
+	private static class FailingMatrixBlock extends MatrixBlock
+	{
+		private static final long serialVersionUID = -1416735418234896432L;
+
+		public FailingMatrixBlock( MatrixBlock that ) {
+			copy(that);
+		}
+		
+		@Override
+		public void write(DataOutput out) 
+			throws IOException 
+		{
+			throw new IOException("Injected write failure.");
+		}
+	}
+}
@@ -0,0 +1,157 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+
+package com.ibm.bi.dml.test.integration.functions.io;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
+import com.ibm.bi.dml.runtime.matrix.data.SparseBlockBuilderCOO;
+import com.ibm.bi.dml.runtime.matrix.data.SparseRow;
+import com.ibm.bi.dml.runtime.util.DataConverter;
+import com.ibm.bi.dml.test.integration.AutomatedTestBase;
+import com.ibm.bi.dml.test.utils.TestUtils;
+
+/**
+ * Tests the bulk construction of sparse blocks from (row, col, value) cells as used
+ * by the cell readers, for cells in row-major order (no sort required), in random
+ * order, and over multiple flushes into already populated rows.
+ * 
+ */
+public class SparseBlockBuilderCOOTest extends AutomatedTestBase 
+{
+	private final static int rows = 1073;
+	private final static int cols = 1011;
+	private final static double sparsity = 0.05;
+	private final static double eps = 1e-14;
+	
+	private enum CellOrder {
+		ROW_MAJOR,
+		COLUMN_MAJOR,
+		RANDOM
+	}
+	
+	@Override
+	public void setUp() 
+	{
+		TestUtils.clearAssertionInformation();
+	}
+	
+	@Test
+	public void testBuilderRowMajorOrder() {
+		runSparseBlockBuilderTest(CellOrder.ROW_MAJOR, 1);
+	}
+	
+	@Test
+	public void testBuilderColumnMajorOrder() {
+		runSparseBlockBuilderTest(CellOrder.COLUMN_MAJOR, 1);
+	}
+	
+	@Test
+	public void testBuilderRandomOrder() {
+		runSparseBlockBuilderTest(CellOrder.RANDOM, 1);
+	}
+	
+	@Test
+	public void testBuilderRowMajorOrderMultiFlush() {
+		runSparseBlockBuilderTest(CellOrder.ROW_MAJOR, 7);
+	}
+	
+	@Test
+	public void testBuilderColumnMajorOrderMultiFlush() {
+		runSparseBlockBuilderTest(CellOrder.COLUMN_MAJOR, 7);
+	}
+	
+	@Test
+	public void testBuilderRandomOrderMultiFlush() {
+		runSparseBlockBuilderTest(CellOrder.RANDOM, 7);
+	}
+	
+	@Test
+	public void testBuilderZerosAndRowBounds() 
+	{
+		MatrixBlock mb = new MatrixBlock(rows, cols, true);
+		SparseBlockBuilderCOO coo = new SparseBlockBuilderCOO(mb);
+		coo.append(0, 7, 0);
+		Assert.assertEquals(0, coo.size());
+		try {
+			coo.append(rows, 7, 1);
+			Assert.fail("Expected IndexOutOfBoundsException.");
+		}
+		catch(IndexOutOfBoundsException ex) {
+			//expected
+		}
+		coo.close();
+		Assert.assertEquals(0, mb.getNonZeros());
+	}
+	
+	/**
+	 * 
+	 * @param order
+	 * @param numFlushes
+	 */
+	private void runSparseBlockBuilderTest( CellOrder order, int numFlushes )
+	{
+		double[][] A = getRandomMatrix(rows, cols, -1, 1, sparsity, 7);
+		
+		//collect non-zero cells in the given order
+		ArrayList<int[]> cells = new ArrayList<int[]>();
+		if( order == CellOrder.COLUMN_MAJOR ) {
+			for( int j=0; j<cols; j++ )
+				for( int i=0; i<rows; i++ )
+					if( A[i][j] != 0 )
+						cells.add(new int[]{i, j});
+		}
+		else {
+			for( int i=0; i<rows; i++ )
+				for( int j=0; j<cols; j++ )
+					if( A[i][j] != 0 )
+						cells.add(new int[]{i, j});
+			if( order == CellOrder.RANDOM )
+				Collections.shuffle(cells, new Random(7));
+		}
+		
+		//build sparse block w/ intermediate flushes
+		MatrixBlock mb = new MatrixBlock(rows, cols, true);
+		SparseBlockBuilderCOO coo = new SparseBlockBuilderCOO(mb, cells.size());
+		int flushInterval = (int)Math.ceil((double)cells.size()/numFlushes);
+		for( int k=0; k<cells.size(); k++ ) {
+			int[] cell = cells.get(k);
+			coo.append(cell[0], cell[1], A[cell[0]][cell[1]]);
+			if( (k+1) % flushInterval == 0 )
+				coo.flush();
+		}
+		coo.close();
+		
+		//check nnz, sorted rows, and values
+		Assert.assertEquals(cells.size(), mb.getNonZeros());
+		Assert.assertTrue(mb.isInSparseFormat());
+		SparseRow[] srows = mb.getSparseRows();
+		for( int i=0; i<rows; i++ ) 
+			if( srows[i] != null ) {
+				int[] ix = srows[i].getIndexContainer();
+				for( int j=1; j<srows[i].size(); j++ )
+					Assert.assertTrue("Unsorted row "+i+".", ix[j-1] < ix[j]);
+			}
+		TestUtils.compareMatrices(A, DataConverter.convertToDoubleMatrix(mb), rows, cols, eps);
+	}
+}
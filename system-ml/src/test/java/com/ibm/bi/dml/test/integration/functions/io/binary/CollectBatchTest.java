@@ -0,0 +1,152 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+
+package com.ibm.bi.dml.test.integration.functions.io.binary;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.spark.SparkConf;
+import org.apache.spark.api.java.JavaPairRDD;
+import org.apache.spark.api.java.JavaSparkContext;
+import org.junit.Assert;
+import org.junit.Test;
+
+import scala.Tuple2;
+
+import com.ibm.bi.dml.runtime.controlprogram.context.SparkExecutionContext;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixIndexes;
+import com.ibm.bi.dml.runtime.matrix.data.SparseRow;
+import com.ibm.bi.dml.runtime.util.DataConverter;
+import com.ibm.bi.dml.test.integration.AutomatedTestBase;
+import com.ibm.bi.dml.test.utils.TestUtils;
+
+/**
+ * Tests the batch-wise collect of blocked rdds into a single matrix block, where
+ * small batches (one partition per batch) split the column blocks of row blocks 
+ * across batches in reverse order, which requires the sorting of sparse rows and
+ * the aggregation of nnz over batches. Results are compared to a plain collect.
+ * 
+ */
+public class CollectBatchTest extends AutomatedTestBase 
+{
+	private final static int rows = 2345;
+	private final static int cols = 3123;
+	private final static int blen = 1000;
+	private final static double sparsity1 = 0.7;
+	private final static double sparsity2 = 0.1;
+	private final static double eps = 1e-14;
+	
+	@Override
+	public void setUp() 
+	{
+		TestUtils.clearAssertionInformation();
+	}
+	
+	@Test
+	public void testCollectBatchDense() 
+	{ 
+		runCollectBatchTest( sparsity1 ); 
+	}
+	
+	@Test
+	public void testCollectBatchSparse() 
+	{ 
+		runCollectBatchTest( sparsity2 ); 
+	}
+
+	/**
+	 * 
+	 * @param sparsity
+	 */
+	private void runCollectBatchTest( double sparsity ) 
+	{
+		SparkConf conf = new SparkConf().setMaster("local[*]").setAppName("CollectBatchTest");
+		conf.set("spark.ui.enabled", "false");
+		JavaSparkContext sc = new JavaSparkContext(conf);
+		double fractionOld = SparkExecutionContext.COLLECT_BATCH_FRACTION;
+		
+		try
+		{	
+			double[][] X = getRandomMatrix(rows, cols, -1.0, 1.0, sparsity, 7); 
+			MatrixBlock mb = DataConverter.convertToMatrixBlock(X);
+			long nnz = mb.getNonZeros();
+			
+			//blocked rdd with one block per partition, in reverse order of column blocks
+			List<Tuple2<MatrixIndexes,MatrixBlock>> list = new ArrayList<Tuple2<MatrixIndexes,MatrixBlock>>();
+			int nrb = (int)Math.ceil((double)rows/blen);
+			int ncb = (int)Math.ceil((double)cols/blen);
+			for( int j=ncb-1; j>=0; j-- )
+				for( int i=0; i<nrb; i++ ) {
+					MatrixBlock block = mb.sliceOperations(i*blen, Math.min((i+1)*blen, rows)-1, 
+							j*blen, Math.min((j+1)*blen, cols)-1, new MatrixBlock());
+					list.add(new Tuple2<MatrixIndexes,MatrixBlock>(new MatrixIndexes(i+1, j+1), block));
+				}
+			JavaPairRDD<MatrixIndexes,MatrixBlock> in = sc.parallelizePairs(list, list.size());
+			
+			//plain collect (single batch)
+			MatrixBlock ret1 = SparkExecutionContext.toMatrixBlock(in, rows, cols, blen, blen, nnz);
+			
+			//collect with one partition per batch
+			SparkExecutionContext.COLLECT_BATCH_FRACTION = 0;
+			MatrixBlock ret2 = SparkExecutionContext.toMatrixBlock(in, rows, cols, blen, blen, nnz);
+			
+			//check results, incl nnz and sorted sparse rows
+			checkMatrixBlock(X, mb, ret1);
+			checkMatrixBlock(X, mb, ret2);
+			Assert.assertEquals(ret1.isInSparseFormat(), ret2.isInSparseFormat());
+			Assert.assertEquals(sparsity < MatrixBlock.SPARSITY_TURN_POINT, ret2.isInSparseFormat());
+		}
+		catch(Exception ex)
+		{
+			ex.printStackTrace();
+			throw new RuntimeException(ex);
+		}
+		finally
+		{
+			SparkExecutionContext.COLLECT_BATCH_FRACTION = fractionOld;
+			sc.stop();
+		}
+	}
+	
+	/**
+	 * 
+	 * @param X
+	 * @param mb1
+	 * @param mb2
+	 */
+	private void checkMatrixBlock( double[][] X, MatrixBlock mb1, MatrixBlock mb2 )
+	{
+		//maintained nnz consistent with actual nnz
+		Assert.assertEquals(mb1.getNonZeros(), mb2.getNonZeros());
+		mb2.recomputeNonZeros();
+		Assert.assertEquals(mb1.getNonZeros(), mb2.getNonZeros());
+		TestUtils.compareMatrices(X, DataConverter.convertToDoubleMatrix(mb2), rows, cols, eps);
+		
+		if( mb2.isInSparseFormat() ) {
+			SparseRow[] srows = mb2.getSparseRows();
+			for( int i=0; i<rows; i++ ) {
+				if( srows[i] == null )
+					continue;
+				int[] ix = srows[i].getIndexContainer();
+				for( int k=1; k<srows[i].size(); k++ )
+					Assert.assertTrue("Unsorted row "+i+".", ix[k-1] < ix[k]);
+			}
+		}
+	}
+}
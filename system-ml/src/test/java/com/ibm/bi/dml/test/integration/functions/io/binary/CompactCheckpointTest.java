@@ -0,0 +1,186 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+
+package com.ibm.bi.dml.test.integration.functions.io.binary;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.spark.SparkConf;
+import org.apache.spark.api.java.JavaPairRDD;
+import org.apache.spark.api.java.JavaSparkContext;
+import org.apache.spark.storage.StorageLevel;
+import org.junit.Assert;
+import org.junit.Test;
+
+import scala.Tuple2;
+
+import com.ibm.bi.dml.runtime.instructions.spark.data.RDDObject;
+import com.ibm.bi.dml.runtime.instructions.spark.data.SerializedMatrixBlock;
+import com.ibm.bi.dml.runtime.instructions.spark.functions.DeserializeBlockFunction;
+import com.ibm.bi.dml.runtime.instructions.spark.functions.SerializeBlockFunction;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixIndexes;
+import com.ibm.bi.dml.runtime.util.DataConverter;
+import com.ibm.bi.dml.test.integration.AutomatedTestBase;
+import com.ibm.bi.dml.test.utils.TestUtils;
+
+/**
+ * Round trip of matrix blocks through compact (optionally compressed) serialized rdd 
+ * checkpoints, and short-circuit collect/read over the lineage of compact checkpoints
+ * (checkpoint -> serialized -> input).
+ * 
+ */
+public class CompactCheckpointTest extends AutomatedTestBase 
+{
+	private final static int rows = 1000;
+	private final static int cols = 1000;
+	private final static int numBlocks = 6;
+	private final static double eps = 1e-14;
+	
+	@Override
+	public void setUp() 
+	{
+		TestUtils.clearAssertionInformation();
+	}
+	
+	@Test
+	public void testCompactEmptyBlock() 
+	{ 
+		runCompactCheckpointTest( 0.0, false ); 
+	}
+	
+	@Test
+	public void testCompactDenseBlock() 
+	{ 
+		runCompactCheckpointTest( 1.0, false ); 
+	}
+	
+	@Test
+	public void testCompactSparseBlock() 
+	{ 
+		runCompactCheckpointTest( 0.1, false ); 
+	}
+	
+	@Test
+	public void testCompactUltraSparseBlock() 
+	{ 
+		runCompactCheckpointTest( 0.0001, false ); 
+	}
+	
+	@Test
+	public void testCompressedEmptyBlock() 
+	{ 
+		runCompactCheckpointTest( 0.0, true ); 
+	}
+	
+	@Test
+	public void testCompressedDenseBlock() 
+	{ 
+		runCompactCheckpointTest( 1.0, true ); 
+	}
+	
+	@Test
+	public void testCompressedSparseBlock() 
+	{ 
+		runCompactCheckpointTest( 0.1, true ); 
+	}
+	
+	@Test
+	public void testCompressedUltraSparseBlock() 
+	{ 
+		runCompactCheckpointTest( 0.0001, true ); 
+	}
+
+	/**
+	 * 
+	 * @param sparsity
+	 * @param compress
+	 */
+	private void runCompactCheckpointTest( double sparsity, boolean compress ) 
+	{
+		SparkConf conf = new SparkConf().setMaster("local[*]").setAppName("CompactCheckpointTest");
+		conf.set("spark.ui.enabled", "false");
+		JavaSparkContext sc = new JavaSparkContext(conf);
+		
+		try
+		{	
+			double[][] X = getRandomMatrix(rows, cols, -1.0, 1.0, sparsity, 7); 
+			MatrixBlock mb = DataConverter.convertToMatrixBlock(X);
+			
+			//direct round trip of serialized blocks
+			SerializedMatrixBlock smb = new SerializedMatrixBlock(mb, compress);
+			if( !compress )
+				Assert.assertEquals(mb.getExactSizeOnDisk(), smb.getSize());
+			checkMatrixBlock(X, mb, smb.getMatrixBlock());
+			
+			//compact checkpoint as created by the checkpoint instruction
+			List<Tuple2<MatrixIndexes,MatrixBlock>> list = new ArrayList<Tuple2<MatrixIndexes,MatrixBlock>>();
+			for( int i=1; i<=numBlocks; i++ )
+				list.add(new Tuple2<MatrixIndexes,MatrixBlock>(new MatrixIndexes(i, 1), mb));
+			JavaPairRDD<MatrixIndexes,MatrixBlock> in = sc.parallelizePairs(list, 3);
+			JavaPairRDD<MatrixIndexes,SerializedMatrixBlock> ser = in
+					.mapValues(new SerializeBlockFunction(compress))
+					.persist(StorageLevel.MEMORY_AND_DISK());
+			JavaPairRDD<MatrixIndexes,MatrixBlock> out = ser.mapValues(new DeserializeBlockFunction());
+			
+			RDDObject inro = new RDDObject(in, "in");
+			RDDObject serro = new RDDObject(ser, "out");
+			serro.setCompactRDD(true);
+			serro.addLineageChild(inro);
+			RDDObject outro = new RDDObject(out, "out");
+			outro.setCheckpointRDD(true);
+			outro.addLineageChild(serro);
+			
+			//check short-circuit collect/read over the serialized rdd
+			Assert.assertTrue(outro.allowsShortCircuitCollect());
+			Assert.assertSame(inro, outro.getCheckpointInput());
+			Assert.assertFalse(outro.allowsShortCircuitRead());
+			inro.setHDFSFile(true);
+			Assert.assertTrue(outro.allowsShortCircuitRead());
+			
+			//check collected blocks of checkpoint (twice, i.e., after persist)
+			for( int k=0; k<2; k++ ) {
+				List<Tuple2<MatrixIndexes,MatrixBlock>> ret = out.collect();
+				Assert.assertEquals(numBlocks, ret.size());
+				for( Tuple2<MatrixIndexes,MatrixBlock> t : ret )
+					checkMatrixBlock(X, mb, t._2());
+			}
+		}
+		catch(Exception ex)
+		{
+			ex.printStackTrace();
+			throw new RuntimeException(ex);
+		}
+		finally
+		{
+			sc.stop();
+		}
+	}
+	
+	/**
+	 * 
+	 * @param X
+	 * @param mb1
+	 * @param mb2
+	 */
+	private void checkMatrixBlock( double[][] X, MatrixBlock mb1, MatrixBlock mb2 )
+	{
+		Assert.assertEquals(mb1.getNonZeros(), mb2.getNonZeros());
+		TestUtils.compareMatrices(X, DataConverter.convertToDoubleMatrix(mb2), rows, cols, eps);
+	}
+}
@@ -0,0 +1,133 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+
+package com.ibm.bi.dml.test.integration.functions.io.binary;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.spark.SparkConf;
+import org.apache.spark.api.java.JavaSparkContext;
+import org.junit.Assert;
+import org.junit.Test;
+
+import scala.Tuple2;
+
+import com.ibm.bi.dml.runtime.controlprogram.context.SparkExecutionContext;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixIndexes;
+import com.ibm.bi.dml.runtime.util.DataConverter;
+import com.ibm.bi.dml.test.integration.AutomatedTestBase;
+import com.ibm.bi.dml.test.utils.TestUtils;
+
+/**
+ * Round trip of matrix indexes and blocks through spark shuffle and collect with 
+ * our kryo serializers, including the collect of a partition larger than the 
+ * default max kryo buffer of 64MB.
+ * 
+ */
+public class KryoSerializeTest extends AutomatedTestBase 
+{
+	private final static int rows = 1000;
+	private final static int cols = 1000;
+	private final static double eps = 1e-14;
+	
+	@Override
+	public void setUp() 
+	{
+		TestUtils.clearAssertionInformation();
+	}
+	
+	@Test
+	public void testEmptyBlock() 
+	{ 
+		runKryoSerializeTest( 0.0, 4 ); 
+	}
+	
+	@Test
+	public void testDenseBlock() 
+	{ 
+		runKryoSerializeTest( 1.0, 4 ); 
+	}
+	
+	@Test
+	public void testSparseBlock() 
+	{ 
+		runKryoSerializeTest( 0.1, 4 ); 
+	}
+	
+	@Test
+	public void testUltraSparseBlock() 
+	{ 
+		runKryoSerializeTest( 0.0001, 4 ); 
+	}
+	
+	@Test
+	public void testDenseBlockLargeCollect() 
+	{ 
+		runKryoSerializeTest( 1.0, 10 ); //80MB 
+	}
+
+	/**
+	 * 
+	 * @param sparsity
+	 * @param numBlocks
+	 */
+	private void runKryoSerializeTest( double sparsity, int numBlocks ) 
+	{
+		SparkConf conf = new SparkConf().setMaster("local[*]").setAppName("KryoSerializeTest");
+		conf.set("spark.ui.enabled", "false");
+		SparkExecutionContext.setKryoSerialization(conf);
+		JavaSparkContext sc = new JavaSparkContext(conf);
+		
+		try
+		{	
+			double[][] X = getRandomMatrix(rows, cols, -1.0, 1.0, sparsity, 7); 
+			MatrixBlock mb = DataConverter.convertToMatrixBlock(X);
+			
+			List<Tuple2<MatrixIndexes,MatrixBlock>> in = new ArrayList<Tuple2<MatrixIndexes,MatrixBlock>>();
+			for( int i=1; i<=numBlocks; i++ )
+				in.add(new Tuple2<MatrixIndexes,MatrixBlock>(new MatrixIndexes(i, 7), mb));
+			
+			//shuffle into a single partition and collect (both via kryo)
+			List<Tuple2<MatrixIndexes,MatrixBlock>> out = sc
+					.parallelizePairs(in, 2).repartition(1).collect();
+			
+			//compare indexes and blocks
+			Assert.assertEquals(numBlocks, out.size());
+			boolean[] found = new boolean[numBlocks];
+			for( Tuple2<MatrixIndexes,MatrixBlock> t : out ) {
+				MatrixIndexes ix = t._1();
+				MatrixBlock mb2 = t._2();
+				Assert.assertEquals(7, ix.getColumnIndex());
+				Assert.assertFalse(found[(int)ix.getRowIndex()-1]);
+				found[(int)ix.getRowIndex()-1] = true;
+				Assert.assertEquals(mb.getNonZeros(), mb2.getNonZeros());
+				TestUtils.compareMatrices(X, DataConverter.convertToDoubleMatrix(mb2), rows, cols, eps);
+			}
+		}
+		catch(Exception ex)
+		{
+			ex.printStackTrace();
+			throw new RuntimeException(ex);
+		}
+		finally
+		{
+			sc.stop();
+		}
+	}
+}
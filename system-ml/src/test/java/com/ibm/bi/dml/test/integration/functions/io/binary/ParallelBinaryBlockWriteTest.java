@@ -0,0 +1,139 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.ibm.bi.dml.test.integration.functions.io.binary;
+
+import java.io.File;
+import java.io.FilenameFilter;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.ibm.bi.dml.hops.OptimizerUtils;
+import com.ibm.bi.dml.runtime.controlprogram.parfor.stat.InfrastructureAnalyzer;
+import com.ibm.bi.dml.runtime.io.ReaderBinaryBlock;
+import com.ibm.bi.dml.runtime.io.WriterBinaryBlock;
+import com.ibm.bi.dml.runtime.io.WriterBinaryBlockParallel;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
+import com.ibm.bi.dml.runtime.util.DataConverter;
+import com.ibm.bi.dml.runtime.util.MapReduceTool;
+import com.ibm.bi.dml.test.integration.AutomatedTestBase;
+import com.ibm.bi.dml.test.utils.TestUtils;
+
+/**
+ * Tests the parallel binary block writer with a small HDFS blocksize, which forces
+ * multiple part files of disjoint row block ranges. The read-back output is compared 
+ * to the output of the sequential writer.
+ * 
+ */
+public class ParallelBinaryBlockWriteTest extends AutomatedTestBase 
+{
+	private final static String TEST_DIR = "functions/io/binary/";
+	private final static int rows = 3456;
+	private final static int cols = 789;
+	private final static int blen = 1000;
+	private final static int numFiles = 4;
+	private final static double sparsity1 = 0.7;
+	private final static double sparsity2 = 0.1;
+	private final static double eps = 1e-14;
+	
+	@Override
+	public void setUp() 
+	{
+		TestUtils.clearAssertionInformation();
+	}
+	
+	@Test
+	public void testParallelWriteDense() 
+	{ 
+		runParallelWriteTest( sparsity1 ); 
+	}
+	
+	@Test
+	public void testParallelWriteSparse() 
+	{ 
+		runParallelWriteTest( sparsity2 ); 
+	}
+
+	/**
+	 * 
+	 * @param sparsity
+	 */
+	private void runParallelWriteTest( double sparsity ) 
+	{
+		long blocksizeOld = InfrastructureAnalyzer.getHDFSBlockSize();
+		boolean parOld = OptimizerUtils.PARALLEL_CP_WRITE_BINARYFORMATS;
+		String dir = SCRIPT_DIR + TEST_DIR + OUTPUT_DIR;
+		String fnameSeq = dir + "Xseq";
+		String fnamePar = dir + "Xpar";
+		
+		try
+		{	
+			double[][] X = getRandomMatrix(rows, cols, -1.0, 1.0, sparsity, 7); 
+			MatrixBlock mb = DataConverter.convertToMatrixBlock(X);
+			mb.examSparsity();
+			long nnz = mb.getNonZeros();
+			
+			//force multiple part files (output size of numFiles hdfs blocks)
+			OptimizerUtils.PARALLEL_CP_WRITE_BINARYFORMATS = true;
+			InfrastructureAnalyzer.setHDFSBlockSize(
+					MatrixBlock.estimateSizeOnDisk(rows, cols, nnz) / numFiles);
+			
+			//sequential and parallel write
+			new WriterBinaryBlock(1).writeMatrixToHDFS(mb, fnameSeq, rows, cols, blen, blen, nnz);
+			new WriterBinaryBlockParallel(1).writeMatrixToHDFS(mb, fnamePar, rows, cols, blen, blen, nnz);
+			
+			//check for multiple part files (if multi-threaded)
+			int numThreads = Math.min(OptimizerUtils.getParallelBinaryWriteParallelism(), 
+					Math.min(numFiles, (int)Math.ceil((double)rows/blen)));
+			if( numThreads > 1 ) {
+				String[] files = new File(fnamePar).list(new FilenameFilter() {
+					@Override
+					public boolean accept(File dir, String name) {
+						return name.startsWith("0-m-");
+					}
+				});
+				Assert.assertTrue("Single part file.", files.length > 1);
+			}
+			
+			//read back and compare sequential and parallel outputs
+			MatrixBlock ret1 = new ReaderBinaryBlock(false).readMatrixFromHDFS(fnameSeq, rows, cols, blen, blen, nnz);
+			MatrixBlock ret2 = new ReaderBinaryBlock(false).readMatrixFromHDFS(fnamePar, rows, cols, blen, blen, nnz);
+			Assert.assertEquals(ret1.getNonZeros(), ret2.getNonZeros());
+			TestUtils.compareMatrices(DataConverter.convertToDoubleMatrix(ret1), 
+					DataConverter.convertToDoubleMatrix(ret2), rows, cols, eps);
+			TestUtils.compareMatrices(X, DataConverter.convertToDoubleMatrix(ret2), rows, cols, eps);
+		}
+		catch(Exception ex)
+		{
+			ex.printStackTrace();
+			throw new RuntimeException(ex);
+		}
+		finally
+		{
+			OptimizerUtils.PARALLEL_CP_WRITE_BINARYFORMATS = parOld;
+			InfrastructureAnalyzer.setHDFSBlockSize(blocksizeOld);
+			try {
+				MapReduceTool.deleteFileIfExistOnHDFS(fnameSeq);
+				MapReduceTool.deleteFileIfExistOnHDFS(fnamePar);
+			}
+			catch(Exception ex) {
+				//ignore cleanup errors
+			}
+		}
+	}
+}
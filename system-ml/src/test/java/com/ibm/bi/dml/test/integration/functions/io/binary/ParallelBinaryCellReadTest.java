@@ -0,0 +1,153 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.ibm.bi.dml.test.integration.functions.io.binary;
+
+import java.io.IOException;
+
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.SequenceFile;
+import org.apache.hadoop.mapred.JobConf;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.ibm.bi.dml.conf.ConfigurationManager;
+import com.ibm.bi.dml.hops.OptimizerUtils;
+import com.ibm.bi.dml.runtime.io.ReaderBinaryCell;
+import com.ibm.bi.dml.runtime.io.ReaderBinaryCellParallel;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixCell;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixIndexes;
+import com.ibm.bi.dml.runtime.util.DataConverter;
+import com.ibm.bi.dml.runtime.util.MapReduceTool;
+import com.ibm.bi.dml.test.integration.AutomatedTestBase;
+import com.ibm.bi.dml.test.utils.TestUtils;
+
+/**
+ * Tests the parallel binary cell reader on a multi-file input, where every part file
+ * holds a range of rows in column-major order (i.e., unordered cells per row across
+ * concurrent read tasks). The result is compared to the sequential binary cell reader.
+ * 
+ */
+public class ParallelBinaryCellReadTest extends AutomatedTestBase 
+{
+	private final static String TEST_DIR = "functions/io/binary/";
+	private final static int rows = 1234;
+	private final static int cols = 567;
+	private final static int numFiles = 5;
+	private final static double sparsity1 = 0.7;
+	private final static double sparsity2 = 0.1;
+	private final static double eps = 1e-14;
+	
+	@Override
+	public void setUp() 
+	{
+		TestUtils.clearAssertionInformation();
+	}
+	
+	@Test
+	public void testParallelReadDense() 
+	{ 
+		runParallelReadTest( sparsity1 ); 
+	}
+	
+	@Test
+	public void testParallelReadSparse() 
+	{ 
+		runParallelReadTest( sparsity2 ); 
+	}
+
+	/**
+	 * 
+	 * @param sparsity
+	 */
+	private void runParallelReadTest( double sparsity ) 
+	{
+		boolean parOld = OptimizerUtils.PARALLEL_CP_READ_BINARYFORMATS;
+		String fname = SCRIPT_DIR + TEST_DIR + OUTPUT_DIR + "X";
+		
+		try
+		{	
+			double[][] X = getRandomMatrix(rows, cols, -1.0, 1.0, sparsity, 7); 
+			long nnz = DataConverter.convertToMatrixBlock(X).getNonZeros();
+			writeBinaryCellPartFiles(X, fname);
+			
+			//sequential and parallel read
+			OptimizerUtils.PARALLEL_CP_READ_BINARYFORMATS = true;
+			MatrixBlock ret1 = new ReaderBinaryCell().readMatrixFromHDFS(fname, rows, cols, -1, -1, nnz);
+			MatrixBlock ret2 = new ReaderBinaryCellParallel().readMatrixFromHDFS(fname, rows, cols, -1, -1, nnz);
+			
+			//compare results, incl nnz and representation
+			Assert.assertEquals(nnz, ret1.getNonZeros());
+			Assert.assertEquals(nnz, ret2.getNonZeros());
+			Assert.assertEquals(ret1.isInSparseFormat(), ret2.isInSparseFormat());
+			TestUtils.compareMatrices(DataConverter.convertToDoubleMatrix(ret1), 
+					DataConverter.convertToDoubleMatrix(ret2), rows, cols, eps);
+			TestUtils.compareMatrices(X, DataConverter.convertToDoubleMatrix(ret2), rows, cols, eps);
+		}
+		catch(Exception ex)
+		{
+			ex.printStackTrace();
+			throw new RuntimeException(ex);
+		}
+		finally
+		{
+			OptimizerUtils.PARALLEL_CP_READ_BINARYFORMATS = parOld;
+			try {
+				MapReduceTool.deleteFileIfExistOnHDFS(fname);
+			}
+			catch(Exception ex) {
+				//ignore cleanup errors
+			}
+		}
+	}
+	
+	/**
+	 * Writes the given matrix in binary cell format into numFiles part files
+	 * of disjoint row ranges, with cells in column-major order per file.
+	 * 
+	 * @param X
+	 * @param fname
+	 * @throws IOException
+	 */
+	@SuppressWarnings("deprecation")
+	private static void writeBinaryCellPartFiles( double[][] X, String fname ) 
+		throws IOException
+	{
+		JobConf job = new JobConf(ConfigurationManager.getCachedJobConf());
+		FileSystem fs = FileSystem.get(job);
+		MapReduceTool.deleteFileIfExistOnHDFS(fname);
+		
+		int blklen = (int)Math.ceil((double)rows/numFiles);
+		for( int k=0; k<numFiles; k++ ) 
+		{
+			Path path = new Path(fname, String.format("0-m-%05d", k));
+			SequenceFile.Writer writer = new SequenceFile.Writer(fs, job, path, MatrixIndexes.class, MatrixCell.class);
+			try {
+				int rl = k*blklen, ru = Math.min((k+1)*blklen, rows);
+				for( int j=0; j<cols; j++ )
+					for( int i=rl; i<ru; i++ )
+						if( X[i][j] != 0 )
+							writer.append(new MatrixIndexes(i+1, j+1), new MatrixCell(X[i][j]));
+			}
+			finally {
+				writer.close();
+			}
+		}
+	}
+}
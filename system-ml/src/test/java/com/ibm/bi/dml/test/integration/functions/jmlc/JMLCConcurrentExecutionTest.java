@@ -0,0 +1,158 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+
+package com.ibm.bi.dml.test.integration.functions.jmlc;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import com.ibm.bi.dml.api.DMLException;
+import com.ibm.bi.dml.api.jmlc.Connection;
+import com.ibm.bi.dml.api.jmlc.PreparedScript;
+import com.ibm.bi.dml.api.jmlc.ResultVariables;
+import com.ibm.bi.dml.test.integration.AutomatedTestBase;
+import com.ibm.bi.dml.test.integration.TestConfiguration;
+import com.ibm.bi.dml.test.utils.TestUtils;
+
+/**
+ * Concurrent execution of a single prepared script from multiple threads (with inputs
+ * bound to copies of the prepared script by the main thread), where the results of each 
+ * invocation are compared with the results of a single-threaded run. 
+ * The script uses scalar-matrix operations with a different scalar input per invocation
+ * in order to detect races on the operators of the shared runtime program.
+ * 
+ */
+public class JMLCConcurrentExecutionTest extends AutomatedTestBase 
+{
+	private final static String TEST_NAME = "scalar-ops";
+	private final static String TEST_DIR = "functions/jmlc/";
+	private final static double eps = 1e-10;
+	
+	private final static int rows = 700;
+	private final static int cols = 300;
+	
+	private final static int nRuns = 64;
+	private final static int nThreads = 8;
+	
+	private final static double sparsity1 = 0.7;
+	private final static double sparsity2 = 0.1;
+	
+	@Override
+	public void setUp() 
+	{
+		addTestConfiguration(TEST_NAME, new TestConfiguration(TEST_DIR, TEST_NAME, new String[] { "Y" })   ); 
+	}
+	
+	@Test
+	public void testJMLCConcurrentExecutionDense() 
+		throws Exception
+	{
+		runJMLCConcurrentExecutionTest(false);
+	}
+	
+	@Test
+	public void testJMLCConcurrentExecutionSparse() 
+		throws Exception
+	{
+		runJMLCConcurrentExecutionTest(true);
+	}
+	
+	/**
+	 * 
+	 * @param sparse
+	 * @throws Exception
+	 */
+	private void runJMLCConcurrentExecutionTest( boolean sparse ) 
+		throws Exception
+	{
+		loadTestConfiguration(getTestConfiguration(TEST_NAME));
+		
+		//generate inputs (different scalar per invocation)
+		ArrayList<double[][]> Xset = new ArrayList<double[][]>();
+		double[] sset = new double[nRuns];
+		for( int i=0; i<nRuns; i++ ) {
+			Xset.add(getRandomMatrix(rows, cols, -1, 1, sparse?sparsity2:sparsity1, 7+i));
+			sset[i] = (i % 2 == 0) ? i : -i; 
+		}
+		
+		Connection conn = new Connection();
+		ExecutorService pool = Executors.newFixedThreadPool(nThreads);
+		
+		try
+		{
+			//read and precompile script once
+			String script = conn.readScript(SCRIPT_DIR + TEST_DIR + TEST_NAME + ".dml");	
+			PreparedScript pstmt = conn.prepareScript(script, new String[]{"X","s"}, new String[]{"Y"}, false);
+			
+			//single-threaded reference run
+			ArrayList<double[][]> expected = new ArrayList<double[][]>();
+			for( int i=0; i<nRuns; i++ )
+				expected.add(new ScoringTask(pstmt, Xset.get(i), sset[i]).call());
+			
+			//concurrent runs over the same prepared script
+			ArrayList<Future<double[][]>> rt = new ArrayList<Future<double[][]>>();
+			for( int i=0; i<nRuns; i++ )
+				rt.add(pool.submit(new ScoringTask(pstmt, Xset.get(i), sset[i])));
+			
+			//compare results of all invocations
+			for( int i=0; i<nRuns; i++ )
+				TestUtils.compareMatrices(expected.get(i), rt.get(i).get(), rows, cols, eps);
+		}
+		catch(Exception ex)
+		{
+			ex.printStackTrace();
+			throw new IOException(ex);
+		}
+		finally
+		{
+			pool.shutdown();
+			conn.close();
+		}
+	}
+	
+	/**
+	 * Binds the inputs to a copy of the prepared script (by the creating thread)
+	 * and executes the script (by the calling thread).
+	 */
+	private static class ScoringTask implements Callable<double[][]>
+	{
+		private PreparedScript _pstmt = null;
+		
+		public ScoringTask( PreparedScript pstmt, double[][] X, double s ) 
+			throws DMLException
+		{
+			_pstmt = pstmt.copy();
+			_pstmt.setMatrix("X", X);
+			_pstmt.setScalar("s", s);
+		}
+		
+		@Override
+		public double[][] call() 
+			throws Exception 
+		{
+			ResultVariables rs = _pstmt.executeScript();
+			_pstmt.clearParameters();
+			return rs.getMatrix("Y");
+		}
+	}
+}
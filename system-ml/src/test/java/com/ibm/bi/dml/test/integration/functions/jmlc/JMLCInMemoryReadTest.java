@@ -0,0 +1,206 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.ibm.bi.dml.test.integration.functions.jmlc;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.ibm.bi.dml.parser.Expression.ValueType;
+import com.ibm.bi.dml.runtime.controlprogram.caching.CacheableData;
+import com.ibm.bi.dml.runtime.controlprogram.caching.MatrixObject;
+import com.ibm.bi.dml.runtime.matrix.MatrixCharacteristics;
+import com.ibm.bi.dml.runtime.matrix.MatrixFormatMetaData;
+import com.ibm.bi.dml.runtime.matrix.data.InputInfo;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
+import com.ibm.bi.dml.runtime.matrix.data.OutputInfo;
+import com.ibm.bi.dml.runtime.util.DataConverter;
+import com.ibm.bi.dml.test.integration.AutomatedTestBase;
+import com.ibm.bi.dml.test.utils.TestUtils;
+
+/**
+ * Tests for the pure in-memory execution mode of JMLC (caching disabled), where
+ * reads of in-memory matrix objects are unpinned, i.e., take neither the object
+ * lock nor change the cache status, while modifications and reads with caching
+ * enabled still go through the cache status maintenance.
+ *
+ */
+public class JMLCInMemoryReadTest extends AutomatedTestBase
+{
+	private final static int rows = 10;
+	private final static int cols = 10; //below caching threshold
+
+	private final static int nThreads = 8;
+	private final static long timeout = 60; //in seconds
+
+	@Override
+	public void setUp()
+	{
+		TestUtils.clearAssertionInformation();
+	}
+
+	@Test
+	public void testUnpinnedInMemoryRead()
+		throws Exception
+	{
+		boolean cachingOld = CacheableData.isCachingActive();
+		CacheableData.disableCaching();
+
+		try
+		{
+			MatrixBlock mb = createMatrixBlock();
+			MatrixObject mo = createMatrixObject(mb);
+			Assert.assertEquals("CACHED", mo.getStatusAsString());
+
+			//unpinned reads w/o status changes
+			Assert.assertTrue(mb == mo.acquireRead());
+			Assert.assertTrue(mb == mo.acquireRead());
+			Assert.assertEquals("CACHED", mo.getStatusAsString());
+			mo.release();
+			mo.release();
+			Assert.assertEquals("CACHED", mo.getStatusAsString());
+
+			//modifications still maintain the cache status
+			MatrixBlock mb2 = createMatrixBlock();
+			Assert.assertTrue(mb2 == mo.acquireModify(mb2));
+			Assert.assertEquals("MODIFY", mo.getStatusAsString());
+			mo.release();
+			Assert.assertEquals("CACHED", mo.getStatusAsString());
+			Assert.assertTrue(mb2 == mo.acquireRead());
+			mo.release();
+		}
+		finally
+		{
+			if( cachingOld )
+				CacheableData.enableCaching();
+		}
+	}
+
+	@Test
+	public void testUnpinnedInMemoryReadWithoutLock()
+		throws Exception
+	{
+		boolean cachingOld = CacheableData.isCachingActive();
+		CacheableData.disableCaching();
+		ExecutorService pool = Executors.newFixedThreadPool(nThreads);
+
+		try
+		{
+			MatrixBlock mb = createMatrixBlock();
+			MatrixObject mo = createMatrixObject(mb);
+
+			//concurrent reads while the object lock is held by another thread
+			//(a locked acquire or release would block until the timeout)
+			synchronized( mo ) {
+				Future<?>[] rt = new Future<?>[nThreads];
+				for( int i=0; i<nThreads; i++ )
+					rt[i] = pool.submit(new ReadTask(mo));
+				for( int i=0; i<nThreads; i++ )
+					Assert.assertTrue(mb == rt[i].get(timeout, TimeUnit.SECONDS));
+			}
+			Assert.assertEquals("CACHED", mo.getStatusAsString());
+		}
+		finally
+		{
+			pool.shutdownNow();
+			if( cachingOld )
+				CacheableData.enableCaching();
+		}
+	}
+
+	@Test
+	public void testPinnedReadWithCaching()
+		throws Exception
+	{
+		boolean cachingOld = CacheableData.isCachingActive();
+		CacheableData.enableCaching();
+
+		try
+		{
+			MatrixBlock mb = createMatrixBlock();
+			MatrixObject mo = createMatrixObject(mb);
+
+			//pinned read with cache status maintenance
+			Assert.assertTrue(mb == mo.acquireRead());
+			Assert.assertEquals("READ", mo.getStatusAsString());
+			mo.release();
+			Assert.assertEquals("CACHED", mo.getStatusAsString());
+		}
+		finally
+		{
+			if( !cachingOld )
+				CacheableData.disableCaching();
+		}
+	}
+
+	/**
+	 *
+	 * @return
+	 * @throws Exception
+	 */
+	private MatrixBlock createMatrixBlock()
+		throws Exception
+	{
+		double[][] A = getRandomMatrix(rows, cols, -1, 1, 1.0, 7);
+		return DataConverter.convertToMatrixBlock(A);
+	}
+
+	/**
+	 *
+	 * @param mb
+	 * @return
+	 * @throws Exception
+	 */
+	private MatrixObject createMatrixObject( MatrixBlock mb )
+		throws Exception
+	{
+		MatrixCharacteristics mc = new MatrixCharacteristics(rows, cols, 1000, 1000);
+		MatrixFormatMetaData meta = new MatrixFormatMetaData(mc,
+				OutputInfo.BinaryBlockOutputInfo, InputInfo.BinaryBlockInputInfo);
+		MatrixObject mo = new MatrixObject(ValueType.DOUBLE, "scratch_space/X", meta);
+		mo.acquireModify(mb);
+		mo.release();
+		return mo;
+	}
+
+	/**
+	 * Acquires and releases a read of the given matrix object.
+	 */
+	private static class ReadTask implements Callable<MatrixBlock>
+	{
+		private MatrixObject _mo = null;
+
+		public ReadTask( MatrixObject mo ) {
+			_mo = mo;
+		}
+
+		@Override
+		public MatrixBlock call()
+			throws Exception
+		{
+			MatrixBlock ret = _mo.acquireRead();
+			_mo.release();
+			return ret;
+		}
+	}
+}
@@ -0,0 +1,246 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.ibm.bi.dml.test.integration.functions.misc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.ibm.bi.dml.api.DMLScript;
+import com.ibm.bi.dml.runtime.util.CommonThreadPool;
+import com.ibm.bi.dml.test.integration.AutomatedTestBase;
+import com.ibm.bi.dml.test.utils.TestUtils;
+import com.ibm.bi.dml.utils.Statistics;
+
+/**
+ * Tests the shared CP thread pool, i.e., the inline execution of single-threaded
+ * and nested requests, the per-view bound of concurrent tasks, the no-op shutdown 
+ * and termination of executor views, and the statistics of parallel operations 
+ * and tasks (incl attribution to the calling instruction).
+ *
+ */
+public class CommonThreadPoolTest extends AutomatedTestBase
+{
+	private final static int k = 4;
+	private final static long timeout = 60; //in seconds
+
+	@Override
+	public void setUp()
+	{
+		TestUtils.clearAssertionInformation();
+	}
+
+	@Test
+	public void testInlineSingleThreaded()
+		throws Exception
+	{
+		ExecutorService pool = CommonThreadPool.get(1);
+		for( Future<Thread> ret : pool.invokeAll(createTasks(k, 0)) )
+			Assert.assertTrue(ret.get() == Thread.currentThread());
+		pool.shutdown();
+	}
+
+	@Test
+	public void testSharedPoolMultiThreaded()
+		throws Exception
+	{
+		ExecutorService pool = CommonThreadPool.get(k);
+		for( Future<Thread> ret : pool.invokeAll(createTasks(k, 0)) ) {
+			Assert.assertTrue(ret.get() != Thread.currentThread());
+			Assert.assertTrue(ret.get().getName().startsWith("SystemML-CP-Worker"));
+		}
+		pool.shutdown();
+	}
+
+	@Test
+	public void testInlineNested()
+		throws Exception
+	{
+		//more outer tasks than pool threads, each with nested parallel tasks
+		//(nested tasks on queued pool threads would deadlock)
+		int num = 2 * CommonThreadPool.getPoolSize();
+		ExecutorService pool = CommonThreadPool.get(k);
+		List<Future<Thread>> rt = pool.invokeAll(createTasks(num, k));
+		for( Future<Thread> ret : rt )
+			Assert.assertNotNull(ret.get(timeout, TimeUnit.SECONDS));
+		pool.shutdown();
+	}
+
+	@Test
+	public void testShutdownNoOp()
+		throws Exception
+	{
+		ExecutorService pool1 = CommonThreadPool.get(k);
+		pool1.invokeAll(createTasks(k, 0));
+		pool1.shutdownNow();
+		Assert.assertTrue(pool1.isShutdown());
+
+		//shared pool still usable by other operations
+		ExecutorService pool2 = CommonThreadPool.get(k);
+		Assert.assertFalse(pool2.isShutdown());
+		for( Future<Thread> ret : pool2.invokeAll(createTasks(k, 0)) )
+			Assert.assertTrue(ret.get(timeout, TimeUnit.SECONDS).getName().startsWith("SystemML-CP-Worker"));
+		pool2.shutdown();
+	}
+
+	@Test
+	public void testViewParallelismBound()
+		throws Exception
+	{
+		//more tasks than view parallelism (if the pool has more threads)
+		int par = 2;
+		final AtomicInteger active = new AtomicInteger(0);
+		final AtomicInteger maxActive = new AtomicInteger(0);
+		ArrayList<Callable<Integer>> tasks = new ArrayList<Callable<Integer>>();
+		for( int i=0; i<4*k; i++ )
+			tasks.add(new Callable<Integer>() {
+				@Override
+				public Integer call() throws Exception {
+					int num = active.incrementAndGet();
+					while( true ) {
+						int max = maxActive.get();
+						if( num <= max || maxActive.compareAndSet(max, num) )
+							break;
+					}
+					Thread.sleep(10);
+					active.decrementAndGet();
+					return num;
+				}
+			});
+		
+		ExecutorService pool = CommonThreadPool.get(par);
+		for( Future<Integer> ret : pool.invokeAll(tasks) )
+			ret.get(timeout, TimeUnit.SECONDS);
+		pool.shutdown();
+		
+		Assert.assertTrue(maxActive.get() >= 1 && maxActive.get() <= par);
+		Assert.assertTrue(pool.awaitTermination(timeout, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void testTerminationRunningTasks()
+		throws Exception
+	{
+		final CountDownLatch latch = new CountDownLatch(1);
+		ExecutorService pool = CommonThreadPool.get(k);
+		Future<Boolean> ret = pool.submit(new Callable<Boolean>() {
+			@Override
+			public Boolean call() throws Exception {
+				return latch.await(timeout, TimeUnit.SECONDS);
+			}
+		});
+		pool.shutdown();
+		
+		//shut down but not terminated while the task is still running
+		Assert.assertTrue(pool.isShutdown());
+		Assert.assertFalse(pool.isTerminated());
+		Assert.assertFalse(pool.awaitTermination(10, TimeUnit.MILLISECONDS));
+		
+		latch.countDown();
+		Assert.assertTrue(pool.awaitTermination(timeout, TimeUnit.SECONDS));
+		Assert.assertTrue(pool.isTerminated());
+		Assert.assertTrue(ret.get());
+	}
+
+	@Test
+	public void testStatisticsDisabled()
+		throws Exception
+	{
+		runStatisticsTest(false);
+	}
+
+	@Test
+	public void testStatisticsEnabled()
+		throws Exception
+	{
+		runStatisticsTest(true);
+	}
+
+	/**
+	 *
+	 * @param stats
+	 * @throws Exception
+	 */
+	private void runStatisticsTest( boolean stats )
+		throws Exception
+	{
+		boolean statsOld = DMLScript.STATISTICS;
+		DMLScript.STATISTICS = stats;
+
+		try
+		{
+			Statistics.reset();
+			Statistics.setCurrentCPInstruction("ba+*");
+			
+			//inline execution in order to maintain the task statistics 
+			//before invokeAll returns (otherwise after task completion)
+			ExecutorService pool = CommonThreadPool.get(1);
+			for( Future<Thread> ret : pool.invokeAll(createTasks(k, 0)) )
+				ret.get();
+			pool.shutdown();
+
+			//no maintenance of shared counters if statistics are disabled
+			Assert.assertEquals(stats ? 1 : 0, Statistics.getCPPoolOps());
+			Assert.assertEquals(stats ? k : 0, Statistics.getCPPoolTasks());
+			Assert.assertEquals(stats, Statistics.getCPPoolHeavyHitterOpCodes().contains("ba+*"));
+		}
+		finally
+		{
+			DMLScript.STATISTICS = statsOld;
+			Statistics.setCurrentCPInstruction(null);
+			Statistics.reset();
+		}
+	}
+
+	/**
+	 * Creates tasks that return their executing thread, optionally
+	 * after executing nested parallel tasks.
+	 *
+	 * @param num
+	 * @param nestedPar
+	 * @return
+	 */
+	private static ArrayList<Callable<Thread>> createTasks( int num, final int nestedPar )
+	{
+		ArrayList<Callable<Thread>> tasks = new ArrayList<Callable<Thread>>();
+		for( int i=0; i<num; i++ )
+			tasks.add(new Callable<Thread>() {
+				@Override
+				public Thread call() throws Exception {
+					if( nestedPar > 0 ) {
+						//nested tasks inline in the current pool thread
+						ExecutorService pool = CommonThreadPool.get(nestedPar);
+						for( Future<Thread> ret : pool.invokeAll(createTasks(nestedPar, 0)) )
+							if( ret.get() != Thread.currentThread() )
+								throw new RuntimeException("Nested task not executed inline.");
+						pool.shutdown();
+					}
+					return Thread.currentThread();
+				}
+			});
+		return tasks;
+	}
+}
@@ -0,0 +1,110 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.ibm.bi.dml.test.integration.functions.parfor;
+
+import java.util.HashMap;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.ibm.bi.dml.api.DMLScript.RUNTIME_PLATFORM;
+import com.ibm.bi.dml.runtime.controlprogram.caching.CacheStatistics;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixValue.CellIndex;
+import com.ibm.bi.dml.test.integration.AutomatedTestBase;
+import com.ibm.bi.dml.test.integration.TestConfiguration;
+import com.ibm.bi.dml.test.utils.TestUtils;
+
+/**
+ * Contention test of the CP buffer pool, where a local parfor with 32 workers
+ * creates large intermediates that are concurrently written to, read from, and evicted
+ * from the write buffer.
+ *
+ */
+public class ParForBufferPoolContentionTest extends AutomatedTestBase
+{
+	private final static String TEST_NAME = "parfor_contention";
+	private final static String TEST_DIR = "functions/parfor/";
+	private final static double eps = 1e-8;
+
+	private final static int rows = 1000;
+	private final static int cols = 1000; //8MB dense intermediates
+	private final static int workers = 32;
+
+	@Override
+	public void setUp()
+	{
+		addTestConfiguration( TEST_NAME, new TestConfiguration(TEST_DIR, TEST_NAME, new String[]{"R"}) );
+	}
+
+	@Test
+	public void testParForBufferPoolContention()
+	{
+		runBufferPoolContentionTest();
+	}
+
+	/**
+	 *
+	 */
+	private void runBufferPoolContentionTest()
+	{
+		RUNTIME_PLATFORM platformOld = rtplatform;
+
+		TestConfiguration config = getTestConfiguration(TEST_NAME);
+		config.addVariable("rows", rows);
+		config.addVariable("cols", cols);
+
+		try
+		{
+			rtplatform = RUNTIME_PLATFORM.SINGLE_NODE;
+
+			String HOME = SCRIPT_DIR + TEST_DIR;
+			fullDMLScriptName = HOME + TEST_NAME + ".dml";
+			programArgs = new String[]{"-stats","-args", HOME + INPUT_DIR + "X" ,
+					                        Integer.toString(rows),
+					                        Integer.toString(cols),
+					                        Integer.toString(workers),
+					                        HOME + OUTPUT_DIR + "R"};
+			fullRScriptName = HOME + TEST_NAME + ".R";
+			rCmd = "Rscript" + " " + fullRScriptName + " " +
+			       HOME + INPUT_DIR + " " + HOME + EXPECTED_DIR + " " + Integer.toString(workers);
+
+			loadTestConfiguration(config);
+
+			double[][] X = getRandomMatrix(rows, cols, 0, 1, 1.0, 7);
+			writeInputMatrix("X", X, true);
+
+			CacheStatistics.reset();
+			runTest(true, false, null, -1);
+			
+			//check for actual contention (evictions to the write buffer or local FS)
+			Assert.assertTrue("No buffer pool evictions.", 
+				CacheStatistics.getFSBuffWrites() + CacheStatistics.getFSWrites() > 0);
+
+			runRScript(true);
+
+			//compare matrices
+			HashMap<CellIndex, Double> dmlfile = readDMLMatrixFromHDFS("R");
+			HashMap<CellIndex, Double> rfile  = readRMatrixFromFS("R");
+			TestUtils.compareMatrices(dmlfile, rfile, eps, "DML", "R");
+		}
+		finally
+		{
+			rtplatform = platformOld;
+		}
+	}
+}
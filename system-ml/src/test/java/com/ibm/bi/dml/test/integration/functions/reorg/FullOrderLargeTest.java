@@ -0,0 +1,203 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+
+package com.ibm.bi.dml.test.integration.functions.reorg;
+
+import java.util.HashMap;
+
+import org.junit.Test;
+
+import com.ibm.bi.dml.api.DMLScript.RUNTIME_PLATFORM;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixValue.CellIndex;
+import com.ibm.bi.dml.test.integration.AutomatedTestBase;
+import com.ibm.bi.dml.test.integration.TestConfiguration;
+import com.ibm.bi.dml.test.utils.TestUtils;
+
+/**
+ * Tests for CP order above the radix sort threshold (64K rows) and the parallel 
+ * sort threshold (1M rows). The order-by column has only few distinct values 
+ * (many ties), while all other columns are unique; hence, the comparison with R
+ * also checks the stability of the sort for both data and index return.
+ * 
+ */
+public class FullOrderLargeTest extends AutomatedTestBase 
+{
+	private final static String TEST_NAME = "Order";
+	private final static String TEST_DIR = "functions/reorg/";
+	private final static double eps = 1e-10;
+	
+	private final static int rows1 = 70001;   //> radix sort threshold
+	private final static int rows2 = 1100001; //> parallel sort threshold
+	private final static int cols = 3;
+	private final static int by = 2;
+	private final static double sparsity1 = 0.7;
+	private final static double sparsity2 = 0.1;
+	
+	@Override
+	public void setUp() 
+	{
+		TestUtils.clearAssertionInformation();
+		addTestConfiguration(TEST_NAME,new TestConfiguration(TEST_DIR, TEST_NAME,new String[]{"B"})); 
+	}
+	
+	@Test
+	public void testOrderDataAscDenseRadixCP() 
+	{
+		runOrderTest(rows1, false, false, false);
+	}
+
+	@Test
+	public void testOrderIndexAscDenseRadixCP() 
+	{
+		runOrderTest(rows1, false, false, true);
+	}
+
+	@Test
+	public void testOrderDataDescDenseRadixCP() 
+	{
+		runOrderTest(rows1, false, true, false);
+	}
+
+	@Test
+	public void testOrderIndexDescDenseRadixCP() 
+	{
+		runOrderTest(rows1, false, true, true);
+	}
+
+	@Test
+	public void testOrderDataAscSparseRadixCP() 
+	{
+		runOrderTest(rows1, true, false, false);
+	}
+
+	@Test
+	public void testOrderIndexAscSparseRadixCP() 
+	{
+		runOrderTest(rows1, true, false, true);
+	}
+
+	@Test
+	public void testOrderDataDescSparseRadixCP() 
+	{
+		runOrderTest(rows1, true, true, false);
+	}
+
+	@Test
+	public void testOrderIndexDescSparseRadixCP() 
+	{
+		runOrderTest(rows1, true, true, true);
+	}
+
+	@Test
+	public void testOrderDataAscDenseParCP() 
+	{
+		runOrderTest(rows2, false, false, false);
+	}
+
+	@Test
+	public void testOrderIndexAscDenseParCP() 
+	{
+		runOrderTest(rows2, false, false, true);
+	}
+
+	@Test
+	public void testOrderDataDescDenseParCP() 
+	{
+		runOrderTest(rows2, false, true, false);
+	}
+
+	@Test
+	public void testOrderIndexDescDenseParCP() 
+	{
+		runOrderTest(rows2, false, true, true);
+	}
+
+	@Test
+	public void testOrderDataAscSparseParCP() 
+	{
+		runOrderTest(rows2, true, false, false);
+	}
+
+	@Test
+	public void testOrderIndexAscSparseParCP() 
+	{
+		runOrderTest(rows2, true, false, true);
+	}
+
+	@Test
+	public void testOrderDataDescSparseParCP() 
+	{
+		runOrderTest(rows2, true, true, false);
+	}
+
+	@Test
+	public void testOrderIndexDescSparseParCP() 
+	{
+		runOrderTest(rows2, true, true, true);
+	}
+
+	/**
+	 * 
+	 * @param rows
+	 * @param sparse
+	 * @param desc
+	 * @param ixreturn
+	 */
+	private void runOrderTest( int rows, boolean sparse, boolean desc, boolean ixreturn )
+	{
+		RUNTIME_PLATFORM platformOld = rtplatform;
+		
+		try
+		{
+			rtplatform = RUNTIME_PLATFORM.SINGLE_NODE;
+			
+			TestConfiguration config = getTestConfiguration(TEST_NAME);
+			
+			String HOME = SCRIPT_DIR + TEST_DIR;
+			fullDMLScriptName = HOME + TEST_NAME + ".dml";
+			programArgs = new String[]{"-args", HOME + INPUT_DIR + "A",
+					                        Integer.toString(by),
+					                        Boolean.toString(desc).toUpperCase(),
+					                        Boolean.toString(ixreturn).toUpperCase(),
+					                        HOME + OUTPUT_DIR + "B"    };
+			fullRScriptName = HOME + TEST_NAME + ".R";
+			rCmd = "Rscript" + " " + fullRScriptName + " " + 
+			       HOME + INPUT_DIR + " " + by + " " + Boolean.toString(desc).toUpperCase() + " " + 
+				   Boolean.toString(ixreturn).toUpperCase() + " " + HOME + EXPECTED_DIR;
+			
+			loadTestConfiguration(config);
+	
+			//generate actual dataset w/ many ties in the order-by column
+			double[][] A = getRandomMatrix(rows, cols, -1, 1, sparse ? sparsity2 : sparsity1, 7); 
+			for( int i=0; i<rows; i++ )
+				A[i][by-1] = Math.round(A[i][by-1] * 4) / 4.0;
+			writeInputMatrixWithMTD("A", A, true);
+	
+			runTest(true, false, null, -1); 
+			runRScript(true); 
+		
+			//compare matrices 
+			HashMap<CellIndex, Double> dmlfile = readDMLMatrixFromHDFS("B");
+			HashMap<CellIndex, Double> rfile  = readRMatrixFromFS("B");
+			TestUtils.compareMatrices(dmlfile, rfile, eps, "Stat-DML", "Stat-R");
+		}
+		finally
+		{
+			rtplatform = platformOld;
+		}
+	}
+}
@@ -44,6 +44,8 @@ public class FullTransposeTest extends AutomatedTestBase
 	
 	private final static int rows1 = 1751;
 	private final static int cols1 = 1079;	
+	private final static int rows2 = 3517; //>1M non-zeros for multi-threaded dense and sparse
+	private final static int cols2 = 3101;
 	private final static double sparsity1 = 0.1;
 	private final static double sparsity2 = 0.7;
 	
@@ -51,6 +53,7 @@ public class FullTransposeTest extends AutomatedTestBase
 		MATRIX,
 		ROW_VECTOR,
 		COL_VECTOR,
+		LARGE_MATRIX,
 	}
 	
 	
@@ -97,6 +100,18 @@ public class FullTransposeTest extends AutomatedTestBase
 	{
 		runTransposeTest(OpType.COL_VECTOR, true, ExecType.CP);
 	}
+	
+	@Test
+	public void testTransposeLargeMatrixDenseCP() 
+	{
+		runTransposeTest(OpType.LARGE_MATRIX, false, ExecType.CP);
+	}
+	
+	@Test
+	public void testTransposeLargeMatrixSparseCP() 
+	{
+		runTransposeTest(OpType.LARGE_MATRIX, true, ExecType.CP);
+	}
 
 	/// -----------------------
 	@Test
@@ -204,6 +219,7 @@ public class FullTransposeTest extends AutomatedTestBase
 				case MATRIX: rows=rows1; cols=cols1; break;
 				case ROW_VECTOR: rows=1; cols=cols1; break;
 				case COL_VECTOR: rows=rows1; cols=1; break;
+				case LARGE_MATRIX: rows=rows2; cols=cols2; break;
 			}
 			
 			double sparsity = (sparse) ? sparsity1 : sparsity2;
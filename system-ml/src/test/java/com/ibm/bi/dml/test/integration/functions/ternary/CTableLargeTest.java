@@ -0,0 +1,212 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+
+package com.ibm.bi.dml.test.integration.functions.ternary;
+
+import java.util.HashMap;
+import java.util.Iterator;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.ibm.bi.dml.api.DMLScript.RUNTIME_PLATFORM;
+import com.ibm.bi.dml.runtime.DMLRuntimeException;
+import com.ibm.bi.dml.runtime.functionobjects.CTable;
+import com.ibm.bi.dml.runtime.matrix.data.CTableMap;
+import com.ibm.bi.dml.runtime.matrix.data.IJV;
+import com.ibm.bi.dml.runtime.matrix.data.LibMatrixCTable;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixValue.CellIndex;
+import com.ibm.bi.dml.runtime.util.DataConverter;
+import com.ibm.bi.dml.test.integration.AutomatedTestBase;
+import com.ibm.bi.dml.test.integration.TestConfiguration;
+import com.ibm.bi.dml.test.utils.TestUtils;
+
+/**
+ * Ctable tests with inputs above the multi-threading threshold of 1M cells, which 
+ * cover the multi-threaded hash aggregation, the shared sequential kernel (incl the 
+ * dense output block for known output dimensions), and a large number of distinct
+ * cells that requires repeated growing of the ctable map. Additionally, it checks 
+ * the rejection of cell indexes beyond the int range in all ctable kernels.
+ * 
+ */
+public class CTableLargeTest extends AutomatedTestBase 
+{
+	private final static String TEST_NAME = "CTableLarge";
+	private final static String TEST_DIR = "functions/ternary/";
+	private final static double eps = 1e-10;
+	
+	private final static int rows = 1200000; //>1M cells
+	private final static int maxVal = 10;
+	
+	@Override
+	public void setUp() 
+	{
+		TestUtils.clearAssertionInformation();
+		addTestConfiguration(TEST_NAME, new TestConfiguration(TEST_DIR, TEST_NAME, new String[] { "C" })); 
+	}
+
+	@Test
+	public void testCTableLargeMatrixMatrix() {
+		runCTableLargeTest(1);
+	}
+	
+	@Test
+	public void testCTableLargeMatrixMatrixWeights() {
+		runCTableLargeTest(2);
+	}
+	
+	@Test
+	public void testCTableLargeHistogram() {
+		runCTableLargeTest(3);
+	}
+	
+	@Test
+	public void testCTableLargeWeightedHistogram() {
+		runCTableLargeTest(4);
+	}
+	
+	@Test
+	public void testCTableLargeManyDistinctCells() {
+		runCTableLargeTest(5);
+	}
+	
+	@Test
+	public void testCTableLargeDenseOutputBlock() {
+		runCTableLargeTest(6);
+	}
+	
+	@Test
+	public void testCTableLargeParallelVsSequential() 
+		throws DMLRuntimeException 
+	{
+		MatrixBlock A = DataConverter.convertToMatrixBlock(createIndexVector(rows, maxVal, 7));
+		MatrixBlock B = DataConverter.convertToMatrixBlock(createIndexVector(rows, maxVal, 8));
+		MatrixBlock W = DataConverter.convertToMatrixBlock(getRandomMatrix(rows, 1, 0, 1, 1.0, 9));
+		MatrixBlock I = DataConverter.convertToMatrixBlock(createIndexVector(rows, rows/2, 10));
+		
+		//matrix-matrix-matrix, matrix-matrix-scalar, histogram, many distinct cells
+		compareCTableMaps(A, B, 0, W, 0);
+		compareCTableMaps(A, B, 0, null, 1);
+		compareCTableMaps(A, null, 1, null, 1);
+		compareCTableMaps(I, B, 0, W, 0);
+	}
+	
+	@Test
+	public void testCTableIndexOverflow() 
+	{
+		CTable ctable = CTable.getCTableFnObject();
+		double v = (double)Integer.MAX_VALUE + 1;
+		int numErrors = 0;
+		
+		try { ctable.execute(1, v, 1, false, new CTableMap()); } 
+		catch(DMLRuntimeException ex) { numErrors++; }
+		try { ctable.execute(v, 1, 1, false, new MatrixBlock(10, 10, false)); } 
+		catch(DMLRuntimeException ex) { numErrors++; }
+		try { ctable.execute(1, v, 1, 0, new MatrixBlock(10, Integer.MAX_VALUE, true)); } 
+		catch(DMLRuntimeException ex) { numErrors++; }
+		try { ctable.execute(1L, v, 1); } 
+		catch(DMLRuntimeException ex) { numErrors++; }
+		
+		Assert.assertEquals(4, numErrors);
+	}
+	
+	/**
+	 * 
+	 * @param type
+	 */
+	private void runCTableLargeTest( int type )
+	{
+		RUNTIME_PLATFORM platformOld = rtplatform;
+		rtplatform = RUNTIME_PLATFORM.SINGLE_NODE;
+		
+		try
+		{
+			TestConfiguration config = getTestConfiguration(TEST_NAME);
+			
+			String HOME = SCRIPT_DIR + TEST_DIR;
+			fullDMLScriptName = HOME + TEST_NAME + ".dml";
+			programArgs = new String[]{"-args", HOME + INPUT_DIR + "A", HOME + INPUT_DIR + "B",
+				HOME + INPUT_DIR + "W", HOME + INPUT_DIR + "I", String.valueOf(type), HOME + OUTPUT_DIR + "C"};
+			fullRScriptName = HOME + TEST_NAME + ".R";
+			rCmd = "Rscript" + " " + fullRScriptName + " " + 
+			       HOME + INPUT_DIR + " " + type + " " + HOME + EXPECTED_DIR;
+			
+			loadTestConfiguration(config);
+	
+			//generate actual datasets (positive integer indexes, random weights)
+			writeInputMatrixWithMTD("A", createIndexVector(rows, maxVal, 7), true);
+			writeInputMatrixWithMTD("B", createIndexVector(rows, maxVal, 8), true);
+			writeInputMatrixWithMTD("W", getRandomMatrix(rows, 1, 0, 1, 1.0, 9), true);
+			writeInputMatrixWithMTD("I", createIndexVector(rows, rows/2, 10), true);
+	
+			runTest(true, false, null, -1); 
+			runRScript(true); 
+			
+			//compare matrices 
+			HashMap<CellIndex, Double> dmlfile = readDMLMatrixFromHDFS("C");
+			HashMap<CellIndex, Double> rfile  = readRMatrixFromFS("C");
+			TestUtils.compareMatrices(dmlfile, rfile, eps, "Stat-DML", "Stat-R");
+		}
+		finally
+		{
+			rtplatform = platformOld;
+		}
+	}
+	
+	/**
+	 * 
+	 * @param in1
+	 * @param in2
+	 * @param s2
+	 * @param in3
+	 * @param s3
+	 * @throws DMLRuntimeException
+	 */
+	private static void compareCTableMaps(MatrixBlock in1, MatrixBlock in2, double s2, MatrixBlock in3, double s3) 
+		throws DMLRuntimeException
+	{
+		CTableMap seq = new CTableMap();
+		CTableMap par = new CTableMap();
+		LibMatrixCTable.ctable(in1, in2, s2, in3, s3, false, seq, null);
+		LibMatrixCTable.ctable(in1, in2, s2, in3, s3, false, par, 4);
+		
+		Assert.assertEquals(seq.size(), par.size());
+		Assert.assertEquals(seq.getMaxRow(), par.getMaxRow());
+		Assert.assertEquals(seq.getMaxColumn(), par.getMaxColumn());
+		Iterator<IJV> iter = seq.getIterator();
+		while( iter.hasNext() ) {
+			IJV cell = iter.next();
+			Assert.assertEquals(cell.v, par.get(cell.i, cell.j), eps);
+		}
+	}
+	
+	/**
+	 * 
+	 * @param rows
+	 * @param max
+	 * @param seed
+	 * @return
+	 */
+	private static double[][] createIndexVector( int rows, int max, long seed )
+	{
+		double[][] ret = TestUtils.generateTestMatrix(rows, 1, 1, max+1, 1.0, seed);
+		for( int i=0; i<rows; i++ )
+			ret[i][0] = Math.min(Math.floor(ret[i][0]), max);
+		return ret;
+	}
+}
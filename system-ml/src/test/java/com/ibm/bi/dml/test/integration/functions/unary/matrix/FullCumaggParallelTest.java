@@ -0,0 +1,183 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+
+package com.ibm.bi.dml.test.integration.functions.unary.matrix;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.ibm.bi.dml.runtime.DMLRuntimeException;
+import com.ibm.bi.dml.runtime.DMLUnsupportedOperationException;
+import com.ibm.bi.dml.runtime.functionobjects.Builtin;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
+import com.ibm.bi.dml.runtime.matrix.operators.UnaryOperator;
+import com.ibm.bi.dml.runtime.util.DataConverter;
+import com.ibm.bi.dml.test.integration.AutomatedTestBase;
+import com.ibm.bi.dml.test.utils.TestUtils;
+
+/**
+ * Tests the multi-threaded cumulative aggregates (above the threshold of 1M cells)
+ * against the single-threaded operations, for dense and sparse inputs. The Kahan 
+ * tests check that the cumsum corrections are carried across row partitions.
+ * 
+ */
+public class FullCumaggParallelTest extends AutomatedTestBase 
+{
+	private final static double eps = 1e-10;
+	
+	private final static int rows = 2017;
+	private final static int cols = 1001; //>1M cells
+	private final static double spSparse = 0.1;
+	private final static double spDense = 0.9;
+	private final static int k = 4;
+	
+	@Override
+	public void setUp() 
+	{
+		TestUtils.clearAssertionInformation();
+	}
+
+	@Test
+	public void testCumsumParallelDense() {
+		runCumaggParallelTest("ucumk+", false);
+	}
+	
+	@Test
+	public void testCumsumParallelSparse() {
+		runCumaggParallelTest("ucumk+", true);
+	}
+	
+	@Test
+	public void testCumprodParallelDense() {
+		runCumaggParallelTest("ucum*", false);
+	}
+	
+	@Test
+	public void testCumprodParallelSparse() {
+		runCumaggParallelTest("ucum*", true);
+	}
+	
+	@Test
+	public void testCumminParallelDense() {
+		runCumaggParallelTest("ucummin", false);
+	}
+	
+	@Test
+	public void testCumminParallelSparse() {
+		runCumaggParallelTest("ucummin", true);
+	}
+	
+	@Test
+	public void testCummaxParallelDense() {
+		runCumaggParallelTest("ucummax", false);
+	}
+	
+	@Test
+	public void testCummaxParallelSparse() {
+		runCumaggParallelTest("ucummax", true);
+	}
+	
+	@Test
+	public void testCumsumParallelKahanDense() {
+		runCumsumKahanTest(false);
+	}
+	
+	@Test
+	public void testCumsumParallelKahanSparse() {
+		runCumsumKahanTest(true);
+	}
+	
+	/**
+	 * 
+	 * @param opcode
+	 * @param sparse
+	 */
+	private void runCumaggParallelTest( String opcode, boolean sparse )
+	{
+		try
+		{
+			//values around 1 to keep cumprod in a reasonable range
+			double sparsity = sparse ? spSparse : spDense;
+			double[][] A = getRandomMatrix(rows, cols, 0.9, 1.1, sparsity, 7);
+			MatrixBlock mb = DataConverter.convertToMatrixBlock(A);
+			mb.examSparsity();
+			Assert.assertEquals(sparse, mb.isInSparseFormat());
+			
+			MatrixBlock ret1 = executeCumagg(mb, opcode, 1);
+			MatrixBlock retk = executeCumagg(mb, opcode, k);
+			
+			TestUtils.compareMatrices(DataConverter.convertToDoubleMatrix(ret1), 
+				DataConverter.convertToDoubleMatrix(retk), rows, cols, eps);
+			Assert.assertEquals(ret1.getNonZeros(), retk.getNonZeros());
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+	
+	/**
+	 * A single large value followed by many small values, where the small values are
+	 * entirely lost without Kahan corrections (1 + 1e-16 == 1). Every row partition 
+	 * except the first only sees small values, i.e., the correct result requires that 
+	 * the corrections of the offsets are carried across partitions.
+	 * 
+	 * @param sparse
+	 */
+	private void runCumsumKahanTest( boolean sparse )
+	{
+		try
+		{
+			int rows2 = 1100000; //>1M cells
+			double small = 1e-16;
+			MatrixBlock mb = new MatrixBlock(rows2, 1, sparse);
+			mb.quickSetValue(0, 0, 1);
+			for( int i=1; i<rows2; i++ ) //sparse: every 2nd row
+				if( !sparse || i%2==0 )
+					mb.quickSetValue(i, 0, small);
+			
+			MatrixBlock ret1 = executeCumagg(mb, "ucumk+", 1);
+			MatrixBlock retk = executeCumagg(mb, "ucumk+", k);
+			
+			//check against the exact result (and naive summation)
+			double expected = 1 + (sparse ? (rows2-1)/2 : rows2-1) * small;
+			Assert.assertTrue(expected > 1.0);
+			Assert.assertEquals(expected, ret1.quickGetValue(rows2-1, 0), 1e-15);
+			Assert.assertEquals(expected, retk.quickGetValue(rows2-1, 0), 1e-15);
+			for( int i=0; i<rows2; i+=1000 )
+				Assert.assertEquals(ret1.quickGetValue(i, 0), retk.quickGetValue(i, 0), 1e-15);
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+	
+	/**
+	 * 
+	 * @param in
+	 * @param opcode
+	 * @param numThreads
+	 * @return
+	 * @throws DMLRuntimeException
+	 * @throws DMLUnsupportedOperationException
+	 */
+	private static MatrixBlock executeCumagg( MatrixBlock in, String opcode, int numThreads ) 
+		throws DMLRuntimeException, DMLUnsupportedOperationException
+	{
+		UnaryOperator uop = new UnaryOperator(Builtin.getBuiltinFnObject(opcode), numThreads);
+		return (MatrixBlock) in.unaryOperations(uop, new MatrixBlock());
+	}
+}
@@ -0,0 +1,285 @@
+/**
+ * (C) Copyright IBM Corp. 2010, 2015
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+
+package com.ibm.bi.dml.test.integration.functions.unary.matrix;
+
+import java.util.HashMap;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.ibm.bi.dml.api.DMLScript.RUNTIME_PLATFORM;
+import com.ibm.bi.dml.lops.Lop;
+import com.ibm.bi.dml.runtime.DMLRuntimeException;
+import com.ibm.bi.dml.runtime.DMLUnsupportedOperationException;
+import com.ibm.bi.dml.runtime.functionobjects.Builtin;
+import com.ibm.bi.dml.runtime.instructions.CPInstructionParser;
+import com.ibm.bi.dml.runtime.instructions.cp.CPInstruction;
+import com.ibm.bi.dml.runtime.instructions.cp.MatrixBuiltinCPInstruction;
+import com.ibm.bi.dml.runtime.instructions.cp.MatrixScalarBuiltinCPInstruction;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixBlock;
+import com.ibm.bi.dml.runtime.matrix.data.MatrixValue.CellIndex;
+import com.ibm.bi.dml.runtime.matrix.operators.UnaryOperator;
+import com.ibm.bi.dml.runtime.util.DataConverter;
+import com.ibm.bi.dml.test.integration.AutomatedTestBase;
+import com.ibm.bi.dml.test.integration.TestConfiguration;
+import com.ibm.bi.dml.test.utils.TestUtils;
+
+/**
+ * Tests the multi-threaded cell-wise unary builtins (above the threshold of 1M cells)
+ * against the single-threaded operations, for dense and sparse inputs and sparse-safe
+ * and sparse-unsafe operations. Since unary instructions now carry an optional degree
+ * of parallelism, we also check that log(X, base) is still parsed as binary builtin.
+ * 
+ */
+public class FullUnaryParallelTest extends AutomatedTestBase 
+{
+	private final static String TEST_NAME = "LogBase";
+	private final static String TEST_DIR = "functions/unary/matrix/";
+	
+	private final static double eps = 1e-10;
+	
+	private final static int rows = 1201;
+	private final static int cols = 1103; //>1M cells
+	private final static double spSparse = 0.1;
+	private final static double spDense = 0.9;
+	private final static int k = 4;
+	
+	@Override
+	public void setUp() 
+	{
+		TestUtils.clearAssertionInformation();
+		addTestConfiguration(TEST_NAME, new TestConfiguration(TEST_DIR, TEST_NAME, new String[]{"B","C"})); 
+	}
+
+	@Test
+	public void testSqrtParallelDense() {
+		runUnaryParallelTest("sqrt", false);
+	}
+	
+	@Test
+	public void testSqrtParallelSparse() {
+		runUnaryParallelTest("sqrt", true);
+	}
+	
+	@Test
+	public void testRoundParallelDense() {
+		runUnaryParallelTest("round", false);
+	}
+	
+	@Test
+	public void testRoundParallelSparse() {
+		runUnaryParallelTest("round", true);
+	}
+	
+	@Test
+	public void testExpParallelDense() {
+		runUnaryParallelTest("exp", false);
+	}
+	
+	@Test
+	public void testExpParallelSparse() {
+		runUnaryParallelTest("exp", true);
+	}
+	
+	@Test
+	public void testSigmoidParallelDense() {
+		runUnaryParallelTest("sigmoid", false);
+	}
+	
+	@Test
+	public void testSigmoidParallelSparse() {
+		runUnaryParallelTest("sigmoid", true);
+	}
+	
+	@Test
+	public void testCosParallelDense() {
+		runUnaryParallelTest("cos", false);
+	}
+	
+	@Test
+	public void testCosParallelSparse() {
+		runUnaryParallelTest("cos", true);
+	}
+	
+	@Test
+	public void testParseLogUnaryWithThreads() 
+		throws DMLUnsupportedOperationException, DMLRuntimeException 
+	{
+		// B = log(A) w/ degree of parallelism
+		String str = createInstruction("log", createOperand("A", "MATRIX"), 
+				createOperand("B", "MATRIX"), String.valueOf(k));
+		CPInstruction inst = CPInstructionParser.parseSingleInstruction(str);
+		Assert.assertTrue(inst instanceof MatrixBuiltinCPInstruction);
+	}
+	
+	@Test
+	public void testParseLogBinaryLiteralBase() 
+		throws DMLUnsupportedOperationException, DMLRuntimeException 
+	{
+		// B = log(A, 10)
+		String str = createInstruction("log", createOperand("A", "MATRIX"), 
+				createOperand("10", "SCALAR") + Lop.LITERAL_PREFIX + "true", createOperand("B", "MATRIX"));
+		CPInstruction inst = CPInstructionParser.parseSingleInstruction(str);
+		Assert.assertTrue(inst instanceof MatrixScalarBuiltinCPInstruction);
+	}
+	
+	@Test
+	public void testParseLogBinaryVariableBase() 
+		throws DMLUnsupportedOperationException, DMLRuntimeException 
+	{
+		// B = log(A, b)
+		String str = createInstruction("log", createOperand("A", "MATRIX"), 
+				createOperand("b", "SCALAR") + Lop.LITERAL_PREFIX + "false", createOperand("B", "MATRIX"));
+		CPInstruction inst = CPInstructionParser.parseSingleInstruction(str);
+		Assert.assertTrue(inst instanceof MatrixScalarBuiltinCPInstruction);
+	}
+	
+	@Test
+	public void testLogBase2Large() {
+		runLogBaseTest(2);
+	}
+	
+	@Test
+	public void testLogBase10Large() {
+		runLogBaseTest(10);
+	}
+	
+	/**
+	 * 
+	 * @param opcode
+	 * @param sparse
+	 */
+	private void runUnaryParallelTest( String opcode, boolean sparse )
+	{
+		try
+		{
+			double sparsity = sparse ? spSparse : spDense;
+			double[][] A = getRandomMatrix(rows, cols, 0, 10, sparsity, 7);
+			MatrixBlock mb = DataConverter.convertToMatrixBlock(A);
+			mb.examSparsity();
+			Assert.assertEquals(sparse, mb.isInSparseFormat());
+			
+			//unary operations w/ new output
+			MatrixBlock ret1 = executeUnary(mb, opcode, 1);
+			MatrixBlock retk = executeUnary(mb, opcode, k);
+			Assert.assertEquals(ret1.getNonZeros(), retk.getNonZeros());
+			TestUtils.compareMatrices(DataConverter.convertToDoubleMatrix(ret1), 
+				DataConverter.convertToDoubleMatrix(retk), rows, cols, eps);
+			
+			//unary operations in-place
+			MatrixBlock in1 = DataConverter.convertToMatrixBlock(A);
+			MatrixBlock ink = DataConverter.convertToMatrixBlock(A);
+			in1.examSparsity(); ink.examSparsity();
+			in1.unaryOperationsInPlace(new UnaryOperator(Builtin.getBuiltinFnObject(opcode), 1));
+			ink.unaryOperationsInPlace(new UnaryOperator(Builtin.getBuiltinFnObject(opcode), k));
+			Assert.assertEquals(in1.getNonZeros(), ink.getNonZeros());
+			TestUtils.compareMatrices(DataConverter.convertToDoubleMatrix(ret1), 
+				DataConverter.convertToDoubleMatrix(ink), rows, cols, eps);
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+	
+	/**
+	 * 
+	 * @param base
+	 */
+	private void runLogBaseTest( int base )
+	{
+		RUNTIME_PLATFORM platformOld = rtplatform;
+		rtplatform = RUNTIME_PLATFORM.SINGLE_NODE;
+		
+		try
+		{
+			TestConfiguration config = getTestConfiguration(TEST_NAME);
+			
+			String HOME = SCRIPT_DIR + TEST_DIR;
+			fullDMLScriptName = HOME + TEST_NAME + ".dml";
+			programArgs = new String[]{"-args", HOME + INPUT_DIR + "A", String.valueOf(base),
+				HOME + OUTPUT_DIR + "B", HOME + OUTPUT_DIR + "C"};
+			fullRScriptName = HOME + TEST_NAME + ".R";
+			rCmd = "Rscript" + " " + fullRScriptName + " " + 
+			       HOME + INPUT_DIR + " " + base + " " + HOME + EXPECTED_DIR;
+			
+			loadTestConfiguration(config);
+	
+			//generate actual dataset (strictly positive values)
+			double[][] A = getRandomMatrix(rows, cols, 1, 10, 1.0, 7); 
+			writeInputMatrixWithMTD("A", A, true);
+	
+			runTest(true, false, null, -1); 
+			runRScript(true); 
+			
+			//compare matrices 
+			for( String name : new String[]{"B","C"} ) {
+				HashMap<CellIndex, Double> dmlfile = readDMLMatrixFromHDFS(name);
+				HashMap<CellIndex, Double> rfile  = readRMatrixFromFS(name);
+				TestUtils.compareMatrices(dmlfile, rfile, eps, "Stat-DML", "Stat-R");
+			}
+		}
+		finally
+		{
+			rtplatform = platformOld;
+		}
+	}
+	
+	/**
+	 * 
+	 * @param in
+	 * @param opcode
+	 * @param numThreads
+	 * @return
+	 * @throws DMLRuntimeException
+	 * @throws DMLUnsupportedOperationException
+	 */
+	private static MatrixBlock executeUnary( MatrixBlock in, String opcode, int numThreads ) 
+		throws DMLRuntimeException, DMLUnsupportedOperationException
+	{
+		UnaryOperator uop = new UnaryOperator(Builtin.getBuiltinFnObject(opcode), numThreads);
+		return (MatrixBlock) in.unaryOperations(uop, new MatrixBlock());
+	}
+	
+	/**
+	 * 
+	 * @param name
+	 * @param dt
+	 * @return
+	 */
+	private static String createOperand( String name, String dt ) {
+		return name + Lop.DATATYPE_PREFIX + dt + Lop.VALUETYPE_PREFIX + "DOUBLE";
+	}
+	
+	/**
+	 * 
+	 * @param opcode
+	 * @param operands
+	 * @return
+	 */
+	private static String createInstruction( String opcode, String... operands ) {
+		StringBuilder sb = new StringBuilder();
+		sb.append("CP");
+		sb.append(Lop.OPERAND_DELIMITOR);
+		sb.append(opcode);
+		for( String op : operands ) {
+			sb.append(Lop.OPERAND_DELIMITOR);
+			sb.append(op);
+		}
+		return sb.toString();
+	}
+}
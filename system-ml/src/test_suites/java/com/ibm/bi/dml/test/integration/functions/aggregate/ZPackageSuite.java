@@ -39,7 +39,8 @@ import org.junit.runners.Suite;
 	FullAggregateTest.class,
 	FullColAggregateTest.class,
 	FullGroupedAggregateTest.class,
-	FullRowAggregateTest.class
+	FullRowAggregateTest.class,
+	SingleBlockAggregationDepthTest.class
 })
 
 
@@ -38,6 +38,7 @@ import org.junit.runners.Suite;
 	ElementwiseSubtractionTest.class,
 	
 	MapMultChainTest.class,
+	MapMultBroadcastChunkingTest.class,
 	MapMultLimitTest.class,
 	MatrixMultiplicationTest.class,
 	MatrixVectorTest.class,
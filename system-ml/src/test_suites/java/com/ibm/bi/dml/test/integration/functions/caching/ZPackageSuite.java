@@ -24,7 +24,11 @@ import org.junit.runners.Suite;
  *  won't run two of them at once. */
 @RunWith(Suite.class)
 @Suite.SuiteClasses({
-	CachingPWriteExportTest.class
+	CachingPWriteExportTest.class,
+	ArrayPoolTest.class,
+	LazyWriteBufferTest.class,
+	LineageReuseTest.class,
+	MappedSpillStoreTest.class
 })
 
 
@@ -24,7 +24,12 @@ import org.junit.runners.Suite;
  *  won't run two of them at once. */
 @RunWith(Suite.class)
 @Suite.SuiteClasses({
-	SerializeTest.class
+	SerializeTest.class,
+	CollectBatchTest.class,
+	CompactCheckpointTest.class,
+	KryoSerializeTest.class,
+	ParallelBinaryBlockWriteTest.class,
+	ParallelBinaryCellReadTest.class
 })
 
 
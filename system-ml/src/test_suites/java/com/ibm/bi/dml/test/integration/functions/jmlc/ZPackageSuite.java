@@ -24,7 +24,9 @@ import org.junit.runners.Suite;
  *  won't run two of them at once. */
 @RunWith(Suite.class)
 @Suite.SuiteClasses({
-	SystemTMulticlassSVMScoreTest.class
+	SystemTMulticlassSVMScoreTest.class,
+	JMLCConcurrentExecutionTest.class,
+	JMLCInMemoryReadTest.class
 })
 
 
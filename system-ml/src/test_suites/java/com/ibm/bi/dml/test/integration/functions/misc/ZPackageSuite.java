@@ -44,7 +44,8 @@ import org.junit.runners.Suite;
 	ScalarFunctionTest.class,
 	SetWorkingDirTest.class,
 	ValueTypeAutoCastingTest.class,
-	ValueTypeCastingTest.class
+	ValueTypeCastingTest.class,
+	CommonThreadPoolTest.class
 })
 
 
@@ -27,6 +27,7 @@ import org.junit.runners.Suite;
 	DiagV2MTest.class,
 	FullTransposeTest.class,
 	FullOrderTest.class,
+	FullOrderLargeTest.class,
 	
 	MatrixReshapeTest.class
 })
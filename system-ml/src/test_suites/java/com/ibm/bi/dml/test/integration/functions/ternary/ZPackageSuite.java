@@ -26,6 +26,7 @@ import org.junit.runners.Suite;
 @Suite.SuiteClasses({
 	CentralMomentWeightsTest.class,
 	CovarianceWeightsTest.class,
+	CTableLargeTest.class,
 	CTableMatrixIgnoreZerosTest.class,
 	CTableSequenceTest.class,
 	QuantileWeightsTest.class,
@@ -49,7 +49,9 @@ import org.junit.runners.Suite;
 	FullCummaxTest.class,
 	FullCumprodTest.class,
 	FullCumsumTest.class,
+	FullCumaggParallelTest.class,
 	FullSelectPosTest.class,
+	FullUnaryParallelTest.class,
 	LUFactorizeTest.class,
 	RemoveEmptyTest.class,
 	MLUnaryBuiltinTest.class